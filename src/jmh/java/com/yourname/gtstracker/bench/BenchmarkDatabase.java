@@ -0,0 +1,85 @@
+package com.yourname.gtstracker.bench;
+
+import com.yourname.gtstracker.database.BatchUpsertResult;
+import com.yourname.gtstracker.database.DatabaseManager;
+import com.yourname.gtstracker.database.models.ListingData;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Pre-populated SQLite files for benchmarks. Fixtures are generated once per listing count under
+ * {@code -Dgtstracker.bench.dir} (default {@code build/jmh-fixtures}) and reused by later runs.
+ */
+final class BenchmarkDatabase {
+    static final long FIXTURE_END_MS = 1_700_000_000_000L;
+    private static final long SEED = 20_240_901L;
+    private static final int LOAD_BATCH_SIZE = 1_000;
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Opens the shared read-mostly fixture for {@code listingCount} listings, creating it if needed.
+     */
+    static DatabaseManager openFixture(int listingCount) {
+        return open(fixture(listingCount));
+    }
+
+    /**
+     * Opens a private copy of the fixture that a benchmark may write to; the copy is deleted on JVM exit.
+     */
+    static DatabaseManager openScratchCopy(int listingCount) {
+        try {
+            Path source = fixture(listingCount);
+            Path copy = Files.createTempFile(source.getParent(), "scratch-" + listingCount + "-", ".sqlite");
+            Files.copy(source, copy, StandardCopyOption.REPLACE_EXISTING);
+            copy.toFile().deleteOnExit();
+            return open(copy);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to copy benchmark fixture", e);
+        }
+    }
+
+    private static synchronized Path fixture(int listingCount) {
+        Path dir = Paths.get(System.getProperty("gtstracker.bench.dir", "build/jmh-fixtures"));
+        Path file = dir.resolve("gts-bench-" + listingCount + ".sqlite");
+        if (Files.exists(file)) {
+            return file;
+        }
+
+        try {
+            Files.createDirectories(dir);
+            Path partial = dir.resolve(file.getFileName() + ".partial");
+            Files.deleteIfExists(partial);
+            DatabaseManager databaseManager = open(partial);
+            try {
+                ListingData[] listings = SyntheticGtsCorpus.listings(listingCount, SEED, FIXTURE_END_MS);
+                for (int from = 0; from < listings.length; from += LOAD_BATCH_SIZE) {
+                    int to = Math.min(listings.length, from + LOAD_BATCH_SIZE);
+                    BatchUpsertResult result = databaseManager.upsertListings(Arrays.asList(listings).subList(from, to));
+                    if (result.hasFailures()) {
+                        throw new IllegalStateException("Failed to load benchmark fixture: " + result.failures().get(0));
+                    }
+                }
+            } finally {
+                databaseManager.close();
+            }
+            Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create benchmark fixture " + file, e);
+        }
+    }
+
+    private static DatabaseManager open(Path file) {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + file.toAbsolutePath());
+        databaseManager.initialize();
+        return databaseManager;
+    }
+}
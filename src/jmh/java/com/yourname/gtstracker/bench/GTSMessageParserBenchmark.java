@@ -0,0 +1,73 @@
+package com.yourname.gtstracker.bench;
+
+import com.yourname.gtstracker.chat.GTSMessageParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Compares the single-pass {@link GTSMessageParser} tokenizer with the regex parser it replaced.
+ * Each invocation parses one line from a fixed set of synthetic lines.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GTSMessageParserBenchmark {
+    /** {@code mixed} draws from {@link SyntheticGtsCorpus#chatLines} with 30% non-listing chatter. */
+    @Param({"pokemon", "item", "mixed"})
+    public String shape;
+
+    private String[] lines;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(7);
+        lines = switch (shape) {
+            case "pokemon" -> generate(random, SyntheticGtsCorpus::pokemonLine);
+            case "item" -> generate(random, SyntheticGtsCorpus::itemLine);
+            default -> SyntheticGtsCorpus.chatLines(1024, 30, 7);
+        };
+    }
+
+    @Benchmark
+    public void tokenizer(Blackhole blackhole) {
+        blackhole.consume(GTSMessageParser.parse(next()));
+    }
+
+    @Benchmark
+    public void regex(Blackhole blackhole) {
+        blackhole.consume(RegexGTSMessageParser.parse(next()));
+    }
+
+    private String next() {
+        String line = lines[cursor];
+        cursor = (cursor + 1) & (lines.length - 1);
+        return line;
+    }
+
+    private static String[] generate(Random random, Function<Random, String> line) {
+        String[] generated = new String[1024];
+        for (int i = 0; i < generated.length; i++) {
+            generated[i] = line.apply(random);
+        }
+        return generated;
+    }
+}
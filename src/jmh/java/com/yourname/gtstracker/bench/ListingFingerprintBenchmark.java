@@ -0,0 +1,46 @@
+package com.yourname.gtstracker.bench;
+
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.util.ListingFingerprint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of deriving a listing id from its identifying fields.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListingFingerprintBenchmark {
+    private ListingData[] listings;
+    private Instant seenAt;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        listings = SyntheticGtsCorpus.listings(1024, 11, BenchmarkDatabase.FIXTURE_END_MS);
+        seenAt = Instant.ofEpochMilli(BenchmarkDatabase.FIXTURE_END_MS);
+    }
+
+    @Benchmark
+    public String build() {
+        ListingData listing = listings[cursor];
+        cursor = (cursor + 1) & (listings.length - 1);
+        return ListingFingerprint.build(listing, seenAt);
+    }
+}
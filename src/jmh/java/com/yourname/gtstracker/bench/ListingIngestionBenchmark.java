@@ -0,0 +1,85 @@
+package com.yourname.gtstracker.bench;
+
+import com.yourname.gtstracker.database.BatchUpsertResult;
+import com.yourname.gtstracker.database.DatabaseManager;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.ingest.ListingIngestionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-path throughput against a private copy of a pre-populated database: single-row upserts, 64-row batches and
+ * the full synchronous chat ingestion path (pre-filter, parse, fingerprint, in-memory stages, upsert).
+ * After the first pass over the listing pool, upserts exercise the update path as re-observed listings do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListingIngestionBenchmark {
+    private static final int POOL_SIZE = 4096;
+    private static final int BATCH_SIZE = 64;
+
+    /** Rows already in the database before measurement. */
+    @Param({"10000", "100000"})
+    public int listingCount;
+
+    private DatabaseManager databaseManager;
+    private ListingIngestionService ingestionService;
+    private List<ListingData> pool;
+    private String[] chatLines;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        databaseManager = BenchmarkDatabase.openScratchCopy(listingCount);
+        ingestionService = new ListingIngestionService(databaseManager);
+        pool = Arrays.asList(SyntheticGtsCorpus.listings(POOL_SIZE, 99, BenchmarkDatabase.FIXTURE_END_MS + 3_600_000L));
+        chatLines = SyntheticGtsCorpus.chatLines(POOL_SIZE, 30, 99);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ingestionService.close();
+        databaseManager.close();
+    }
+
+    @Benchmark
+    public void upsertListing() {
+        databaseManager.upsertListing(pool.get(cursor));
+        cursor = (cursor + 1) & (POOL_SIZE - 1);
+    }
+
+    /** Reported per batch; divide by 64 for per-row cost. */
+    @Benchmark
+    public BatchUpsertResult upsertBatch() {
+        BatchUpsertResult result = databaseManager.upsertListings(pool.subList(cursor, cursor + BATCH_SIZE));
+        cursor = (cursor + BATCH_SIZE) & (POOL_SIZE - 1);
+        return result;
+    }
+
+    @Benchmark
+    public Optional<ListingData> ingestChatLine() {
+        Optional<ListingData> listing = ingestionService.ingestChatMessage(chatLines[cursor]);
+        cursor = (cursor + 1) & (POOL_SIZE - 1);
+        return listing;
+    }
+}
@@ -0,0 +1,63 @@
+package com.yourname.gtstracker.bench;
+
+import com.yourname.gtstracker.data.DatabaseListingSnapshotProvider;
+import com.yourname.gtstracker.data.IncrementalListingSnapshotProvider;
+import com.yourname.gtstracker.data.ListingSnapshot;
+import com.yourname.gtstracker.database.DatabaseManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GUI snapshot cost over a pre-populated database: the query-everything provider versus the incremental provider
+ * in steady state (nothing changed since the previous refresh).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListingSnapshotBenchmark {
+    @Param({"10000", "100000"})
+    public int listingCount;
+
+    private DatabaseManager databaseManager;
+    private DatabaseListingSnapshotProvider fullProvider;
+    private IncrementalListingSnapshotProvider incrementalProvider;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        databaseManager = BenchmarkDatabase.openFixture(listingCount);
+        fullProvider = new DatabaseListingSnapshotProvider(databaseManager);
+        incrementalProvider = new IncrementalListingSnapshotProvider(databaseManager);
+        incrementalProvider.fetchSnapshot();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        databaseManager.close();
+    }
+
+    @Benchmark
+    public ListingSnapshot fullSnapshot() {
+        return fullProvider.fetchSnapshot();
+    }
+
+    @Benchmark
+    public ListingSnapshot incrementalSnapshot() {
+        return incrementalProvider.fetchSnapshot();
+    }
+}
@@ -0,0 +1,117 @@
+package com.yourname.gtstracker.bench;
+
+import com.yourname.gtstracker.database.models.DataSource;
+import com.yourname.gtstracker.database.models.IVStats;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.ListingStatus;
+import com.yourname.gtstracker.database.models.PokemonListing;
+import com.yourname.gtstracker.util.ListingFingerprint;
+
+import java.time.Instant;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic GTS traffic for benchmarks: chat lines in the shapes the server broadcasts, ordinary
+ * player chat and near-miss lines, plus listing objects shaped like parsed chat.
+ */
+final class SyntheticGtsCorpus {
+    private static final String[] SPECIES = {
+        "Pikachu", "Gengar", "Mr-Mime", "Tapu Koko", "Metagross", "Eevee", "Garchomp", "Dragonite",
+        "Lucario", "Snorlax", "Ditto", "Gardevoir", "Tyranitar", "Magikarp", "Rotom", "Zoroark"
+    };
+    private static final String[] ITEMS = {
+        "Master Ball", "Rare Candy", "Exp. Share", "Ability Capsule", "Leftovers", "Choice Scarf",
+        "Life Orb", "Bottle Cap", "Gold Bottle Cap", "PP Up", "Focus Sash", "Lucky Egg"
+    };
+    private static final String[] SELLERS = {"Ash", "Misty", "Brock", "Gary_Oak", "Red", "Blue", "Dawn", "Cynthia"};
+    private static final String[] CHATTER = {
+        "<Steve> anyone selling a master ball?",
+        "[Server] Restart in 10 minutes",
+        "<Alex> lf trade, have shiny eevee",
+        "[Jobs] You earned $120 for mining",
+        "<Notch> gg",
+        "[Discord] <bob> who listed the gengar lol"
+    };
+
+    private SyntheticGtsCorpus() {
+    }
+
+    /**
+     * Chat lines where roughly {@code noisePercent}% are not GTS listings; the rest split 60/40 between Pokémon and
+     * items, with a small share of malformed listings.
+     */
+    static String[] chatLines(int count, int noisePercent, long seed) {
+        Random random = new Random(seed);
+        String[] lines = new String[count];
+        for (int i = 0; i < count; i++) {
+            int roll = random.nextInt(100);
+            if (roll < noisePercent) {
+                lines[i] = pick(random, CHATTER);
+            } else if (random.nextInt(50) == 0) {
+                lines[i] = "[GTS] " + pick(random, SELLERS) + " listed " + pick(random, SPECIES) + " Lvabc for $15k";
+            } else if (random.nextInt(10) < 6) {
+                lines[i] = pokemonLine(random);
+            } else {
+                lines[i] = itemLine(random);
+            }
+        }
+        return lines;
+    }
+
+    static String pokemonLine(Random random) {
+        return "[GTS] " + pick(random, SELLERS) + " listed " + (random.nextInt(8) == 0 ? "Shiny " : "")
+            + pick(random, SPECIES) + " Lv" + (1 + random.nextInt(100)) + " for $" + String.format("%,d", price(random));
+    }
+
+    static String itemLine(Random random) {
+        return "[GTS] " + pick(random, SELLERS) + " listed " + (1 + random.nextInt(64)) + "x " + pick(random, ITEMS)
+            + " for $" + String.format("%,d", price(random) / 10);
+    }
+
+    /**
+     * Active, chat-sourced listings with fingerprint ids, spread one second apart ending at {@code endMs}.
+     */
+    static ListingData[] listings(int count, long seed, long endMs) {
+        Random random = new Random(seed);
+        ListingData[] listings = new ListingData[count];
+        for (int i = 0; i < count; i++) {
+            long seenAt = endMs - (long) (count - i) * 1_000L;
+            ListingData listing;
+            if (random.nextInt(10) < 6) {
+                PokemonListing pokemon = new PokemonListing();
+                pokemon.setSpecies(pick(random, SPECIES));
+                pokemon.setShiny(random.nextInt(8) == 0);
+                pokemon.setLevel(1 + random.nextInt(100));
+                if (random.nextBoolean()) {
+                    pokemon.setIvs(new IVStats(random.nextInt(32), random.nextInt(32), random.nextInt(32),
+                        random.nextInt(32), random.nextInt(32), random.nextInt(32)));
+                }
+                listing = pokemon;
+            } else {
+                ItemListing item = new ItemListing();
+                item.setItemName(pick(random, ITEMS));
+                item.setQuantity(1 + random.nextInt(64));
+                listing = item;
+            }
+            listing.setSeller(pick(random, SELLERS) + random.nextInt(1_000));
+            listing.setPrice(price(random));
+            listing.setStatus(ListingStatus.ACTIVE);
+            listing.setSourceFirst(DataSource.CHAT);
+            listing.setSourceLast(DataSource.CHAT);
+            listing.setFirstSeen(seenAt);
+            listing.setLastSeen(seenAt);
+            listing.setId(ListingFingerprint.build(listing, Instant.ofEpochMilli(seenAt)) + "-" + i);
+            listings[i] = listing;
+        }
+        return listings;
+    }
+
+    private static int price(Random random) {
+        return 100 + (int) Math.min(5_000_000, Math.abs(random.nextGaussian()) * 60_000);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -6,14 +6,15 @@ import com.yourname.gtstracker.config.ConfigManager;
 import com.yourname.gtstracker.config.ConfigModel;
 import com.yourname.gtstracker.database.DatabaseManager;
 import com.yourname.gtstracker.ingest.ListingIngestionService;
+import com.yourname.gtstracker.scan.GTSScreenScanner;
 import com.yourname.gtstracker.ui.CommandHandler;
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.loader.api.FabricLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.function.BiFunction;
-import java.util.function.Function;
 import java.util.function.Supplier;
 
 public final class GTSTrackerMod implements ClientModInitializer {
@@ -24,8 +25,9 @@ public final class GTSTrackerMod implements ClientModInitializer {
 
     private final Supplier<ConfigModel> configLoader;
     private final Supplier<DatabaseManager> databaseManagerFactory;
-    private final Function<DatabaseManager, ListingIngestionService> ingestionServiceFactory;
+    private final BiFunction<DatabaseManager, ConfigModel, ListingIngestionService> ingestionServiceFactory;
     private final BiFunction<ListingIngestionService, ConfigModel, GTSChatMonitor> chatMonitorFactory;
+    private final BiFunction<ListingIngestionService, ConfigModel, GTSScreenScanner> screenScannerFactory;
     private final Runnable compatibilityLogger;
     private final Runnable commandRegistrar;
     private final StartupLogger startupLogger;
@@ -34,6 +36,7 @@ public final class GTSTrackerMod implements ClientModInitializer {
     private DatabaseManager databaseManager;
     private ListingIngestionService ingestionService;
     private GTSChatMonitor chatMonitor;
+    private GTSScreenScanner screenScanner;
 
     interface StartupLogger {
         void startupBegin();
@@ -64,8 +67,9 @@ public final class GTSTrackerMod implements ClientModInitializer {
         this(
             ConfigManager::load,
             DatabaseManager::new,
-            ListingIngestionService::new,
+            ListingIngestionService::withWriteBehind,
             GTSChatMonitor::new,
+            GTSScreenScanner::new,
             CompatibilityReporter::logStartupCompatibility,
             CommandHandler::register,
             new DefaultStartupLogger()
@@ -75,8 +79,9 @@ public final class GTSTrackerMod implements ClientModInitializer {
     GTSTrackerMod(
         Supplier<ConfigModel> configLoader,
         Supplier<DatabaseManager> databaseManagerFactory,
-        Function<DatabaseManager, ListingIngestionService> ingestionServiceFactory,
+        BiFunction<DatabaseManager, ConfigModel, ListingIngestionService> ingestionServiceFactory,
         BiFunction<ListingIngestionService, ConfigModel, GTSChatMonitor> chatMonitorFactory,
+        BiFunction<ListingIngestionService, ConfigModel, GTSScreenScanner> screenScannerFactory,
         Runnable compatibilityLogger,
         Runnable commandRegistrar,
         StartupLogger startupLogger
@@ -85,6 +90,7 @@ public final class GTSTrackerMod implements ClientModInitializer {
         this.databaseManagerFactory = databaseManagerFactory;
         this.ingestionServiceFactory = ingestionServiceFactory;
         this.chatMonitorFactory = chatMonitorFactory;
+        this.screenScannerFactory = screenScannerFactory;
         this.compatibilityLogger = compatibilityLogger;
         this.commandRegistrar = commandRegistrar;
         this.startupLogger = startupLogger;
@@ -106,6 +112,27 @@ public final class GTSTrackerMod implements ClientModInitializer {
         return ingestionService;
     }
 
+    /**
+     * Flushes queued listing writes and releases the database connection. If the writer is still flushing when the
+     * wait times out, the connection is left open for it rather than closed underneath an in-flight batch.
+     */
+    public void shutdown() {
+        if (ingestionService != null) {
+            try {
+                ingestionService.close();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Failed to flush listing ingestion during shutdown.", e);
+            }
+            if (ingestionService.isWriterRunning()) {
+                LOGGER.warn("Listing writer is still running; leaving the database open.");
+                return;
+            }
+        }
+        if (databaseManager != null) {
+            databaseManager.close();
+        }
+    }
+
     @Override
     public void onInitializeClient() {
         instance = this;
@@ -116,16 +143,19 @@ public final class GTSTrackerMod implements ClientModInitializer {
 
             this.databaseManager = databaseManagerFactory.get();
             this.databaseManager.initialize();
-            if (this.databaseManager.getConnection() == null) {
+            if (!this.databaseManager.isInitialized()) {
                 throw new IllegalStateException("Database initialization did not produce a connection.");
             }
 
-            this.ingestionService = ingestionServiceFactory.apply(this.databaseManager);
+            this.ingestionService = ingestionServiceFactory.apply(this.databaseManager, this.config);
             this.chatMonitor = chatMonitorFactory.apply(this.ingestionService, this.config);
             this.chatMonitor.register();
+            this.screenScanner = screenScannerFactory.apply(this.ingestionService, this.config);
+            this.screenScanner.register();
 
             compatibilityLogger.run();
             commandRegistrar.run();
+            ClientLifecycleEvents.CLIENT_STOPPING.register(client -> shutdown());
             LOGGER.info(
                 "Cobblemon GTS Tracker initialized. Environment: mc={}, fabric-loader={}, cobblemonLoaded={}.",
                 FabricLoader.getInstance().getModContainer("minecraft").map(c -> c.getMetadata().getVersion().getFriendlyString()).orElse("unknown"),
@@ -0,0 +1,18 @@
+package com.yourname.gtstracker.analytics;
+
+import com.yourname.gtstracker.database.models.ListingData;
+
+/**
+ * A listing whose price deviates from the rolling average for its search key by more than a configured threshold.
+ *
+ * @param percentDiff signed difference from {@code baselineAverage}, in percent
+ */
+public record DealAlert(Kind kind, ListingData listing, double baselineAverage, double percentDiff) {
+
+    public enum Kind {
+        /** Priced at least {@code alertThresholdPercent} below the average. */
+        UNDERPRICED,
+        /** Priced at least {@code spikeThresholdPercent} above the average. */
+        SPIKE
+    }
+}
@@ -0,0 +1,6 @@
+package com.yourname.gtstracker.analytics;
+
+@FunctionalInterface
+public interface DealAlertListener {
+    void onDealAlert(DealAlert alert);
+}
@@ -0,0 +1,110 @@
+package com.yourname.gtstracker.analytics;
+
+import com.yourname.gtstracker.config.ConfigModel;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.ingest.ListingChangeBus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ingestion stage that compares each new listing's unit price with the rolling average for its search key and
+ * raises {@link DealAlert}s on the calling thread, so alerts surface in the same tick the chat line arrived.
+ * <p>
+ * The baseline is {@link PriceStatsEngine}'s decayed average as of the listing's last-seen time, read before the
+ * listing is recorded so a listing never moves its own baseline. Evaluation is a couple of hash lookups and never
+ * queries the database. Thresholds are read from the config on every evaluation, so edits take effect without a
+ * restart.
+ */
+public final class DealAlertStage {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DealAlertStage.class);
+
+    private final PriceStatsEngine priceStatsEngine;
+    private final ConfigModel config;
+    private final List<DealAlertListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong evaluations = new AtomicLong();
+    private final AtomicLong alertsRaised = new AtomicLong();
+    private final AtomicLong totalEvaluationNanos = new AtomicLong();
+    private final AtomicLong maxEvaluationNanos = new AtomicLong();
+
+    public DealAlertStage(PriceStatsEngine priceStatsEngine, ConfigModel config) {
+        this.priceStatsEngine = priceStatsEngine;
+        this.config = config;
+    }
+
+    /**
+     * @return a handle that removes the listener when closed
+     */
+    public ListingChangeBus.Subscription subscribe(DealAlertListener listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * Evaluates the listing against its baseline, then records it into the price statistics.
+     * Re-observations of a listing at the price it was recorded at never alert; a reprice is evaluated afresh.
+     *
+     * @return the alert that was raised, or {@code null}
+     */
+    public DealAlert process(ListingData listing) {
+        long started = System.nanoTime();
+        DealAlert alert = null;
+        try {
+            double baseline = priceStatsEngine.getBaselineAverage(
+                listing, Math.max(1, config.minSamplesForAverage), listing.getLastSeen());
+            if (priceStatsEngine.record(listing) && !Double.isNaN(baseline) && baseline > 0) {
+                double percentDiff = ((PriceStatsEngine.unitPrice(listing) - baseline) / baseline) * 100.0;
+                if (percentDiff <= -config.alertThresholdPercent) {
+                    alert = new DealAlert(DealAlert.Kind.UNDERPRICED, listing, baseline, percentDiff);
+                } else if (percentDiff >= config.spikeThresholdPercent) {
+                    alert = new DealAlert(DealAlert.Kind.SPIKE, listing, baseline, percentDiff);
+                }
+            }
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            evaluations.incrementAndGet();
+            totalEvaluationNanos.addAndGet(elapsed);
+            maxEvaluationNanos.accumulateAndGet(elapsed, Math::max);
+        }
+
+        if (alert != null) {
+            alertsRaised.incrementAndGet();
+            dispatch(alert);
+        }
+        return alert;
+    }
+
+    public long getEvaluationCount() {
+        return evaluations.get();
+    }
+
+    public long getAlertCount() {
+        return alertsRaised.get();
+    }
+
+    /**
+     * Mean time spent evaluating a listing, excluding listener dispatch.
+     */
+    public double getAverageEvaluationNanos() {
+        long count = evaluations.get();
+        return count == 0 ? 0 : (double) totalEvaluationNanos.get() / count;
+    }
+
+    public long getMaxEvaluationNanos() {
+        return maxEvaluationNanos.get();
+    }
+
+    private void dispatch(DealAlert alert) {
+        for (DealAlertListener listener : listeners) {
+            try {
+                listener.onDealAlert(alert);
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Deal alert listener {} failed.", listener, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.yourname.gtstracker.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Constant-space streaming quantile estimator (Jain &amp; Chlamtac's P² algorithm).
+ * Tracks five markers whose heights converge on the requested quantile; the first five observations are kept
+ * exactly so small samples report the true value.
+ * <p>
+ * Not thread-safe; callers synchronize externally.
+ */
+final class P2Quantile {
+    private final double quantile;
+    private final double[] heights = new double[5];
+    private final double[] positions = {0, 1, 2, 3, 4};
+    private final double[] desired;
+    private final double[] increments;
+    private long count;
+
+    P2Quantile(double quantile) {
+        if (quantile <= 0 || quantile >= 1) {
+            throw new IllegalArgumentException("quantile must be between 0 and 1");
+        }
+        this.quantile = quantile;
+        this.desired = new double[]{0, 2 * quantile, 4 * quantile, 2 + 2 * quantile, 4};
+        this.increments = new double[]{0, quantile / 2, quantile, (1 + quantile) / 2, 1};
+    }
+
+    void add(double value) {
+        if (count < 5) {
+            heights[(int) count] = value;
+            count++;
+            if (count == 5) {
+                Arrays.sort(heights);
+            }
+            return;
+        }
+        count++;
+
+        int cell;
+        if (value < heights[0]) {
+            heights[0] = value;
+            cell = 0;
+        } else if (value >= heights[4]) {
+            heights[4] = value;
+            cell = 3;
+        } else {
+            cell = 0;
+            while (cell < 3 && value >= heights[cell + 1]) {
+                cell++;
+            }
+        }
+
+        for (int i = cell + 1; i < 5; i++) {
+            positions[i]++;
+        }
+        for (int i = 0; i < 5; i++) {
+            desired[i] += increments[i];
+        }
+
+        for (int i = 1; i <= 3; i++) {
+            double offset = desired[i] - positions[i];
+            if ((offset >= 1 && positions[i + 1] - positions[i] > 1)
+                || (offset <= -1 && positions[i - 1] - positions[i] < -1)) {
+                int step = offset > 0 ? 1 : -1;
+                double candidate = parabolic(i, step);
+                if (heights[i - 1] < candidate && candidate < heights[i + 1]) {
+                    heights[i] = candidate;
+                } else {
+                    heights[i] = linear(i, step);
+                }
+                positions[i] += step;
+            }
+        }
+    }
+
+    long count() {
+        return count;
+    }
+
+    /**
+     * @return the estimated quantile, exact while fewer than five values have been seen, or {@code 0} when empty
+     */
+    double estimate() {
+        if (count == 0) {
+            return 0;
+        }
+        if (count >= 5) {
+            return heights[2];
+        }
+        double[] sorted = Arrays.copyOf(heights, (int) count);
+        Arrays.sort(sorted);
+        double rank = quantile * (sorted.length - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = (int) Math.ceil(rank);
+        return sorted[lower] + (sorted[upper] - sorted[lower]) * (rank - lower);
+    }
+
+    private double parabolic(int i, int step) {
+        double left = positions[i] - positions[i - 1];
+        double right = positions[i + 1] - positions[i];
+        return heights[i] + step / (positions[i + 1] - positions[i - 1])
+            * ((left + step) * (heights[i + 1] - heights[i]) / right
+            + (right - step) * (heights[i] - heights[i - 1]) / left);
+    }
+
+    private double linear(int i, int step) {
+        return heights[i] + step * (heights[i + step] - heights[i]) / (positions[i + step] - positions[i]);
+    }
+}
@@ -0,0 +1,319 @@
+package com.yourname.gtstracker.analytics;
+
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.ListingType;
+import com.yourname.gtstracker.database.models.PokemonListing;
+import com.yourname.gtstracker.database.models.PriceStats;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming price aggregates keyed by listing type and {@link ListingData#getSearchKey() search key}.
+ * Item listings are aggregated by {@linkplain #unitPrice(ListingData) price per unit}, matching the price buckets, so a
+ * stack of 64 does not skew the baseline for single items. Every recorded listing updates count, sum, min, max,
+ * first/last observation time and a P² median sketch, so {@link PriceStats} for a key (and
+ * {@link PriceStats#getPercentDiff(double)}) is available in O(1) without scanning price history.
+ * <p>
+ * Alongside the all-time aggregates each key keeps an exponentially decayed sum and weight, so
+ * {@link #getBaselineAverage(ListingData, int, long)} is a rolling mean in which a price observed one half-life ago
+ * counts half as much as one observed now. Decay is applied lazily from observation times, so it costs nothing between
+ * observations and replaying stored listings through {@link #seed} gives the same baseline as recording them live.
+ * <p>
+ * Each recorded listing's id and unit price are remembered so a re-observed listing is not counted twice, while a
+ * repriced one is counted at its new price. An id is forgotten once its listing is sold or expired ({@link #forget})
+ * or has not been observed for {@code recordedIdTtlMs}.
+ */
+public final class PriceStatsEngine {
+    private static final long DEFAULT_BASELINE_HALF_LIFE_MS = TimeUnit.HOURS.toMillis(24);
+    private static final long DEFAULT_RECORDED_ID_TTL_MS = TimeUnit.HOURS.toMillis(72);
+    /** Expired ids are swept after this many recorded listings. */
+    private static final int SWEEP_INTERVAL = 1_024;
+
+    private static final String SEED_SQL = """
+        SELECT l.id,
+               l.listing_type,
+               p.species,
+               COALESCE(p.is_shiny, 0) AS is_shiny,
+               i.item_name,
+               COALESCE(i.quantity, 1) AS quantity,
+               l.price,
+               l.last_seen
+        FROM listings l
+        LEFT JOIN pokemon_listings p ON p.listing_id = l.id
+        LEFT JOIN item_listings i ON i.listing_id = l.id
+        WHERE l.last_seen >= ?
+        ORDER BY l.last_seen ASC
+        """;
+
+    private final Map<String, Accumulator> pokemonAccumulators = new ConcurrentHashMap<>();
+    private final Map<String, Accumulator> itemAccumulators = new ConcurrentHashMap<>();
+    private final double decayPerMs;
+    private final long recordedIdTtlMs;
+    /** Guarded by itself. */
+    private final Map<String, Recorded> recordedById = new HashMap<>();
+    private long newestObservationMs = Long.MIN_VALUE;
+    private int recordsSinceSweep;
+
+    public PriceStatsEngine() {
+        this(DEFAULT_BASELINE_HALF_LIFE_MS);
+    }
+
+    /**
+     * @param baselineHalfLifeMs age at which a price carries half its original weight in the rolling baseline
+     */
+    public PriceStatsEngine(long baselineHalfLifeMs) {
+        this(baselineHalfLifeMs, DEFAULT_RECORDED_ID_TTL_MS);
+    }
+
+    /**
+     * @param recordedIdTtlMs how long after its last observation a listing's id is remembered; a listing observed
+     *                        again later is counted again
+     */
+    public PriceStatsEngine(long baselineHalfLifeMs, long recordedIdTtlMs) {
+        if (baselineHalfLifeMs <= 0) {
+            throw new IllegalArgumentException("baselineHalfLifeMs must be positive");
+        }
+        this.decayPerMs = Math.log(2) / baselineHalfLifeMs;
+        this.recordedIdTtlMs = Math.max(0L, recordedIdTtlMs);
+    }
+
+    /**
+     * Price compared across listings of the same key: the whole price for Pokémon, the price per unit for items.
+     */
+    public static double unitPrice(ListingData listing) {
+        if (listing instanceof ItemListing item) {
+            return (double) item.getPrice() / Math.max(1, item.getQuantity());
+        }
+        return listing.getPrice();
+    }
+
+    /**
+     * Adds a listing's {@linkplain #unitPrice(ListingData) unit price} to its key's aggregates.
+     *
+     * @return {@code false} if the listing was ignored (no price, or already recorded at this price)
+     */
+    public boolean record(ListingData listing) {
+        if (listing == null || listing.getPrice() <= 0 || listing.getType() == null) {
+            return false;
+        }
+        double unitPrice = unitPrice(listing);
+        if (listing.getId() != null && !remember(listing.getId(), unitPrice, listing.getLastSeen())) {
+            return false;
+        }
+
+        accumulators(listing.getType())
+            .computeIfAbsent(listing.getSearchKey(), ignored -> new Accumulator(decayPerMs))
+            .add(unitPrice, listing.getLastSeen());
+        return true;
+    }
+
+    /**
+     * Forgets listings that will not be observed again, e.g. once they are sold or expired.
+     */
+    public void forget(Collection<String> listingIds) {
+        synchronized (recordedById) {
+            for (String listingId : listingIds) {
+                recordedById.remove(listingId);
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if the listing has not been recorded at this unit price yet
+     */
+    private boolean remember(String listingId, double unitPrice, long observedAtMs) {
+        synchronized (recordedById) {
+            newestObservationMs = Math.max(newestObservationMs, observedAtMs);
+            if (++recordsSinceSweep >= SWEEP_INTERVAL) {
+                recordsSinceSweep = 0;
+                long horizon = newestObservationMs - recordedIdTtlMs;
+                recordedById.values().removeIf(recorded -> recorded.lastSeenMs < horizon);
+            }
+            Recorded recorded = recordedById.get(listingId);
+            if (recorded == null) {
+                recordedById.put(listingId, new Recorded(unitPrice, observedAtMs));
+                return true;
+            }
+            recorded.lastSeenMs = Math.max(recorded.lastSeenMs, observedAtMs);
+            if (recorded.unitPrice == unitPrice) {
+                return false;
+            }
+            recorded.unitPrice = unitPrice;
+            return true;
+        }
+    }
+
+    /**
+     * @return current statistics for the listing's key; {@code sampleSize} is {@code 0} if nothing has been recorded
+     */
+    public PriceStats getStats(ListingData listing) {
+        return getStats(listing.getType(), listing.getSearchKey());
+    }
+
+    public PriceStats getStats(ListingType type, String searchKey) {
+        Accumulator accumulator = type == null ? null : accumulators(type).get(searchKey);
+        return accumulator == null ? new PriceStats() : accumulator.snapshot();
+    }
+
+    /**
+     * Rolling (exponentially decayed) average unit price for the listing's key as of {@code nowMs}, without
+     * allocating a {@link PriceStats}.
+     *
+     * @return the average, or {@link Double#NaN} when the decayed weight of the recorded prices is below
+     *         {@code minSamples}, i.e. there are too few recent prices to compare against
+     */
+    public double getBaselineAverage(ListingData listing, int minSamples, long nowMs) {
+        if (listing.getType() == null) {
+            return Double.NaN;
+        }
+        Accumulator accumulator = accumulators(listing.getType()).get(listing.getSearchKey());
+        return accumulator == null ? Double.NaN : accumulator.decayedAverage(minSamples, nowMs);
+    }
+
+    /**
+     * Percent difference between the listing's unit price and the all-time average for its key.
+     */
+    public double getPercentDiff(ListingData listing) {
+        return getStats(listing).getPercentDiff(unitPrice(listing));
+    }
+
+    public int getKeyCount() {
+        return pokemonAccumulators.size() + itemAccumulators.size();
+    }
+
+    /**
+     * Replays stored listings seen at or after {@code cutoffMs} into the aggregates, oldest first.
+     *
+     * @return number of listings recorded
+     */
+    public int seed(DataSource dataSource, long cutoffMs) throws SQLException {
+        int recorded = 0;
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SEED_SQL)) {
+            stmt.setLong(1, cutoffMs);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ListingData listing = toListing(rs);
+                    if (listing != null && record(listing)) {
+                        recorded++;
+                    }
+                }
+            }
+        }
+        return recorded;
+    }
+
+    private static ListingData toListing(ResultSet rs) throws SQLException {
+        ListingData listing;
+        String type = rs.getString("listing_type");
+        if (ListingType.POKEMON.name().equals(type)) {
+            PokemonListing pokemon = new PokemonListing();
+            pokemon.setSpecies(rs.getString("species"));
+            pokemon.setShiny(rs.getBoolean("is_shiny"));
+            listing = pokemon;
+        } else if (ListingType.ITEM.name().equals(type)) {
+            ItemListing item = new ItemListing();
+            item.setItemName(rs.getString("item_name"));
+            item.setQuantity(rs.getInt("quantity"));
+            listing = item;
+        } else {
+            return null;
+        }
+        listing.setId(rs.getString("id"));
+        listing.setPrice(rs.getInt("price"));
+        listing.setLastSeen(rs.getLong("last_seen"));
+        return listing;
+    }
+
+    private Map<String, Accumulator> accumulators(ListingType type) {
+        return type == ListingType.POKEMON ? pokemonAccumulators : itemAccumulators;
+    }
+
+    private static final class Recorded {
+        private double unitPrice;
+        private long lastSeenMs;
+
+        Recorded(double unitPrice, long lastSeenMs) {
+            this.unitPrice = unitPrice;
+            this.lastSeenMs = lastSeenMs;
+        }
+    }
+
+    private static final class Accumulator {
+        private final P2Quantile median = new P2Quantile(0.5);
+        private final double decayPerMs;
+        private long count;
+        private double sum;
+        private double min = Double.MAX_VALUE;
+        private double max = -Double.MAX_VALUE;
+        private long oldest = Long.MAX_VALUE;
+        private long newest = Long.MIN_VALUE;
+        private double decayedSum;
+        private double decayedWeight;
+        private long decayedAtMs = Long.MIN_VALUE;
+
+        Accumulator(double decayPerMs) {
+            this.decayPerMs = decayPerMs;
+        }
+
+        synchronized void add(double price, long observedAtMs) {
+            count++;
+            sum += price;
+            min = Math.min(min, price);
+            max = Math.max(max, price);
+            oldest = Math.min(oldest, observedAtMs);
+            newest = Math.max(newest, observedAtMs);
+            median.add(price);
+
+            if (observedAtMs >= decayedAtMs) {
+                if (decayedAtMs != Long.MIN_VALUE && observedAtMs > decayedAtMs) {
+                    double factor = Math.exp(-decayPerMs * (observedAtMs - decayedAtMs));
+                    decayedSum *= factor;
+                    decayedWeight *= factor;
+                }
+                decayedAtMs = observedAtMs;
+                decayedSum += price;
+                decayedWeight += 1;
+            } else {
+                // Late arrival: weigh it by its age relative to the newest observation instead of rewinding.
+                double weight = Math.exp(-decayPerMs * (decayedAtMs - observedAtMs));
+                decayedSum += price * weight;
+                decayedWeight += weight;
+            }
+        }
+
+        synchronized double decayedAverage(int minSamples, long nowMs) {
+            if (decayedWeight == 0) {
+                return Double.NaN;
+            }
+            // Decaying to nowMs scales sum and weight alike, so only the weight threshold needs it.
+            double weight = decayedWeight;
+            if (nowMs > decayedAtMs) {
+                weight *= Math.exp(-decayPerMs * (nowMs - decayedAtMs));
+            }
+            return weight < minSamples ? Double.NaN : decayedSum / decayedWeight;
+        }
+
+        synchronized PriceStats snapshot() {
+            PriceStats stats = new PriceStats();
+            stats.sampleSize = (int) Math.min(Integer.MAX_VALUE, count);
+            stats.average = sum / count;
+            stats.min = min;
+            stats.max = max;
+            stats.median = median.estimate();
+            stats.oldestSample = oldest;
+            stats.newestSample = newest;
+            return stats;
+        }
+    }
+}
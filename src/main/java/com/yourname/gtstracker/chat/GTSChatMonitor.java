@@ -1,22 +1,30 @@
 package com.yourname.gtstracker.chat;
 
+import com.yourname.gtstracker.analytics.DealAlert;
 import com.yourname.gtstracker.config.ConfigModel;
 import com.yourname.gtstracker.ingest.ListingIngestionService;
 import net.fabricmc.fabric.api.client.message.v1.ClientReceiveMessageEvents;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.client.MinecraftClient;
+import net.minecraft.text.StringVisitable;
 import net.minecraft.text.Text;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Optional;
+
 /**
  * Monitors inbound client chat/game messages and forwards plain text payloads to ingestion.
  */
 public class GTSChatMonitor {
     private static final Logger LOGGER = LoggerFactory.getLogger(GTSChatMonitor.class);
+    private static final Optional<Boolean> MARKER_FOUND = Optional.of(Boolean.TRUE);
 
     private final ListingIngestionService ingestionService;
     private final ConfigModel config;
+    private final GTSMarkerScanner markerScanner = new GTSMarkerScanner();
+    private final StringVisitable.Visitor<Boolean> markerVisitor =
+        segment -> markerScanner.feed(segment) ? MARKER_FOUND : Optional.empty();
 
     public GTSChatMonitor(ListingIngestionService ingestionService, ConfigModel config) {
         this.ingestionService = ingestionService;
@@ -31,10 +39,39 @@ public class GTSChatMonitor {
         ClientReceiveMessageEvents.GAME.register((message, overlay) -> {
             processIncoming(message);
         });
+
+        ingestionService.getDealAlertStage().subscribe(GTSChatMonitor::showDealAlert);
+    }
+
+    /**
+     * Walks the message's text segments in place and rejects lines without a GTS marker before any String is built.
+     */
+    synchronized boolean mightBeListing(StringVisitable message) {
+        markerScanner.reset();
+        return message.visit(markerVisitor).isPresent();
+    }
+
+    private static void showDealAlert(DealAlert alert) {
+        LOGGER.info("{} alert for {}: {} vs average {} ({}%)",
+            alert.kind(), alert.listing().getDisplayName(), alert.listing().getPrice(),
+            Math.round(alert.baselineAverage()), String.format("%+.1f", alert.percentDiff()));
+
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client.player != null) {
+            String label = alert.kind() == DealAlert.Kind.UNDERPRICED ? "Deal" : "Price spike";
+            client.player.sendMessage(Text.literal(String.format(
+                "[GTSTracker] %s: %s for %,d (%+.1f%% vs avg %,d)",
+                label,
+                alert.listing().getDisplayName(),
+                alert.listing().getPrice(),
+                alert.percentDiff(),
+                Math.round(alert.baselineAverage())
+            )), false);
+        }
     }
 
     private void processIncoming(Text message) {
-        if (!config.isChatMonitoringEnabled()) {
+        if (!config.isChatMonitoringEnabled() || !mightBeListing(message)) {
             return;
         }
 
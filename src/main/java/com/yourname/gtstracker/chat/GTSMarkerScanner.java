@@ -0,0 +1,96 @@
+package com.yourname.gtstracker.chat;
+
+/**
+ * Streaming, allocation-free check for the markers that make a chat line worth parsing: the literal {@code [GTS]}
+ * tag or the word {@code listed} surrounded by spaces (case-insensitive).
+ * <p>
+ * Matching uses precomputed KMP failure tables, so text can be fed in arbitrary chunks (for example the styled
+ * segments of a {@code Text}) and a marker split across chunks is still found. Instances carry per-line state and
+ * are not thread-safe.
+ */
+final class GTSMarkerScanner {
+    private static final char[] TAG = "[GTS]".toCharArray();
+    private static final char[] LISTED = " listed ".toCharArray();
+    private static final int[] TAG_FAILURE = failureTable(TAG, false);
+    private static final int[] LISTED_FAILURE = failureTable(LISTED, true);
+
+    private int tagState;
+    private int listedState;
+    private boolean matched;
+
+    /**
+     * One-shot check over a complete line.
+     */
+    static boolean containsMarker(CharSequence text) {
+        if (text == null) {
+            return false;
+        }
+        int tag = 0;
+        int listed = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            tag = advance(TAG, TAG_FAILURE, tag, c, false);
+            listed = advance(LISTED, LISTED_FAILURE, listed, c, true);
+            if (tag == TAG.length || listed == LISTED.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void reset() {
+        tagState = 0;
+        listedState = 0;
+        matched = false;
+    }
+
+    /**
+     * Feeds the next chunk of the current line.
+     *
+     * @return {@code true} once a marker has been seen anywhere in the line so far
+     */
+    boolean feed(CharSequence chunk) {
+        if (matched || chunk == null) {
+            return matched;
+        }
+        for (int i = 0, length = chunk.length(); i < length; i++) {
+            char c = chunk.charAt(i);
+            tagState = advance(TAG, TAG_FAILURE, tagState, c, false);
+            listedState = advance(LISTED, LISTED_FAILURE, listedState, c, true);
+            if (tagState == TAG.length || listedState == LISTED.length) {
+                matched = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int advance(char[] needle, int[] failure, int state, char c, boolean ignoreCase) {
+        if (state == needle.length) {
+            state = failure[state - 1];
+        }
+        while (state > 0 && !same(needle[state], c, ignoreCase)) {
+            state = failure[state - 1];
+        }
+        return same(needle[state], c, ignoreCase) ? state + 1 : 0;
+    }
+
+    private static boolean same(char expected, char actual, boolean ignoreCase) {
+        return expected == actual || (ignoreCase && expected == Character.toLowerCase(actual));
+    }
+
+    private static int[] failureTable(char[] needle, boolean ignoreCase) {
+        int[] failure = new int[needle.length];
+        int k = 0;
+        for (int i = 1; i < needle.length; i++) {
+            while (k > 0 && !same(needle[k], needle[i], ignoreCase)) {
+                k = failure[k - 1];
+            }
+            if (same(needle[k], needle[i], ignoreCase)) {
+                k++;
+            }
+            failure[i] = k;
+        }
+        return failure;
+    }
+}
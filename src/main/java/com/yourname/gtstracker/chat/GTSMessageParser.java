@@ -4,89 +4,300 @@ import com.yourname.gtstracker.database.models.ItemListing;
 import com.yourname.gtstracker.database.models.ListingData;
 import com.yourname.gtstracker.database.models.PokemonListing;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
+/**
+ * Parses GTS broadcast lines of the two known shapes:
+ * <pre>
+ * [GTS] &lt;seller&gt; listed [Shiny] &lt;species&gt; Lv&lt;level&gt; for $&lt;price&gt;
+ * [GTS] &lt;seller&gt; listed &lt;quantity&gt;x &lt;item name&gt; for $&lt;price&gt;
+ * </pre>
+ * A hand-written tokenizer walks the line by index, without regex backtracking or per-token substrings. Each
+ * {@code [GTS]} tag is only read up to the next tag, so a listing never spans two broadcasts and the two passes (one
+ * per shape) stay linear in the line length. Only the seller, species and item name are materialized as Strings, and
+ * numbers (optionally comma-grouped) are accumulated in place. Keywords match case-insensitively.
+ */
 public final class GTSMessageParser {
-    private static final Pattern POKEMON_PATTERN = Pattern.compile(
-        "\\[GTS\\]\\s+(\\w+)\\s+listed\\s+(Shiny\\s+)?([A-Za-z\\- ]+)\\s+Lv([^\\s]+)\\s+for\\s+\\$([^\\s]+)",
-        Pattern.CASE_INSENSITIVE
-    );
+    /** Lines longer than this are never GTS broadcasts and are rejected before scanning. */
+    static final int MAX_MESSAGE_LENGTH = 4096;
+
+    private static final String TAG = "[GTS]";
+    private static final int INVALID = -1;
 
-    private static final Pattern ITEM_PATTERN = Pattern.compile(
-        "\\[GTS\\]\\s+(\\w+)\\s+listed\\s+([^\\s]+)x\\s+(.+?)\\s+for\\s+\\$([^\\s]+)",
-        Pattern.CASE_INSENSITIVE
-    );
+    /** Marks a line that has the right shape but unusable numbers, which must not fall through to the next shape. */
+    private static final ListingData REJECTED = new ItemListing();
 
     private GTSMessageParser() {
     }
 
     public static boolean isGTSMessage(String message) {
-        if (message == null || message.isBlank()) {
-            return false;
-        }
-        return message.contains("[GTS]") || message.toLowerCase().contains(" listed ");
+        return GTSMarkerScanner.containsMarker(message);
     }
 
     public static ListingData parse(String message) {
-        if (message == null || message.isBlank()) {
+        if (message == null || message.isBlank() || message.length() > MAX_MESSAGE_LENGTH) {
             return null;
         }
 
-        Matcher pokemon = POKEMON_PATTERN.matcher(message);
-        if (pokemon.find()) {
-            int level = parseIntSafe(pokemon.group(4), -1, 1, 100);
-            int price = parseIntSafe(pokemon.group(5), -1, 1, Integer.MAX_VALUE);
-            if (level < 0 || price < 0) {
-                return null;
+        for (int tag = indexOfTag(message, 0); tag >= 0; ) {
+            int next = indexOfTag(message, tag + 1);
+            int body = listedBody(message, tag);
+            if (body >= 0) {
+                ListingData pokemon = parsePokemon(message, tag, body, next < 0 ? message.length() : next);
+                if (pokemon != null) {
+                    return pokemon == REJECTED ? null : pokemon;
+                }
             }
+            tag = next;
+        }
+
+        for (int tag = indexOfTag(message, 0); tag >= 0; ) {
+            int next = indexOfTag(message, tag + 1);
+            int body = listedBody(message, tag);
+            if (body >= 0) {
+                ListingData item = parseItem(message, tag, body, next < 0 ? message.length() : next);
+                if (item != null) {
+                    return item == REJECTED ? null : item;
+                }
+            }
+            tag = next;
+        }
+
+        return null;
+    }
+
+    /**
+     * Consumes {@code [GTS] <seller> listed } starting at {@code tag}.
+     *
+     * @return index of the first character after "listed" and its whitespace, or {@code -1}
+     */
+    private static int listedBody(String s, int tag) {
+        int sellerStart = skipWhitespace(s, tag + TAG.length());
+        if (sellerStart == tag + TAG.length()) {
+            return -1;
+        }
+        int sellerEnd = sellerStart;
+        while (sellerEnd < s.length() && isWordChar(s.charAt(sellerEnd))) {
+            sellerEnd++;
+        }
+        if (sellerEnd == sellerStart) {
+            return -1;
+        }
+        int listed = skipWhitespace(s, sellerEnd);
+        if (listed == sellerEnd || !isKeyword(s, listed, "listed")) {
+            return -1;
+        }
+        int body = skipWhitespace(s, listed + "listed".length());
+        return body == listed + "listed".length() ? -1 : body;
+    }
 
-            PokemonListing listing = new PokemonListing();
-            listing.setSeller(pokemon.group(1));
-            listing.setShiny(pokemon.group(2) != null && !pokemon.group(2).isBlank());
-            listing.setSpecies(pokemon.group(3).trim());
-            listing.setLevel(level);
-            listing.setPrice(price);
-            return listing;
+    /**
+     * @param limit start of the next {@code [GTS]} tag (or the line length); the listing must end before it
+     */
+    private static ListingData parsePokemon(String s, int tag, int body, int limit) {
+        int bodyEnd = tokenEnd(s, body);
+        if (isKeyword(s, body, "shiny") && bodyEnd == body + "shiny".length()) {
+            int speciesStart = skipWhitespace(s, bodyEnd);
+            if (speciesStart > bodyEnd) {
+                ListingData shiny = parsePokemonFrom(s, tag, speciesStart, limit, true);
+                if (shiny != null) {
+                    return shiny;
+                }
+            }
         }
+        return parsePokemonFrom(s, tag, body, limit, false);
+    }
+
+    private static ListingData parsePokemonFrom(String s, int tag, int speciesStart, int limit, boolean shiny) {
+        int speciesEnd = -1;
+        int cursor = speciesStart;
+        boolean levelRequired = false;
+        while (cursor < limit) {
+            int end = tokenEnd(s, cursor);
+            if (speciesEnd > 0 && end - cursor > 2 && isKeyword(s, cursor, "lv")) {
+                int priceStart = priceAfterFor(s, end);
+                if (priceStart >= 0) {
+                    int level = parseNumber(s, cursor + 2, end, 1, 100);
+                    int price = parseNumber(s, priceStart, tokenEnd(s, priceStart), 1, Integer.MAX_VALUE);
+                    if (level == INVALID || price == INVALID) {
+                        return REJECTED;
+                    }
 
-        Matcher item = ITEM_PATTERN.matcher(message);
-        if (item.find()) {
-            int quantity = parseIntSafe(item.group(2), -1, 1, Integer.MAX_VALUE);
-            int price = parseIntSafe(item.group(4), -1, 1, Integer.MAX_VALUE);
-            if (quantity < 0 || price < 0) {
+                    PokemonListing listing = new PokemonListing();
+                    listing.setSeller(seller(s, tag));
+                    listing.setShiny(shiny);
+                    listing.setSpecies(s.substring(speciesStart, speciesEnd).trim());
+                    listing.setLevel(level);
+                    listing.setPrice(price);
+                    return listing;
+                }
+            }
+            if (levelRequired || !isSpeciesToken(s, cursor, end)) {
+                return null;
+            }
+            speciesEnd = end;
+            cursor = skipWhitespace(s, end);
+            if (cursor == end) {
                 return null;
             }
+            // Species words are separated by plain spaces; any other whitespace can only precede the level.
+            levelRequired = !isSpaces(s, end, cursor);
+        }
+        return null;
+    }
 
-            ItemListing listing = new ItemListing();
-            listing.setSeller(item.group(1));
-            listing.setQuantity(quantity);
-            listing.setItemName(item.group(3).trim());
-            listing.setPrice(price);
-            return listing;
+    /**
+     * @param limit start of the next {@code [GTS]} tag (or the line length); the listing must end before it
+     */
+    private static ListingData parseItem(String s, int tag, int body, int limit) {
+        int quantityEnd = tokenEnd(s, body);
+        if (quantityEnd - body < 2 || Character.toLowerCase(s.charAt(quantityEnd - 1)) != 'x') {
+            return null;
+        }
+        int nameStart = skipWhitespace(s, quantityEnd);
+        if (nameStart == quantityEnd || nameStart >= limit) {
+            return null;
         }
 
+        int nameEnd = tokenEnd(s, nameStart);
+        int cursor = skipWhitespace(s, nameEnd);
+        while (cursor > nameEnd && cursor < limit) {
+            int end = tokenEnd(s, cursor);
+            if (end - cursor == 3 && isKeyword(s, cursor, "for")) {
+                int priceStart = priceAfterFor(s, nameEnd);
+                if (priceStart >= 0) {
+                    int quantity = parseNumber(s, body, quantityEnd - 1, 1, Integer.MAX_VALUE);
+                    int price = parseNumber(s, priceStart, tokenEnd(s, priceStart), 1, Integer.MAX_VALUE);
+                    if (quantity == INVALID || price == INVALID) {
+                        return REJECTED;
+                    }
+
+                    ItemListing listing = new ItemListing();
+                    listing.setSeller(seller(s, tag));
+                    listing.setQuantity(quantity);
+                    listing.setItemName(s.substring(nameStart, nameEnd).trim());
+                    listing.setPrice(price);
+                    return listing;
+                }
+            }
+            nameEnd = end;
+            cursor = skipWhitespace(s, end);
+        }
         return null;
     }
 
-    private static int parseIntSafe(String raw, int defaultValue, int min, int max) {
-        if (raw == null) {
-            return defaultValue;
+    /**
+     * Matches {@code <ws>for<ws>$<token>} starting at {@code from}.
+     *
+     * @return index of the first character after {@code $}, or {@code -1}
+     */
+    private static int priceAfterFor(String s, int from) {
+        int forStart = skipWhitespace(s, from);
+        if (forStart == from || !isKeyword(s, forStart, "for") || tokenEnd(s, forStart) != forStart + 3) {
+            return -1;
         }
+        int dollar = skipWhitespace(s, forStart + 3);
+        if (dollar == forStart + 3 || dollar + 1 >= s.length() || s.charAt(dollar) != '$'
+            || isWhitespace(s.charAt(dollar + 1))) {
+            return -1;
+        }
+        return dollar + 1;
+    }
+
+    /**
+     * Parses an optionally comma-grouped integer occupying exactly {@code [start, end)}.
+     *
+     * @return the value, or {@link #INVALID} if the token is malformed or outside {@code [min, max]}
+     */
+    private static int parseNumber(String s, int start, int end, int min, int max) {
+        boolean negative = false;
+        boolean digits = false;
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == ',') {
+                continue;
+            }
+            if (c == '-' && !digits && !negative) {
+                negative = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                return INVALID;
+            }
+            digits = true;
+            value = value * 10 + (c - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return INVALID;
+            }
+        }
+        if (!digits) {
+            return INVALID;
+        }
+        long signed = negative ? -value : value;
+        return signed < min || signed > max ? INVALID : (int) signed;
+    }
 
-        String normalized = raw.trim().replace(",", "");
-        if (!normalized.matches("-?\\d+")) {
-            return defaultValue;
+    private static String seller(String s, int tag) {
+        int start = skipWhitespace(s, tag + TAG.length());
+        int end = start;
+        while (end < s.length() && isWordChar(s.charAt(end))) {
+            end++;
         }
+        return s.substring(start, end);
+    }
 
-        try {
-            int value = Integer.parseInt(normalized);
-            if (value < min || value > max) {
-                return defaultValue;
+    private static int indexOfTag(String s, int from) {
+        for (int i = from, last = s.length() - TAG.length(); i <= last; i++) {
+            if (s.charAt(i) == '[' && s.regionMatches(true, i, TAG, 0, TAG.length())) {
+                return i;
             }
-            return value;
-        } catch (NumberFormatException ignored) {
-            return defaultValue;
         }
+        return -1;
+    }
+
+    private static boolean isKeyword(String s, int at, String keyword) {
+        return s.regionMatches(true, at, keyword, 0, keyword.length());
+    }
+
+    private static boolean isSpeciesToken(String s, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || c == '-')) {
+                return false;
+            }
+        }
+        return end > start;
+    }
+
+    private static boolean isSpaces(String s, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (s.charAt(i) != ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int tokenEnd(String s, int from) {
+        int i = from;
+        while (i < s.length() && !isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipWhitespace(String s, int from) {
+        int i = from;
+        while (i < s.length() && isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
     }
 }
@@ -1,6 +1,8 @@
 package com.yourname.gtstracker.config;
 
 public class ConfigModel {
+    public static final int DEFAULT_DATA_RETENTION_DAYS = 90;
+
     public boolean chatMonitoringEnabled = true;
     public boolean autoScanOnGTSOpen = true;
     public int scanIntervalSeconds = 60;
@@ -8,12 +10,41 @@ public class ConfigModel {
     public double alertThresholdPercent = 20.0;
     public double spikeThresholdPercent = 50.0;
 
-    public int dataRetentionDays = 90;
+    public int dataRetentionDays = DEFAULT_DATA_RETENTION_DAYS;
     public int minSamplesForAverage = 5;
+    /** Half-life of the rolling price baseline deal alerts compare against; older prices fade out at this rate. */
+    public int baselineHalfLifeHours = 24;
 
     public boolean showOverlayOnGTS = true;
     public boolean bloombergTheme = true;
 
+    public int writeQueueCapacity = 4096;
+    public int writeBatchSize = 64;
+    public int writeMaxLingerMs = 250;
+    public String writeQueueOverflowPolicy = "DROP_OLDEST";
+
+    public int dedupCacheSize = 8192;
+    public int dedupWindowSeconds = 60;
+
+    /** How long an active listing not seen again can still be matched by a new sighting instead of minting a new id. */
+    public int identityMatchWindowHours = 72;
+
+    /**
+     * Lifecycle of a listing that stops showing up on the GTS screen: it moves to each stage once it has been missing
+     * from this many scans of its page and for at least this many minutes.
+     */
+    public int unknownAfterScans = 1;
+    public int unknownAfterMinutes = 0;
+    public int missingAfterScans = 2;
+    public int missingAfterMinutes = 5;
+    public int soldAfterScans = 3;
+    public int soldAfterMinutes = 30;
+    public int expiredAfterScans = 6;
+    public int expiredAfterMinutes = 120;
+
+    /** Retention compaction period; {@code 0} or less disables it. */
+    public int compactionIntervalMinutes = 360;
+
     public boolean isChatMonitoringEnabled() {
         return chatMonitoringEnabled;
     }
@@ -4,12 +4,9 @@ import com.yourname.gtstracker.GTSTrackerMod;
 import com.yourname.gtstracker.database.DatabaseManager;
 import com.yourname.gtstracker.database.ListingDAO;
 
-import javax.sql.DataSource;
 import java.math.BigDecimal;
-import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.Instant;
-import java.util.List;
 
 public final class DatabaseListingSnapshotProvider implements ListingSnapshotProvider {
     private static final int DEFAULT_LIMIT = 100;
@@ -18,7 +15,7 @@ public final class DatabaseListingSnapshotProvider implements ListingSnapshotPro
     private final int limit;
 
     public DatabaseListingSnapshotProvider(DatabaseManager databaseManager) {
-        this(new ListingDAO(new DatabaseManagerDataSource(databaseManager)), DEFAULT_LIMIT);
+        this(new ListingDAO(databaseManager.getReadDataSource()), DEFAULT_LIMIT);
     }
 
     DatabaseListingSnapshotProvider(ListingDAO listingDAO, int limit) {
@@ -29,29 +26,25 @@ public final class DatabaseListingSnapshotProvider implements ListingSnapshotPro
     @Override
     public ListingSnapshot fetchSnapshot() {
         try {
-            List<MarketListing> listings = listingDAO.getActiveListings(limit, 0)
-                .stream()
-                .map(this::toMarketListing)
-                .toList();
+            ListingColumns.Builder columns = new ListingColumns.Builder(Math.min(limit, 1024));
+            listingDAO.scanActiveListings(limit, (id, displayName, price, lastSeenMs, status) ->
+                columns.add(displayName, price, lastSeenMs, status));
 
             int totalActiveListings = listingDAO.getActiveListingsCount();
             Instant lastIngestTime = listingDAO.getMaxLastSeenForActiveListings().orElse(Instant.EPOCH);
 
-            return new ListingSnapshot(listings, totalActiveListings, lastIngestTime);
+            return new ListingSnapshot(columns.build(), totalActiveListings, lastIngestTime);
         } catch (SQLException exception) {
             GTSTrackerMod.LOGGER.error("Failed to build listing snapshot from persistence.", exception);
             return ListingSnapshot.empty();
         }
     }
 
-    private MarketListing toMarketListing(ListingDAO.ListingRow row) {
-        String displayName = row.listingType != null && row.listingType.equalsIgnoreCase("POKEMON")
-            ? row.pokemonSpecies
-            : row.itemName;
-
-        if (displayName == null || displayName.isBlank()) {
-            displayName = row.id == null || row.id.isBlank() ? "Unknown Listing" : row.id;
-        }
+    static MarketListing toMarketListing(ListingDAO.ListingRow row) {
+        String displayName = ListingDAO.resolveDisplayName(
+            row.listingType != null && row.listingType.equalsIgnoreCase("POKEMON") ? row.pokemonSpecies : row.itemName,
+            row.id
+        );
 
         BigDecimal rowPrice = row.price == null ? BigDecimal.ZERO : row.price;
         Instant lastSeen = row.lastSeen == null ? Instant.EPOCH : row.lastSeen;
@@ -60,11 +53,13 @@ public final class DatabaseListingSnapshotProvider implements ListingSnapshotPro
             displayName,
             rowPrice.doubleValue(),
             lastSeen,
-            toStatus(row.status)
+            toStatus(row.status),
+            row.ivTotal,
+            row.quantity == null ? 1 : row.quantity
         );
     }
 
-    private MarketListing.Status toStatus(String status) {
+    private static MarketListing.Status toStatus(String status) {
         if (status == null) {
             return MarketListing.Status.EXPIRED;
         }
@@ -75,59 +70,4 @@ public final class DatabaseListingSnapshotProvider implements ListingSnapshotPro
             default -> MarketListing.Status.EXPIRED;
         };
     }
-
-    private static final class DatabaseManagerDataSource implements DataSource {
-        private final DatabaseManager databaseManager;
-
-        private DatabaseManagerDataSource(DatabaseManager databaseManager) {
-            this.databaseManager = databaseManager;
-        }
-
-        @Override
-        public Connection getConnection() throws SQLException {
-            Connection connection = databaseManager.getConnection();
-            if (connection == null) {
-                throw new SQLException("Database connection is not initialized.");
-            }
-            return connection;
-        }
-
-        @Override
-        public Connection getConnection(String username, String password) throws SQLException {
-            return getConnection();
-        }
-
-        @Override
-        public <T> T unwrap(Class<T> iface) throws SQLException {
-            throw new SQLException("unwrap is not supported");
-        }
-
-        @Override
-        public boolean isWrapperFor(Class<?> iface) {
-            return false;
-        }
-
-        @Override
-        public java.io.PrintWriter getLogWriter() {
-            return null;
-        }
-
-        @Override
-        public void setLogWriter(java.io.PrintWriter out) {
-        }
-
-        @Override
-        public void setLoginTimeout(int seconds) {
-        }
-
-        @Override
-        public int getLoginTimeout() {
-            return 0;
-        }
-
-        @Override
-        public java.util.logging.Logger getParentLogger() {
-            return java.util.logging.Logger.getGlobal();
-        }
-    }
 }
@@ -0,0 +1,177 @@
+package com.yourname.gtstracker.data;
+
+import com.yourname.gtstracker.GTSTrackerMod;
+import com.yourname.gtstracker.database.DatabaseManager;
+import com.yourname.gtstracker.database.ListingDAO;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Snapshot provider that keeps only the newest {@code limit} active listings in memory and only pulls rows whose
+ * {@code last_seen} moved past the previous watermark. The active count and latest-ingest time are read from the
+ * trigger-maintained {@code listing_counts}, so no refresh depends on the size of the active set.
+ * <p>
+ * Status changes that do not touch {@code last_seen} (the screen-scan lifecycle) are invisible to the delta query;
+ * their ids arrive through {@link #listingsChanged} and kept rows among them are re-read by id. When kept rows drop
+ * out and more active listings exist, the newest {@code limit} are reloaded; the same bounded reload also runs every
+ * {@code reloadIntervalMs} to pick up anything not announced, such as retention deletes.
+ * <p>
+ * Rows are streamed from the result set as primitives and snapshots are published as {@link ListingColumns}, so
+ * neither a sync nor a refresh allocates per-row {@code ListingRow}s, {@code Instant}s or {@link MarketListing}s.
+ */
+public final class IncrementalListingSnapshotProvider implements ListingSnapshotProvider {
+    private static final int DEFAULT_LIMIT = 100;
+    private static final long DEFAULT_RELOAD_INTERVAL_MS = TimeUnit.MINUTES.toMillis(5);
+    /**
+     * Re-read a small window behind the watermark: write-behind batching can commit a row whose
+     * {@code last_seen} is slightly older than rows already observed.
+     */
+    private static final long WATERMARK_OVERLAP_MS = 5_000L;
+
+    private static final Comparator<Entry> NEWEST_FIRST = Comparator
+        .comparingLong((Entry entry) -> entry.lastSeenMs).reversed()
+        .thenComparing(entry -> entry.id);
+
+    private final ListingDAO listingDAO;
+    private final int limit;
+    private final long reloadIntervalMs;
+    private final LongSupplier clock;
+
+    private final Map<String, Entry> keptById = new HashMap<>();
+    private final NavigableSet<Entry> keptByRecency = new TreeSet<>(NEWEST_FIRST);
+    private final Set<String> changedIds = ConcurrentHashMap.newKeySet();
+    private long watermarkMs = Long.MIN_VALUE;
+    private long lastReloadMs = Long.MIN_VALUE;
+    private int totalActiveListings;
+    private Instant lastIngestTime = Instant.EPOCH;
+
+    public IncrementalListingSnapshotProvider(DatabaseManager databaseManager) {
+        this(new ListingDAO(databaseManager.getReadDataSource()), DEFAULT_LIMIT, DEFAULT_RELOAD_INTERVAL_MS, System::currentTimeMillis);
+    }
+
+    IncrementalListingSnapshotProvider(ListingDAO listingDAO, int limit, long reloadIntervalMs, LongSupplier clock) {
+        this.listingDAO = listingDAO;
+        this.limit = Math.max(1, limit);
+        this.reloadIntervalMs = reloadIntervalMs;
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized ListingSnapshot fetchSnapshot() {
+        long now = clock.getAsLong();
+        try {
+            boolean reloaded = lastReloadMs == Long.MIN_VALUE || now - lastReloadMs >= reloadIntervalMs;
+            if (reloaded) {
+                reloadNewest(now);
+            } else {
+                deltaSync();
+                applyChangedStatuses();
+            }
+            totalActiveListings = listingDAO.getActiveListingsCount();
+            lastIngestTime = listingDAO.getMaxLastSeenForActiveListings().orElse(Instant.EPOCH);
+            if (!reloaded && keptById.size() < Math.min(limit, totalActiveListings)) {
+                reloadNewest(now);
+            }
+        } catch (SQLException exception) {
+            GTSTrackerMod.LOGGER.error("Failed to refresh incremental listing snapshot.", exception);
+        }
+        return buildSnapshot();
+    }
+
+    /**
+     * Records listings whose stored state changed, e.g. from a {@code ListingChangeBus} event, so the next
+     * {@link #fetchSnapshot()} re-reads the ones it keeps. Safe to call from any thread.
+     */
+    public void listingsChanged(Collection<String> listingIds) {
+        changedIds.addAll(listingIds);
+    }
+
+    /**
+     * Forces the next {@link #fetchSnapshot()} to reload the newest active listings.
+     */
+    public synchronized void invalidate() {
+        lastReloadMs = Long.MIN_VALUE;
+    }
+
+    private void reloadNewest(long now) throws SQLException {
+        keptById.clear();
+        keptByRecency.clear();
+        changedIds.clear();
+        watermarkMs = Long.MIN_VALUE;
+        listingDAO.scanActiveListings(limit, this::merge);
+        lastReloadMs = now;
+    }
+
+    private void deltaSync() throws SQLException {
+        long since = watermarkMs == Long.MIN_VALUE ? 0L : Math.max(0L, watermarkMs - WATERMARK_OVERLAP_MS);
+        listingDAO.scanListingsSince(Instant.ofEpochMilli(since), this::merge);
+    }
+
+    private void applyChangedStatuses() throws SQLException {
+        if (changedIds.isEmpty()) {
+            return;
+        }
+        List<String> kept = new ArrayList<>();
+        for (Iterator<String> changed = changedIds.iterator(); changed.hasNext(); ) {
+            String id = changed.next();
+            changed.remove();
+            if (keptById.containsKey(id)) {
+                kept.add(id);
+            }
+        }
+        if (!kept.isEmpty()) {
+            listingDAO.scanListingsByIds(kept, this::merge);
+        }
+    }
+
+    private void merge(String id, String displayName, double price, long lastSeenMs, byte status) {
+        if (id == null) {
+            return;
+        }
+
+        watermarkMs = Math.max(watermarkMs, lastSeenMs);
+
+        Entry previous = keptById.remove(id);
+        if (previous != null) {
+            keptByRecency.remove(previous);
+        }
+        if (status != ListingDAO.STATUS_ACTIVE) {
+            return;
+        }
+
+        Entry entry = new Entry(id, lastSeenMs, price, displayName);
+        if (keptByRecency.size() >= limit && NEWEST_FIRST.compare(entry, keptByRecency.last()) > 0) {
+            return;
+        }
+        keptById.put(id, entry);
+        keptByRecency.add(entry);
+        if (keptByRecency.size() > limit) {
+            keptById.remove(keptByRecency.pollLast().id);
+        }
+    }
+
+    private ListingSnapshot buildSnapshot() {
+        ListingColumns.Builder columns = new ListingColumns.Builder(keptByRecency.size());
+        for (Entry entry : keptByRecency) {
+            columns.add(entry.displayName, entry.price, entry.lastSeenMs, ListingDAO.STATUS_ACTIVE);
+        }
+        return new ListingSnapshot(columns.build(), totalActiveListings, lastIngestTime);
+    }
+
+    private record Entry(String id, long lastSeenMs, double price, String displayName) {
+    }
+}
@@ -0,0 +1,249 @@
+package com.yourname.gtstracker.data;
+
+import com.yourname.gtstracker.database.ListingDAO;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Immutable column-oriented listing rows: parallel primitive arrays for price, {@code last_seen}, status, IV total
+ * and quantity, and display names stored once per distinct name and referenced by id. A snapshot of thousands of rows is a handful
+ * of arrays instead of a record, boxed {@link Instant} and enum reference per row.
+ * <p>
+ * {@link #asList()} exposes the rows as {@link MarketListing}s for callers that want objects; each row is
+ * materialized on first access and reused afterwards.
+ */
+public final class ListingColumns {
+    private static final int NO_IV_TOTAL = -1;
+    private static final ListingColumns EMPTY = new Builder(0).build();
+
+    private final int size;
+    private final String[] names;
+    private final int[] nameIds;
+    private final double[] prices;
+    private final long[] lastSeenMs;
+    private final byte[] statuses;
+    private final int[] ivTotals;
+    private final int[] quantities;
+    private final MarketListing[] materialized;
+
+    private ListingColumns(int size, String[] names, int[] nameIds, double[] prices, long[] lastSeenMs, byte[] statuses,
+                           int[] ivTotals, int[] quantities) {
+        this.size = size;
+        this.names = names;
+        this.nameIds = nameIds;
+        this.prices = prices;
+        this.lastSeenMs = lastSeenMs;
+        this.statuses = statuses;
+        this.ivTotals = ivTotals;
+        this.quantities = quantities;
+        this.materialized = new MarketListing[size];
+    }
+
+    public static ListingColumns empty() {
+        return EMPTY;
+    }
+
+    public static ListingColumns of(List<MarketListing> listings) {
+        Builder builder = new Builder(listings.size());
+        for (MarketListing listing : listings) {
+            builder.add(listing.displayName(), listing.price(), listing.lastSeen().toEpochMilli(), statusCode(listing.status()),
+                listing.ivTotal(), listing.quantity());
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String displayName(int row) {
+        return names[nameIds[checkRow(row)]];
+    }
+
+    /**
+     * @return an id shared by every row with the same display name, in {@code [0, distinctNameCount())}
+     */
+    public int nameId(int row) {
+        return nameIds[checkRow(row)];
+    }
+
+    public int distinctNameCount() {
+        return names.length;
+    }
+
+    public double price(int row) {
+        return prices[checkRow(row)];
+    }
+
+    public long lastSeenMs(int row) {
+        return lastSeenMs[checkRow(row)];
+    }
+
+    public MarketListing.Status status(int row) {
+        return statusOf(statuses[checkRow(row)]);
+    }
+
+    /**
+     * @return summed IVs, or {@code null} for items and unknown IVs
+     */
+    public Integer ivTotal(int row) {
+        int ivTotal = ivTotals[checkRow(row)];
+        return ivTotal == NO_IV_TOTAL ? null : ivTotal;
+    }
+
+    public int quantity(int row) {
+        return quantities[checkRow(row)];
+    }
+
+    public MarketListing get(int row) {
+        MarketListing listing = materialized[checkRow(row)];
+        if (listing == null) {
+            // Racing readers may each build the row; the records are equal, so either may win.
+            listing = new MarketListing(displayName(row), price(row), Instant.ofEpochMilli(lastSeenMs(row)), status(row),
+                ivTotal(row), quantity(row));
+            materialized[row] = listing;
+        }
+        return listing;
+    }
+
+    public List<MarketListing> asList() {
+        return new RowList();
+    }
+
+    static MarketListing.Status statusOf(byte code) {
+        return switch (code) {
+            case ListingDAO.STATUS_ACTIVE -> MarketListing.Status.ACTIVE;
+            case ListingDAO.STATUS_SOLD -> MarketListing.Status.SOLD;
+            default -> MarketListing.Status.EXPIRED;
+        };
+    }
+
+    static byte statusCode(MarketListing.Status status) {
+        return switch (status) {
+            case ACTIVE -> ListingDAO.STATUS_ACTIVE;
+            case SOLD -> ListingDAO.STATUS_SOLD;
+            case EXPIRED -> ListingDAO.STATUS_INACTIVE;
+        };
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+        return row;
+    }
+
+    private final class RowList extends AbstractList<MarketListing> implements RandomAccess {
+        @Override
+        public MarketListing get(int index) {
+            return ListingColumns.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Appends rows in display order. Not thread-safe; {@link #build()} hands the arrays to the snapshot.
+     */
+    public static final class Builder {
+        private final Map<String, Integer> nameIdsByName = new HashMap<>();
+        private String[] names;
+        private int[] nameIds;
+        private double[] prices;
+        private long[] lastSeenMs;
+        private byte[] statuses;
+        private int[] ivTotals;
+        private int[] quantities;
+        private int size;
+        private boolean built;
+
+        public Builder(int expectedSize) {
+            int capacity = Math.max(0, expectedSize);
+            this.names = new String[Math.min(capacity, 16)];
+            this.nameIds = new int[capacity];
+            this.prices = new double[capacity];
+            this.lastSeenMs = new long[capacity];
+            this.statuses = new byte[capacity];
+            this.ivTotals = new int[capacity];
+            this.quantities = new int[capacity];
+        }
+
+        /**
+         * @param status one of the {@code ListingDAO.STATUS_*} codes
+         */
+        public Builder add(String displayName, double price, long lastSeenMs, byte status) {
+            return add(displayName, price, lastSeenMs, status, null, 1);
+        }
+
+        /**
+         * @param status   one of the {@code ListingDAO.STATUS_*} codes
+         * @param ivTotal  summed IVs, or {@code null} when not applicable
+         * @param quantity item stack size, {@code 1} for Pokémon
+         */
+        public Builder add(String displayName, double price, long lastSeenMs, byte status, Integer ivTotal, int quantity) {
+            if (built) {
+                throw new IllegalStateException("ListingColumns already built");
+            }
+            if (size == prices.length) {
+                int capacity = Math.max(16, size * 2);
+                nameIds = Arrays.copyOf(nameIds, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                this.lastSeenMs = Arrays.copyOf(this.lastSeenMs, capacity);
+                statuses = Arrays.copyOf(statuses, capacity);
+                ivTotals = Arrays.copyOf(ivTotals, capacity);
+                quantities = Arrays.copyOf(quantities, capacity);
+            }
+            nameIds[size] = internName(displayName);
+            prices[size] = price;
+            this.lastSeenMs[size] = lastSeenMs;
+            statuses[size] = status;
+            ivTotals[size] = ivTotal == null ? NO_IV_TOTAL : ivTotal;
+            quantities[size] = quantity;
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public ListingColumns build() {
+            built = true;
+            int distinct = nameIdsByName.size();
+            return new ListingColumns(
+                size,
+                names.length == distinct ? names : Arrays.copyOf(names, distinct),
+                nameIds.length == size ? nameIds : Arrays.copyOf(nameIds, size),
+                prices.length == size ? prices : Arrays.copyOf(prices, size),
+                lastSeenMs.length == size ? lastSeenMs : Arrays.copyOf(lastSeenMs, size),
+                statuses.length == size ? statuses : Arrays.copyOf(statuses, size),
+                ivTotals.length == size ? ivTotals : Arrays.copyOf(ivTotals, size),
+                quantities.length == size ? quantities : Arrays.copyOf(quantities, size)
+            );
+        }
+
+        private int internName(String displayName) {
+            String name = displayName == null ? "" : displayName;
+            Integer existing = nameIdsByName.get(name);
+            if (existing != null) {
+                return existing;
+            }
+            int id = nameIdsByName.size();
+            if (id == names.length) {
+                names = Arrays.copyOf(names, Math.max(16, id * 2));
+            }
+            names[id] = name;
+            nameIdsByName.put(name, id);
+            return id;
+        }
+    }
+}
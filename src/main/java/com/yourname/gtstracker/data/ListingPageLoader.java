@@ -0,0 +1,188 @@
+package com.yourname.gtstracker.data;
+
+import com.yourname.gtstracker.GTSTrackerMod;
+import com.yourname.gtstracker.database.DatabaseManager;
+import com.yourname.gtstracker.database.ListingDAO;
+import com.yourname.gtstracker.database.ListingQuery;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
+
+/**
+ * Loads active listings page by page (keyset pagination) as a scrolling view approaches the end of what has been
+ * loaded, so the table can scroll through the whole market without ever reading it in one query.
+ * <p>
+ * Pages follow the current {@link ListingQuery} and are fetched off the render thread. When the data changes, already
+ * loaded rows are kept while the viewer is scrolled deep into the list, and the first page is reloaded once they are
+ * back near the top.
+ */
+public final class ListingPageLoader implements AutoCloseable {
+    private static final int DEFAULT_PAGE_SIZE = 200;
+    private static final long RETRY_DELAY_MS = 2_000L;
+
+    private final ListingDAO listingDAO;
+    private final int pageSize;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final LongSupplier clock;
+
+    private volatile List<MarketListing> rows = List.of();
+    private ListingQuery query = ListingQuery.activeListings();
+    private String nextToken;
+    private boolean exhausted;
+    private boolean loading;
+    private boolean stale = true;
+    /** Set when the query changes; unlike {@link #stale} the reload does not wait for the viewer to scroll up. */
+    private boolean reset = true;
+    private boolean closed;
+    /** Bumped on every reset so pages requested before it are discarded. */
+    private int generation;
+    private long retryAfterMs = Long.MIN_VALUE;
+
+    public ListingPageLoader(DatabaseManager databaseManager) {
+        this(new ListingDAO(databaseManager.getReadDataSource()), DEFAULT_PAGE_SIZE,
+            Executors.newSingleThreadExecutor(), true, System::currentTimeMillis);
+    }
+
+    ListingPageLoader(ListingDAO listingDAO, int pageSize, Executor executor, LongSupplier clock) {
+        this(listingDAO, pageSize, executor, false, clock);
+    }
+
+    private ListingPageLoader(ListingDAO listingDAO, int pageSize, Executor executor, boolean ownsExecutor, LongSupplier clock) {
+        this.listingDAO = listingDAO;
+        this.pageSize = Math.max(1, pageSize);
+        this.executor = executor;
+        this.ownedExecutor = ownsExecutor && executor instanceof ExecutorService ? (ExecutorService) executor : null;
+        this.clock = clock;
+    }
+
+    /**
+     * @return the rows loaded so far, newest first; an immutable list that is replaced, never mutated
+     */
+    public List<MarketListing> getRows() {
+        return rows;
+    }
+
+    public synchronized boolean hasMore() {
+        return !exhausted;
+    }
+
+    public synchronized boolean isLoading() {
+        return loading;
+    }
+
+    public synchronized ListingQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * Switches to a new filter/sort. Loaded rows are dropped at once and the first page of the new query is fetched on
+     * the next {@link #ensureLoaded}; a page still in flight for the old query is discarded.
+     */
+    public synchronized void setQuery(ListingQuery query) {
+        if (query == null || query.equals(this.query)) {
+            return;
+        }
+        this.query = query;
+        generation++;
+        rows = List.of();
+        nextToken = null;
+        exhausted = false;
+        reset = true;
+        retryAfterMs = Long.MIN_VALUE;
+    }
+
+    /**
+     * Flags loaded rows as out of date. Cheap and thread-safe; the reload happens in {@link #ensureLoaded}.
+     */
+    public synchronized void markStale() {
+        stale = true;
+    }
+
+    /**
+     * Called with the visible row range each frame. Starts at most one background fetch: a reload of the first page
+     * if the rows are stale and the viewer is within it, otherwise the next page once fewer than half a page of
+     * loaded rows remain below the viewport.
+     */
+    public synchronized void ensureLoaded(int firstVisibleRow, int lastVisibleRow) {
+        if (closed || loading || clock.getAsLong() < retryAfterMs) {
+            return;
+        }
+
+        if (reset || (stale && firstVisibleRow < pageSize)) {
+            reset = false;
+            stale = false;
+            generation++;
+            nextToken = null;
+            exhausted = false;
+            fetch(null, true);
+            return;
+        }
+
+        if (!exhausted && lastVisibleRow + pageSize / 2 >= rows.size()) {
+            fetch(nextToken, false);
+        }
+    }
+
+    private void fetch(String token, boolean replace) {
+        loading = true;
+        int requestedGeneration = generation;
+        ListingQuery requestedQuery = query;
+        CompletableFuture
+            .supplyAsync(() -> loadPage(requestedQuery, token), executor)
+            .whenComplete((page, failure) -> completeFetch(requestedGeneration, replace, page, failure));
+    }
+
+    private ListingDAO.ListingPage loadPage(ListingQuery requestedQuery, String token) {
+        try {
+            return listingDAO.getListingsPage(requestedQuery, pageSize, token);
+        } catch (SQLException exception) {
+            throw new IllegalStateException("Failed to load listing page", exception);
+        }
+    }
+
+    private synchronized void completeFetch(int requestedGeneration, boolean replace, ListingDAO.ListingPage page, Throwable failure) {
+        loading = false;
+        if (closed || requestedGeneration != generation) {
+            return;
+        }
+        if (failure != null) {
+            GTSTrackerMod.LOGGER.error("Failed to load listing page for the market table.", failure);
+            retryAfterMs = clock.getAsLong() + RETRY_DELAY_MS;
+            if (replace) {
+                reset = true;
+            }
+            return;
+        }
+
+        List<MarketListing> loaded = new ArrayList<>((replace ? 0 : rows.size()) + page.rows.size());
+        if (!replace) {
+            loaded.addAll(rows);
+        }
+        for (ListingDAO.ListingRow row : page.rows) {
+            loaded.add(DatabaseListingSnapshotProvider.toMarketListing(row));
+        }
+        rows = List.copyOf(loaded);
+        nextToken = page.nextToken;
+        exhausted = !page.hasMore();
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdownNow();
+        }
+    }
+}
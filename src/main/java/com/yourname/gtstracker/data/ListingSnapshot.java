@@ -3,8 +3,23 @@ package com.yourname.gtstracker.data;
 import java.time.Instant;
 import java.util.List;
 
-public record ListingSnapshot(List<MarketListing> listings, int totalActiveListings, Instant lastIngestTime) {
+public record ListingSnapshot(ListingColumns columns, int totalActiveListings, Instant lastIngestTime) {
+    public ListingSnapshot {
+        columns = columns == null ? ListingColumns.empty() : columns;
+    }
+
+    public ListingSnapshot(List<MarketListing> listings, int totalActiveListings, Instant lastIngestTime) {
+        this(ListingColumns.of(listings), totalActiveListings, lastIngestTime);
+    }
+
+    /**
+     * Row view over {@link #columns()}; rows are materialized lazily as they are read.
+     */
+    public List<MarketListing> listings() {
+        return columns.asList();
+    }
+
     public static ListingSnapshot empty() {
-        return new ListingSnapshot(List.of(), 0, Instant.EPOCH);
+        return new ListingSnapshot(ListingColumns.empty(), 0, Instant.EPOCH);
     }
 }
@@ -1,6 +1,8 @@
 package com.yourname.gtstracker.data;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -16,6 +18,8 @@ public final class ListingSnapshotCache implements AutoCloseable {
     private final ExecutorService ownedExecutor;
 
     private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    private final List<AutoCloseable> closeOnShutdown = new CopyOnWriteArrayList<>();
 
     private volatile ListingSnapshot snapshot = ListingSnapshot.empty();
     private volatile CompletableFuture<?> refreshTask;
@@ -43,6 +47,54 @@ public final class ListingSnapshotCache implements AutoCloseable {
         return closed.get();
     }
 
+    /**
+     * Flags the cached snapshot as out of date. Cheap and thread-safe, so it can be called straight from
+     * change notifications; bursts collapse into a single refresh.
+     */
+    public void markDirty() {
+        dirty.set(true);
+    }
+
+    public boolean isDirty() {
+        return dirty.get();
+    }
+
+    /**
+     * Registers a resource (typically a change-bus subscription) to be closed together with this cache.
+     */
+    public void closeOnShutdown(AutoCloseable resource) {
+        if (isClosed()) {
+            closeQuietly(resource);
+            return;
+        }
+        closeOnShutdown.add(resource);
+    }
+
+    /**
+     * Refreshes only when the snapshot was marked dirty, at most once per {@code minIntervalMs}; as a safety net
+     * it also refreshes after {@code maxStaleMs} for changes that bypass the change bus.
+     */
+    public void refreshIfDirty(long nowMs, long minIntervalMs, long maxStaleMs) {
+        if (isClosed()) {
+            return;
+        }
+
+        if (refreshTask != null && !refreshTask.isDone()) {
+            return;
+        }
+
+        long sinceLastRefresh = nowMs - lastRefreshMs;
+        if (sinceLastRefresh < minIntervalMs) {
+            return;
+        }
+        if (!dirty.get() && sinceLastRefresh < maxStaleMs) {
+            return;
+        }
+
+        dirty.set(false);
+        startRefresh(nowMs);
+    }
+
     public void refreshIfStale(long nowMs, long refreshIntervalMs) {
         if (isClosed()) {
             return;
@@ -56,6 +108,10 @@ public final class ListingSnapshotCache implements AutoCloseable {
             return;
         }
 
+        startRefresh(nowMs);
+    }
+
+    private void startRefresh(long nowMs) {
         refreshTask = CompletableFuture
             .supplyAsync(provider::fetchSnapshot, executor)
             .thenAccept(loaded -> {
@@ -78,6 +134,11 @@ public final class ListingSnapshotCache implements AutoCloseable {
             return;
         }
 
+        for (AutoCloseable resource : closeOnShutdown) {
+            closeQuietly(resource);
+        }
+        closeOnShutdown.clear();
+
         CompletableFuture<?> task = refreshTask;
         if (task != null) {
             task.cancel(true);
@@ -100,4 +161,12 @@ public final class ListingSnapshotCache implements AutoCloseable {
     public void close() {
         shutdown();
     }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        try {
+            resource.close();
+        } catch (Exception ignored) {
+            // Best-effort cleanup during shutdown.
+        }
+    }
 }
@@ -2,10 +2,22 @@ package com.yourname.gtstracker.data;
 
 import java.time.Instant;
 
-public record MarketListing(String displayName, double price, Instant lastSeen, Status status) {
+/**
+ * @param ivTotal  summed IVs for Pokémon listings, {@code null} for items or when unknown
+ * @param quantity stack size for item listings, {@code 1} for Pokémon
+ */
+public record MarketListing(String displayName, double price, Instant lastSeen, Status status, Integer ivTotal, int quantity) {
     public enum Status {
         ACTIVE,
         SOLD,
         EXPIRED
     }
+
+    public MarketListing(String displayName, double price, Instant lastSeen, Status status) {
+        this(displayName, price, lastSeen, status, null, 1);
+    }
+
+    public double unitPrice() {
+        return quantity > 1 ? price / quantity : price;
+    }
 }
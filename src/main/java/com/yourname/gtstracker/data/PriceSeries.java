@@ -0,0 +1,133 @@
+package com.yourname.gtstracker.data;
+
+import com.yourname.gtstracker.database.PriceHistoryDAO.PriceBucket;
+import com.yourname.gtstracker.database.PriceHistoryDAO.Resolution;
+
+import java.util.List;
+
+/**
+ * Immutable OHLC series for one species or item, oldest bucket first, held as parallel primitive arrays so a chart
+ * can walk it every frame without touching boxed values.
+ */
+public final class PriceSeries {
+    private static final PriceSeries EMPTY = new PriceSeries(Resolution.DAY, new long[0], new double[0], new double[0],
+        new double[0], new double[0], new int[0]);
+
+    private final Resolution resolution;
+    private final long[] startMs;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final int[] volume;
+    private final double minLow;
+    private final double maxHigh;
+    private final int totalVolume;
+
+    private PriceSeries(Resolution resolution, long[] startMs, double[] open, double[] high, double[] low, double[] close,
+                        int[] volume) {
+        this.resolution = resolution;
+        this.startMs = startMs;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        int total = 0;
+        for (int i = 0; i < startMs.length; i++) {
+            min = Math.min(min, low[i]);
+            max = Math.max(max, high[i]);
+            total += volume[i];
+        }
+        this.minLow = startMs.length == 0 ? Double.NaN : min;
+        this.maxHigh = startMs.length == 0 ? Double.NaN : max;
+        this.totalVolume = total;
+    }
+
+    public static PriceSeries empty() {
+        return EMPTY;
+    }
+
+    public static PriceSeries of(Resolution resolution, List<PriceBucket> buckets) {
+        int size = buckets.size();
+        long[] startMs = new long[size];
+        double[] open = new double[size];
+        double[] high = new double[size];
+        double[] low = new double[size];
+        double[] close = new double[size];
+        int[] volume = new int[size];
+        for (int i = 0; i < size; i++) {
+            PriceBucket bucket = buckets.get(i);
+            startMs[i] = bucket.startMs();
+            open[i] = bucket.open();
+            high[i] = bucket.high();
+            low[i] = bucket.low();
+            close[i] = bucket.close();
+            volume[i] = bucket.volume();
+        }
+        return new PriceSeries(resolution, startMs, open, high, low, close, volume);
+    }
+
+    public Resolution resolution() {
+        return resolution;
+    }
+
+    public int size() {
+        return startMs.length;
+    }
+
+    public boolean isEmpty() {
+        return startMs.length == 0;
+    }
+
+    public long startMs(int bucket) {
+        return startMs[bucket];
+    }
+
+    public double open(int bucket) {
+        return open[bucket];
+    }
+
+    public double high(int bucket) {
+        return high[bucket];
+    }
+
+    public double low(int bucket) {
+        return low[bucket];
+    }
+
+    public double close(int bucket) {
+        return close[bucket];
+    }
+
+    public int volume(int bucket) {
+        return volume[bucket];
+    }
+
+    /**
+     * @return the lowest low across all buckets, or {@link Double#NaN} when empty
+     */
+    public double minLow() {
+        return minLow;
+    }
+
+    /**
+     * @return the highest high across all buckets, or {@link Double#NaN} when empty
+     */
+    public double maxHigh() {
+        return maxHigh;
+    }
+
+    public int totalVolume() {
+        return totalVolume;
+    }
+
+    /**
+     * @return the close of the newest bucket, or {@link Double#NaN} when empty
+     */
+    public double lastClose() {
+        return isEmpty() ? Double.NaN : close[close.length - 1];
+    }
+}
@@ -0,0 +1,268 @@
+package com.yourname.gtstracker.data;
+
+import com.yourname.gtstracker.GTSTrackerMod;
+import com.yourname.gtstracker.database.ActiveListingIndex;
+import com.yourname.gtstracker.database.DatabaseManager;
+import com.yourname.gtstracker.database.ItemListingDAO;
+import com.yourname.gtstracker.database.ListingQuery;
+import com.yourname.gtstracker.database.PokemonListingDAO;
+import com.yourname.gtstracker.database.PriceHistoryDAO;
+import com.yourname.gtstracker.database.PriceHistoryDAO.Resolution;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
+
+/**
+ * LRU of recently charted price series. {@link #get} answers from memory and loads missing or stale series from the
+ * {@code price_buckets} rollups off the render thread, so flipping back to a species or item seen recently shows
+ * its chart immediately while a refresh, if due, runs in the background.
+ * <p>
+ * Each load also summarises the current asks for the key from the price-sample DAOs, which answer from the
+ * {@link ActiveListingIndex} when one is given and fall back to SQL otherwise.
+ */
+public final class PriceSeriesCache implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 32;
+    /** Stale series are reloaded at most this often, however frequently listings change. */
+    private static final long MIN_RELOAD_INTERVAL_MS = 5_000L;
+    private static final long RETRY_DELAY_MS = 2_000L;
+    /** Active listings seen within this window count as current asks. */
+    private static final long ASK_WINDOW_MS = Duration.ofDays(1).toMillis();
+
+    private final PriceHistoryDAO priceHistoryDAO;
+    private final PokemonListingDAO pokemonListingDAO;
+    private final ItemListingDAO itemListingDAO;
+    private final long windowMs;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final LongSupplier clock;
+    private final Map<SeriesKey, Entry> entries;
+
+    private boolean closed;
+
+    /**
+     * @param window how far back a chart reaches, normally {@code dataRetentionDays}
+     */
+    public PriceSeriesCache(DatabaseManager databaseManager, Duration window) {
+        this(databaseManager, window, null);
+    }
+
+    /**
+     * @param activeListingIndex serves the current asks from memory; {@code null} reads them with SQL
+     */
+    public PriceSeriesCache(DatabaseManager databaseManager, Duration window, ActiveListingIndex activeListingIndex) {
+        this(new PriceHistoryDAO(databaseManager.getReadDataSource()),
+            new PokemonListingDAO(databaseManager.getReadDataSource(), activeListingIndex),
+            new ItemListingDAO(databaseManager.getReadDataSource(), activeListingIndex),
+            window, DEFAULT_CAPACITY, Executors.newSingleThreadExecutor(), true, System::currentTimeMillis);
+    }
+
+    PriceSeriesCache(PriceHistoryDAO priceHistoryDAO, Duration window, int capacity, Executor executor, LongSupplier clock) {
+        this(priceHistoryDAO, null, null, window, capacity, executor, false, clock);
+    }
+
+    PriceSeriesCache(PriceHistoryDAO priceHistoryDAO, PokemonListingDAO pokemonListingDAO, ItemListingDAO itemListingDAO,
+                     Duration window, int capacity, Executor executor, LongSupplier clock) {
+        this(priceHistoryDAO, pokemonListingDAO, itemListingDAO, window, capacity, executor, false, clock);
+    }
+
+    private PriceSeriesCache(PriceHistoryDAO priceHistoryDAO, PokemonListingDAO pokemonListingDAO,
+                             ItemListingDAO itemListingDAO, Duration window, int capacity, Executor executor,
+                             boolean ownsExecutor, LongSupplier clock) {
+        this.priceHistoryDAO = priceHistoryDAO;
+        this.pokemonListingDAO = pokemonListingDAO;
+        this.itemListingDAO = itemListingDAO;
+        this.windowMs = window.toMillis();
+        this.executor = executor;
+        this.ownedExecutor = ownsExecutor && executor instanceof ExecutorService ? (ExecutorService) executor : null;
+        this.clock = clock;
+        int maxEntries = Math.max(1, capacity);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SeriesKey, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return the cached series for {@code key}, or {@code null} if it has not been loaded yet; a load is started
+     * when the series is missing, or stale and not reloaded within the last few seconds
+     */
+    public synchronized PriceSeries get(SeriesKey key) {
+        if (key == null) {
+            return null;
+        }
+        Entry entry = entries.computeIfAbsent(key, ignored -> new Entry());
+        long now = clock.getAsLong();
+        boolean due = entry.series == null || (entry.stale && now - entry.loadedAtMs >= MIN_RELOAD_INTERVAL_MS);
+        if (!closed && !entry.loading && due && now >= entry.retryAfterMs) {
+            load(key, entry, now);
+        }
+        return entry.series;
+    }
+
+    /**
+     * @return the current asks loaded with the series for {@code key}, or {@code null} if none are loaded yet or
+     * this cache has no price-sample source; never starts a load
+     */
+    public synchronized ActiveAsks getActiveAsks(SeriesKey key) {
+        Entry entry = key == null ? null : entries.get(key);
+        return entry == null ? null : entry.asks;
+    }
+
+    /**
+     * Flags every cached series as out of date. Cheap; reloads happen lazily in {@link #get}.
+     */
+    public synchronized void markStale() {
+        for (Entry entry : entries.values()) {
+            entry.stale = true;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void load(SeriesKey key, Entry entry, long now) {
+        entry.loading = true;
+        entry.stale = false;
+        Instant to = Instant.ofEpochMilli(now);
+        Instant from = to.minusMillis(windowMs);
+        CompletableFuture
+            .supplyAsync(() -> fetch(key, from, to), executor)
+            .whenComplete((loaded, failure) -> completeLoad(key, entry, now, loaded, failure));
+    }
+
+    private Loaded fetch(SeriesKey key, Instant from, Instant to) {
+        Resolution resolution = Resolution.forRange(from, to, PriceHistoryDAO.DEFAULT_MAX_BUCKETS);
+        try {
+            PriceSeries series = PriceSeries.of(resolution, key.item()
+                ? priceHistoryDAO.getItemHistory(key.name(), resolution, from, to)
+                : priceHistoryDAO.getPokemonHistory(key.name(), key.shiny(), resolution, from, to));
+            return new Loaded(series, fetchAsks(key, to.minusMillis(Math.min(windowMs, ASK_WINDOW_MS))));
+        } catch (SQLException exception) {
+            throw new IllegalStateException("Failed to load price history for " + key, exception);
+        }
+    }
+
+    private ActiveAsks fetchAsks(SeriesKey key, Instant cutoff) throws SQLException {
+        if (key.item() && itemListingDAO != null) {
+            List<ItemListingDAO.PriceSample> samples = itemListingDAO.getItemPriceSamples(key.name(), cutoff);
+            double[] prices = new double[samples.size()];
+            for (int i = 0; i < prices.length; i++) {
+                prices[i] = samples.get(i).price.doubleValue();
+            }
+            return ActiveAsks.of(prices);
+        }
+        if (!key.item() && pokemonListingDAO != null) {
+            List<PokemonListingDAO.PriceSample> samples = pokemonListingDAO.getPokemonPriceSamples(key.name(), key.shiny(), null, cutoff);
+            double[] prices = new double[samples.size()];
+            for (int i = 0; i < prices.length; i++) {
+                prices[i] = samples.get(i).price.doubleValue();
+            }
+            return ActiveAsks.of(prices);
+        }
+        return null;
+    }
+
+    private synchronized void completeLoad(SeriesKey key, Entry entry, long startedAtMs, Loaded loaded, Throwable failure) {
+        entry.loading = false;
+        if (closed || entries.get(key) != entry) {
+            return;
+        }
+        if (failure != null) {
+            GTSTrackerMod.LOGGER.error("Failed to load price history for the chart panel.", failure);
+            entry.stale = true;
+            entry.retryAfterMs = clock.getAsLong() + RETRY_DELAY_MS;
+            return;
+        }
+        entry.series = loaded.series();
+        entry.asks = loaded.asks();
+        entry.loadedAtMs = startedAtMs;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            entries.clear();
+        }
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Identifies a chartable series: a species (shiny tracked separately) or an item. Name matching is
+     * case-insensitive in the database; the key keeps the name as given.
+     */
+    public record SeriesKey(boolean item, String name, boolean shiny) {
+        public SeriesKey {
+            name = name.trim();
+        }
+
+        public static SeriesKey pokemon(String species, boolean shiny) {
+            return new SeriesKey(false, species, shiny);
+        }
+
+        public static SeriesKey item(String itemName) {
+            return new SeriesKey(true, itemName, false);
+        }
+
+        /**
+         * @return the series a filter selects: its species if set, otherwise its item, otherwise {@code null}
+         */
+        public static SeriesKey forQuery(ListingQuery query) {
+            if (query == null) {
+                return null;
+            }
+            if (query.getSpecies() != null && !query.getSpecies().isBlank()) {
+                return pokemon(query.getSpecies(), Boolean.TRUE.equals(query.getShiny()));
+            }
+            if (query.getItemName() != null && !query.getItemName().isBlank()) {
+                return item(query.getItemName());
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Active listings of a series seen within the last day: how many there are, the cheapest and the median price.
+     */
+    public record ActiveAsks(int count, double lowest, double median) {
+        static ActiveAsks of(double[] prices) {
+            if (prices.length == 0) {
+                return new ActiveAsks(0, Double.NaN, Double.NaN);
+            }
+            Arrays.sort(prices);
+            int middle = prices.length / 2;
+            double median = prices.length % 2 == 1 ? prices[middle] : (prices[middle - 1] + prices[middle]) / 2.0;
+            return new ActiveAsks(prices.length, prices[0], median);
+        }
+    }
+
+    private record Loaded(PriceSeries series, ActiveAsks asks) {
+    }
+
+    private static final class Entry {
+        private PriceSeries series;
+        private ActiveAsks asks;
+        private long loadedAtMs;
+        private long retryAfterMs = Long.MIN_VALUE;
+        private boolean loading;
+        private boolean stale;
+    }
+}
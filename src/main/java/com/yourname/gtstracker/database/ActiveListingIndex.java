@@ -0,0 +1,371 @@
+package com.yourname.gtstracker.database;
+
+import com.yourname.gtstracker.GTSTrackerMod;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.ListingStatus;
+import com.yourname.gtstracker.database.models.PokemonListing;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Memory-resident index of active listings, keyed by Pokémon species/shininess and by item name.
+ * Each key holds a time-ordered series of primitive price samples so "recent prices for X" is a binary search
+ * plus an array walk instead of a JOIN round-trip to SQLite.
+ * <p>
+ * The index is fed by the ingestion path and rebuilt from the database at startup. Until {@link #rebuild} finishes
+ * {@link #isReady()} is {@code false} and DAOs fall back to SQL. Samples older than the retention window are
+ * trimmed, so queries with an older cutoff also fall back to SQL.
+ */
+public final class ActiveListingIndex {
+    private static final String REBUILD_SQL = """
+        SELECT l.id,
+               l.listing_type,
+               p.species,
+               COALESCE(p.is_shiny, 0) AS is_shiny,
+               p.iv_total,
+               i.item_name,
+               l.price,
+               l.last_seen
+        FROM listings l
+        LEFT JOIN pokemon_listings p ON p.listing_id = l.id
+        LEFT JOIN item_listings i ON i.listing_id = l.id
+        WHERE l.status = 'active'
+          AND l.last_seen >= ?
+        """;
+
+    @FunctionalInterface
+    public interface SampleVisitor {
+        void accept(int price, long observedAtMs);
+    }
+
+    private final long retentionMs;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<PokemonKey, Series> pokemonSeries = new HashMap<>();
+    private final Map<String, Series> itemSeries = new HashMap<>();
+    private final Map<String, Location> locations = new HashMap<>();
+    private volatile boolean ready;
+
+    public ActiveListingIndex(long retentionMs) {
+        this.retentionMs = retentionMs;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return locations.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} if a query with this cutoff can be answered from memory
+     */
+    public boolean covers(long cutoffMs) {
+        return ready && cutoffMs >= horizon(System.currentTimeMillis());
+    }
+
+    /**
+     * Applies an ingested listing: active listings are (re)indexed, any other status removes the listing.
+     */
+    public void accept(ListingData listing) {
+        if (listing == null || listing.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (listing.getStatus() != null && listing.getStatus() != ListingStatus.ACTIVE) {
+                removeLocked(listing.getId());
+                return;
+            }
+            if (listing instanceof PokemonListing pokemon && pokemon.getSpecies() != null) {
+                putLocked(listing.getId(), new PokemonKey(pokemon.getSpecies(), pokemon.isShiny()), null,
+                    listing.getPrice(), listing.getLastSeen(), pokemon.getTotalIVs(), false);
+            } else if (listing instanceof ItemListing item && item.getItemName() != null) {
+                putLocked(listing.getId(), null, item.getItemName(), listing.getPrice(), listing.getLastSeen(), 0, false);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String listingId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(listingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Loads every active listing inside the retention window. Entries already indexed from live ingestion with a
+     * newer {@code last_seen} win over the database copy, so this can run concurrently with ingestion.
+     */
+    public void rebuild(DataSource dataSource) throws SQLException {
+        long started = System.nanoTime();
+        int loaded = 0;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(REBUILD_SQL)) {
+            ps.setLong(1, horizon(System.currentTimeMillis()));
+            try (ResultSet rs = ps.executeQuery()) {
+                lock.writeLock().lock();
+                try {
+                    while (rs.next()) {
+                        String id = rs.getString("id");
+                        int price = rs.getInt("price");
+                        long lastSeen = rs.getLong("last_seen");
+                        if ("POKEMON".equals(rs.getString("listing_type"))) {
+                            String species = rs.getString("species");
+                            if (species != null) {
+                                putLocked(id, new PokemonKey(species, rs.getBoolean("is_shiny")), null,
+                                    price, lastSeen, rs.getInt("iv_total"), true);
+                                loaded++;
+                            }
+                        } else {
+                            String itemName = rs.getString("item_name");
+                            if (itemName != null) {
+                                putLocked(id, null, itemName, price, lastSeen, 0, true);
+                                loaded++;
+                            }
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+        ready = true;
+        GTSTrackerMod.LOGGER.info("Rebuilt active listing index with {} listing(s) in {} ms.",
+            loaded, (System.nanoTime() - started) / 1_000_000L);
+    }
+
+    /**
+     * Visits active Pokémon samples newest first, mirroring {@code PokemonListingDAO.getPokemonPriceSamples}.
+     */
+    public void forEachPokemonSample(String species, boolean shinyOnly, Integer minIv, long cutoffMs, SampleVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            Series shiny = pokemonSeries.get(new PokemonKey(species, true));
+            Series normal = shinyOnly ? null : pokemonSeries.get(new PokemonKey(species, false));
+            int minIvTotal = minIv == null ? Integer.MIN_VALUE : minIv;
+            Series.visitMerged(shiny, normal, cutoffMs, minIvTotal, visitor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visits active item samples newest first, mirroring {@code ItemListingDAO.getItemPriceSamples}.
+     */
+    public void forEachItemSample(String itemName, long cutoffMs, SampleVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            Series.visitMerged(itemSeries.get(itemName), null, cutoffMs, Integer.MIN_VALUE, visitor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int[] recentPokemonPrices(String species, boolean shinyOnly, long cutoffMs) {
+        PriceCollector collector = new PriceCollector();
+        forEachPokemonSample(species, shinyOnly, null, cutoffMs, collector);
+        return collector.toArray();
+    }
+
+    public int[] recentItemPrices(String itemName, long cutoffMs) {
+        PriceCollector collector = new PriceCollector();
+        forEachItemSample(itemName, cutoffMs, collector);
+        return collector.toArray();
+    }
+
+    private long horizon(long nowMs) {
+        return retentionMs <= 0 ? Long.MIN_VALUE : nowMs - retentionMs;
+    }
+
+    private void putLocked(String id, PokemonKey pokemonKey, String itemName, int price, long lastSeen, int ivTotal, boolean onlyIfNewer) {
+        Location existing = locations.get(id);
+        if (existing != null) {
+            if (onlyIfNewer && existing.lastSeen >= lastSeen) {
+                return;
+            }
+            seriesFor(existing).remove(id, existing.lastSeen);
+        }
+
+        Location location = new Location(pokemonKey, itemName, lastSeen);
+        Series series = pokemonKey != null
+            ? pokemonSeries.computeIfAbsent(pokemonKey, key -> new Series())
+            : itemSeries.computeIfAbsent(itemName, key -> new Series());
+        series.insert(id, price, lastSeen, ivTotal);
+        locations.put(id, location);
+
+        long horizon = horizon(System.currentTimeMillis());
+        if (horizon != Long.MIN_VALUE) {
+            for (String evicted : series.trimOlderThan(horizon)) {
+                locations.remove(evicted);
+            }
+        }
+    }
+
+    private void removeLocked(String id) {
+        Location location = locations.remove(id);
+        if (location != null) {
+            seriesFor(location).remove(id, location.lastSeen);
+        }
+    }
+
+    private Series seriesFor(Location location) {
+        return location.pokemonKey != null ? pokemonSeries.get(location.pokemonKey) : itemSeries.get(location.itemName);
+    }
+
+    private record PokemonKey(String species, boolean shiny) {
+    }
+
+    private record Location(PokemonKey pokemonKey, String itemName, long lastSeen) {
+    }
+
+    /**
+     * Parallel primitive arrays ordered by {@code lastSeen} ascending.
+     */
+    private static final class Series {
+        private String[] ids = new String[8];
+        private long[] lastSeen = new long[8];
+        private int[] prices = new int[8];
+        private int[] ivTotals = new int[8];
+        private int size;
+
+        void insert(String id, int price, long seenAt, int ivTotal) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                lastSeen = Arrays.copyOf(lastSeen, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                ivTotals = Arrays.copyOf(ivTotals, capacity);
+            }
+            int position = upperBound(seenAt);
+            int tail = size - position;
+            if (tail > 0) {
+                System.arraycopy(ids, position, ids, position + 1, tail);
+                System.arraycopy(lastSeen, position, lastSeen, position + 1, tail);
+                System.arraycopy(prices, position, prices, position + 1, tail);
+                System.arraycopy(ivTotals, position, ivTotals, position + 1, tail);
+            }
+            ids[position] = id;
+            lastSeen[position] = seenAt;
+            prices[position] = price;
+            ivTotals[position] = ivTotal;
+            size++;
+        }
+
+        void remove(String id, long seenAt) {
+            for (int i = lowerBound(seenAt); i < size && lastSeen[i] == seenAt; i++) {
+                if (ids[i].equals(id)) {
+                    int tail = size - i - 1;
+                    System.arraycopy(ids, i + 1, ids, i, tail);
+                    System.arraycopy(lastSeen, i + 1, lastSeen, i, tail);
+                    System.arraycopy(prices, i + 1, prices, i, tail);
+                    System.arraycopy(ivTotals, i + 1, ivTotals, i, tail);
+                    ids[--size] = null;
+                    return;
+                }
+            }
+        }
+
+        String[] trimOlderThan(long horizon) {
+            int cut = lowerBound(horizon);
+            if (cut == 0) {
+                return new String[0];
+            }
+            String[] evicted = Arrays.copyOf(ids, cut);
+            int tail = size - cut;
+            System.arraycopy(ids, cut, ids, 0, tail);
+            System.arraycopy(lastSeen, cut, lastSeen, 0, tail);
+            System.arraycopy(prices, cut, prices, 0, tail);
+            System.arraycopy(ivTotals, cut, ivTotals, 0, tail);
+            Arrays.fill(ids, tail, size, null);
+            size = tail;
+            return evicted;
+        }
+
+        /** First index with {@code lastSeen >= value}. */
+        int lowerBound(long value) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (lastSeen[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /** First index with {@code lastSeen > value}. */
+        int upperBound(long value) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (lastSeen[mid] <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        static void visitMerged(Series a, Series b, long cutoffMs, int minIvTotal, SampleVisitor visitor) {
+            int i = a == null ? -1 : a.size - 1;
+            int j = b == null ? -1 : b.size - 1;
+            int aStop = a == null ? 0 : a.lowerBound(cutoffMs);
+            int bStop = b == null ? 0 : b.lowerBound(cutoffMs);
+            while (i >= aStop || j >= bStop) {
+                boolean takeA = j < bStop || (i >= aStop && a.lastSeen[i] >= b.lastSeen[j]);
+                if (takeA) {
+                    if (a.ivTotals[i] >= minIvTotal) {
+                        visitor.accept(a.prices[i], a.lastSeen[i]);
+                    }
+                    i--;
+                } else {
+                    if (b.ivTotals[j] >= minIvTotal) {
+                        visitor.accept(b.prices[j], b.lastSeen[j]);
+                    }
+                    j--;
+                }
+            }
+        }
+    }
+
+    private static final class PriceCollector implements SampleVisitor {
+        private int[] prices = new int[16];
+        private int size;
+
+        @Override
+        public void accept(int price, long observedAtMs) {
+            if (size == prices.length) {
+                prices = Arrays.copyOf(prices, size * 2);
+            }
+            prices[size++] = price;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(prices, size);
+        }
+    }
+}
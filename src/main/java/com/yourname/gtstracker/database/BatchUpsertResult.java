@@ -0,0 +1,20 @@
+package com.yourname.gtstracker.database;
+
+import java.util.List;
+
+/**
+ * Outcome of {@link DatabaseManager#upsertListings}: rows that failed are reported individually
+ * while the rest of the batch is still committed.
+ */
+public record BatchUpsertResult(int upserted, List<RowFailure> failures) {
+    public static BatchUpsertResult empty() {
+        return new BatchUpsertResult(0, List.of());
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    public record RowFailure(String listingId, String reason) {
+    }
+}
@@ -4,7 +4,9 @@ import com.yourname.gtstracker.GTSTrackerMod;
 import com.yourname.gtstracker.database.models.DataSource;
 import com.yourname.gtstracker.database.models.ItemListing;
 import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.ListingStatus;
 import com.yourname.gtstracker.database.models.PokemonListing;
+import com.yourname.gtstracker.util.ListingFingerprint;
 import net.fabricmc.loader.api.FabricLoader;
 
 import java.nio.file.Files;
@@ -12,22 +14,215 @@ import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
 public class DatabaseManager {
     private static final String DB_FILE = "gtstracker.db";
 
+    /**
+     * Stored in {@code PRAGMA user_version}.
+     * 1: listing ids use the compact 22-character fingerprint.
+     * 2: {@code price_buckets} rollups, backfilled from existing listings.
+     * 3: {@code auto_vacuum = INCREMENTAL}, so retention compaction can return freed pages.
+     * 4: trigger-maintained {@code listing_counts} and {@code latest_prices}, built from existing listings.
+     * 5: append-only {@code listing_events}, seeded with a {@code listed} event per existing listing.
+     * 6: {@code listings.unit_price} and {@code listings.sort_iv_total} sort columns, and {@code (status, key, id)}
+     *    indexes for every market sort.
+     */
+    static final int SCHEMA_VERSION = 6;
+
+    private static final String UPSERT_LISTING_SQL = """
+        INSERT INTO listings (id, listing_type, seller, price, first_seen, last_seen, status, source_first, source_last,
+                              unit_price, sort_iv_total)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT(id) DO UPDATE SET
+            last_seen = excluded.last_seen,
+            status = excluded.status,
+            source_last = excluded.source_last,
+            price = excluded.price,
+            unit_price = excluded.unit_price,
+            sort_iv_total = excluded.sort_iv_total
+        WHERE listings.last_seen IS NOT excluded.last_seen
+           OR listings.status IS NOT excluded.status
+           OR listings.source_last IS NOT excluded.source_last
+           OR listings.price IS NOT excluded.price
+           OR listings.unit_price IS NOT excluded.unit_price
+           OR listings.sort_iv_total IS NOT excluded.sort_iv_total
+        """;
+
+    /** Never reopens a sold or expired listing, or one a newer sighting already wrote. */
+    private static final String UPDATE_STATUS_SQL = """
+        UPDATE listings
+        SET status = ?
+        WHERE id = ?
+          AND status IN ('active', 'unknown')
+          AND status IS NOT ?
+        """;
+
+    private static final String UPSERT_POKEMON_SQL = """
+        INSERT INTO pokemon_listings (listing_id, species, level, is_shiny, iv_hp, iv_atk, iv_def, iv_spatk, iv_spdef, iv_speed, nature, ability)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT(listing_id) DO UPDATE SET
+            species = excluded.species,
+            level = excluded.level,
+            is_shiny = excluded.is_shiny,
+            iv_hp = excluded.iv_hp,
+            iv_atk = excluded.iv_atk,
+            iv_def = excluded.iv_def,
+            iv_spatk = excluded.iv_spatk,
+            iv_spdef = excluded.iv_spdef,
+            iv_speed = excluded.iv_speed,
+            nature = excluded.nature,
+            ability = excluded.ability
+        """;
+
+    private static final String UPSERT_ITEM_SQL = """
+        INSERT INTO item_listings (listing_id, item_name, quantity)
+        VALUES (?, ?, ?)
+        ON CONFLICT(listing_id) DO UPDATE SET
+            item_name = excluded.item_name,
+            quantity = excluded.quantity
+        """;
+
+    /**
+     * Folds observations {@code (series_key, observed_at, price)} from the {@code %s} source into every
+     * resolution's bucket. open/close follow the earliest/latest {@code observed_at} rather than arrival order, so
+     * the trigger path and the backfill produce the same buckets.
+     */
+    private static final String PRICE_BUCKET_UPSERT_SQL = """
+        INSERT INTO price_buckets (series_key, resolution_ms, bucket_start, open, high, low, close, volume, price_sum, open_time, close_time)
+        SELECT o.series_key, r.resolution_ms, o.observed_at - o.observed_at %% r.resolution_ms,
+               o.price, o.price, o.price, o.price, 1, o.price, o.observed_at, o.observed_at
+        FROM (%s) o, (%s) r
+        WHERE true
+        ON CONFLICT(series_key, resolution_ms, bucket_start) DO UPDATE SET
+            open = CASE WHEN excluded.open_time < open_time THEN excluded.open ELSE open END,
+            high = MAX(high, excluded.high),
+            low = MIN(low, excluded.low),
+            close = CASE WHEN excluded.close_time >= close_time THEN excluded.close ELSE close END,
+            volume = volume + excluded.volume,
+            price_sum = price_sum + excluded.price_sum,
+            open_time = MIN(open_time, excluded.open_time),
+            close_time = MAX(close_time, excluded.close_time)
+        """;
+
+    private static final String RESOLUTIONS_SQL = Arrays.stream(PriceHistoryDAO.Resolution.values())
+        .map(resolution -> "SELECT " + resolution.millis() + " AS resolution_ms")
+        .collect(Collectors.joining(" UNION ALL "));
+
+    private static final String POKEMON_PRICE_SQL = "CAST(l.price AS REAL)";
+    /** Item prices are rolled up per unit so stacks of different sizes share one series. */
+    private static final String ITEM_PRICE_SQL = "CAST(l.price AS REAL) / MAX(COALESCE(%s.quantity, 1), 1)";
+
+    private static final String POKEMON_OBSERVATIONS_SQL = observations(
+        PriceHistoryDAO.pokemonSeriesKey("p.species", "p.is_shiny"), POKEMON_PRICE_SQL,
+        "pokemon_listings p JOIN listings l ON l.id = p.listing_id");
+    private static final String ITEM_OBSERVATIONS_SQL = observations(
+        PriceHistoryDAO.itemSeriesKey("i.item_name"), ITEM_PRICE_SQL.formatted("i"),
+        "item_listings i JOIN listings l ON l.id = i.listing_id");
+    private static final String NEW_POKEMON_OBSERVATION_SQL = observations(
+        PriceHistoryDAO.pokemonSeriesKey("NEW.species", "NEW.is_shiny"), POKEMON_PRICE_SQL,
+        "listings l") + " AND l.id = NEW.listing_id";
+    private static final String NEW_ITEM_OBSERVATION_SQL = observations(
+        PriceHistoryDAO.itemSeriesKey("NEW.item_name"), ITEM_PRICE_SQL.formatted("NEW"),
+        "listings l") + " AND l.id = NEW.listing_id";
+
+    private static final String REPRICED_POKEMON_OBSERVATION_SQL = "SELECT "
+        + PriceHistoryDAO.pokemonSeriesKey("p.species", "p.is_shiny") + " AS series_key, NEW.observed_at AS observed_at, "
+        + "CAST(NEW.price AS REAL) AS price FROM pokemon_listings p WHERE p.listing_id = NEW.listing_id AND NEW.price > 0";
+    private static final String REPRICED_ITEM_OBSERVATION_SQL = "SELECT "
+        + PriceHistoryDAO.itemSeriesKey("i.item_name") + " AS series_key, NEW.observed_at AS observed_at, "
+        + "CAST(NEW.price AS REAL) / MAX(COALESCE(i.quantity, 1), 1) AS price FROM item_listings i"
+        + " WHERE i.listing_id = NEW.listing_id AND NEW.price > 0";
+
+    /**
+     * Keeps the newest price per series from the {@code %s} source {@code (series_key, price, last_seen, listing_id)};
+     * an older sighting never replaces a newer one.
+     */
+    private static final String LATEST_PRICE_UPSERT_SQL = """
+        INSERT INTO latest_prices (series_key, price, last_seen, listing_id)
+        SELECT s.series_key, s.price, s.last_seen, s.listing_id
+        FROM (%s) s
+        WHERE true
+        ON CONFLICT(series_key) DO UPDATE SET
+            price = excluded.price,
+            last_seen = excluded.last_seen,
+            listing_id = excluded.listing_id
+        WHERE excluded.last_seen >= latest_prices.last_seen
+        """;
+
+    private static final String POKEMON_LATEST_PRICES_SQL = latestPrices(
+        PriceHistoryDAO.pokemonSeriesKey("p.species", "p.is_shiny"), POKEMON_PRICE_SQL,
+        "pokemon_listings p JOIN listings l ON l.id = p.listing_id");
+    private static final String ITEM_LATEST_PRICES_SQL = latestPrices(
+        PriceHistoryDAO.itemSeriesKey("i.item_name"), ITEM_PRICE_SQL.formatted("i"),
+        "item_listings i JOIN listings l ON l.id = i.listing_id");
+
+    /** Removes {@code OLD} from its counter; the newest {@code last_seen} is re-read only if {@code OLD} held it. */
+    private static final String COUNT_REMOVE_OLD_SQL = """
+        UPDATE listing_counts SET
+            listing_count = listing_count - 1,
+            max_last_seen = CASE
+                WHEN OLD.last_seen < max_last_seen THEN max_last_seen
+                ELSE (SELECT last_seen FROM listings WHERE status = OLD.status AND listing_type = OLD.listing_type
+                      ORDER BY last_seen DESC LIMIT 1)
+            END
+        WHERE status = OLD.status AND listing_type = OLD.listing_type
+        """;
+
+    private static final String COUNT_ADD_NEW_SQL = """
+        INSERT INTO listing_counts (status, listing_type, listing_count, max_last_seen)
+        SELECT NEW.status, NEW.listing_type, 1, NEW.last_seen
+        WHERE NEW.status IS NOT NULL
+        ON CONFLICT(status, listing_type) DO UPDATE SET
+            listing_count = listing_count + 1,
+            max_last_seen = MAX(COALESCE(max_last_seen, excluded.max_last_seen), excluded.max_last_seen)
+        """;
+
+    /**
+     * When an update to {@code listings} happened: the new {@code last_seen} if the row was re-observed, otherwise
+     * (e.g. a lifecycle sweep changing only the status) the current wall-clock time in epoch milliseconds.
+     */
+    private static final String EVENT_TIME_SQL =
+        "CASE WHEN NEW.last_seen IS NOT OLD.last_seen THEN NEW.last_seen"
+            + " ELSE CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER) END";
+
+    static final String STATUS_LAST_SEEN_INDEX_SQL =
+        "CREATE INDEX IF NOT EXISTS idx_listings_status_last_seen ON listings(status, last_seen DESC, id DESC)";
+    static final String STATUS_PRICE_INDEX_SQL =
+        "CREATE INDEX IF NOT EXISTS idx_listings_status_price ON listings(status, price, id)";
+
+    private static final int DEFAULT_READER_POOL_SIZE = 3;
+
     private final String jdbcUrlOverride;
-    private Connection connection;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final SqliteConnectionPool connectionPool;
+    private volatile String jdbcUrl;
+    private volatile Connection connection;
+    private UpsertStatements cachedStatements;
 
     public DatabaseManager() {
         this(null);
     }
 
     public DatabaseManager(String jdbcUrlOverride) {
+        this(jdbcUrlOverride, DEFAULT_READER_POOL_SIZE);
+    }
+
+    public DatabaseManager(String jdbcUrlOverride, int readerPoolSize) {
         this.jdbcUrlOverride = jdbcUrlOverride;
+        this.connectionPool = new SqliteConnectionPool(() -> jdbcUrl, () -> connection, writeLock, readerPoolSize);
     }
 
     public void initialize() {
@@ -40,10 +235,15 @@ public class DatabaseManager {
 
             try (Statement stmt = connection.createStatement()) {
                 stmt.execute("PRAGMA foreign_keys = ON");
+                // Only takes effect on a new, empty database; existing files are converted by migrateSchema().
+                stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
                 stmt.execute("PRAGMA journal_mode = WAL");
+                stmt.execute("PRAGMA busy_timeout = 2000");
             }
 
             createSchema();
+            migrateSchema();
+            this.jdbcUrl = jdbcUrl;
             GTSTrackerMod.LOGGER.info("Database initialized at {}", jdbcUrl);
         } catch (Exception e) {
             GTSTrackerMod.LOGGER.error("Failed to initialize SQLite database.", e);
@@ -51,16 +251,42 @@ public class DatabaseManager {
         }
     }
 
+    /**
+     * @return {@code true} once {@link #initialize()} has opened the database and until {@link #close()}
+     */
+    public boolean isInitialized() {
+        return getConnection() != null;
+    }
+
+    /**
+     * The raw writer connection, for initialization checks and test setup only. It is not guarded by the write lock;
+     * queries belong on {@link #getReadDataSource()} and writes on {@link #getWriteDataSource()}.
+     */
     public Connection getConnection() {
         return connection;
     }
 
+    /**
+     * Pooled read-only connections for DAO queries; safe to close after use and usable concurrently with ingestion.
+     */
+    public SqliteConnectionPool getReadDataSource() {
+        return connectionPool;
+    }
+
+    /**
+     * The single writer connection behind the manager's write lock; closing a borrowed connection releases the lock.
+     */
+    public javax.sql.DataSource getWriteDataSource() {
+        return connectionPool.writer();
+    }
+
     public int getTotalListingsCount() {
         if (connection == null) {
             return 0;
         }
-        try (var statement = connection.createStatement();
-             var rs = statement.executeQuery("SELECT COUNT(*) AS c FROM listings")) {
+        try (Connection reader = connectionPool.getConnection();
+             var statement = reader.createStatement();
+             var rs = statement.executeQuery("SELECT COALESCE(SUM(listing_count), 0) AS c FROM listing_counts")) {
             return rs.next() ? rs.getInt("c") : 0;
         } catch (SQLException e) {
             GTSTrackerMod.LOGGER.error("Failed to query listings count.", e);
@@ -69,120 +295,283 @@ public class DatabaseManager {
     }
 
     public void upsertListing(ListingData listing) {
+        if (listing == null) {
+            return;
+        }
+        upsertListings(List.of(listing));
+    }
+
+    /**
+     * Upserts a batch of listings in one transaction using cached prepared statements and JDBC batching.
+     * If the batched path fails, the batch is replayed row by row behind savepoints so that only the
+     * offending rows are skipped and reported; everything else is still committed.
+     */
+    public BatchUpsertResult upsertListings(Collection<? extends ListingData> listings) {
+        if (listings == null || listings.isEmpty()) {
+            return BatchUpsertResult.empty();
+        }
+        writeLock.lock();
+        try {
+            return upsertListingsLocked(listings);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private BatchUpsertResult upsertListingsLocked(Collection<? extends ListingData> listings) {
         if (connection == null) {
             GTSTrackerMod.LOGGER.error(
-                "upsertListing called before database initialization succeeded; listingId={}",
-                listing == null ? "null" : listing.getId()
+                "upsertListings called before database initialization succeeded; batchSize={}",
+                listings.size()
             );
-            return;
+            return new BatchUpsertResult(0, listings.stream()
+                .map(listing -> new BatchUpsertResult.RowFailure(listing == null ? null : listing.getId(), "database not initialized"))
+                .toList());
         }
 
-        String baseSql = """
-            INSERT INTO listings (id, listing_type, seller, price, first_seen, last_seen, status, source_first, source_last)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
-            ON CONFLICT(id) DO UPDATE SET
-                last_seen = excluded.last_seen,
-                status = excluded.status,
-                source_last = excluded.source_last,
-                price = excluded.price
-            """;
+        List<BatchUpsertResult.RowFailure> failures = new ArrayList<>();
+        List<ListingData> valid = new ArrayList<>(listings.size());
+        for (ListingData listing : listings) {
+            String problem = validate(listing);
+            if (problem == null) {
+                valid.add(listing);
+            } else {
+                failures.add(new BatchUpsertResult.RowFailure(listing == null ? null : listing.getId(), problem));
+            }
+        }
 
+        int upserted = 0;
+        boolean committed = false;
         try {
             connection.setAutoCommit(false);
-            try (PreparedStatement stmt = connection.prepareStatement(baseSql)) {
-                stmt.setString(1, listing.getId());
-                stmt.setString(2, listing.getType().name());
-                stmt.setString(3, listing.getSeller());
-                stmt.setInt(4, listing.getPrice());
-                stmt.setLong(5, listing.getFirstSeen());
-                stmt.setLong(6, listing.getLastSeen());
-                stmt.setString(7, listing.getStatus().name().toLowerCase(Locale.ROOT));
-                stmt.setString(8, toDbSource(listing.getSourceFirst()));
-                stmt.setString(9, toDbSource(listing.getSourceLast()));
-                stmt.executeUpdate();
-            }
-
-            if (listing instanceof PokemonListing pokemon) {
-                upsertPokemon(pokemon);
-            } else if (listing instanceof ItemListing item) {
-                upsertItem(item);
+            if (!valid.isEmpty()) {
+                upserted = writeBatch(valid, failures);
             }
-
             connection.commit();
-        } catch (SQLException e) {
-            try {
-                connection.rollback();
-            } catch (SQLException rollbackError) {
-                GTSTrackerMod.LOGGER.error("Failed to rollback listing upsert.", rollbackError);
+            committed = true;
+        } catch (SQLException | RuntimeException e) {
+            GTSTrackerMod.LOGGER.error("Failed to upsert batch of {} listing(s)", listings.size(), e);
+            failures.clear();
+            for (ListingData listing : listings) {
+                failures.add(new BatchUpsertResult.RowFailure(listing == null ? null : listing.getId(), String.valueOf(e.getMessage())));
             }
-            GTSTrackerMod.LOGGER.error("Failed to upsert listing {}", listing.getId(), e);
+            upserted = 0;
         } finally {
+            // Roll back before restoring auto-commit, which would otherwise commit whatever the batch wrote so far.
+            if (!committed) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackError) {
+                    GTSTrackerMod.LOGGER.error("Failed to rollback listing upsert.", rollbackError);
+                }
+            }
             try {
                 connection.setAutoCommit(true);
             } catch (SQLException e) {
                 GTSTrackerMod.LOGGER.error("Failed to restore auto-commit.", e);
             }
         }
+
+        for (BatchUpsertResult.RowFailure failure : failures) {
+            GTSTrackerMod.LOGGER.warn("Failed to upsert listing {}: {}", failure.listingId(), failure.reason());
+        }
+        return new BatchUpsertResult(upserted, List.copyOf(failures));
     }
 
-    private void upsertPokemon(PokemonListing listing) throws SQLException {
-        String sql = """
-            INSERT INTO pokemon_listings (listing_id, species, level, is_shiny, iv_hp, iv_atk, iv_def, iv_spatk, iv_spdef, iv_speed, nature, ability)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-            ON CONFLICT(listing_id) DO UPDATE SET
-                species = excluded.species,
-                level = excluded.level,
-                is_shiny = excluded.is_shiny,
-                iv_hp = excluded.iv_hp,
-                iv_atk = excluded.iv_atk,
-                iv_def = excluded.iv_def,
-                iv_spatk = excluded.iv_spatk,
-                iv_spdef = excluded.iv_spdef,
-                iv_speed = excluded.iv_speed,
-                nature = excluded.nature,
-                ability = excluded.ability
-            """;
-
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, listing.getId());
-            stmt.setString(2, listing.getSpecies());
-            stmt.setInt(3, listing.getLevel());
-            stmt.setInt(4, listing.isShiny() ? 1 : 0);
-            if (listing.getIvs() != null) {
-                stmt.setInt(5, listing.getIvs().getHp());
-                stmt.setInt(6, listing.getIvs().getAtk());
-                stmt.setInt(7, listing.getIvs().getDef());
-                stmt.setInt(8, listing.getIvs().getSpatk());
-                stmt.setInt(9, listing.getIvs().getSpdef());
-                stmt.setInt(10, listing.getIvs().getSpeed());
-            } else {
-                stmt.setNull(5, java.sql.Types.INTEGER);
-                stmt.setNull(6, java.sql.Types.INTEGER);
-                stmt.setNull(7, java.sql.Types.INTEGER);
-                stmt.setNull(8, java.sql.Types.INTEGER);
-                stmt.setNull(9, java.sql.Types.INTEGER);
-                stmt.setNull(10, java.sql.Types.INTEGER);
+    public void close() {
+        connectionPool.close();
+        writeLock.lock();
+        try {
+            closeStatements();
+            if (connection == null) {
+                return;
+            }
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                GTSTrackerMod.LOGGER.warn("Failed to close SQLite connection.", e);
+            } finally {
+                connection = null;
+                jdbcUrl = null;
             }
-            stmt.setString(11, listing.getNature());
-            stmt.setString(12, listing.getAbility());
-            stmt.executeUpdate();
+        } finally {
+            writeLock.unlock();
         }
     }
 
-    private void upsertItem(ItemListing listing) throws SQLException {
-        String sql = """
-            INSERT INTO item_listings (listing_id, item_name, quantity)
-            VALUES (?, ?, ?)
-            ON CONFLICT(listing_id) DO UPDATE SET
-                item_name = excluded.item_name,
-                quantity = excluded.quantity
-            """;
+    private int writeBatch(List<ListingData> listings, List<BatchUpsertResult.RowFailure> failures) throws SQLException {
+        UpsertStatements statements = upsertStatements();
+        Savepoint batchSavepoint = connection.setSavepoint();
+        try {
+            boolean hasPokemon = false;
+            boolean hasItems = false;
+            for (ListingData listing : listings) {
+                bindBase(statements.base, listing);
+                statements.base.addBatch();
+            }
+            for (ListingData listing : listings) {
+                if (listing instanceof PokemonListing pokemon) {
+                    bindPokemon(statements.pokemon, pokemon);
+                    statements.pokemon.addBatch();
+                    hasPokemon = true;
+                } else if (listing instanceof ItemListing item) {
+                    bindItem(statements.item, item);
+                    statements.item.addBatch();
+                    hasItems = true;
+                }
+            }
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, listing.getId());
-            stmt.setString(2, listing.getItemName());
-            stmt.setInt(3, listing.getQuantity());
-            stmt.executeUpdate();
+            statements.base.executeBatch();
+            if (hasPokemon) {
+                statements.pokemon.executeBatch();
+            }
+            if (hasItems) {
+                statements.item.executeBatch();
+            }
+            connection.releaseSavepoint(batchSavepoint);
+            return listings.size();
+        } catch (SQLException batchError) {
+            statements.clearBatches();
+            connection.rollback(batchSavepoint);
+            GTSTrackerMod.LOGGER.debug("Batched upsert failed; replaying {} listing(s) individually.", listings.size(), batchError);
+            return writeRowByRow(statements, listings, failures);
+        } catch (RuntimeException unexpected) {
+            // The statements are cached; don't leave this batch queued on them for the next call.
+            statements.clearBatches();
+            throw unexpected;
+        }
+    }
+
+    private int writeRowByRow(
+        UpsertStatements statements,
+        List<ListingData> listings,
+        List<BatchUpsertResult.RowFailure> failures
+    ) throws SQLException {
+        int upserted = 0;
+        for (ListingData listing : listings) {
+            Savepoint rowSavepoint = connection.setSavepoint();
+            try {
+                bindBase(statements.base, listing);
+                statements.base.executeUpdate();
+                if (listing instanceof PokemonListing pokemon) {
+                    bindPokemon(statements.pokemon, pokemon);
+                    statements.pokemon.executeUpdate();
+                } else if (listing instanceof ItemListing item) {
+                    bindItem(statements.item, item);
+                    statements.item.executeUpdate();
+                }
+                connection.releaseSavepoint(rowSavepoint);
+                upserted++;
+            } catch (SQLException rowError) {
+                connection.rollback(rowSavepoint);
+                failures.add(new BatchUpsertResult.RowFailure(listing.getId(), rowError.getMessage()));
+            }
+        }
+        return upserted;
+    }
+
+    private String validate(ListingData listing) {
+        if (listing == null) {
+            return "listing is null";
+        }
+        if (listing.getId() == null || listing.getId().isBlank()) {
+            return "listing id is missing";
+        }
+        if (listing.getType() == null) {
+            return "listing type is missing";
+        }
+        if (listing.getStatus() == null) {
+            return "listing status is missing";
+        }
+        return null;
+    }
+
+    private UpsertStatements upsertStatements() throws SQLException {
+        if (cachedStatements == null || cachedStatements.connection != connection) {
+            closeStatements();
+            cachedStatements = new UpsertStatements(
+                connection,
+                connection.prepareStatement(UPSERT_LISTING_SQL),
+                connection.prepareStatement(UPSERT_POKEMON_SQL),
+                connection.prepareStatement(UPSERT_ITEM_SQL)
+            );
+        }
+        return cachedStatements;
+    }
+
+    private void closeStatements() {
+        if (cachedStatements == null) {
+            return;
+        }
+        for (PreparedStatement statement : List.of(cachedStatements.base, cachedStatements.pokemon, cachedStatements.item)) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                GTSTrackerMod.LOGGER.debug("Failed to close cached upsert statement.", e);
+            }
+        }
+        cachedStatements = null;
+    }
+
+    private void bindBase(PreparedStatement stmt, ListingData listing) throws SQLException {
+        stmt.setString(1, listing.getId());
+        stmt.setString(2, listing.getType().name());
+        stmt.setString(3, listing.getSeller());
+        stmt.setInt(4, listing.getPrice());
+        stmt.setLong(5, listing.getFirstSeen());
+        stmt.setLong(6, listing.getLastSeen());
+        stmt.setString(7, listing.getStatus().name().toLowerCase(Locale.ROOT));
+        stmt.setString(8, toDbSource(listing.getSourceFirst()));
+        stmt.setString(9, toDbSource(listing.getSourceLast()));
+        if (listing instanceof ItemListing item) {
+            stmt.setDouble(10, (double) item.getPrice() / Math.max(1, item.getQuantity()));
+            stmt.setInt(11, -1);
+        } else {
+            stmt.setDouble(10, listing.getPrice());
+            stmt.setInt(11, listing instanceof PokemonListing pokemon && pokemon.getIvs() != null ? pokemon.getIvs().getTotal() : 0);
+        }
+    }
+
+    private void bindPokemon(PreparedStatement stmt, PokemonListing listing) throws SQLException {
+        stmt.setString(1, listing.getId());
+        stmt.setString(2, listing.getSpecies());
+        stmt.setInt(3, listing.getLevel());
+        stmt.setInt(4, listing.isShiny() ? 1 : 0);
+        if (listing.getIvs() != null) {
+            stmt.setInt(5, listing.getIvs().getHp());
+            stmt.setInt(6, listing.getIvs().getAtk());
+            stmt.setInt(7, listing.getIvs().getDef());
+            stmt.setInt(8, listing.getIvs().getSpatk());
+            stmt.setInt(9, listing.getIvs().getSpdef());
+            stmt.setInt(10, listing.getIvs().getSpeed());
+        } else {
+            stmt.setNull(5, java.sql.Types.INTEGER);
+            stmt.setNull(6, java.sql.Types.INTEGER);
+            stmt.setNull(7, java.sql.Types.INTEGER);
+            stmt.setNull(8, java.sql.Types.INTEGER);
+            stmt.setNull(9, java.sql.Types.INTEGER);
+            stmt.setNull(10, java.sql.Types.INTEGER);
+        }
+        stmt.setString(11, listing.getNature());
+        stmt.setString(12, listing.getAbility());
+    }
+
+    private void bindItem(PreparedStatement stmt, ItemListing listing) throws SQLException {
+        stmt.setString(1, listing.getId());
+        stmt.setString(2, listing.getItemName());
+        stmt.setInt(3, listing.getQuantity());
+    }
+
+    private record UpsertStatements(
+        Connection connection,
+        PreparedStatement base,
+        PreparedStatement pokemon,
+        PreparedStatement item
+    ) {
+        void clearBatches() throws SQLException {
+            base.clearBatch();
+            pokemon.clearBatch();
+            item.clearBatch();
         }
     }
 
@@ -201,6 +590,292 @@ public class DatabaseManager {
         return "jdbc:sqlite:" + dbPath.toAbsolutePath();
     }
 
+    private void migrateSchema() throws SQLException {
+        int version;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            version = rs.next() ? rs.getInt(1) : 0;
+        }
+        if (version >= SCHEMA_VERSION) {
+            return;
+        }
+
+        if (version < 1) {
+            int migrated = compactLegacyListingIds();
+            if (migrated > 0) {
+                GTSTrackerMod.LOGGER.info("Migrated {} listing id(s) to compact fingerprints.", migrated);
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute("VACUUM");
+                }
+            }
+        }
+        if (version < 2) {
+            int buckets = rebuildPriceBuckets();
+            if (buckets > 0) {
+                GTSTrackerMod.LOGGER.info("Backfilled {} price bucket(s) from stored listings.", buckets);
+            }
+        }
+        if (version < 3) {
+            enableIncrementalVacuum();
+        }
+        if (version < 4) {
+            rebuildSummaryTablesLocked();
+        }
+        if (version < 5) {
+            int events = seedListingEvents();
+            if (events > 0) {
+                GTSTrackerMod.LOGGER.info("Recorded {} listing event(s) for stored listings.", events);
+            }
+        }
+        if (version < 6) {
+            rebuildSortColumns();
+        }
+
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA user_version = " + SCHEMA_VERSION);
+        }
+    }
+
+    /**
+     * Rewrites 64-character hex SHA-256 ids (and the matching detail-row keys) to the compact 22-character form.
+     */
+    private int compactLegacyListingIds() throws SQLException {
+        List<String> legacyIds = new ArrayList<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id FROM listings WHERE length(id) = 64")) {
+            while (rs.next()) {
+                String id = rs.getString(1);
+                if (ListingFingerprint.isLegacyId(id)) {
+                    legacyIds.add(id);
+                }
+            }
+        }
+        if (legacyIds.isEmpty()) {
+            return 0;
+        }
+
+        connection.setAutoCommit(false);
+        try (Statement pragma = connection.createStatement();
+             PreparedStatement listings = connection.prepareStatement("UPDATE listings SET id = ? WHERE id = ?");
+             PreparedStatement pokemon = connection.prepareStatement("UPDATE pokemon_listings SET listing_id = ? WHERE listing_id = ?");
+             PreparedStatement items = connection.prepareStatement("UPDATE item_listings SET listing_id = ? WHERE listing_id = ?")) {
+            // Parent and child keys change in the same transaction; check the foreign keys at commit.
+            pragma.execute("PRAGMA defer_foreign_keys = ON");
+            for (String legacyId : legacyIds) {
+                String compactId = ListingFingerprint.compactLegacyId(legacyId);
+                for (PreparedStatement stmt : List.of(listings, pokemon, items)) {
+                    stmt.setString(1, compactId);
+                    stmt.setString(2, legacyId);
+                    stmt.addBatch();
+                }
+            }
+            listings.executeBatch();
+            pokemon.executeBatch();
+            items.executeBatch();
+            connection.commit();
+            return legacyIds.size();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Fills {@code unit_price} and {@code sort_iv_total} for stored listings and rebuilds the sort indexes whose
+     * definition gained the {@code id} tie-break.
+     */
+    private void rebuildSortColumns() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("""
+                UPDATE listings SET
+                    unit_price = CAST(price AS REAL)
+                        / MAX(COALESCE((SELECT i.quantity FROM item_listings i WHERE i.listing_id = listings.id), 1), 1),
+                    sort_iv_total = CASE WHEN listing_type = 'ITEM' THEN -1 ELSE
+                        COALESCE((SELECT p.iv_total FROM pokemon_listings p WHERE p.listing_id = listings.id), 0) END
+                """);
+            stmt.execute("DROP INDEX IF EXISTS idx_listings_status_last_seen");
+            stmt.execute("DROP INDEX IF EXISTS idx_listings_status_price");
+            stmt.execute(STATUS_LAST_SEEN_INDEX_SQL);
+            stmt.execute(STATUS_PRICE_INDEX_SQL);
+        }
+    }
+
+    /**
+     * Gives every stored listing without history a {@code listed} event carrying its current price and status, in
+     * {@code first_seen} order so sequence numbers follow time.
+     */
+    private int seedListingEvents() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            return stmt.executeUpdate("""
+                INSERT INTO listing_events (listing_id, observed_at, event_type, price, status)
+                SELECT l.id, l.first_seen, 'listed', l.price, l.status
+                FROM listings l
+                WHERE NOT EXISTS (SELECT 1 FROM listing_events e WHERE e.listing_id = l.id)
+                ORDER BY l.first_seen, l.id
+                """);
+        }
+    }
+
+    /**
+     * Recomputes the trigger-maintained {@code listing_counts} and {@code latest_prices} from {@code listings}, repairing
+     * any drift (for example after rows were edited with triggers disabled). Latest prices only cover listings still
+     * within retention.
+     *
+     * @return the number of listings counted
+     */
+    public int rebuildSummaryTables() {
+        if (connection == null) {
+            throw new IllegalStateException("Database is not initialized.");
+        }
+        writeLock.lock();
+        try {
+            return rebuildSummaryTablesLocked();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to rebuild summary tables.", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private int rebuildSummaryTablesLocked() throws SQLException {
+        connection.setAutoCommit(false);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("DELETE FROM listing_counts");
+            stmt.execute("""
+                INSERT INTO listing_counts (status, listing_type, listing_count, max_last_seen)
+                SELECT status, listing_type, COUNT(*), MAX(last_seen)
+                FROM listings
+                WHERE status IS NOT NULL
+                GROUP BY status, listing_type
+                """);
+            stmt.execute("DELETE FROM latest_prices");
+            stmt.execute(LATEST_PRICE_UPSERT_SQL.formatted(POKEMON_LATEST_PRICES_SQL));
+            stmt.execute(LATEST_PRICE_UPSERT_SQL.formatted(ITEM_LATEST_PRICES_SQL));
+            int counted;
+            try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(SUM(listing_count), 0) FROM listing_counts")) {
+                counted = rs.next() ? rs.getInt(1) : 0;
+            }
+            connection.commit();
+            return counted;
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Sets the status of each listing in one transaction, touching nothing else on the row. Listings that are
+     * already sold or expired keep their status.
+     *
+     * @return the number of listings whose status changed
+     */
+    public int updateListingStatuses(Map<String, ListingStatus> statuses) {
+        if (statuses.isEmpty()) {
+            return 0;
+        }
+        if (connection == null) {
+            throw new IllegalStateException("Database is not initialized.");
+        }
+        writeLock.lock();
+        try {
+            return updateListingStatusesLocked(statuses);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to update the status of " + statuses.size() + " listing(s).", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private int updateListingStatusesLocked(Map<String, ListingStatus> statuses) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement ps = connection.prepareStatement(UPDATE_STATUS_SQL)) {
+            for (Map.Entry<String, ListingStatus> entry : statuses.entrySet()) {
+                String status = entry.getValue().name().toLowerCase(Locale.ROOT);
+                ps.setString(1, status);
+                ps.setString(2, entry.getKey());
+                ps.setString(3, status);
+                ps.addBatch();
+            }
+            int updated = 0;
+            for (int count : ps.executeBatch()) {
+                updated += Math.max(0, count);
+            }
+            connection.commit();
+            return updated;
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static String latestPrices(String seriesKey, String price, String from) {
+        return "SELECT " + seriesKey + " AS series_key, " + price + " AS price, l.last_seen AS last_seen, l.id AS listing_id"
+            + " FROM " + from + " WHERE l.price > 0";
+    }
+
+    private static String observations(String seriesKey, String price, String from) {
+        return "SELECT " + seriesKey + " AS series_key, l.first_seen AS observed_at, " + price + " AS price"
+            + " FROM " + from + " WHERE l.price > 0";
+    }
+
+    private static void addColumnIfMissing(Statement stmt, String table, String column, String definition)
+        throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return;
+                }
+            }
+        }
+        stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+    }
+
+    private void enableIncrementalVacuum() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            int mode;
+            try (ResultSet rs = stmt.executeQuery("PRAGMA auto_vacuum")) {
+                mode = rs.next() ? rs.getInt(1) : 0;
+            }
+            if (mode != 2) {
+                // Switching an existing file out of auto_vacuum = NONE needs one full VACUUM.
+                stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+                stmt.execute("VACUUM");
+                GTSTrackerMod.LOGGER.info("Enabled incremental vacuum on the listings database.");
+            }
+        }
+    }
+
+    /**
+     * Recomputes {@code price_buckets} from the stored listings in one transaction.
+     *
+     * @return number of buckets written
+     */
+    private int rebuildPriceBuckets() throws SQLException {
+        connection.setAutoCommit(false);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("DELETE FROM price_buckets");
+            stmt.execute(PRICE_BUCKET_UPSERT_SQL.formatted(POKEMON_OBSERVATIONS_SQL, RESOLUTIONS_SQL));
+            stmt.execute(PRICE_BUCKET_UPSERT_SQL.formatted(ITEM_OBSERVATIONS_SQL, RESOLUTIONS_SQL));
+            int buckets;
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM price_buckets")) {
+                buckets = rs.next() ? rs.getInt(1) : 0;
+            }
+            connection.commit();
+            return buckets;
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
     private void createSchema() throws SQLException {
         try (Statement stmt = connection.createStatement()) {
             stmt.execute("""
@@ -213,9 +888,15 @@ public class DatabaseManager {
                     last_seen INTEGER NOT NULL,
                     status TEXT CHECK(status IN ('active', 'sold', 'expired', 'unknown')) DEFAULT 'active',
                     source_first TEXT CHECK(source_first IN ('chat', 'screen')) NOT NULL,
-                    source_last TEXT CHECK(source_last IN ('chat', 'screen')) NOT NULL
+                    source_last TEXT CHECK(source_last IN ('chat', 'screen')) NOT NULL,
+                    unit_price REAL NOT NULL DEFAULT 0,
+                    sort_iv_total INTEGER NOT NULL DEFAULT -1
                 )
             """);
+            // Databases from before schema 6 get the sort columns here, ahead of the indexes on them; migrateSchema()
+            // fills them in.
+            addColumnIfMissing(stmt, "listings", "unit_price", "REAL NOT NULL DEFAULT 0");
+            addColumnIfMissing(stmt, "listings", "sort_iv_total", "INTEGER NOT NULL DEFAULT -1");
 
             stmt.execute("""
                 CREATE TABLE IF NOT EXISTS pokemon_listings (
@@ -261,12 +942,195 @@ public class DatabaseManager {
             stmt.execute("""
                 CREATE INDEX IF NOT EXISTS idx_listings_last_seen ON listings(last_seen)
             """);
+            stmt.execute(STATUS_LAST_SEEN_INDEX_SQL);
             stmt.execute("""
                 CREATE INDEX IF NOT EXISTS idx_pokemon_species ON pokemon_listings(species)
             """);
+            // Market sorts page on (sort key, id) in either direction; ending each index with id lets one index walk
+            // serve both the order and the tie-break, so no page is sorted in a temp B-tree.
+            stmt.execute(STATUS_PRICE_INDEX_SQL);
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_listings_status_unit_price ON listings(status, unit_price, id)
+            """);
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_listings_status_iv_total ON listings(status, sort_iv_total, id)
+            """);
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_pokemon_species_shiny_iv ON pokemon_listings(species, is_shiny, iv_total)
+            """);
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_pokemon_iv_total ON pokemon_listings(iv_total)
+            """);
             stmt.execute("""
                 CREATE INDEX IF NOT EXISTS idx_item_name ON item_listings(item_name)
             """);
+
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS price_buckets (
+                    series_key TEXT NOT NULL,
+                    resolution_ms INTEGER NOT NULL,
+                    bucket_start INTEGER NOT NULL,
+                    open REAL NOT NULL,
+                    high REAL NOT NULL,
+                    low REAL NOT NULL,
+                    close REAL NOT NULL,
+                    volume INTEGER NOT NULL,
+                    price_sum REAL NOT NULL,
+                    open_time INTEGER NOT NULL,
+                    close_time INTEGER NOT NULL,
+                    PRIMARY KEY (series_key, resolution_ms, bucket_start)
+                ) WITHOUT ROWID
+            """);
+            // Detail rows are inserted once per listing (re-observations take the upsert's UPDATE path), so these
+            // count each listing once, in the same transaction as the write.
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_pokemon_listings_price_buckets
+                AFTER INSERT ON pokemon_listings
+                BEGIN
+                    %s;
+                END
+            """.formatted(PRICE_BUCKET_UPSERT_SQL.formatted(NEW_POKEMON_OBSERVATION_SQL, RESOLUTIONS_SQL)));
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_item_listings_price_buckets
+                AFTER INSERT ON item_listings
+                BEGIN
+                    %s;
+                END
+            """.formatted(PRICE_BUCKET_UPSERT_SQL.formatted(NEW_ITEM_OBSERVATION_SQL, RESOLUTIONS_SQL)));
+
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS listing_counts (
+                    status TEXT NOT NULL,
+                    listing_type TEXT NOT NULL,
+                    listing_count INTEGER NOT NULL,
+                    max_last_seen INTEGER,
+                    PRIMARY KEY (status, listing_type)
+                ) WITHOUT ROWID
+            """);
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS latest_prices (
+                    series_key TEXT PRIMARY KEY,
+                    price REAL NOT NULL,
+                    last_seen INTEGER NOT NULL,
+                    listing_id TEXT NOT NULL
+                ) WITHOUT ROWID
+            """);
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_listings_counts_insert
+                AFTER INSERT ON listings
+                BEGIN
+                    %s;
+                END
+            """.formatted(COUNT_ADD_NEW_SQL));
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_listings_counts_delete
+                AFTER DELETE ON listings
+                BEGIN
+                    %s;
+                END
+            """.formatted(COUNT_REMOVE_OLD_SQL));
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_listings_counts_status
+                AFTER UPDATE OF status, listing_type ON listings
+                WHEN OLD.status IS NOT NEW.status OR OLD.listing_type IS NOT NEW.listing_type
+                BEGIN
+                    %s;
+                    %s;
+                END
+            """.formatted(COUNT_REMOVE_OLD_SQL, COUNT_ADD_NEW_SQL));
+            // Re-observations only move last_seen; the counter's newest last_seen follows them.
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_listings_counts_last_seen
+                AFTER UPDATE OF last_seen ON listings
+                WHEN OLD.status IS NEW.status AND OLD.listing_type IS NEW.listing_type AND OLD.last_seen IS NOT NEW.last_seen
+                BEGIN
+                    UPDATE listing_counts SET max_last_seen = CASE
+                        WHEN NEW.last_seen >= COALESCE(max_last_seen, NEW.last_seen) THEN NEW.last_seen
+                        WHEN OLD.last_seen < max_last_seen THEN max_last_seen
+                        ELSE (SELECT last_seen FROM listings WHERE status = NEW.status AND listing_type = NEW.listing_type
+                              ORDER BY last_seen DESC LIMIT 1)
+                    END
+                    WHERE status = NEW.status AND listing_type = NEW.listing_type;
+                END
+            """);
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_pokemon_listings_latest_price
+                AFTER INSERT ON pokemon_listings
+                BEGIN
+                    %s;
+                END
+            """.formatted(LATEST_PRICE_UPSERT_SQL.formatted(POKEMON_LATEST_PRICES_SQL + " AND p.listing_id = NEW.listing_id")));
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_item_listings_latest_price
+                AFTER INSERT ON item_listings
+                BEGIN
+                    %s;
+                END
+            """.formatted(LATEST_PRICE_UPSERT_SQL.formatted(ITEM_LATEST_PRICES_SQL + " AND i.listing_id = NEW.listing_id")));
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_listings_latest_price
+                AFTER UPDATE OF price, last_seen ON listings
+                BEGIN
+                    %s;
+                    %s;
+                END
+            """.formatted(
+                LATEST_PRICE_UPSERT_SQL.formatted(POKEMON_LATEST_PRICES_SQL + " AND p.listing_id = NEW.id"),
+                LATEST_PRICE_UPSERT_SQL.formatted(ITEM_LATEST_PRICES_SQL + " AND i.listing_id = NEW.id")));
+
+            // Insert-only history: seq is the rowid, so appends land at the end of the table in arrival order and a
+            // listing's history is one range of idx_listing_events_listing.
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS listing_events (
+                    seq INTEGER PRIMARY KEY,
+                    listing_id TEXT NOT NULL,
+                    observed_at INTEGER NOT NULL,
+                    event_type TEXT CHECK(event_type IN ('listed', 'repriced', 'status')) NOT NULL,
+                    price INTEGER NOT NULL,
+                    status TEXT
+                )
+            """);
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_listing_events_listing ON listing_events(listing_id, seq)
+            """);
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_listings_event_listed
+                AFTER INSERT ON listings
+                BEGIN
+                    INSERT INTO listing_events (listing_id, observed_at, event_type, price, status)
+                    VALUES (NEW.id, NEW.first_seen, 'listed', NEW.price, NEW.status);
+                END
+            """);
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_listings_event_repriced
+                AFTER UPDATE OF price ON listings
+                WHEN OLD.price IS NOT NEW.price
+                BEGIN
+                    INSERT INTO listing_events (listing_id, observed_at, event_type, price, status)
+                    VALUES (NEW.id, %s, 'repriced', NEW.price, NEW.status);
+                END
+            """.formatted(EVENT_TIME_SQL));
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_listings_event_status
+                AFTER UPDATE OF status ON listings
+                WHEN OLD.status IS NOT NEW.status
+                BEGIN
+                    INSERT INTO listing_events (listing_id, observed_at, event_type, price, status)
+                    VALUES (NEW.id, %s, 'status', NEW.price, NEW.status);
+                END
+            """.formatted(EVENT_TIME_SQL));
+            // Listings keep their id across reprices, so later prices reach the rollups through their events.
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_listing_events_price_buckets
+                AFTER INSERT ON listing_events
+                WHEN NEW.event_type = 'repriced'
+                BEGIN
+                    %s;
+                    %s;
+                END
+            """.formatted(
+                PRICE_BUCKET_UPSERT_SQL.formatted(REPRICED_POKEMON_OBSERVATION_SQL, RESOLUTIONS_SQL),
+                PRICE_BUCKET_UPSERT_SQL.formatted(REPRICED_ITEM_OBSERVATION_SQL, RESOLUTIONS_SQL)));
         }
     }
 }
@@ -12,11 +12,28 @@ import java.util.List;
 
 public class ItemListingDAO extends ListingDAO {
 
+    private final ActiveListingIndex activeListingIndex;
+
     public ItemListingDAO(DataSource dataSource) {
+        this(dataSource, null);
+    }
+
+    /**
+     * @param activeListingIndex optional in-memory index; price samples are served from it when it covers the cutoff
+     */
+    public ItemListingDAO(DataSource dataSource, ActiveListingIndex activeListingIndex) {
         super(dataSource);
+        this.activeListingIndex = activeListingIndex;
     }
 
     public List<PriceSample> getItemPriceSamples(String itemName, Instant cutoff) throws SQLException {
+        if (activeListingIndex != null && activeListingIndex.covers(cutoff.toEpochMilli())) {
+            List<PriceSample> samples = new ArrayList<>();
+            activeListingIndex.forEachItemSample(itemName, cutoff.toEpochMilli(),
+                (price, observedAtMs) -> samples.add(new PriceSample(BigDecimal.valueOf(price), toInstant(observedAtMs))));
+            return samples;
+        }
+
         String sql = """
             SELECT l.price, l.last_seen
             FROM listings l
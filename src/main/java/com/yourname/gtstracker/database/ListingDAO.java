@@ -2,18 +2,74 @@ package com.yourname.gtstracker.database;
 
 import javax.sql.DataSource;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Base DAO with shared listing queries and lifecycle hooks.
  */
 public class ListingDAO {
+    /** Status codes passed to {@link ListingColumnVisitor}. */
+    public static final byte STATUS_ACTIVE = 0;
+    public static final byte STATUS_SOLD = 1;
+    /** Expired, missing or any other non-active, unsold status. */
+    public static final byte STATUS_INACTIVE = 2;
+    /** Ids bound per {@code IN (...)} lookup, well under SQLite's host parameter limit. */
+    private static final int ID_LOOKUP_CHUNK = 500;
+
+    private static final String COLUMN_SCAN_SELECT = """
+        SELECT l.id,
+               CASE WHEN UPPER(l.listing_type) = 'POKEMON' THEN p.species ELSE i.item_name END AS display_name,
+               l.price,
+               l.last_seen,
+               CASE LOWER(l.status) WHEN 'active' THEN 0 WHEN 'sold' THEN 1 ELSE 2 END AS status_code
+        FROM listings l
+        LEFT JOIN pokemon_listings p ON p.listing_id = l.id
+        LEFT JOIN item_listings i ON i.listing_id = l.id
+        """;
+
+    private static final String ACTIVE_PAGE_SELECT = """
+        SELECT l.id,
+               l.listing_type,
+               p.species AS pokemon_species,
+               i.item_name,
+               COALESCE(p.is_shiny, 0) AS is_shiny,
+               p.iv_total,
+               l.price,
+               l.status,
+               l.first_seen,
+               l.last_seen,
+               COALESCE(i.quantity, 1) AS quantity
+        FROM listings l
+        LEFT JOIN pokemon_listings p ON p.listing_id = l.id
+        LEFT JOIN item_listings i ON i.listing_id = l.id
+        WHERE l.status = 'active'
+        """;
+
+    static final String ACTIVE_FIRST_PAGE_SQL = ACTIVE_PAGE_SELECT + """
+        ORDER BY l.last_seen DESC, l.id DESC
+        LIMIT ?
+        """;
+
+    /**
+     * Rows strictly after the cursor {@code (last_seen, id)} in {@code last_seen DESC, id DESC} order, the order of
+     * {@code idx_listings_status_last_seen}. The {@code last_seen <= ?} bound keeps the seek a range scan on it.
+     */
+    static final String ACTIVE_NEXT_PAGE_SQL = ACTIVE_PAGE_SELECT + """
+          AND l.last_seen <= ?
+          AND (l.last_seen < ? OR l.id < ?)
+        ORDER BY l.last_seen DESC, l.id DESC
+        LIMIT ?
+        """;
 
     protected final DataSource dataSource;
 
@@ -26,9 +82,13 @@ public class ListingDAO {
      */
     public void ensureIndexes() throws SQLException {
         String[] statements = {
-            "CREATE INDEX IF NOT EXISTS idx_listings_status_last_seen ON listings(status, last_seen DESC)",
+            DatabaseManager.STATUS_LAST_SEEN_INDEX_SQL,
             "CREATE INDEX IF NOT EXISTS idx_listings_type_status_last_seen ON listings(listing_type, status, last_seen DESC)",
+            DatabaseManager.STATUS_PRICE_INDEX_SQL,
+            "CREATE INDEX IF NOT EXISTS idx_listings_status_unit_price ON listings(status, unit_price, id)",
+            "CREATE INDEX IF NOT EXISTS idx_listings_status_iv_total ON listings(status, sort_iv_total, id)",
             "CREATE INDEX IF NOT EXISTS idx_pokemon_species_shiny_iv ON pokemon_listings(species, is_shiny, iv_total)",
+            "CREATE INDEX IF NOT EXISTS idx_pokemon_iv_total ON pokemon_listings(iv_total)",
             "CREATE INDEX IF NOT EXISTS idx_item_name ON item_listings(item_name)"
         };
 
@@ -41,6 +101,9 @@ public class ListingDAO {
         }
     }
 
+    /**
+     * Offset-based listing page. Cost grows with {@code offset}; scroll with {@link #getActiveListingsPage} instead.
+     */
     public List<ListingRow> getActiveListings(int limit, int offset) throws SQLException {
         String sql = """
             SELECT l.id,
@@ -75,6 +138,182 @@ public class ListingDAO {
         return rows;
     }
 
+    /**
+     * Keyset-paginated active listings, newest first with ties broken by id descending. Each page costs the same
+     * regardless of how deep the caller has scrolled.
+     *
+     * @param continuationToken {@code null} for the first page, otherwise {@link ListingPage#nextToken} of the
+     *                          previous page
+     * @throws IllegalArgumentException if the token was not produced by this method
+     */
+    public ListingPage getActiveListingsPage(int limit, String continuationToken) throws SQLException {
+        int pageSize = Math.max(1, limit);
+        PageCursor cursor = continuationToken == null ? null : PageCursor.decode(continuationToken);
+
+        List<ListingRow> rows = new ArrayList<>(pageSize + 1);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(cursor == null ? ACTIVE_FIRST_PAGE_SQL : ACTIVE_NEXT_PAGE_SQL)) {
+            int index = 1;
+            if (cursor != null) {
+                ps.setLong(index++, cursor.lastSeenMs());
+                ps.setLong(index++, cursor.lastSeenMs());
+                ps.setString(index++, cursor.id());
+            }
+            // One extra row tells us whether another page exists without a COUNT query.
+            ps.setInt(index, pageSize + 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ListingRow row = mapListingRow(rs);
+                    row.quantity = rs.getInt("quantity");
+                    rows.add(row);
+                }
+            }
+        }
+
+        if (rows.size() <= pageSize) {
+            return new ListingPage(rows, null);
+        }
+        rows.remove(pageSize);
+        ListingRow last = rows.get(pageSize - 1);
+        return new ListingPage(rows, new PageCursor(last.lastSeen.toEpochMilli(), last.id).encode());
+    }
+
+    /**
+     * Keyset-paginated market view for {@code query}. The unfiltered newest-first query is served by
+     * {@link #getActiveListingsPage}; anything else pages on {@code (sort key, id)}.
+     *
+     * @param continuationToken {@code null} for the first page, otherwise {@link ListingPage#nextToken} of the
+     *                          previous page of the same query
+     * @throws IllegalArgumentException if the token was not produced by this method
+     */
+    public ListingPage getListingsPage(ListingQuery query, int limit, String continuationToken) throws SQLException {
+        if (query.isDefault()) {
+            return getActiveListingsPage(limit, continuationToken);
+        }
+
+        int pageSize = Math.max(1, limit);
+        SortCursor cursor = continuationToken == null ? null : SortCursor.decode(continuationToken);
+        List<Object> parameters = new ArrayList<>();
+        String sql = query.toSql(cursor != null, parameters);
+
+        List<ListingRow> rows = new ArrayList<>(pageSize + 1);
+        double lastSortKey = 0;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (Object parameter : parameters) {
+                ps.setObject(index++, parameter);
+            }
+            if (cursor != null) {
+                ps.setDouble(index++, cursor.sortKey());
+                ps.setDouble(index++, cursor.sortKey());
+                ps.setString(index++, cursor.id());
+            }
+            ps.setInt(index, pageSize + 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ListingRow row = mapListingRow(rs);
+                    row.quantity = rs.getInt("quantity");
+                    rows.add(row);
+                    if (rows.size() == pageSize) {
+                        lastSortKey = rs.getDouble("sort_key");
+                    }
+                }
+            }
+        }
+
+        if (rows.size() <= pageSize) {
+            return new ListingPage(rows, null);
+        }
+        rows.remove(pageSize);
+        return new ListingPage(rows, new SortCursor(lastSortKey, rows.get(pageSize - 1).id).encode());
+    }
+
+    /**
+     * Streams the newest active listings to {@code visitor} straight from the result set, without building a
+     * {@link ListingRow} (and its {@code BigDecimal} and {@code Instant}s) per row.
+     *
+     * @return the number of rows visited
+     */
+    public int scanActiveListings(int limit, ListingColumnVisitor visitor) throws SQLException {
+        String sql = COLUMN_SCAN_SELECT + """
+            WHERE l.status = 'active'
+            ORDER BY l.last_seen DESC
+            LIMIT ?
+            """;
+        return scan(sql, limit, visitor);
+    }
+
+    /**
+     * Streams every listing, in any status, whose {@code last_seen} is at or after {@code timestamp}; the columnar
+     * counterpart of {@link #getRecentListingsSince}.
+     *
+     * @return the number of rows visited
+     */
+    public int scanListingsSince(Instant timestamp, ListingColumnVisitor visitor) throws SQLException {
+        String sql = COLUMN_SCAN_SELECT + """
+            WHERE l.last_seen >= ?
+            ORDER BY l.last_seen DESC
+            """;
+        return scan(sql, timestamp.toEpochMilli(), visitor);
+    }
+
+    /**
+     * Streams the listings with the given ids, in any status, e.g. to re-read rows whose status changed without
+     * their {@code last_seen} moving. Unknown ids are skipped.
+     *
+     * @return the number of rows visited
+     */
+    public int scanListingsByIds(Collection<String> ids, ListingColumnVisitor visitor) throws SQLException {
+        List<String> remaining = List.copyOf(ids);
+        int visited = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            for (int start = 0; start < remaining.size(); start += ID_LOOKUP_CHUNK) {
+                List<String> chunk = remaining.subList(start, Math.min(remaining.size(), start + ID_LOOKUP_CHUNK));
+                String sql = COLUMN_SCAN_SELECT + "WHERE l.id IN (" + "?, ".repeat(chunk.size() - 1) + "?)";
+                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        ps.setString(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        visited += visitColumns(rs, visitor);
+                    }
+                }
+            }
+        }
+        return visited;
+    }
+
+    private int scan(String sql, long parameter, ListingColumnVisitor visitor) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setLong(1, parameter);
+            try (ResultSet rs = ps.executeQuery()) {
+                return visitColumns(rs, visitor);
+            }
+        }
+    }
+
+    private static int visitColumns(ResultSet rs, ListingColumnVisitor visitor) throws SQLException {
+        int visited = 0;
+        while (rs.next()) {
+            String id = rs.getString(1);
+            visitor.visit(id, resolveDisplayName(rs.getString(2), id), rs.getDouble(3), rs.getLong(4), (byte) rs.getInt(5));
+            visited++;
+        }
+        return visited;
+    }
+
+    /**
+     * Species or item name shown for a listing, falling back to its id (or a placeholder) when blank.
+     */
+    public static String resolveDisplayName(String name, String id) {
+        if (name != null && !name.isBlank()) {
+            return name;
+        }
+        return id == null || id.isBlank() ? "Unknown Listing" : id;
+    }
+
     public List<ListingRow> getRecentListingsSince(Instant timestamp) throws SQLException {
         String sql = """
             SELECT l.id,
@@ -108,8 +347,11 @@ public class ListingDAO {
     }
 
 
+    /**
+     * Reads the trigger-maintained {@code listing_counts}, so the cost does not grow with the table.
+     */
     public int getActiveListingsCount() throws SQLException {
-        String sql = "SELECT COUNT(*) AS c FROM listings WHERE status = 'active'";
+        String sql = "SELECT COALESCE(SUM(listing_count), 0) AS c FROM listing_counts WHERE status = 'active'";
 
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql);
@@ -119,7 +361,7 @@ public class ListingDAO {
     }
 
     public java.util.Optional<Instant> getMaxLastSeenForActiveListings() throws SQLException {
-        String sql = "SELECT MAX(last_seen) AS last_seen FROM listings WHERE status = 'active'";
+        String sql = "SELECT MAX(max_last_seen) AS last_seen FROM listing_counts WHERE status = 'active'";
 
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql);
@@ -137,7 +379,8 @@ public class ListingDAO {
     }
 
     /**
-     * Hook for future status lifecycle logic.
+     * Coarse time-based sweep over every active row. Listings seen on the GTS screen are moved through their lifecycle
+     * scan by scan instead (see {@code ListingLifecycleEngine}); this remains for listings only ever seen in chat.
      *
      * @return number of rows marked as missing or expired
      */
@@ -199,6 +442,64 @@ public class ListingDAO {
         return Instant.ofEpochMilli(epochMillis);
     }
 
+    @FunctionalInterface
+    public interface ListingColumnVisitor {
+        /**
+         * @param status one of {@link ListingDAO#STATUS_ACTIVE}, {@link ListingDAO#STATUS_SOLD} or {@link ListingDAO#STATUS_INACTIVE}
+         */
+        void visit(String id, String displayName, double price, long lastSeenMs, byte status);
+    }
+
+    public static class ListingPage {
+        public final List<ListingRow> rows;
+        /** Opaque token for the following page, or {@code null} on the last page. */
+        public final String nextToken;
+
+        public ListingPage(List<ListingRow> rows, String nextToken) {
+            this.rows = rows;
+            this.nextToken = nextToken;
+        }
+
+        public boolean hasMore() {
+            return nextToken != null;
+        }
+    }
+
+    private record SortCursor(double sortKey, String id) {
+        String encode() {
+            return new PageCursor(Double.doubleToLongBits(sortKey), id).encode();
+        }
+
+        static SortCursor decode(String token) {
+            PageCursor cursor = PageCursor.decode(token);
+            return new SortCursor(Double.longBitsToDouble(cursor.lastSeenMs()), cursor.id());
+        }
+    }
+
+    private record PageCursor(long lastSeenMs, String id) {
+        String encode() {
+            byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + idBytes.length);
+            buffer.putLong(lastSeenMs).put(idBytes);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+        }
+
+        static PageCursor decode(String token) {
+            byte[] bytes;
+            try {
+                bytes = Base64.getUrlDecoder().decode(token);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Malformed listing page token.", e);
+            }
+            if (bytes.length <= Long.BYTES) {
+                throw new IllegalArgumentException("Malformed listing page token.");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            long lastSeenMs = buffer.getLong();
+            return new PageCursor(lastSeenMs, new String(bytes, Long.BYTES, bytes.length - Long.BYTES, StandardCharsets.UTF_8));
+        }
+    }
+
     public static class ListingRow {
         public String id;
         public String listingType;
@@ -210,5 +511,7 @@ public class ListingDAO {
         public String status;
         public Instant firstSeen;
         public Instant lastSeen;
+        /** Item stack size; {@code null} when the query did not select it. */
+        public Integer quantity;
     }
 }
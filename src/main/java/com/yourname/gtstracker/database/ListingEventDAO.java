@@ -0,0 +1,100 @@
+package com.yourname.gtstracker.database;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the append-only {@code listing_events} history. {@link DatabaseManager} records an event from triggers
+ * whenever a listing is first stored, repriced or changes status, so {@code listings} only ever holds current state
+ * and history reads are range scans: by sequence number for a feed of recent changes, or through
+ * {@code idx_listing_events_listing} for one listing.
+ */
+public class ListingEventDAO {
+    static final String HISTORY_SQL = """
+        SELECT seq, listing_id, observed_at, event_type, price, status
+        FROM listing_events
+        WHERE listing_id = ?
+        ORDER BY seq ASC
+        """;
+
+    static final String EVENTS_AFTER_SQL = """
+        SELECT seq, listing_id, observed_at, event_type, price, status
+        FROM listing_events
+        WHERE seq > ?
+        ORDER BY seq ASC
+        LIMIT ?
+        """;
+
+    public enum EventType {
+        LISTED,
+        REPRICED,
+        STATUS;
+
+        static EventType fromDb(String value) {
+            return switch (value) {
+                case "listed" -> LISTED;
+                case "repriced" -> REPRICED;
+                case "status" -> STATUS;
+                default -> throw new IllegalStateException("Unknown listing event type: " + value);
+            };
+        }
+    }
+
+    /**
+     * One change to a listing. {@code price} and {@code status} are the listing's values after the change.
+     */
+    public record ListingEvent(long seq, String listingId, long observedAtMs, EventType type, int price, String status) {
+    }
+
+    protected final DataSource dataSource;
+
+    public ListingEventDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * @return every recorded event of the listing, oldest first
+     */
+    public List<ListingEvent> getHistory(String listingId) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(HISTORY_SQL)) {
+            ps.setString(1, listingId);
+            return readEvents(ps);
+        }
+    }
+
+    /**
+     * Events recorded after {@code afterSeq}, oldest first. Pass the last returned {@code seq} back in to follow the
+     * feed; {@code 0} starts from the beginning.
+     */
+    public List<ListingEvent> getEventsAfter(long afterSeq, int limit) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(EVENTS_AFTER_SQL)) {
+            ps.setLong(1, afterSeq);
+            ps.setInt(2, Math.max(1, limit));
+            return readEvents(ps);
+        }
+    }
+
+    private static List<ListingEvent> readEvents(PreparedStatement ps) throws SQLException {
+        List<ListingEvent> events = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                events.add(new ListingEvent(
+                    rs.getLong("seq"),
+                    rs.getString("listing_id"),
+                    rs.getLong("observed_at"),
+                    EventType.fromDb(rs.getString("event_type")),
+                    rs.getInt("price"),
+                    rs.getString("status")
+                ));
+            }
+        }
+        return events;
+    }
+}
@@ -0,0 +1,246 @@
+package com.yourname.gtstracker.database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable filter and sort for the market view over active listings. Each {@code with*} call returns a copy, so a
+ * query can be shared between the GUI and a background loader.
+ * <p>
+ * {@link #toSql} compiles to a parameterized statement whose filters line up with the schema's indexes: species,
+ * shiny and minimum IV seek {@code idx_pokemon_species_shiny_iv}, IV alone {@code idx_pokemon_iv_total}, item name
+ * {@code idx_item_name}, and price bounds {@code idx_listings_status_price}. Pages continue from an opaque
+ * {@code (sort key, id)} cursor, like {@link ListingDAO#getActiveListingsPage}.
+ * <p>
+ * Every sort key is a column of {@code listings} with a {@code (status, key, id)} index, and ties are broken by id in
+ * the sort direction, so without a species, item or IV filter a page is read in index order and costs the same at
+ * any depth. Those filters seek their own index instead and sort just the matching rows.
+ */
+public final class ListingQuery {
+    public enum SortColumn {
+        PRICE("l.price"),
+        LAST_SEEN("l.last_seen"),
+        /** Stored on {@code listings}: the Pokémon's IV total, {@code -1} for items. */
+        IV_TOTAL("l.sort_iv_total"),
+        /** Stored on {@code listings}: price divided by stack size. */
+        UNIT_PRICE("l.unit_price");
+
+        private final String expression;
+
+        SortColumn(String expression) {
+            this.expression = expression;
+        }
+    }
+
+    private static final ListingQuery ACTIVE_LISTINGS = new ListingQuery(
+        null, null, null, null, null, null, SortColumn.LAST_SEEN, true);
+
+    private final String species;
+    private final Boolean shiny;
+    private final Integer minIvTotal;
+    private final String itemName;
+    private final Integer minPrice;
+    private final Integer maxPrice;
+    private final SortColumn sortColumn;
+    private final boolean descending;
+
+    private ListingQuery(String species, Boolean shiny, Integer minIvTotal, String itemName, Integer minPrice,
+                         Integer maxPrice, SortColumn sortColumn, boolean descending) {
+        this.species = blankToNull(species);
+        this.shiny = shiny;
+        this.minIvTotal = minIvTotal;
+        this.itemName = blankToNull(itemName);
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.sortColumn = Objects.requireNonNull(sortColumn, "sortColumn");
+        this.descending = descending;
+    }
+
+    /**
+     * @return every active listing, newest first
+     */
+    public static ListingQuery activeListings() {
+        return ACTIVE_LISTINGS;
+    }
+
+    /** Exact species name as it appears in chat, or {@code null} for any. */
+    public ListingQuery withSpecies(String species) {
+        return new ListingQuery(species, shiny, minIvTotal, itemName, minPrice, maxPrice, sortColumn, descending);
+    }
+
+    public ListingQuery withShiny(Boolean shiny) {
+        return new ListingQuery(species, shiny, minIvTotal, itemName, minPrice, maxPrice, sortColumn, descending);
+    }
+
+    public ListingQuery withMinIvTotal(Integer minIvTotal) {
+        return new ListingQuery(species, shiny, minIvTotal, itemName, minPrice, maxPrice, sortColumn, descending);
+    }
+
+    /** Exact item name as it appears in chat, or {@code null} for any. */
+    public ListingQuery withItemName(String itemName) {
+        return new ListingQuery(species, shiny, minIvTotal, itemName, minPrice, maxPrice, sortColumn, descending);
+    }
+
+    /**
+     * @param minPrice inclusive lower bound, or {@code null}
+     * @param maxPrice inclusive upper bound, or {@code null}
+     */
+    public ListingQuery withPriceRange(Integer minPrice, Integer maxPrice) {
+        return new ListingQuery(species, shiny, minIvTotal, itemName, minPrice, maxPrice, sortColumn, descending);
+    }
+
+    public ListingQuery sortedBy(SortColumn sortColumn, boolean descending) {
+        return new ListingQuery(species, shiny, minIvTotal, itemName, minPrice, maxPrice, sortColumn, descending);
+    }
+
+    public String getSpecies() {
+        return species;
+    }
+
+    public Boolean getShiny() {
+        return shiny;
+    }
+
+    public Integer getMinIvTotal() {
+        return minIvTotal;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public Integer getMinPrice() {
+        return minPrice;
+    }
+
+    public Integer getMaxPrice() {
+        return maxPrice;
+    }
+
+    public SortColumn getSortColumn() {
+        return sortColumn;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * @return {@code true} for the unfiltered newest-first view served by {@link ListingDAO#getActiveListingsPage}
+     */
+    public boolean isDefault() {
+        return equals(ACTIVE_LISTINGS);
+    }
+
+    /**
+     * Builds the page statement. With {@code continuation} the statement expects, after the filter parameters, the
+     * cursor's sort key twice and its id, then the limit.
+     *
+     * @param parameters receives the filter parameters in bind order
+     */
+    String toSql(boolean continuation, List<Object> parameters) {
+        String sortKey = sortColumn.expression;
+        StringBuilder sql = new StringBuilder("""
+            SELECT l.id,
+                   l.listing_type,
+                   p.species AS pokemon_species,
+                   i.item_name,
+                   COALESCE(p.is_shiny, 0) AS is_shiny,
+                   p.iv_total,
+                   l.price,
+                   l.status,
+                   l.first_seen,
+                   l.last_seen,
+                   COALESCE(i.quantity, 1) AS quantity,
+            """);
+        sql.append("       ").append(sortKey).append(" AS sort_key\n");
+        // CROSS JOIN pins the join order so a selective name/IV filter drives the scan through its index instead of
+        // every active row being probed; SQLite has no table statistics to make that choice on its own.
+        if (species != null || minIvTotal != null) {
+            sql.append("FROM pokemon_listings p\n");
+            sql.append("CROSS JOIN listings l ON l.id = p.listing_id\n");
+            sql.append("LEFT JOIN item_listings i ON i.listing_id = l.id\n");
+        } else if (itemName != null) {
+            sql.append("FROM item_listings i\n");
+            sql.append("CROSS JOIN listings l ON l.id = i.listing_id\n");
+            sql.append("LEFT JOIN pokemon_listings p ON p.listing_id = l.id\n");
+        } else {
+            sql.append("FROM listings l\n");
+            sql.append(shiny != null ? "JOIN" : "LEFT JOIN").append(" pokemon_listings p ON p.listing_id = l.id\n");
+            sql.append("LEFT JOIN item_listings i ON i.listing_id = l.id\n");
+        }
+        sql.append("WHERE l.status = 'active'\n");
+
+        if (species != null) {
+            sql.append("  AND p.species = ?\n");
+            parameters.add(species);
+        }
+        if (shiny != null) {
+            sql.append("  AND p.is_shiny = ?\n");
+            parameters.add(shiny ? 1 : 0);
+        }
+        if (minIvTotal != null) {
+            sql.append("  AND p.iv_total >= ?\n");
+            parameters.add(minIvTotal);
+        }
+        if (itemName != null) {
+            sql.append("  AND i.item_name = ?\n");
+            parameters.add(itemName);
+        }
+        if (minPrice != null) {
+            sql.append("  AND l.price >= ?\n");
+            parameters.add(minPrice);
+        }
+        if (maxPrice != null) {
+            sql.append("  AND l.price <= ?\n");
+            parameters.add(maxPrice);
+        }
+
+        String direction = descending ? "DESC" : "ASC";
+        if (continuation) {
+            // Same shape as ACTIVE_NEXT_PAGE_SQL: the non-strict bound lets the planner seek on the sort key.
+            String bound = descending ? "<" : ">";
+            sql.append("  AND ").append(sortKey).append(' ').append(bound).append("= ?\n");
+            sql.append("  AND (").append(sortKey).append(' ').append(bound).append(" ? OR l.id ").append(bound).append(" ?)\n");
+        }
+        // Ties follow the sort direction, so one (status, sort key, id) index serves both directions.
+        sql.append("ORDER BY sort_key ").append(direction).append(", l.id ").append(direction).append('\n');
+        sql.append("LIMIT ?\n");
+        return sql.toString();
+    }
+
+    /**
+     * @return the unbound first-page statement, for {@link ListingDAO#explainQueryPlan}
+     */
+    public String toFirstPageSql() {
+        return toSql(false, new ArrayList<>());
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ListingQuery that)) {
+            return false;
+        }
+        return descending == that.descending
+            && Objects.equals(species, that.species)
+            && Objects.equals(shiny, that.shiny)
+            && Objects.equals(minIvTotal, that.minIvTotal)
+            && Objects.equals(itemName, that.itemName)
+            && Objects.equals(minPrice, that.minPrice)
+            && Objects.equals(maxPrice, that.maxPrice)
+            && sortColumn == that.sortColumn;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(species, shiny, minIvTotal, itemName, minPrice, maxPrice, sortColumn, descending);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
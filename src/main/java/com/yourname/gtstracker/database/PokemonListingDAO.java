@@ -12,11 +12,28 @@ import java.util.List;
 
 public class PokemonListingDAO extends ListingDAO {
 
+    private final ActiveListingIndex activeListingIndex;
+
     public PokemonListingDAO(DataSource dataSource) {
+        this(dataSource, null);
+    }
+
+    /**
+     * @param activeListingIndex optional in-memory index; price samples are served from it when it covers the cutoff
+     */
+    public PokemonListingDAO(DataSource dataSource, ActiveListingIndex activeListingIndex) {
         super(dataSource);
+        this.activeListingIndex = activeListingIndex;
     }
 
     public List<PriceSample> getPokemonPriceSamples(String species, boolean shinyOnly, Integer minIv, Instant cutoff) throws SQLException {
+        if (activeListingIndex != null && activeListingIndex.covers(cutoff.toEpochMilli())) {
+            List<PriceSample> samples = new ArrayList<>();
+            activeListingIndex.forEachPokemonSample(species, shinyOnly, minIv, cutoff.toEpochMilli(),
+                (price, observedAtMs) -> samples.add(new PriceSample(BigDecimal.valueOf(price), toInstant(observedAtMs))));
+            return samples;
+        }
+
         StringBuilder sql = new StringBuilder("""
             SELECT l.price, l.last_seen
             FROM listings l
@@ -0,0 +1,192 @@
+package com.yourname.gtstracker.database;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads the OHLC rollups in {@code price_buckets}. {@link DatabaseManager} keeps the buckets current with insert
+ * triggers on {@code pokemon_listings} and {@code item_listings}, so a chart over the whole retention window reads
+ * one row per bucket instead of every listing in it. The latest price per series is a single-row lookup in
+ * {@code latest_prices}, maintained the same way.
+ * <p>
+ * A series is one species (shiny tracked separately) or one item; item prices are per unit.
+ */
+public class PriceHistoryDAO {
+    /** Roughly one bucket per horizontal pixel of a chart. */
+    public static final int DEFAULT_MAX_BUCKETS = 500;
+
+    private static final String SERIES_SQL = """
+        SELECT bucket_start, open, high, low, close, volume, price_sum
+        FROM price_buckets
+        WHERE series_key = %s
+          AND resolution_ms = ?
+          AND bucket_start >= ?
+          AND bucket_start < ?
+        ORDER BY bucket_start ASC
+        """;
+
+    static final String POKEMON_SERIES_SQL = SERIES_SQL.formatted(pokemonSeriesKey("?", "?"));
+    static final String ITEM_SERIES_SQL = SERIES_SQL.formatted(itemSeriesKey("?"));
+
+    private static final String LATEST_PRICE_SQL = "SELECT price, last_seen, listing_id FROM latest_prices WHERE series_key = %s";
+    static final String POKEMON_LATEST_PRICE_SQL = LATEST_PRICE_SQL.formatted(pokemonSeriesKey("?", "?"));
+    static final String ITEM_LATEST_PRICE_SQL = LATEST_PRICE_SQL.formatted(itemSeriesKey("?"));
+
+    public enum Resolution {
+        MINUTE(60_000L),
+        HOUR(3_600_000L),
+        DAY(86_400_000L);
+
+        private final long millis;
+
+        Resolution(long millis) {
+            this.millis = millis;
+        }
+
+        public long millis() {
+            return millis;
+        }
+
+        public long bucketStart(long epochMs) {
+            return epochMs - Math.floorMod(epochMs, millis);
+        }
+
+        /**
+         * @return the finest resolution that covers {@code [from, to)} in at most {@code maxBuckets} buckets, or
+         * {@link #DAY} if none does
+         */
+        public static Resolution forRange(Instant from, Instant to, int maxBuckets) {
+            long span = Math.max(0L, to.toEpochMilli() - from.toEpochMilli());
+            for (Resolution resolution : values()) {
+                if (span / resolution.millis < maxBuckets) {
+                    return resolution;
+                }
+            }
+            return DAY;
+        }
+    }
+
+    /**
+     * One bucket of a series. {@code open}/{@code close} are the prices of the earliest and latest listing first
+     * seen in the bucket; {@code volume} is the number of listings.
+     */
+    public record PriceBucket(long startMs, double open, double high, double low, double close, int volume, double priceSum) {
+        public double average() {
+            return volume == 0 ? Double.NaN : priceSum / volume;
+        }
+    }
+
+    /**
+     * Price of the most recently seen listing of a series, from the trigger-maintained {@code latest_prices}.
+     */
+    public record LatestPrice(double price, long lastSeenMs, String listingId) {
+    }
+
+    protected final DataSource dataSource;
+
+    public PriceHistoryDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Buckets for a species over {@code [from, to)} at a resolution chosen by {@link Resolution#forRange}.
+     */
+    public List<PriceBucket> getPokemonHistory(String species, boolean shiny, Instant from, Instant to) throws SQLException {
+        return getPokemonHistory(species, shiny, Resolution.forRange(from, to, DEFAULT_MAX_BUCKETS), from, to);
+    }
+
+    public List<PriceBucket> getPokemonHistory(String species, boolean shiny, Resolution resolution, Instant from, Instant to)
+        throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(POKEMON_SERIES_SQL)) {
+            ps.setString(1, species);
+            ps.setInt(2, shiny ? 1 : 0);
+            return readBuckets(ps, 3, resolution, from, to);
+        }
+    }
+
+    /**
+     * Per-unit price buckets for an item over {@code [from, to)} at a resolution chosen by {@link Resolution#forRange}.
+     */
+    public List<PriceBucket> getItemHistory(String itemName, Instant from, Instant to) throws SQLException {
+        return getItemHistory(itemName, Resolution.forRange(from, to, DEFAULT_MAX_BUCKETS), from, to);
+    }
+
+    public List<PriceBucket> getItemHistory(String itemName, Resolution resolution, Instant from, Instant to) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(ITEM_SERIES_SQL)) {
+            ps.setString(1, itemName);
+            return readBuckets(ps, 2, resolution, from, to);
+        }
+    }
+
+    public Optional<LatestPrice> getLatestPokemonPrice(String species, boolean shiny) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(POKEMON_LATEST_PRICE_SQL)) {
+            ps.setString(1, species);
+            ps.setInt(2, shiny ? 1 : 0);
+            return readLatestPrice(ps);
+        }
+    }
+
+    /**
+     * @return the per-unit price of the item's most recently seen listing
+     */
+    public Optional<LatestPrice> getLatestItemPrice(String itemName) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(ITEM_LATEST_PRICE_SQL)) {
+            ps.setString(1, itemName);
+            return readLatestPrice(ps);
+        }
+    }
+
+    /**
+     * SQL expression for a Pokémon series key. Writers and readers both lower-case in SQLite so they agree on
+     * non-ASCII names, which SQLite's {@code lower()} leaves untouched.
+     */
+    static String pokemonSeriesKey(String speciesExpr, String shinyExpr) {
+        return "('P:' || lower(" + speciesExpr + ") || CASE WHEN " + shinyExpr + " THEN ':shiny' ELSE '' END)";
+    }
+
+    static String itemSeriesKey(String itemNameExpr) {
+        return "('I:' || lower(" + itemNameExpr + "))";
+    }
+
+    private static Optional<LatestPrice> readLatestPrice(PreparedStatement ps) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) {
+                return Optional.empty();
+            }
+            return Optional.of(new LatestPrice(rs.getDouble("price"), rs.getLong("last_seen"), rs.getString("listing_id")));
+        }
+    }
+
+    private static List<PriceBucket> readBuckets(PreparedStatement ps, int firstRangeParam, Resolution resolution,
+                                                 Instant from, Instant to) throws SQLException {
+        ps.setLong(firstRangeParam, resolution.millis());
+        ps.setLong(firstRangeParam + 1, resolution.bucketStart(from.toEpochMilli()));
+        ps.setLong(firstRangeParam + 2, to.toEpochMilli());
+        List<PriceBucket> buckets = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                buckets.add(new PriceBucket(
+                    rs.getLong("bucket_start"),
+                    rs.getDouble("open"),
+                    rs.getDouble("high"),
+                    rs.getDouble("low"),
+                    rs.getDouble("close"),
+                    rs.getInt("volume"),
+                    rs.getDouble("price_sum")
+                ));
+            }
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,176 @@
+package com.yourname.gtstracker.database;
+
+import com.yourname.gtstracker.GTSTrackerMod;
+import com.yourname.gtstracker.database.PriceHistoryDAO.Resolution;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Enforces {@code dataRetentionDays}: deletes listings not seen within the retention window, listing events older
+ * than the window and price buckets finer than their charts need, then returns the freed pages to the file system.
+ * <p>
+ * Prices are already rolled up into {@code price_buckets} as listings arrive, so dropping raw rows keeps their
+ * history; daily buckets are never deleted. Deletes run in small transactions, each holding the write lock only for
+ * its own batch, so ingestion interleaves with a long compaction instead of waiting for it.
+ */
+public final class RetentionCompactor {
+    static final int DEFAULT_BATCH_SIZE = 500;
+    /** Minute buckets only back charts of a few hours. */
+    static final long MINUTE_BUCKET_RETENTION_MS = TimeUnit.DAYS.toMillis(7);
+    private static final int VACUUM_PAGES_PER_STEP = 512;
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    private static final String DELETE_LISTINGS_SQL = """
+        DELETE FROM listings
+        WHERE id IN (SELECT id FROM listings WHERE last_seen < ? LIMIT ?)
+        """;
+
+    private static final String DELETE_BUCKETS_SQL = """
+        DELETE FROM price_buckets
+        WHERE (series_key, resolution_ms, bucket_start) IN (
+            SELECT series_key, resolution_ms, bucket_start
+            FROM price_buckets
+            WHERE resolution_ms = ? AND bucket_start < ?
+            LIMIT ?
+        )
+        """;
+
+    /**
+     * Truncates the head of the event log. Events are appended in time order, so each batch looks only at the oldest
+     * rows and the pass ends at the first batch that reaches events still inside the window.
+     */
+    private static final String DELETE_EVENTS_SQL = """
+        WITH head AS (SELECT seq, observed_at FROM listing_events ORDER BY seq LIMIT ?2)
+        DELETE FROM listing_events
+        WHERE seq IN (SELECT seq FROM head WHERE observed_at < ?1)
+        """;
+
+    /**
+     * @param reclaimedBytes how much the database file shrank; {@code 0} when freed pages could only be kept for reuse
+     */
+    public record Report(int deletedListings, int deletedEvents, int deletedBuckets, long reclaimedBytes, long durationMs) {
+    }
+
+    private final DataSource writer;
+    private final long retentionMs;
+    private final int batchSize;
+    private final LongSupplier clock;
+    private volatile Report lastReport;
+
+    public RetentionCompactor(DatabaseManager databaseManager, int retentionDays) {
+        this(databaseManager.getWriteDataSource(), TimeUnit.DAYS.toMillis(Math.max(1, retentionDays)), DEFAULT_BATCH_SIZE,
+            System::currentTimeMillis);
+    }
+
+    RetentionCompactor(DataSource writer, long retentionMs, int batchSize, LongSupplier clock) {
+        this.writer = writer;
+        this.retentionMs = retentionMs;
+        this.batchSize = Math.max(1, batchSize);
+        this.clock = clock;
+    }
+
+    /**
+     * @return the outcome of the most recent completed run, or {@code null} before the first
+     */
+    public Report getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Runs one compaction pass. Stops early, keeping whatever batches already committed, if the thread is interrupted.
+     */
+    public Report compact() throws SQLException {
+        long startedAt = clock.getAsLong();
+        long sizeBefore = databaseSize();
+
+        int deletedListings = deleteInBatches(DELETE_LISTINGS_SQL, startedAt - retentionMs, null);
+        int deletedEvents = deleteInBatches(DELETE_EVENTS_SQL, startedAt - retentionMs, null);
+        int deletedBuckets = deleteInBatches(DELETE_BUCKETS_SQL, startedAt - MINUTE_BUCKET_RETENTION_MS, Resolution.MINUTE)
+            + deleteInBatches(DELETE_BUCKETS_SQL, startedAt - retentionMs, Resolution.HOUR);
+        vacuumFreePages();
+        try (Connection connection = writer.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA optimize");
+        }
+
+        Report report = new Report(deletedListings, deletedEvents, deletedBuckets, Math.max(0L, sizeBefore - databaseSize()),
+            clock.getAsLong() - startedAt);
+        lastReport = report;
+        GTSTrackerMod.LOGGER.info(
+            "Retention compaction removed {} listing(s), {} listing event(s) and {} price bucket(s), reclaimed {} byte(s) in {} ms.",
+            report.deletedListings(), report.deletedEvents(), report.deletedBuckets(), report.reclaimedBytes(), report.durationMs()
+        );
+        return report;
+    }
+
+    /**
+     * @param resolution bucket resolution to delete, or {@code null} for listings and events
+     */
+    private int deleteInBatches(String sql, long cutoffMs, Resolution resolution) throws SQLException {
+        int deleted = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            int batch;
+            try (Connection connection = writer.getConnection()) {
+                connection.setAutoCommit(false);
+                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                    int index = 1;
+                    if (resolution != null) {
+                        ps.setLong(index++, resolution.millis());
+                    }
+                    ps.setLong(index++, cutoffMs);
+                    ps.setInt(index, batchSize);
+                    batch = ps.executeUpdate();
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            }
+            deleted += batch;
+            if (batch < batchSize) {
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    private void vacuumFreePages() throws SQLException {
+        long freePages = Long.MAX_VALUE;
+        while (!Thread.currentThread().isInterrupted()) {
+            try (Connection connection = writer.getConnection();
+                 Statement stmt = connection.createStatement()) {
+                if (queryLong(stmt, "PRAGMA auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+                    return;
+                }
+                long remaining = queryLong(stmt, "PRAGMA freelist_count");
+                if (remaining == 0 || remaining >= freePages) {
+                    return;
+                }
+                freePages = remaining;
+                stmt.execute("PRAGMA incremental_vacuum(" + VACUUM_PAGES_PER_STEP + ")");
+            }
+        }
+    }
+
+    private long databaseSize() throws SQLException {
+        try (Connection connection = writer.getConnection();
+             Statement stmt = connection.createStatement()) {
+            return queryLong(stmt, "PRAGMA page_count") * queryLong(stmt, "PRAGMA page_size");
+        }
+    }
+
+    private static long queryLong(Statement stmt, String sql) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+}
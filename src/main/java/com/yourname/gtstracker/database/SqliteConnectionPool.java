@@ -0,0 +1,328 @@
+package com.yourname.gtstracker.database;
+
+import com.yourname.gtstracker.GTSTrackerMod;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Small SQLite connection pool that splits reads from writes.
+ * <p>
+ * {@link #getConnection()} lends one of a bounded set of {@code query_only} reader connections, which WAL mode lets
+ * run concurrently with the writer. {@link #writer()} exposes the single writer connection owned by
+ * {@link DatabaseManager}, serialized by the manager's write lock. Connections handed out by either view are
+ * proxies: closing them returns the reader to the pool or releases the write lock, never the physical connection.
+ */
+public final class SqliteConnectionPool implements DataSource, AutoCloseable {
+    private static final long BORROW_TIMEOUT_MS = 5_000L;
+
+    private final Supplier<String> jdbcUrl;
+    private final Supplier<Connection> writerConnection;
+    private final Lock writeLock;
+    private final int maxReaders;
+    private final LinkedBlockingDeque<Connection> idleReaders = new LinkedBlockingDeque<>();
+    private final List<Connection> allReaders = new ArrayList<>();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final DataSource writerView = new WriterDataSource();
+
+    SqliteConnectionPool(Supplier<String> jdbcUrl, Supplier<Connection> writerConnection, Lock writeLock, int maxReaders) {
+        this.jdbcUrl = jdbcUrl;
+        this.writerConnection = writerConnection;
+        this.writeLock = writeLock;
+        this.maxReaders = Math.max(0, maxReaders);
+    }
+
+    /**
+     * Data source view over the single writer connection. Each borrowed connection holds the write lock until closed.
+     */
+    public DataSource writer() {
+        return writerView;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed.get()) {
+            throw new SQLException("Connection pool is closed.");
+        }
+
+        String url = jdbcUrl.get();
+        if (url == null) {
+            throw new SQLException("Database connection is not initialized.");
+        }
+        if (maxReaders == 0 || isInMemory(url)) {
+            // Separate connections would not share an in-memory database, so reads go through the writer.
+            return borrowWriter();
+        }
+
+        Connection reader = idleReaders.pollFirst();
+        if (reader == null) {
+            reader = openReaderIfCapacity(url);
+        }
+        if (reader == null) {
+            try {
+                reader = idleReaders.pollFirst(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a reader connection.", interruptedException);
+            }
+            if (reader == null) {
+                throw new SQLException("Timed out waiting for a reader connection after " + BORROW_TIMEOUT_MS + " ms.");
+            }
+        }
+        return lend(reader, this::release);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    public int getOpenReaderCount() {
+        synchronized (allReaders) {
+            return allReaders.size();
+        }
+    }
+
+    public int getIdleReaderCount() {
+        return idleReaders.size();
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (allReaders) {
+            for (Connection reader : allReaders) {
+                closeQuietly(reader);
+            }
+            allReaders.clear();
+        }
+        idleReaders.clear();
+    }
+
+    private Connection openReaderIfCapacity(String url) throws SQLException {
+        synchronized (allReaders) {
+            if (allReaders.size() >= maxReaders) {
+                return null;
+            }
+            Connection reader = DriverManager.getConnection(url);
+            try (Statement stmt = reader.createStatement()) {
+                stmt.execute("PRAGMA query_only = ON");
+                stmt.execute("PRAGMA busy_timeout = 2000");
+            } catch (SQLException e) {
+                closeQuietly(reader);
+                throw e;
+            }
+            allReaders.add(reader);
+            return reader;
+        }
+    }
+
+    private void release(Connection reader) {
+        try {
+            if (!reader.getAutoCommit()) {
+                reader.rollback();
+                reader.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            GTSTrackerMod.LOGGER.warn("Discarding reader connection that could not be reset.", e);
+            discard(reader);
+            return;
+        }
+
+        if (closed.get()) {
+            discard(reader);
+        } else {
+            idleReaders.offerFirst(reader);
+        }
+    }
+
+    private void discard(Connection reader) {
+        synchronized (allReaders) {
+            allReaders.remove(reader);
+        }
+        closeQuietly(reader);
+    }
+
+    private Connection borrowWriter() throws SQLException {
+        try {
+            if (!writeLock.tryLock(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for the writer connection after " + BORROW_TIMEOUT_MS + " ms.");
+            }
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the writer connection.", interruptedException);
+        }
+
+        Connection writer = writerConnection.get();
+        if (writer == null) {
+            writeLock.unlock();
+            throw new SQLException("Database connection is not initialized.");
+        }
+        return lend(writer, ignored -> writeLock.unlock());
+    }
+
+    private static boolean isInMemory(String url) {
+        return url.contains(":memory:") || url.contains("mode=memory");
+    }
+
+    private static Connection lend(Connection target, Consumer<Connection> onClose) {
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            new LentConnectionHandler(target, onClose)
+        );
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            GTSTrackerMod.LOGGER.debug("Failed to close pooled SQLite connection.", e);
+        }
+    }
+
+    private static final class LentConnectionHandler implements InvocationHandler {
+        private final Connection target;
+        private final Consumer<Connection> onClose;
+        private final AtomicBoolean returned = new AtomicBoolean(false);
+
+        private LentConnectionHandler(Connection target, Consumer<Connection> onClose) {
+            this.target = target;
+            this.onClose = onClose;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (returned.compareAndSet(false, true)) {
+                        onClose.accept(target);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned.get() || target.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled[" + target + "]";
+                }
+                default -> {
+                    if (returned.get()) {
+                        throw new SQLException("Connection has already been returned to the pool.");
+                    }
+                }
+            }
+
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private final class WriterDataSource implements DataSource {
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (closed.get()) {
+                throw new SQLException("Connection pool is closed.");
+            }
+            return borrowWriter();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            throw new SQLException("unwrap is not supported");
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) {
+            return false;
+        }
+
+        @Override
+        public PrintWriter getLogWriter() {
+            return null;
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) {
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) {
+        }
+
+        @Override
+        public int getLoginTimeout() {
+            return 0;
+        }
+
+        @Override
+        public java.util.logging.Logger getParentLogger() {
+            return java.util.logging.Logger.getGlobal();
+        }
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        throw new SQLException("unwrap is not supported");
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return false;
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return (int) TimeUnit.MILLISECONDS.toSeconds(BORROW_TIMEOUT_MS);
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() {
+        return java.util.logging.Logger.getGlobal();
+    }
+}
@@ -2,8 +2,8 @@ package com.yourname.gtstracker.database.models;
 
 public class PriceStats {
     public double average;
-    public int min;
-    public int max;
+    public double min;
+    public double max;
     public double median;
     public int sampleSize;
     public long oldestSample;
@@ -13,7 +13,7 @@ public class PriceStats {
         return sampleSize >= 5;
     }
 
-    public double getPercentDiff(int price) {
+    public double getPercentDiff(double price) {
         if (average == 0) {
             return 0;
         }
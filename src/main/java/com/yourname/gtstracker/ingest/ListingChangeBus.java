@@ -0,0 +1,50 @@
+package com.yourname.gtstracker.ingest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process publish/subscribe channel for "listings changed" notifications, so consumers such as the GUI
+ * snapshot cache can refresh on demand instead of polling the database.
+ */
+public final class ListingChangeBus {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ListingChangeBus.class);
+
+    private final List<ListingChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @return a handle that removes the listener when closed
+     */
+    public Subscription subscribe(ListingChangeListener listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    public void publish(List<String> listingIds) {
+        if (listingIds == null || listingIds.isEmpty() || listeners.isEmpty()) {
+            return;
+        }
+
+        ListingChangeEvent event = new ListingChangeEvent(List.copyOf(listingIds), System.currentTimeMillis());
+        for (ListingChangeListener listener : listeners) {
+            try {
+                listener.onListingsChanged(event);
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Listing change listener {} failed.", listener, ex);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return listeners.size();
+    }
+
+    @FunctionalInterface
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
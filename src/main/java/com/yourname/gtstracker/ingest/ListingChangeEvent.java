@@ -0,0 +1,12 @@
+package com.yourname.gtstracker.ingest;
+
+import java.util.List;
+
+/**
+ * Notification that listings were persisted or changed state.
+ *
+ * @param listingIds ids of the affected listings
+ * @param publishedAtMs wall-clock time the change was committed
+ */
+public record ListingChangeEvent(List<String> listingIds, long publishedAtMs) {
+}
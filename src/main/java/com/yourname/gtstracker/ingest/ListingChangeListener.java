@@ -0,0 +1,9 @@
+package com.yourname.gtstracker.ingest;
+
+@FunctionalInterface
+public interface ListingChangeListener {
+    /**
+     * Called on the thread that committed the change (usually the listing writer), so implementations must be cheap.
+     */
+    void onListingsChanged(ListingChangeEvent event);
+}
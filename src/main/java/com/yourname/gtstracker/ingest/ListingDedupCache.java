@@ -0,0 +1,98 @@
+package com.yourname.gtstracker.ingest;
+
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.ListingStatus;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, time-windowed memory of listings recently sent to the database, keyed by fingerprint id.
+ * <p>
+ * GTS broadcasts are often received more than once (relogs, the same line arriving as both a CHAT and a GAME
+ * message). A repeat with the same price and status whose {@code last_seen} has advanced by less than the window is
+ * a hit and skips the upsert; anything else is a miss and is remembered as the latest persisted state.
+ */
+public final class ListingDedupCache {
+    private final int maxEntries;
+    private final long windowMs;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, false);
+    private long hits;
+    private long misses;
+
+    public ListingDedupCache(int maxEntries, long windowMs) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.windowMs = Math.max(0L, windowMs);
+    }
+
+    /**
+     * @return {@code true} if the listing should be written, {@code false} if it repeats a recent write
+     */
+    public synchronized boolean shouldPersist(ListingData listing) {
+        String id = listing.getId();
+        if (id == null) {
+            misses++;
+            return true;
+        }
+
+        long lastSeen = listing.getLastSeen();
+        evictExpired(lastSeen);
+
+        Entry entry = entries.get(id);
+        if (entry != null
+            && entry.price == listing.getPrice()
+            && entry.status == listing.getStatus()
+            && lastSeen - entry.persistedLastSeen < windowMs) {
+            hits++;
+            return false;
+        }
+
+        // Re-insert so iteration order stays oldest-write-first for eviction.
+        entries.remove(id);
+        entries.put(id, new Entry(listing.getPrice(), listing.getStatus(), lastSeen));
+        if (entries.size() > maxEntries) {
+            Iterator<String> eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+        misses++;
+        return true;
+    }
+
+    /**
+     * Drops entries whose write did not succeed so the next repeat is written again.
+     */
+    public synchronized void forget(Collection<String> listingIds) {
+        for (String id : listingIds) {
+            entries.remove(id);
+        }
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evictExpired(long nowMs) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry oldest = iterator.next().getValue();
+            if (nowMs - oldest.persistedLastSeen < windowMs) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+    private record Entry(int price, ListingStatus status, long persistedLastSeen) {
+    }
+}
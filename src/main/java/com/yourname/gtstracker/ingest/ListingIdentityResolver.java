@@ -0,0 +1,286 @@
+package com.yourname.gtstracker.ingest;
+
+import com.yourname.gtstracker.GTSTrackerMod;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.PokemonListing;
+import com.yourname.gtstracker.util.ListingFingerprint;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Assigns listing ids so that repeated sightings of one listing (a rebroadcast chat line, a later screen scan)
+ * update the same row instead of each minting a fresh minute-bucketed fingerprint.
+ * <p>
+ * Active listings are indexed in memory by {@link ListingFingerprint#identityKey}: seller, species or item and
+ * attributes, but not price, so a reprice updates the listing instead of starting a new one. A sighting whose key
+ * matches a listing seen within the match window takes that listing's id and {@code first_seen}, preferring one at
+ * the same price when the seller has several alike; anything else is a new listing and gets
+ * {@link ListingFingerprint#build}. Listings
+ * that are sold, expired or otherwise leave the active set must be {@linkplain #retire retired} so a relist of the
+ * same thing is not mistaken for them.
+ */
+public final class ListingIdentityResolver {
+    private static final String REBUILD_SQL = """
+        SELECT l.id,
+               l.listing_type,
+               l.seller,
+               l.price,
+               l.first_seen,
+               l.last_seen,
+               p.species,
+               COALESCE(p.is_shiny, 0) AS is_shiny,
+               p.level,
+               i.item_name,
+               i.quantity
+        FROM listings l
+        LEFT JOIN pokemon_listings p ON p.listing_id = l.id
+        LEFT JOIN item_listings i ON i.listing_id = l.id
+        WHERE l.status = 'active'
+          AND l.last_seen >= ?
+        """;
+    /** Listings never seen again are swept out of the index after this many new ids. */
+    private static final int SWEEP_INTERVAL = 1_024;
+
+    private final long matchWindowMs;
+    private final Map<String, List<Entry>> byIdentity = new HashMap<>();
+    private final Map<String, Entry> byId = new HashMap<>();
+    private long matched;
+    private long minted;
+
+    /**
+     * @param matchWindowMs how long an unseen listing can still be matched by a new sighting
+     */
+    public ListingIdentityResolver(long matchWindowMs) {
+        this.matchWindowMs = Math.max(0L, matchWindowMs);
+    }
+
+    /**
+     * Sets the listing's id and, for a known listing, its original {@code first_seen}. {@code last_seen} is left as
+     * the caller set it.
+     */
+    public synchronized void resolve(ListingData listing, Instant seenAt) {
+        resolveLocked(listing, seenAt, null);
+    }
+
+    /**
+     * Resolves listings seen together, e.g. one screen scan. Each existing listing is matched at most once, so
+     * several identical listings on screen keep several ids.
+     */
+    public synchronized void resolveAll(Collection<? extends ListingData> listings, Instant seenAt) {
+        resolveAll(listings, seenAt, List.of());
+    }
+
+    /**
+     * @param taken ids already accounted for in the same sighting, which must not be matched again
+     */
+    public synchronized void resolveAll(Collection<? extends ListingData> listings, Instant seenAt, Collection<String> taken) {
+        Set<String> claimed = new HashSet<>(taken);
+        for (ListingData listing : listings) {
+            resolveLocked(listing, seenAt, claimed);
+        }
+    }
+
+    /**
+     * Records a sighting of a listing whose id is already known, keeping it inside the match window at its current
+     * price.
+     */
+    public synchronized void touch(ListingData listing, long seenAtMs) {
+        Entry entry = byId.get(listing.getId());
+        if (entry != null) {
+            entry.lastSeen = Math.max(entry.lastSeen, seenAtMs);
+            entry.price = listing.getPrice();
+        }
+    }
+
+    /**
+     * Stops matching the given listings, because they are no longer active.
+     */
+    public synchronized void retire(Collection<String> listingIds) {
+        for (String id : listingIds) {
+            Entry entry = byId.remove(id);
+            if (entry != null) {
+                removeFromIdentity(entry);
+            }
+        }
+    }
+
+    /**
+     * Indexes the active listings seen within the match window. Listings already indexed by live ingestion are kept.
+     */
+    public void rebuild(DataSource dataSource) throws SQLException {
+        long started = System.nanoTime();
+        List<Entry> loaded = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(REBUILD_SQL)) {
+            ps.setLong(1, System.currentTimeMillis() - matchWindowMs);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ListingData listing;
+                    if ("POKEMON".equals(rs.getString("listing_type"))) {
+                        PokemonListing pokemon = new PokemonListing();
+                        pokemon.setSpecies(rs.getString("species"));
+                        pokemon.setShiny(rs.getBoolean("is_shiny"));
+                        pokemon.setLevel(rs.getInt("level"));
+                        listing = pokemon;
+                    } else {
+                        ItemListing item = new ItemListing();
+                        item.setItemName(rs.getString("item_name"));
+                        item.setQuantity(rs.getInt("quantity"));
+                        listing = item;
+                    }
+                    listing.setSeller(rs.getString("seller"));
+                    listing.setPrice(rs.getInt("price"));
+                    loaded.add(new Entry(rs.getString("id"), ListingFingerprint.identityKey(listing),
+                        listing.getPrice(), rs.getLong("first_seen"), rs.getLong("last_seen")));
+                }
+            }
+        }
+        synchronized (this) {
+            for (Entry entry : loaded) {
+                if (!byId.containsKey(entry.id)) {
+                    index(entry);
+                }
+            }
+        }
+        GTSTrackerMod.LOGGER.info("Rebuilt listing identity index with {} listing(s) in {} ms.",
+            loaded.size(), (System.nanoTime() - started) / 1_000_000L);
+    }
+
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    /**
+     * @return sightings resolved to an existing listing
+     */
+    public synchronized long getMatchedCount() {
+        return matched;
+    }
+
+    /**
+     * @return sightings that minted a new listing id
+     */
+    public synchronized long getMintedCount() {
+        return minted;
+    }
+
+    private void resolveLocked(ListingData listing, Instant seenAt, Set<String> claimed) {
+        String identity = ListingFingerprint.identityKey(listing);
+        long seenAtMs = seenAt.toEpochMilli();
+        Entry match = findMatch(identity, listing.getPrice(), seenAtMs, claimed);
+        if (match != null) {
+            match.lastSeen = Math.max(match.lastSeen, seenAtMs);
+            match.price = listing.getPrice();
+            listing.setId(match.id);
+            listing.setFirstSeen(match.firstSeen);
+            matched++;
+        } else {
+            String id = ListingFingerprint.build(listing, seenAt);
+            for (int ordinal = 1; byId.containsKey(id); ordinal++) {
+                id = ListingFingerprint.build(listing, seenAt, ordinal);
+            }
+            match = new Entry(id, identity, listing.getPrice(), seenAtMs, seenAtMs);
+            index(match);
+            listing.setId(id);
+            listing.setFirstSeen(seenAtMs);
+            if (++minted % SWEEP_INTERVAL == 0) {
+                sweepExpired(seenAtMs);
+            }
+        }
+        if (claimed != null) {
+            claimed.add(match.id);
+        }
+    }
+
+    /**
+     * @return the unclaimed listing with this identity inside the match window, at the same price if there is one,
+     * otherwise the most recently seen; listings that fell out of the window are dropped on the way
+     */
+    private Entry findMatch(String identity, int price, long seenAtMs, Set<String> claimed) {
+        List<Entry> candidates = byIdentity.get(identity);
+        if (candidates == null) {
+            return null;
+        }
+        Entry best = null;
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            Entry candidate = candidates.get(i);
+            if (seenAtMs - candidate.lastSeen > matchWindowMs) {
+                candidates.remove(i);
+                byId.remove(candidate.id);
+                continue;
+            }
+            if (claimed != null && claimed.contains(candidate.id)) {
+                continue;
+            }
+            if (best == null || betterMatch(candidate, best, price)) {
+                best = candidate;
+            }
+        }
+        if (candidates.isEmpty()) {
+            byIdentity.remove(identity);
+        }
+        return best;
+    }
+
+    private static boolean betterMatch(Entry candidate, Entry best, int price) {
+        boolean candidatePriced = candidate.price == price;
+        if (candidatePriced != (best.price == price)) {
+            return candidatePriced;
+        }
+        return candidate.lastSeen > best.lastSeen;
+    }
+
+    private void sweepExpired(long nowMs) {
+        List<String> expired = new ArrayList<>();
+        for (Entry entry : byId.values()) {
+            if (nowMs - entry.lastSeen > matchWindowMs) {
+                expired.add(entry.id);
+            }
+        }
+        retire(expired);
+    }
+
+    private void index(Entry entry) {
+        byId.put(entry.id, entry);
+        byIdentity.computeIfAbsent(entry.identity, key -> new ArrayList<>(1)).add(entry);
+    }
+
+    private void removeFromIdentity(Entry entry) {
+        List<Entry> candidates = byIdentity.get(entry.identity);
+        if (candidates != null) {
+            candidates.remove(entry);
+            if (candidates.isEmpty()) {
+                byIdentity.remove(entry.identity);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String id;
+        private final String identity;
+        private final long firstSeen;
+        private int price;
+        private long lastSeen;
+
+        private Entry(String id, String identity, int price, long firstSeen, long lastSeen) {
+            this.id = id;
+            this.identity = identity;
+            this.price = price;
+            this.firstSeen = firstSeen;
+            this.lastSeen = lastSeen;
+        }
+    }
+}
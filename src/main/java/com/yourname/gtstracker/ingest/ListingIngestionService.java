@@ -1,21 +1,162 @@
 package com.yourname.gtstracker.ingest;
 
 import com.yourname.gtstracker.GTSTrackerMod;
+import com.yourname.gtstracker.analytics.DealAlertStage;
+import com.yourname.gtstracker.analytics.PriceStatsEngine;
 import com.yourname.gtstracker.chat.GTSMessageParser;
+import com.yourname.gtstracker.config.ConfigModel;
+import com.yourname.gtstracker.database.ActiveListingIndex;
+import com.yourname.gtstracker.database.BatchUpsertResult;
 import com.yourname.gtstracker.database.DatabaseManager;
+import com.yourname.gtstracker.database.RetentionCompactor;
 import com.yourname.gtstracker.database.models.DataSource;
 import com.yourname.gtstracker.database.models.ListingData;
 import com.yourname.gtstracker.database.models.ListingStatus;
-import com.yourname.gtstracker.util.ListingFingerprint;
+import com.yourname.gtstracker.scan.ScreenScanDiffer.ScanDiff;
 
+import java.sql.SQLException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class ListingIngestionService implements AutoCloseable {
+    /** Lets startup work (index rebuild, stats seeding) finish before the first compaction. */
+    private static final long COMPACTION_INITIAL_DELAY_MINUTES = 2;
 
-public class ListingIngestionService {
     private final DatabaseManager databaseManager;
+    private final ListingChangeBus changeBus = new ListingChangeBus();
+    private final ActiveListingIndex activeListingIndex;
+    private final PriceStatsEngine priceStatsEngine;
+    private final DealAlertStage dealAlertStage;
+    private final long retentionMs;
+    private final ListingDedupCache dedupCache;
+    private final ListingIdentityResolver identityResolver;
+    private final ListingLifecycleEngine lifecycleEngine;
+    private final ListingWriteQueue writeQueue;
+    private RetentionCompactor retentionCompactor;
+    private ScheduledExecutorService compactionScheduler;
 
     public ListingIngestionService(DatabaseManager databaseManager) {
+        this(databaseManager, null);
+    }
+
+    /**
+     * @param writeBehindConfig queue settings for write-behind persistence; when {@code null} listings are written
+     *                          synchronously on the calling thread
+     */
+    public ListingIngestionService(DatabaseManager databaseManager, ConfigModel writeBehindConfig) {
         this.databaseManager = databaseManager;
+        ConfigModel config = writeBehindConfig == null ? new ConfigModel() : writeBehindConfig;
+        this.retentionMs = TimeUnit.DAYS.toMillis(config.dataRetentionDays);
+        this.activeListingIndex = new ActiveListingIndex(retentionMs);
+        this.priceStatsEngine = new PriceStatsEngine(TimeUnit.HOURS.toMillis(Math.max(1, config.baselineHalfLifeHours)),
+            TimeUnit.HOURS.toMillis(config.identityMatchWindowHours));
+        this.dealAlertStage = new DealAlertStage(priceStatsEngine, config);
+        this.dedupCache = new ListingDedupCache(config.dedupCacheSize, TimeUnit.SECONDS.toMillis(config.dedupWindowSeconds));
+        this.identityResolver = new ListingIdentityResolver(TimeUnit.HOURS.toMillis(config.identityMatchWindowHours));
+        this.lifecycleEngine = new ListingLifecycleEngine(config, TimeUnit.HOURS.toMillis(config.identityMatchWindowHours));
+        this.writeQueue = writeBehindConfig == null ? null : ListingWriteQueue.start(this::writeBatch, this::writeStatuses, writeBehindConfig);
+    }
+
+    /**
+     * Production wiring: write-behind persistence plus a background rebuild of the in-memory listing index.
+     */
+    public static ListingIngestionService withWriteBehind(DatabaseManager databaseManager, ConfigModel config) {
+        ListingIngestionService service = new ListingIngestionService(databaseManager, config);
+        service.rebuildIndexesAsync();
+        service.scheduleCompaction(config);
+        return service;
+    }
+
+    /**
+     * Deletes listings past {@code dataRetentionDays} and compacts the database, or {@code null} when compaction is
+     * not scheduled.
+     */
+    public RetentionCompactor getRetentionCompactor() {
+        return retentionCompactor;
+    }
+
+    /**
+     * Memory-resident index of active listings, kept current by ingestion.
+     */
+    public ActiveListingIndex getActiveListingIndex() {
+        return activeListingIndex;
+    }
+
+    /**
+     * Streaming price statistics per species/item, updated on every ingested listing.
+     */
+    public PriceStatsEngine getPriceStatsEngine() {
+        return priceStatsEngine;
+    }
+
+    /**
+     * Raises underpriced/spike alerts for newly ingested listings against the running price baseline.
+     */
+    public DealAlertStage getDealAlertStage() {
+        return dealAlertStage;
+    }
+
+    public CompletableFuture<Void> rebuildIndexesAsync() {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                activeListingIndex.rebuild(databaseManager.getReadDataSource());
+            } catch (SQLException e) {
+                GTSTrackerMod.LOGGER.error("Failed to rebuild active listing index; price lookups will use SQL.", e);
+            }
+            try {
+                identityResolver.rebuild(databaseManager.getReadDataSource());
+            } catch (SQLException e) {
+                GTSTrackerMod.LOGGER.error("Failed to rebuild listing identity index; listings seen before startup get new ids.", e);
+            }
+            try {
+                int seeded = priceStatsEngine.seed(databaseManager.getReadDataSource(), System.currentTimeMillis() - retentionMs);
+                GTSTrackerMod.LOGGER.info("Seeded price statistics from {} stored listing(s).", seeded);
+            } catch (SQLException e) {
+                GTSTrackerMod.LOGGER.error("Failed to seed price statistics from the database.", e);
+            }
+        });
+    }
+
+    /**
+     * Short-circuits repeats of recently written listings; exposes hit/miss counters.
+     */
+    public ListingDedupCache getDedupCache() {
+        return dedupCache;
+    }
+
+    /**
+     * Maps repeated sightings of a listing onto its existing id.
+     */
+    public ListingIdentityResolver getIdentityResolver() {
+        return identityResolver;
+    }
+
+    /**
+     * Tracks listings missing from screen scans until they are judged sold or expired.
+     */
+    public ListingLifecycleEngine getLifecycleEngine() {
+        return lifecycleEngine;
+    }
+
+    public ListingWriteQueue getWriteQueue() {
+        return writeQueue;
+    }
+
+    /**
+     * Channel that announces listing ids once their writes have been committed.
+     */
+    public ListingChangeBus getChangeBus() {
+        return changeBus;
     }
 
     public Optional<ListingData> ingestChatMessage(String message) {
@@ -36,18 +177,200 @@ public class ListingIngestionService {
         }
 
         Instant seenAt = Instant.now();
-        listing.setId(ListingFingerprint.build(listing, seenAt));
         listing.setStatus(ListingStatus.ACTIVE);
         listing.setSourceFirst(DataSource.CHAT);
         listing.setSourceLast(DataSource.CHAT);
-        listing.setFirstSeen(seenAt.toEpochMilli());
         listing.setLastSeen(seenAt.toEpochMilli());
+        identityResolver.resolve(listing, seenAt);
+        lifecycleEngine.seen(listing.getId(), seenAt.toEpochMilli());
+
+        if (!dedupCache.shouldPersist(listing)) {
+            GTSTrackerMod.LOGGER.debug("Skipped repeated listing {} from chat", listing.getId());
+            return Optional.of(listing);
+        }
 
-        databaseManager.upsertListing(listing);
+        activeListingIndex.accept(listing);
+        dealAlertStage.process(listing);
+        persist(listing);
         GTSTrackerMod.LOGGER.debug("Ingested listing {} from chat", listing.getId());
         return Optional.of(listing);
     }
 
+    /**
+     * Ingests one scan of a GTS screen page. Added and changed listings are written as a single batch, with new
+     * listings resolved to existing ids where possible. Listings of the page that the scan did not see go through
+     * the {@link ListingLifecycleEngine}; those whose status changes are queued behind the batch and updated together
+     * in one transaction.
+     */
+    public void ingestScreenScan(String pageKey, ScanDiff diff, Instant seenAt) {
+        long seenAtMs = seenAt.toEpochMilli();
+        List<ListingData> batch = new ArrayList<>(diff.added().size() + diff.changed().size());
+        for (ListingData listing : diff.added()) {
+            listing.setStatus(ListingStatus.ACTIVE);
+            listing.setSourceFirst(DataSource.SCREEN);
+            listing.setSourceLast(DataSource.SCREEN);
+            listing.setLastSeen(seenAtMs);
+        }
+        identityResolver.resolveAll(diff.added(), seenAt, diff.retainedIds());
+        batch.addAll(diff.added());
+        for (ListingData listing : diff.changed()) {
+            listing.setStatus(ListingStatus.ACTIVE);
+            listing.setSourceLast(DataSource.SCREEN);
+            listing.setLastSeen(seenAtMs);
+            identityResolver.touch(listing, seenAtMs);
+            batch.add(listing);
+        }
+
+        if (!batch.isEmpty()) {
+            for (ListingData listing : batch) {
+                activeListingIndex.accept(listing);
+            }
+            // Changed listings include reprices, and a price cut is exactly what a deal alert is for.
+            for (ListingData listing : batch) {
+                dealAlertStage.process(listing);
+            }
+            if (writeQueue != null) {
+                for (ListingData listing : batch) {
+                    writeQueue.enqueue(listing);
+                }
+            } else {
+                writeBatch(batch);
+            }
+        }
+
+        Set<String> seenIds = new HashSet<>(diff.retainedIds());
+        for (ListingData listing : diff.added()) {
+            seenIds.add(listing.getId());
+        }
+        List<ListingLifecycleEngine.Transition> transitions = lifecycleEngine.observeScan(pageKey, seenIds, seenAtMs);
+        if (!transitions.isEmpty()) {
+            applyTransitions(transitions);
+        }
+        GTSTrackerMod.LOGGER.debug("Ingested screen scan of '{}': {} added, {} changed, {} lifecycle transition(s)",
+            pageKey, diff.added().size(), diff.changed().size(), transitions.size());
+    }
+
+    /**
+     * Flushes pending write-behind work and stops scheduled compaction. Safe to call more than once.
+     */
+    @Override
+    public void close() {
+        if (compactionScheduler != null) {
+            compactionScheduler.shutdownNow();
+        }
+        if (writeQueue != null) {
+            writeQueue.close();
+        }
+    }
+
+    /**
+     * @return {@code true} if the write-behind writer is still running, e.g. because {@link #close()} timed out
+     *         waiting for it to flush
+     */
+    public boolean isWriterRunning() {
+        return writeQueue != null && writeQueue.isWriterRunning();
+    }
+
+    private void scheduleCompaction(ConfigModel config) {
+        if (config.compactionIntervalMinutes <= 0) {
+            return;
+        }
+        retentionCompactor = new RetentionCompactor(databaseManager, config.dataRetentionDays);
+        compactionScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GTSTracker-Compaction");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        compactionScheduler.scheduleWithFixedDelay(this::compact, COMPACTION_INITIAL_DELAY_MINUTES,
+            config.compactionIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    private void compact() {
+        try {
+            retentionCompactor.compact();
+        } catch (SQLException | RuntimeException e) {
+            // Swallowed so the schedule keeps running; the next pass retries.
+            GTSTrackerMod.LOGGER.error("Retention compaction failed.", e);
+        }
+    }
+
+    private void applyTransitions(List<ListingLifecycleEngine.Transition> transitions) {
+        Map<String, ListingStatus> statuses = new LinkedHashMap<>();
+        List<String> terminalIds = new ArrayList<>();
+        for (ListingLifecycleEngine.Transition transition : transitions) {
+            if (transition.changesStatus()) {
+                statuses.put(transition.listingId(), transition.to().status());
+                activeListingIndex.remove(transition.listingId());
+            }
+            if (transition.to().isTerminal()) {
+                terminalIds.add(transition.listingId());
+            }
+        }
+        identityResolver.retire(terminalIds);
+        priceStatsEngine.forget(terminalIds);
+        if (statuses.isEmpty()) {
+            return;
+        }
+        // A chat repeat after the status change must be written, not skipped as a repeat of the active listing.
+        dedupCache.forget(statuses.keySet());
+        if (writeQueue != null) {
+            statuses.forEach(writeQueue::enqueueStatusChange);
+            return;
+        }
+        try {
+            writeStatuses(statuses);
+        } catch (RuntimeException e) {
+            GTSTrackerMod.LOGGER.error("Failed to store {} listing status change(s).", statuses.size(), e);
+        }
+    }
+
+    private void writeStatuses(Map<String, ListingStatus> statuses) {
+        databaseManager.updateListingStatuses(statuses);
+        changeBus.publish(List.copyOf(statuses.keySet()));
+    }
+
+    private void persist(ListingData listing) {
+        if (writeQueue != null) {
+            writeQueue.enqueue(listing);
+        } else {
+            writeBatch(List.of(listing));
+        }
+    }
+
+    private void writeBatch(List<ListingData> batch) {
+        BatchUpsertResult result;
+        try {
+            result = databaseManager.upsertListings(batch);
+        } catch (RuntimeException ex) {
+            List<String> batchIds = new ArrayList<>(batch.size());
+            for (ListingData listing : batch) {
+                batchIds.add(listing.getId());
+            }
+            dedupCache.forget(batchIds);
+            throw ex;
+        }
+
+        Set<String> failedIds = new HashSet<>();
+        for (BatchUpsertResult.RowFailure failure : result.failures()) {
+            failedIds.add(failure.listingId());
+        }
+        if (!failedIds.isEmpty()) {
+            dedupCache.forget(failedIds);
+        }
+        if (result.upserted() == 0) {
+            return;
+        }
+
+        List<String> changedIds = new ArrayList<>(batch.size());
+        for (ListingData listing : batch) {
+            if (!failedIds.contains(listing.getId())) {
+                changedIds.add(listing.getId());
+            }
+        }
+        changeBus.publish(changedIds);
+    }
+
     private static String snippet(String message) {
         if (message == null) {
             return "";
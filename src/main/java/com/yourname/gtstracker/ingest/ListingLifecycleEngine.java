@@ -0,0 +1,267 @@
+package com.yourname.gtstracker.ingest;
+
+import com.yourname.gtstracker.config.ConfigModel;
+import com.yourname.gtstracker.database.models.ListingStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides what became of listings that stop showing up on the GTS screen, from the scans that missed them:
+ * {@code ACTIVE → UNKNOWN → MISSING → SOLD} or {@code EXPIRED}. A listing moves to a stage once it has been absent from
+ * the configured number of scans of its page and for the configured number of minutes; the expired thresholds are
+ * checked before the sold ones.
+ * <p>
+ * Every listing seen on screen gets a slot in parallel primitive arrays (page, missed scans, missing since, stage),
+ * and each page keeps the set of its slots, so a scan is the set difference between the slots on its page and the ids
+ * it saw: its cost follows the size of the page, not the number of tracked listings, and it needs no query. Listings
+ * seen on another page move there. Slots are freed when a listing reaches a terminal stage or has
+ * not been seen for {@code staleAfterMs}.
+ * <p>
+ * The stored status vocabulary has no {@code missing}; {@link Stage#MISSING} is held in memory and stored as
+ * {@code unknown}. Counters are not persisted, so after a restart a listing is tracked again from its next sighting.
+ */
+public final class ListingLifecycleEngine {
+    public enum Stage {
+        ACTIVE(ListingStatus.ACTIVE),
+        UNKNOWN(ListingStatus.UNKNOWN),
+        MISSING(ListingStatus.UNKNOWN),
+        SOLD(ListingStatus.SOLD),
+        EXPIRED(ListingStatus.EXPIRED);
+
+        private static final Stage[] VALUES = values();
+
+        private final ListingStatus status;
+
+        Stage(ListingStatus status) {
+            this.status = status;
+        }
+
+        /**
+         * @return the status stored for listings in this stage
+         */
+        public ListingStatus status() {
+            return status;
+        }
+
+        public boolean isTerminal() {
+            return this == SOLD || this == EXPIRED;
+        }
+    }
+
+    public record Transition(String listingId, Stage from, Stage to) {
+        /**
+         * @return {@code true} if the stored status changes, i.e. the row needs a write
+         */
+        public boolean changesStatus() {
+            return from.status() != to.status();
+        }
+    }
+
+    private static final long NOT_MISSING = Long.MIN_VALUE;
+    /** Stale slots are swept after this many new ones. */
+    private static final int SWEEP_INTERVAL = 1_024;
+
+    private final int unknownAfterScans;
+    private final long unknownAfterMs;
+    private final int missingAfterScans;
+    private final long missingAfterMs;
+    private final int soldAfterScans;
+    private final long soldAfterMs;
+    private final int expiredAfterScans;
+    private final long expiredAfterMs;
+    private final long staleAfterMs;
+
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private final Map<String, Integer> pageIds = new HashMap<>();
+    /** Slots of each page, indexed by the page's number in {@link #pageIds}. */
+    private final List<Set<Integer>> pageSlots = new ArrayList<>();
+    private String[] ids = new String[64];
+    private int[] pages = new int[64];
+    private int[] missedScans = new int[64];
+    private long[] missingSinceMs = new long[64];
+    private long[] lastSeenMs = new long[64];
+    private byte[] stages = new byte[64];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int highWater;
+    private long allocated;
+
+    /**
+     * @param staleAfterMs how long a listing that is never scanned again stays tracked
+     */
+    public ListingLifecycleEngine(ConfigModel config, long staleAfterMs) {
+        this.unknownAfterScans = Math.max(1, config.unknownAfterScans);
+        this.unknownAfterMs = TimeUnit.MINUTES.toMillis(Math.max(0, config.unknownAfterMinutes));
+        this.missingAfterScans = Math.max(1, config.missingAfterScans);
+        this.missingAfterMs = TimeUnit.MINUTES.toMillis(Math.max(0, config.missingAfterMinutes));
+        this.soldAfterScans = Math.max(1, config.soldAfterScans);
+        this.soldAfterMs = TimeUnit.MINUTES.toMillis(Math.max(0, config.soldAfterMinutes));
+        this.expiredAfterScans = Math.max(1, config.expiredAfterScans);
+        this.expiredAfterMs = TimeUnit.MINUTES.toMillis(Math.max(0, config.expiredAfterMinutes));
+        this.staleAfterMs = Math.max(0L, staleAfterMs);
+    }
+
+    /**
+     * Records one scan of {@code pageKey}: listings in {@code seenIds} are active and belong to this page, and every
+     * other listing of the page has missed a scan.
+     *
+     * @return the listings that moved to a later stage, in no particular order
+     */
+    public synchronized List<Transition> observeScan(String pageKey, Collection<String> seenIds, long nowMs) {
+        int page = pageIds.computeIfAbsent(pageKey, key -> {
+            pageSlots.add(new HashSet<>());
+            return pageSlots.size() - 1;
+        });
+        Set<String> seen = seenIds instanceof Set<String> set ? set : new HashSet<>(seenIds);
+        for (String id : seen) {
+            Integer slot = slotById.get(id);
+            if (slot == null) {
+                allocate(id, page, nowMs);
+            } else {
+                moveToPage(slot, page);
+                markSeen(slot, nowMs);
+            }
+        }
+
+        List<Transition> transitions = new ArrayList<>();
+        for (Iterator<Integer> members = pageSlots.get(page).iterator(); members.hasNext(); ) {
+            int slot = members.next();
+            if (seen.contains(ids[slot])) {
+                continue;
+            }
+            missedScans[slot]++;
+            if (missingSinceMs[slot] == NOT_MISSING) {
+                missingSinceMs[slot] = nowMs;
+            }
+            Stage from = Stage.VALUES[stages[slot]];
+            Stage to = advance(from, missedScans[slot], nowMs - missingSinceMs[slot]);
+            if (to == from) {
+                continue;
+            }
+            transitions.add(new Transition(ids[slot], from, to));
+            if (to.isTerminal()) {
+                members.remove();
+                free(slot);
+            } else {
+                stages[slot] = (byte) to.ordinal();
+            }
+        }
+        return transitions;
+    }
+
+    /**
+     * Records a sighting outside a screen scan (e.g. a chat rebroadcast), which resets the listing's missed scans.
+     *
+     * @return {@code true} if the listing was tracked
+     */
+    public synchronized boolean seen(String listingId, long nowMs) {
+        Integer slot = slotById.get(listingId);
+        if (slot == null) {
+            return false;
+        }
+        markSeen(slot, nowMs);
+        return true;
+    }
+
+    /**
+     * @return the tracked stage of the listing, or {@code null} if it is not tracked
+     */
+    public synchronized Stage getStage(String listingId) {
+        Integer slot = slotById.get(listingId);
+        return slot == null ? null : Stage.VALUES[stages[slot]];
+    }
+
+    public synchronized int size() {
+        return slotById.size();
+    }
+
+    private Stage advance(Stage stage, int missed, long missingForMs) {
+        if (stage == Stage.ACTIVE && missed >= unknownAfterScans && missingForMs >= unknownAfterMs) {
+            stage = Stage.UNKNOWN;
+        }
+        if ((stage == Stage.ACTIVE || stage == Stage.UNKNOWN) && missed >= missingAfterScans && missingForMs >= missingAfterMs) {
+            stage = Stage.MISSING;
+        }
+        if (stage == Stage.UNKNOWN || stage == Stage.MISSING) {
+            if (missed >= expiredAfterScans && missingForMs >= expiredAfterMs) {
+                stage = Stage.EXPIRED;
+            } else if (missed >= soldAfterScans && missingForMs >= soldAfterMs) {
+                stage = Stage.SOLD;
+            }
+        }
+        return stage;
+    }
+
+    private void markSeen(int slot, long nowMs) {
+        missedScans[slot] = 0;
+        missingSinceMs[slot] = NOT_MISSING;
+        lastSeenMs[slot] = Math.max(lastSeenMs[slot], nowMs);
+        stages[slot] = (byte) Stage.ACTIVE.ordinal();
+    }
+
+    private void allocate(String id, int page, long nowMs) {
+        if (++allocated % SWEEP_INTERVAL == 0) {
+            sweepStale(nowMs);
+        }
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (highWater == ids.length) {
+                int capacity = highWater * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                pages = Arrays.copyOf(pages, capacity);
+                missedScans = Arrays.copyOf(missedScans, capacity);
+                missingSinceMs = Arrays.copyOf(missingSinceMs, capacity);
+                lastSeenMs = Arrays.copyOf(lastSeenMs, capacity);
+                stages = Arrays.copyOf(stages, capacity);
+            }
+            slot = highWater++;
+        }
+        ids[slot] = id;
+        pages[slot] = page;
+        pageSlots.get(page).add(slot);
+        lastSeenMs[slot] = nowMs;
+        markSeen(slot, nowMs);
+        slotById.put(id, slot);
+    }
+
+    private void moveToPage(int slot, int page) {
+        if (pages[slot] != page) {
+            pageSlots.get(pages[slot]).remove(slot);
+            pageSlots.get(page).add(slot);
+            pages[slot] = page;
+        }
+    }
+
+    private void release(int slot) {
+        pageSlots.get(pages[slot]).remove(slot);
+        free(slot);
+    }
+
+    private void free(int slot) {
+        slotById.remove(ids[slot]);
+        ids[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void sweepStale(long nowMs) {
+        for (int slot = 0; slot < highWater; slot++) {
+            if (ids[slot] != null && nowMs - lastSeenMs[slot] > staleAfterMs) {
+                release(slot);
+            }
+        }
+    }
+}
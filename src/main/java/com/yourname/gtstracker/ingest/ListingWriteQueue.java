@@ -0,0 +1,338 @@
+package com.yourname.gtstracker.ingest;
+
+import com.yourname.gtstracker.GTSTrackerMod;
+import com.yourname.gtstracker.config.ConfigModel;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.ListingStatus;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bounded write-behind queue that moves listing persistence off the client thread.
+ * A single daemon writer drains parsed listings and hands them to the database in batches. Status changes share the
+ * queue, so a listing's status is never written before an upsert of it that was queued earlier.
+ */
+public final class ListingWriteQueue implements AutoCloseable {
+    private static final long SHUTDOWN_TIMEOUT_MS = 5_000L;
+
+    public enum OverflowPolicy {
+        /** Reject the incoming listing when the queue is full. */
+        DROP_NEWEST,
+        /** Evict the oldest queued listing to make room for the incoming one. */
+        DROP_OLDEST,
+        /** Wait up to the linger window for space, then reject the incoming listing. */
+        BLOCK;
+
+        public static OverflowPolicy fromConfig(String value) {
+            if (value == null || value.isBlank()) {
+                return DROP_OLDEST;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ignored) {
+                GTSTrackerMod.LOGGER.warn("Unknown write queue overflow policy '{}'; using DROP_OLDEST.", value);
+                return DROP_OLDEST;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface BatchWriter {
+        void write(List<ListingData> batch);
+    }
+
+    @FunctionalInterface
+    public interface StatusWriter {
+        void write(Map<String, ListingStatus> statuses);
+    }
+
+    /**
+     * One queued write: either a listing to upsert or a status change of a stored listing.
+     */
+    private record Write(ListingData listing, String listingId, ListingStatus status) {
+        static Write upsert(ListingData listing) {
+            return new Write(listing, listing.getId(), null);
+        }
+
+        static Write statusChange(String listingId, ListingStatus status) {
+            return new Write(null, listingId, status);
+        }
+
+        boolean isStatusChange() {
+            return listing == null;
+        }
+    }
+
+    private final BlockingQueue<Write> queue;
+    private final BatchWriter writer;
+    private final StatusWriter statusWriter;
+    private final int batchSize;
+    private final long maxLingerMs;
+    private final OverflowPolicy overflowPolicy;
+    private final Thread writerThread;
+
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    /**
+     * Held shared by {@link #enqueue} from its closed check until its offer completes and exclusively by
+     * {@link #close()} while setting the flag, so no listing can land in the queue after the writer's final drain.
+     */
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    public ListingWriteQueue(BatchWriter writer, int capacity, int batchSize, long maxLingerMs, OverflowPolicy overflowPolicy) {
+        this(writer, null, capacity, batchSize, maxLingerMs, overflowPolicy);
+    }
+
+    /**
+     * @param statusWriter applies queued status changes; when {@code null}, {@link #enqueueStatusChange} rejects them
+     */
+    public ListingWriteQueue(BatchWriter writer, StatusWriter statusWriter, int capacity, int batchSize, long maxLingerMs,
+                             OverflowPolicy overflowPolicy) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.writer = writer;
+        this.statusWriter = statusWriter;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxLingerMs = Math.max(0L, maxLingerMs);
+        this.overflowPolicy = overflowPolicy == null ? OverflowPolicy.DROP_OLDEST : overflowPolicy;
+        this.writerThread = new Thread(this::runWriter, "GTSTracker-ListingWriter");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public static ListingWriteQueue start(BatchWriter writer, ConfigModel config) {
+        return start(writer, null, config);
+    }
+
+    public static ListingWriteQueue start(BatchWriter writer, StatusWriter statusWriter, ConfigModel config) {
+        return new ListingWriteQueue(
+            writer,
+            statusWriter,
+            config.writeQueueCapacity,
+            config.writeBatchSize,
+            config.writeMaxLingerMs,
+            OverflowPolicy.fromConfig(config.writeQueueOverflowPolicy)
+        );
+    }
+
+    /**
+     * Queues a listing for persistence without blocking the caller (except under {@link OverflowPolicy#BLOCK}).
+     *
+     * @return {@code true} if the listing was accepted, {@code false} if it was dropped
+     */
+    public boolean enqueue(ListingData listing) {
+        if (listing == null) {
+            return false;
+        }
+        return offer(Write.upsert(listing));
+    }
+
+    /**
+     * Queues a status change of a stored listing behind every write already queued, under the same overflow policy
+     * as listings.
+     *
+     * @return {@code true} if the change was accepted, {@code false} if it was dropped
+     */
+    public boolean enqueueStatusChange(String listingId, ListingStatus status) {
+        if (listingId == null || status == null || statusWriter == null) {
+            return false;
+        }
+        return offer(Write.statusChange(listingId, status));
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueued.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getFailedBatchCount() {
+        return failedBatches.get();
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * @return {@code true} while the writer thread is still running, including after {@link #close()} gave up
+     *         waiting for it; the database must stay open until this is {@code false}
+     */
+    public boolean isWriterRunning() {
+        return writerThread.isAlive();
+    }
+
+    /**
+     * Stops accepting listings, drains everything already queued and waits for the writer to finish.
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+
+        writerThread.interrupt();
+        try {
+            writerThread.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (writerThread.isAlive()) {
+            GTSTrackerMod.LOGGER.warn("Listing writer did not finish within {} ms; {} listing(s) left unflushed.",
+                SHUTDOWN_TIMEOUT_MS, queue.size());
+        }
+    }
+
+    private boolean offer(Write write) {
+        boolean accepted;
+        closeLock.readLock().lock();
+        try {
+            if (closed.get()) {
+                dropped.incrementAndGet();
+                GTSTrackerMod.LOGGER.warn("Listing write queue is closed; dropping write of listing {}", write.listingId());
+                return false;
+            }
+            accepted = switch (overflowPolicy) {
+                case DROP_NEWEST -> queue.offer(write);
+                case DROP_OLDEST -> offerEvictingOldest(write);
+                case BLOCK -> offerWithinLinger(write);
+            };
+        } finally {
+            closeLock.readLock().unlock();
+        }
+
+        if (accepted) {
+            enqueued.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+            GTSTrackerMod.LOGGER.debug("Listing write queue full; dropped write of listing {}", write.listingId());
+        }
+        return accepted;
+    }
+
+    private boolean offerEvictingOldest(Write write) {
+        while (!queue.offer(write)) {
+            if (queue.poll() != null) {
+                dropped.incrementAndGet();
+            }
+        }
+        return true;
+    }
+
+    private boolean offerWithinLinger(Write write) {
+        try {
+            return queue.offer(write, Math.max(1L, maxLingerMs), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void runWriter() {
+        List<Write> batch = new ArrayList<>(batchSize);
+        while (!closed.get()) {
+            try {
+                Write first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+            } catch (InterruptedException interruptedException) {
+                // close() interrupts the writer; fall through to the final drain below.
+            }
+            flushBatch(batch);
+        }
+
+        queue.drainTo(batch);
+        while (!batch.isEmpty()) {
+            List<Write> chunk = new ArrayList<>(batch.subList(0, Math.min(batchSize, batch.size())));
+            batch.subList(0, chunk.size()).clear();
+            flushBatch(chunk);
+        }
+    }
+
+    private void fillBatch(List<Write> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxLingerMs);
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Write next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Writes the batch as runs of consecutive upserts and consecutive status changes, in queue order.
+     */
+    private void flushBatch(List<Write> batch) {
+        int start = 0;
+        for (int i = 1; i <= batch.size(); i++) {
+            if (i == batch.size() || batch.get(i).isStatusChange() != batch.get(start).isStatusChange()) {
+                flushRun(batch.subList(start, i));
+                start = i;
+            }
+        }
+        batch.clear();
+    }
+
+    private void flushRun(List<Write> run) {
+        try {
+            if (run.get(0).isStatusChange()) {
+                Map<String, ListingStatus> statuses = new LinkedHashMap<>();
+                for (Write write : run) {
+                    statuses.put(write.listingId(), write.status());
+                }
+                statusWriter.write(statuses);
+            } else {
+                List<ListingData> listings = new ArrayList<>(run.size());
+                for (Write write : run) {
+                    listings.add(write.listing());
+                }
+                writer.write(listings);
+            }
+            written.addAndGet(run.size());
+        } catch (RuntimeException ex) {
+            failedBatches.incrementAndGet();
+            GTSTrackerMod.LOGGER.error("Failed to write batch of {} {}.", run.size(),
+                run.get(0).isStatusChange() ? "status change(s)" : "listing(s)", ex);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.yourname.gtstracker.scan;
+
+import com.yourname.gtstracker.config.ConfigModel;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.ingest.ListingIngestionService;
+import net.fabricmc.fabric.api.client.screen.v1.ScreenEvents;
+import net.minecraft.client.gui.screen.ingame.HandledScreen;
+import net.minecraft.component.DataComponentTypes;
+import net.minecraft.component.type.LoreComponent;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.screen.slot.Slot;
+import net.minecraft.text.Text;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads listings off the GTS screen while it is open: once the server has filled the slots, again whenever it
+ * updates them (e.g. a page change), and every {@link ConfigModel#scanIntervalSeconds} in between. Only what changed
+ * since the previous scan of the page is handed to ingestion.
+ */
+public class GTSScreenScanner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GTSScreenScanner.class);
+    /** Unchanged listings still on screen are re-sent this often so {@code last_seen} keeps up. */
+    private static final long REFRESH_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private final ListingIngestionService ingestionService;
+    private final ConfigModel config;
+    private final ScreenScanDiffer differ = new ScreenScanDiffer(REFRESH_MS);
+
+    public GTSScreenScanner(ListingIngestionService ingestionService, ConfigModel config) {
+        this.ingestionService = ingestionService;
+        this.config = config;
+    }
+
+    public void register() {
+        ScreenEvents.AFTER_INIT.register((client, screen, scaledWidth, scaledHeight) -> {
+            if (screen instanceof HandledScreen<?> handled && GTSSlotParser.isGtsTitle(screen.getTitle().getString())) {
+                track(handled);
+            }
+        });
+    }
+
+    private void track(HandledScreen<?> screen) {
+        ScanState state = new ScanState();
+        ScreenEvents.afterTick(screen).register(tickedScreen -> {
+            state.ticks++;
+            int revision = screen.getScreenHandler().getRevision();
+            boolean updated = revision != state.revision;
+            boolean due = config.scanIntervalSeconds > 0 && state.ticks >= state.nextScanTick;
+            if (!state.scanned && !config.autoScanOnGTSOpen && !due) {
+                return;
+            }
+            if (updated || due) {
+                if (scan(screen)) {
+                    state.scanned = true;
+                    state.revision = revision;
+                    state.nextScanTick = state.ticks + (long) config.scanIntervalSeconds * 20L;
+                }
+            }
+        });
+    }
+
+    /**
+     * @return {@code false} while the slots hold no listings yet, so the scan is retried on the next tick
+     */
+    private boolean scan(HandledScreen<?> screen) {
+        List<ListingData> listings = new ArrayList<>();
+        List<GTSSlotParser.Control> controls = new ArrayList<>();
+        for (Slot slot : screen.getScreenHandler().slots) {
+            if (slot.inventory instanceof PlayerInventory) {
+                continue;
+            }
+            ItemStack stack = slot.getStack();
+            if (stack.isEmpty()) {
+                continue;
+            }
+            List<Text> lines = stack.getOrDefault(DataComponentTypes.LORE, LoreComponent.DEFAULT).lines();
+            List<String> lore = new ArrayList<>(lines.size());
+            for (Text line : lines) {
+                lore.add(line.getString());
+            }
+            String name = stack.getName().getString();
+            ListingData listing = GTSSlotParser.parse(name, lore);
+            if (listing != null) {
+                listings.add(listing);
+            } else {
+                controls.add(new GTSSlotParser.Control(slot.id, name, lore));
+            }
+        }
+        if (listings.isEmpty()) {
+            return false;
+        }
+
+        Instant now = Instant.now();
+        String pageKey = GTSSlotParser.pageKey(screen.getTitle().getString(), controls);
+        ScreenScanDiffer.ScanDiff diff = differ.diff(pageKey, listings, now.toEpochMilli());
+        try {
+            // Also for an unchanged page: every scan counts towards the lifecycle of listings that left it.
+            ingestionService.ingestScreenScan(pageKey, diff, now);
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to ingest GTS screen scan of {} listing(s).", listings.size(), e);
+        }
+        return true;
+    }
+
+    private static final class ScanState {
+        private long ticks;
+        private long nextScanTick;
+        private int revision = -1;
+        private boolean scanned;
+    }
+}
@@ -0,0 +1,249 @@
+package com.yourname.gtstracker.scan;
+
+import com.yourname.gtstracker.database.models.IVStats;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.PokemonListing;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses one slot of the GTS screen from its plain-text item name and tooltip lines:
+ * <pre>
+ * [Shiny] &lt;species&gt;           or   [&lt;quantity&gt;x] &lt;item name&gt;
+ * Seller: &lt;name&gt;
+ * Price: $&lt;price&gt;
+ * Level: &lt;level&gt;                (Pokémon only; also "Lv. &lt;level&gt;")
+ * Shiny: Yes                     (optional)
+ * Quantity: &lt;quantity&gt;          (optional, items)
+ * IVs: hp/atk/def/spatk/spdef/speed, Nature: &lt;nature&gt;, Ability: &lt;ability&gt;   (optional)
+ * </pre>
+ * Labels match case-insensitively and unknown lines are ignored. A slot without a seller and a price (navigation
+ * buttons, filler panes) is not a listing.
+ */
+public final class GTSSlotParser {
+    private static final String SHINY_PREFIX = "shiny ";
+
+    private GTSSlotParser() {
+    }
+
+    /**
+     * @return {@code true} if a screen title looks like the GTS market
+     */
+    public static boolean isGtsTitle(String title) {
+        return title != null && title.toLowerCase(Locale.ROOT).contains("gts");
+    }
+
+    /**
+     * A slot of the GTS screen that is not a listing: a page indicator, a navigation or filter button, or a filler pane.
+     *
+     * @param slot the slot's index in the screen handler
+     */
+    public record Control(int slot, String name, List<String> lore) {
+    }
+
+    /**
+     * Identifies which page of the market a scan shows, since every page usually shares one screen title. A page
+     * number in the title keeps the title as the key. Otherwise an explicit current page is read from the controls
+     * ("Page 2" as a control's name, or "Page 2/5" / "Page 2 of 5" in its name or tooltip). Failing that, the
+     * positions and names of the controls stand in for the navigation state, which at least separates the first and
+     * last pages from the ones in between.
+     *
+     * @param controls the non-listing slots of the screen, in slot order
+     */
+    public static String pageKey(String title, List<Control> controls) {
+        String base = title == null ? "" : title.trim();
+        if (pageNumber(base, false) > 0) {
+            return base;
+        }
+        for (Control control : controls) {
+            String name = control.name() == null ? "" : control.name().trim();
+            int page = name.toLowerCase(Locale.ROOT).startsWith("page") ? pageNumber(name, false) : pageNumber(name, true);
+            for (int i = 0; page <= 0 && control.lore() != null && i < control.lore().size(); i++) {
+                page = pageNumber(control.lore().get(i), true);
+            }
+            if (page > 0) {
+                return base + " #page " + page;
+            }
+        }
+
+        StringBuilder key = new StringBuilder(base).append(" #");
+        for (Control control : controls) {
+            if (control.name() != null && !control.name().isBlank()) {
+                key.append(' ').append(control.slot()).append('=').append(control.name().trim());
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Finds "page N" in {@code text}, optionally followed by a separator (":" or spaces); with {@code requireTotal}
+     * only "page N/M" or "page N of M" counts, so "Go to page 3" on a button is not read as the current page.
+     *
+     * @return {@code N}, or {@code -1}
+     */
+    static int pageNumber(String text, boolean requireTotal) {
+        if (text == null) {
+            return -1;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int at = lower.indexOf("page"); at >= 0; at = lower.indexOf("page", at + 1)) {
+            int i = at + 4;
+            while (i < lower.length() && (lower.charAt(i) == ' ' || lower.charAt(i) == ':')) {
+                i++;
+            }
+            int digits = i;
+            int page = 0;
+            while (i < lower.length() && Character.isDigit(lower.charAt(i)) && i - digits < 6) {
+                page = page * 10 + (lower.charAt(i++) - '0');
+            }
+            if (i == digits) {
+                continue;
+            }
+            if (!requireTotal) {
+                return page;
+            }
+            while (i < lower.length() && lower.charAt(i) == ' ') {
+                i++;
+            }
+            if (lower.startsWith("/", i) || lower.startsWith("of ", i)) {
+                return page;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the listing shown in the slot, or {@code null} if the slot is not a listing
+     */
+    public static ListingData parse(String name, List<String> lore) {
+        if (name == null || name.isBlank() || lore == null) {
+            return null;
+        }
+
+        String seller = null;
+        int price = -1;
+        int level = -1;
+        int quantity = -1;
+        boolean shiny = false;
+        IVStats ivs = null;
+        String nature = null;
+        String ability = null;
+        for (String line : lore) {
+            if (line == null) {
+                continue;
+            }
+            String trimmed = line.trim();
+            String lower = trimmed.toLowerCase(Locale.ROOT);
+            int colon = trimmed.indexOf(':');
+            String label;
+            String value;
+            if (colon > 0) {
+                label = lower.substring(0, colon).trim();
+                value = trimmed.substring(colon + 1).trim();
+            } else if (lower.startsWith("lv")) {
+                label = "lv";
+                value = trimmed.substring(lower.startsWith("lvl") || lower.startsWith("lv.") ? 3 : 2).trim();
+            } else {
+                continue;
+            }
+            switch (label) {
+                case "seller", "owner", "listed by" -> seller = value.isEmpty() ? null : value;
+                case "price", "cost" -> price = parseNumber(value);
+                case "level", "lv", "lvl" -> level = parseNumber(value);
+                case "shiny" -> shiny = value.equalsIgnoreCase("yes") || value.equalsIgnoreCase("true");
+                case "quantity", "amount", "count" -> quantity = parseNumber(value);
+                case "ivs" -> ivs = parseIvs(value);
+                case "nature" -> nature = value.isEmpty() ? null : value;
+                case "ability" -> ability = value.isEmpty() ? null : value;
+                default -> {
+                }
+            }
+        }
+        if (seller == null || price <= 0) {
+            return null;
+        }
+
+        String title = name.trim();
+        ListingData listing;
+        if (level > 0) {
+            if (title.toLowerCase(Locale.ROOT).startsWith(SHINY_PREFIX)) {
+                shiny = true;
+                title = title.substring(SHINY_PREFIX.length()).trim();
+            }
+            if (title.isEmpty() || level > 100) {
+                return null;
+            }
+            PokemonListing pokemon = new PokemonListing();
+            pokemon.setSpecies(title);
+            pokemon.setLevel(level);
+            pokemon.setShiny(shiny);
+            pokemon.setIvs(ivs);
+            pokemon.setNature(nature);
+            pokemon.setAbility(ability);
+            listing = pokemon;
+        } else {
+            int space = title.indexOf(' ');
+            if (space > 1 && Character.toLowerCase(title.charAt(space - 1)) == 'x') {
+                int prefixQuantity = parseNumber(title.substring(0, space - 1));
+                if (prefixQuantity > 0) {
+                    quantity = quantity > 0 ? quantity : prefixQuantity;
+                    title = title.substring(space + 1).trim();
+                }
+            }
+            if (title.isEmpty()) {
+                return null;
+            }
+            ItemListing item = new ItemListing();
+            item.setItemName(title);
+            item.setQuantity(quantity > 0 ? quantity : 1);
+            listing = item;
+        }
+        listing.setSeller(seller);
+        listing.setPrice(price);
+        return listing;
+    }
+
+    /**
+     * Reads a non-negative number, skipping a leading currency sign, comma grouping and any trailing text.
+     *
+     * @return the number, or {@code -1} if there is none or it overflows
+     */
+    static int parseNumber(String value) {
+        long result = 0;
+        boolean digits = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                result = result * 10 + (c - '0');
+                if (result > Integer.MAX_VALUE) {
+                    return -1;
+                }
+                digits = true;
+            } else if (c == ',' && digits) {
+                continue;
+            } else if (digits) {
+                break;
+            } else if (c != '$' && c != ' ') {
+                return -1;
+            }
+        }
+        return digits ? (int) result : -1;
+    }
+
+    private static IVStats parseIvs(String value) {
+        String[] parts = value.split("/");
+        if (parts.length != 6) {
+            return null;
+        }
+        int[] ivs = new int[6];
+        for (int i = 0; i < 6; i++) {
+            ivs[i] = parseNumber(parts[i].trim());
+            if (ivs[i] < 0 || ivs[i] > 31) {
+                return null;
+            }
+        }
+        return new IVStats(ivs[0], ivs[1], ivs[2], ivs[3], ivs[4], ivs[5]);
+    }
+}
@@ -0,0 +1,120 @@
+package com.yourname.gtstracker.scan;
+
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.PokemonListing;
+import com.yourname.gtstracker.util.ListingFingerprint;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Remembers the previous scan of each GTS page and reduces a new scan to what changed since:
+ * listings that appeared, listings whose details changed, and the ids of listings still there. Listings that are gone
+ * are whatever the page held before and {@link ScanDiff#retainedIds()} no longer lists; working out what that means
+ * for them is left to {@link com.yourname.gtstracker.ingest.ListingLifecycleEngine}.
+ * <p>
+ * Slots are matched by {@link ListingFingerprint#identityKey} plus an occurrence number, so identical listings on
+ * one page stay distinct and a repriced listing is a change rather than a new listing. A matched listing carries over
+ * the id assigned when it was first ingested. Listings that stay on screen unchanged are re-sent once every
+ * {@code refreshMs} so their {@code last_seen} keeps up without a write per scan.
+ */
+public final class ScreenScanDiffer {
+    /**
+     * @param retainedIds ids of listings still on the page, including unchanged ones that are not re-sent
+     */
+    public record ScanDiff(List<ListingData> added, List<ListingData> changed, List<String> retainedIds) {
+        public boolean isEmpty() {
+            return added.isEmpty() && changed.isEmpty();
+        }
+
+        public int size() {
+            return added.size() + changed.size();
+        }
+    }
+
+    private final long refreshMs;
+    private final Map<String, Map<String, Seen>> pages = new HashMap<>();
+
+    public ScreenScanDiffer(long refreshMs) {
+        this.refreshMs = Math.max(0L, refreshMs);
+    }
+
+    /**
+     * Diffs {@code listings}, the current content of {@code pageKey}, against the previous scan of that page and
+     * makes it the new previous scan. Listings in {@link ScanDiff#added()} have no id yet; the caller assigns one
+     * before the next scan.
+     */
+    public synchronized ScanDiff diff(String pageKey, List<? extends ListingData> listings, long nowMs) {
+        Map<String, Seen> previous = pages.getOrDefault(pageKey, Map.of());
+        Map<String, Seen> current = new HashMap<>(listings.size() * 2);
+        Map<String, Integer> occurrences = new HashMap<>();
+        List<ListingData> added = new ArrayList<>();
+        List<ListingData> changed = new ArrayList<>();
+        List<String> retainedIds = new ArrayList<>();
+
+        for (ListingData listing : listings) {
+            String identity = ListingFingerprint.identityKey(listing);
+            String slotKey = identity + '#' + occurrences.merge(identity, 1, Integer::sum);
+            Seen before = previous.get(slotKey);
+            if (before == null || before.listing.getId() == null) {
+                added.add(listing);
+                current.put(slotKey, new Seen(listing, nowMs));
+                continue;
+            }
+
+            listing.setId(before.listing.getId());
+            listing.setFirstSeen(before.listing.getFirstSeen());
+            listing.setSourceFirst(before.listing.getSourceFirst());
+            retainedIds.add(listing.getId());
+            if (!sameDetails(before.listing, listing) || nowMs - before.sentAtMs >= refreshMs) {
+                changed.add(listing);
+                current.put(slotKey, new Seen(listing, nowMs));
+            } else {
+                current.put(slotKey, new Seen(listing, before.sentAtMs));
+            }
+        }
+
+        pages.put(pageKey, current);
+        return new ScanDiff(added, changed, retainedIds);
+    }
+
+    /**
+     * Drops all remembered scans, e.g. after disconnecting from a server.
+     */
+    public synchronized void clear() {
+        pages.clear();
+    }
+
+    /**
+     * Compares what the identity key leaves out: the price and a Pokémon's IVs, nature and ability.
+     */
+    private static boolean sameDetails(ListingData before, ListingData after) {
+        if (before.getPrice() != after.getPrice()) {
+            return false;
+        }
+        if (before instanceof PokemonListing a && after instanceof PokemonListing b) {
+            return Objects.equals(a.getNature(), b.getNature())
+                && Objects.equals(a.getAbility(), b.getAbility())
+                && sameIvs(a, b);
+        }
+        return true;
+    }
+
+    private static boolean sameIvs(PokemonListing a, PokemonListing b) {
+        if (a.getIvs() == null || b.getIvs() == null) {
+            return a.getIvs() == b.getIvs();
+        }
+        return a.getIvs().getHp() == b.getIvs().getHp()
+            && a.getIvs().getAtk() == b.getIvs().getAtk()
+            && a.getIvs().getDef() == b.getIvs().getDef()
+            && a.getIvs().getSpatk() == b.getIvs().getSpatk()
+            && a.getIvs().getSpdef() == b.getIvs().getSpdef()
+            && a.getIvs().getSpeed() == b.getIvs().getSpeed();
+    }
+
+    private record Seen(ListingData listing, long sentAtMs) {
+    }
+}
@@ -5,18 +5,24 @@ import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.yourname.gtstracker.GTSTrackerMod;
 import com.yourname.gtstracker.compat.CompatibilityReporter;
-import com.yourname.gtstracker.data.DatabaseListingSnapshotProvider;
+import com.yourname.gtstracker.config.ConfigModel;
+import com.yourname.gtstracker.data.IncrementalListingSnapshotProvider;
+import com.yourname.gtstracker.data.ListingPageLoader;
 import com.yourname.gtstracker.data.ListingSnapshotCache;
+import com.yourname.gtstracker.data.PriceSeriesCache;
 import com.yourname.gtstracker.database.models.ListingData;
 import com.yourname.gtstracker.ui.bloomberg.BloombergGUI;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
 import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
 import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.text.Text;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.argument;
 import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
@@ -37,11 +43,24 @@ public final class CommandHandler {
 
     private static synchronized ListingSnapshotCache getOrCreateSnapshotCache() {
         if (snapshotCache == null || snapshotCache.isClosed()) {
-            snapshotCache = new ListingSnapshotCache(new DatabaseListingSnapshotProvider(GTSTrackerMod.getInstance().getDatabaseManager()));
+            GTSTrackerMod mod = GTSTrackerMod.getInstance();
+            IncrementalListingSnapshotProvider provider = new IncrementalListingSnapshotProvider(mod.getDatabaseManager());
+            ListingSnapshotCache cache = new ListingSnapshotCache(provider);
+            if (mod.getIngestionService() != null) {
+                cache.closeOnShutdown(mod.getIngestionService().getChangeBus().subscribe(event -> {
+                    provider.listingsChanged(event.listingIds());
+                    cache.markDirty();
+                }));
+            }
+            snapshotCache = cache;
         }
         return snapshotCache;
     }
 
+    private static int chartWindowDays(GTSTrackerMod mod) {
+        return mod.getConfig() == null ? ConfigModel.DEFAULT_DATA_RETENTION_DAYS : Math.max(1, mod.getConfig().dataRetentionDays);
+    }
+
     private static LiteralArgumentBuilder<FabricClientCommandSource> buildRootCommand(String rootName) {
         return literal(rootName)
             .then(literal("status")
@@ -81,6 +100,34 @@ public final class CommandHandler {
                         }
                         return Command.SINGLE_SUCCESS;
                     })))
+            .then(literal("rebuild")
+                .executes(context -> {
+                    GTSTrackerMod mod = GTSTrackerMod.getInstance();
+                    if (mod == null) {
+                        return handleServiceUnavailable(context.getSource(), "rebuild", "GTSTrackerMod.instance");
+                    }
+                    if (mod.getDatabaseManager() == null) {
+                        return handleServiceUnavailable(context.getSource(), "rebuild", "DatabaseManager");
+                    }
+
+                    ClientPlayerEntity player = context.getSource().getPlayer();
+                    CompletableFuture
+                        .supplyAsync(() -> mod.getDatabaseManager().rebuildSummaryTables())
+                        .whenComplete((counted, failure) -> {
+                            String message;
+                            if (failure != null) {
+                                LOGGER.error("Failed to rebuild summary tables via /{} rebuild", rootName, failure);
+                                message = "[GTSTracker] Rebuild failed. Check logs.";
+                            } else {
+                                LOGGER.info("Rebuilt summary tables via /{} rebuild: {} listing(s)", rootName, counted);
+                                message = "[GTSTracker] Rebuilt summary tables from " + counted + " listing(s).";
+                            }
+                            if (player != null) {
+                                MinecraftClient.getInstance().execute(() -> player.sendMessage(Text.literal(message), false));
+                            }
+                        });
+                    return Command.SINGLE_SUCCESS;
+                }))
             .then(literal("gui")
                 .executes(context -> {
                     GTSTrackerMod mod = GTSTrackerMod.getInstance();
@@ -93,7 +140,13 @@ public final class CommandHandler {
 
                     try {
                         MinecraftClient client = MinecraftClient.getInstance();
-                        client.setScreen(new BloombergGUI(getOrCreateSnapshotCache(), true));
+                        client.setScreen(new BloombergGUI(
+                            getOrCreateSnapshotCache(),
+                            new ListingPageLoader(mod.getDatabaseManager()),
+                            new PriceSeriesCache(mod.getDatabaseManager(), Duration.ofDays(chartWindowDays(mod)),
+                                mod.getIngestionService() == null ? null : mod.getIngestionService().getActiveListingIndex()),
+                            true
+                        ));
                         LOGGER.info("Opened Bloomberg GUI via /{} gui", rootName);
                         return Command.SINGLE_SUCCESS;
                     } catch (RuntimeException exception) {
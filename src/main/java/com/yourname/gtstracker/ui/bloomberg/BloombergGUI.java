@@ -1,6 +1,9 @@
 package com.yourname.gtstracker.ui.bloomberg;
 
+import com.yourname.gtstracker.data.ListingPageLoader;
+import com.yourname.gtstracker.data.ListingSnapshot;
 import com.yourname.gtstracker.data.ListingSnapshotCache;
+import com.yourname.gtstracker.data.PriceSeriesCache;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.text.Text;
@@ -15,11 +18,15 @@ public final class BloombergGUI extends Screen {
     private static final int BORDER = 0xFF2A2E39;
     private static final int TEXT = 0xFFE2E7F4;
 
-    private static final long CACHE_REFRESH_MS = 1_500L;
+    private static final long MIN_REFRESH_INTERVAL_MS = 250L;
+    private static final long MAX_STALE_MS = 60_000L;
 
     private final ListingSnapshotCache snapshotCache;
     private final boolean shutdownCacheOnClose;
+    private final ListingPageLoader pageLoader;
+    private final PriceSeriesCache seriesCache;
     private OverviewScreen overview;
+    private ListingSnapshot lastSnapshot;
     private boolean refreshErrorLogged;
 
     public BloombergGUI(ListingSnapshotCache snapshotCache) {
@@ -27,8 +34,27 @@ public final class BloombergGUI extends Screen {
     }
 
     public BloombergGUI(ListingSnapshotCache snapshotCache, boolean shutdownCacheOnClose) {
+        this(snapshotCache, null, shutdownCacheOnClose);
+    }
+
+    /**
+     * @param pageLoader source for the scrollable listing table, closed with this screen; when {@code null} the
+     *                   table shows only the snapshot's listings
+     */
+    public BloombergGUI(ListingSnapshotCache snapshotCache, ListingPageLoader pageLoader, boolean shutdownCacheOnClose) {
+        this(snapshotCache, pageLoader, null, shutdownCacheOnClose);
+    }
+
+    /**
+     * @param seriesCache price history for the chart of the filtered species or item, closed with this screen; no
+     *                    chart when {@code null}
+     */
+    public BloombergGUI(ListingSnapshotCache snapshotCache, ListingPageLoader pageLoader, PriceSeriesCache seriesCache,
+                        boolean shutdownCacheOnClose) {
         super(Text.literal("GTS Bloomberg"));
         this.snapshotCache = snapshotCache;
+        this.pageLoader = pageLoader;
+        this.seriesCache = seriesCache;
         this.shutdownCacheOnClose = shutdownCacheOnClose;
     }
 
@@ -36,14 +62,30 @@ public final class BloombergGUI extends Screen {
     protected void init() {
         int contentTop = 28;
         int contentBottom = this.height - 22;
-        this.overview = new OverviewScreen(12, contentTop, this.width - 24, contentBottom - contentTop);
+        if (pageLoader == null) {
+            this.overview = new OverviewScreen(12, contentTop, this.width - 24, contentBottom - contentTop);
+            return;
+        }
+        // Re-init (e.g. on resize) rebuilds the widgets; the loader's query carries the filters across.
+        this.overview = new OverviewScreen(12, contentTop, this.width - 24, contentBottom - contentTop,
+            this.textRenderer, pageLoader.getQuery(), pageLoader::setQuery, seriesCache);
+        overview.getWidgets().forEach(this::addDrawableChild);
     }
 
     @Override
     public void tick() {
         try {
-            snapshotCache.refreshIfStale(System.currentTimeMillis(), CACHE_REFRESH_MS);
+            snapshotCache.refreshIfDirty(System.currentTimeMillis(), MIN_REFRESH_INTERVAL_MS, MAX_STALE_MS);
             refreshErrorLogged = false;
+            ListingSnapshot snapshot = snapshotCache.getSnapshot();
+            if (pageLoader != null && snapshot != lastSnapshot) {
+                // A new snapshot means listings changed; the loader reloads once the table is back near the top.
+                pageLoader.markStale();
+                if (seriesCache != null) {
+                    seriesCache.markStale();
+                }
+            }
+            lastSnapshot = snapshot;
         } catch (RuntimeException e) {
             if (!refreshErrorLogged) {
                 LOGGER.error("Failed to refresh snapshot cache for Bloomberg GUI.", e);
@@ -55,15 +97,33 @@ public final class BloombergGUI extends Screen {
     @Override
     public void close() {
         super.close();
+        closeLoaders();
         shutdownCacheIfConfigured();
     }
 
     @Override
     public void removed() {
         super.removed();
+        closeLoaders();
         shutdownCacheIfConfigured();
     }
 
+    @Override
+    public boolean mouseClicked(double mouseX, double mouseY, int button) {
+        if (super.mouseClicked(mouseX, mouseY, button)) {
+            return true;
+        }
+        return button == 0 && overview != null && overview.mouseClicked(mouseX, mouseY);
+    }
+
+    @Override
+    public boolean mouseScrolled(double mouseX, double mouseY, double horizontalAmount, double verticalAmount) {
+        if (overview != null && overview.mouseScrolled(mouseX, mouseY, verticalAmount)) {
+            return true;
+        }
+        return super.mouseScrolled(mouseX, mouseY, horizontalAmount, verticalAmount);
+    }
+
     @Override
     public void resize(net.minecraft.client.MinecraftClient client, int width, int height) {
         super.resize(client, width, height);
@@ -84,7 +144,7 @@ public final class BloombergGUI extends Screen {
 
         if (overview != null) {
             try {
-                overview.render(context, this.textRenderer, snapshotCache.getSnapshot());
+                renderOverview(context);
             } catch (RuntimeException e) {
                 LOGGER.error("Failed to render Bloomberg overview panel.", e);
                 context.drawText(textRenderer, Text.literal("GTSTracker GUI error. Check latest.log."), 12, 30, 0xFFFF6B6B, false);
@@ -94,6 +154,25 @@ public final class BloombergGUI extends Screen {
         super.render(context, mouseX, mouseY, delta);
     }
 
+    private void renderOverview(DrawContext context) {
+        ListingSnapshot snapshot = snapshotCache.getSnapshot();
+        if (pageLoader == null) {
+            overview.render(context, this.textRenderer, snapshot);
+            return;
+        }
+        overview.render(context, this.textRenderer, snapshot, pageLoader.getRows());
+        pageLoader.ensureLoaded(overview.getFirstVisibleRow(), overview.getLastVisibleRow());
+    }
+
+    private void closeLoaders() {
+        if (pageLoader != null) {
+            pageLoader.close();
+        }
+        if (seriesCache != null) {
+            seriesCache.close();
+        }
+    }
+
     private void shutdownCacheIfConfigured() {
         if (!shutdownCacheOnClose) {
             return;
@@ -1,31 +1,80 @@
 package com.yourname.gtstracker.ui.bloomberg;
 
 import com.yourname.gtstracker.data.MarketListing;
+import com.yourname.gtstracker.database.ListingQuery.SortColumn;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.text.Text;
 
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Virtualized listing table: only rows inside the viewport are drawn, and each row's formatted {@link Text}s are
+ * cached per listing value, so a frame costs the same whether the table holds a hundred rows or thousands.
+ * Price, unit price, IV and last-seen headers are clickable sort keys.
+ */
 public final class ListingTableWidget {
     private static final int HEADER_BG = 0xFF1F2230;
     private static final int BODY_BG = 0xFF141720;
     private static final int BORDER = 0xFF2A2E39;
     private static final int HEADER_TEXT = 0xFFE2E7F4;
     private static final int BODY_TEXT = 0xFFC5CEE4;
+    private static final int SCROLLBAR_THUMB = 0xFF3A4052;
+
+    private static final int HEADER_HEIGHT = 14;
+    private static final int ROW_HEIGHT = 12;
+    private static final int ROWS_PER_SCROLL_STEP = 3;
+    /** A few viewports' worth; rows scrolled far away are cheap to format again. */
+    private static final int ROW_CACHE_SIZE = 512;
 
     private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss")
         .withZone(ZoneId.systemDefault());
 
+    private static final Text HEADER_NAME = Text.literal("Display Name");
+    private static final Text HEADER_STATUS = Text.literal("Status");
+    private static final Text EMPTY_CELL = Text.literal("-");
+    private static final Map<MarketListing.Status, Text> STATUS_TEXT = new EnumMap<>(MarketListing.Status.class);
+
+    static {
+        for (MarketListing.Status status : MarketListing.Status.values()) {
+            STATUS_TEXT.put(status, Text.literal(status.name()));
+        }
+    }
+
+    /** Keyed by the listing record itself, so any change to a displayed field misses and re-formats. */
+    private final Map<MarketListing, RowText> rowCache = new LinkedHashMap<>(ROW_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<MarketListing, RowText> eldest) {
+            return size() > ROW_CACHE_SIZE;
+        }
+    };
+
     private int x;
     private int y;
     private int width;
     private int height;
+    private int colPrice;
+    private int colUnit;
+    private int colIv;
+    private int colLastSeen;
+    private int colStatus;
+    private SortColumn sortColumn = SortColumn.LAST_SEEN;
+    private boolean sortDescending = true;
+    private Text headerPrice;
+    private Text headerUnit;
+    private Text headerIv;
+    private Text headerLastSeen;
+    private int firstRow;
+    private int rowCount;
 
     public ListingTableWidget(int x, int y, int width, int height) {
         resize(x, y, width, height);
+        setSort(sortColumn, sortDescending);
     }
 
     public void resize(int x, int y, int width, int height) {
@@ -33,36 +82,133 @@ public final class ListingTableWidget {
         this.y = y;
         this.width = width;
         this.height = height;
+        this.colPrice = x + (int) (width * 0.34f);
+        this.colUnit = x + (int) (width * 0.48f);
+        this.colIv = x + (int) (width * 0.62f);
+        this.colLastSeen = x + (int) (width * 0.70f);
+        this.colStatus = x + (int) (width * 0.84f);
+    }
+
+    /**
+     * Marks the sorted column in the header; the rows themselves arrive already sorted.
+     */
+    public void setSort(SortColumn sortColumn, boolean descending) {
+        this.sortColumn = sortColumn;
+        this.sortDescending = descending;
+        this.headerPrice = header("Price", SortColumn.PRICE);
+        this.headerUnit = header("Unit", SortColumn.UNIT_PRICE);
+        this.headerIv = header("IV", SortColumn.IV_TOTAL);
+        this.headerLastSeen = header("Last Seen", SortColumn.LAST_SEEN);
+    }
+
+    /**
+     * @return the sort key under the pointer if it is over a sortable header, otherwise {@code null}
+     */
+    public SortColumn sortColumnAt(double mouseX, double mouseY) {
+        if (mouseY < y || mouseY >= y + HEADER_HEIGHT || mouseX < x || mouseX >= x + width) {
+            return null;
+        }
+        if (mouseX >= colStatus) {
+            return null;
+        }
+        if (mouseX >= colLastSeen) {
+            return SortColumn.LAST_SEEN;
+        }
+        if (mouseX >= colIv) {
+            return SortColumn.IV_TOTAL;
+        }
+        if (mouseX >= colUnit) {
+            return SortColumn.UNIT_PRICE;
+        }
+        return mouseX >= colPrice ? SortColumn.PRICE : null;
+    }
+
+    public int getVisibleRowCount() {
+        return Math.max(0, (height - HEADER_HEIGHT - 4) / ROW_HEIGHT);
+    }
+
+    public int getFirstVisibleRow() {
+        return firstRow;
+    }
+
+    public int getLastVisibleRow() {
+        return firstRow + getVisibleRowCount() - 1;
+    }
+
+    /**
+     * @return {@code true} if the pointer was over the table and the scroll was consumed
+     */
+    public boolean mouseScrolled(double mouseX, double mouseY, double verticalAmount) {
+        if (mouseX < x || mouseX >= x + width || mouseY < y || mouseY >= y + height) {
+            return false;
+        }
+        scrollTo(firstRow - (int) Math.signum(verticalAmount) * ROWS_PER_SCROLL_STEP);
+        return true;
+    }
+
+    public void scrollTo(int row) {
+        firstRow = Math.max(0, Math.min(row, rowCount - getVisibleRowCount()));
     }
 
     public void render(DrawContext context, TextRenderer textRenderer, List<MarketListing> rows) {
         context.fill(x, y, x + width, y + height, BODY_BG);
         context.drawBorder(x, y, width, height, BORDER);
-
-        int headerHeight = 14;
-        context.fill(x, y, x + width, y + headerHeight, HEADER_BG);
+        context.fill(x, y, x + width, y + HEADER_HEIGHT, HEADER_BG);
 
         int col1 = x + 8;
-        int col2 = x + (int) (width * 0.45f);
-        int col3 = x + (int) (width * 0.65f);
-        int col4 = x + (int) (width * 0.82f);
-
-        context.drawText(textRenderer, Text.literal("Display Name"), col1, y + 3, HEADER_TEXT, false);
-        context.drawText(textRenderer, Text.literal("Price"), col2, y + 3, HEADER_TEXT, false);
-        context.drawText(textRenderer, Text.literal("Last Seen"), col3, y + 3, HEADER_TEXT, false);
-        context.drawText(textRenderer, Text.literal("Status"), col4, y + 3, HEADER_TEXT, false);
-
-        int rowHeight = 12;
-        int maxRows = Math.max(0, (height - headerHeight - 4) / rowHeight);
-        int drawY = y + headerHeight + 2;
-
-        for (int i = 0; i < Math.min(rows.size(), maxRows); i++) {
-            MarketListing listing = rows.get(i);
-            context.drawText(textRenderer, Text.literal(listing.displayName()), col1, drawY, BODY_TEXT, false);
-            context.drawText(textRenderer, Text.literal(String.format("$%,.2f", listing.price())), col2, drawY, BODY_TEXT, false);
-            context.drawText(textRenderer, Text.literal(TIME_FORMAT.format(listing.lastSeen())), col3, drawY, BODY_TEXT, false);
-            context.drawText(textRenderer, Text.literal(listing.status().name()), col4, drawY, BODY_TEXT, false);
-            drawY += rowHeight;
+        context.drawText(textRenderer, HEADER_NAME, col1, y + 3, HEADER_TEXT, false);
+        context.drawText(textRenderer, headerPrice, colPrice, y + 3, HEADER_TEXT, false);
+        context.drawText(textRenderer, headerUnit, colUnit, y + 3, HEADER_TEXT, false);
+        context.drawText(textRenderer, headerIv, colIv, y + 3, HEADER_TEXT, false);
+        context.drawText(textRenderer, headerLastSeen, colLastSeen, y + 3, HEADER_TEXT, false);
+        context.drawText(textRenderer, HEADER_STATUS, colStatus, y + 3, HEADER_TEXT, false);
+
+        // Re-clamp in case the row list shrank since the last scroll.
+        rowCount = rows.size();
+        scrollTo(firstRow);
+
+        int visibleRows = getVisibleRowCount();
+        int end = Math.min(rowCount, firstRow + visibleRows);
+        int drawY = y + HEADER_HEIGHT + 2;
+        for (int i = firstRow; i < end; i++) {
+            RowText row = rowCache.computeIfAbsent(rows.get(i), RowText::format);
+            context.drawText(textRenderer, row.name(), col1, drawY, BODY_TEXT, false);
+            context.drawText(textRenderer, row.price(), colPrice, drawY, BODY_TEXT, false);
+            context.drawText(textRenderer, row.unitPrice(), colUnit, drawY, BODY_TEXT, false);
+            context.drawText(textRenderer, row.ivTotal(), colIv, drawY, BODY_TEXT, false);
+            context.drawText(textRenderer, row.lastSeen(), colLastSeen, drawY, BODY_TEXT, false);
+            context.drawText(textRenderer, row.status(), colStatus, drawY, BODY_TEXT, false);
+            drawY += ROW_HEIGHT;
+        }
+
+        renderScrollbar(context, visibleRows);
+    }
+
+    private void renderScrollbar(DrawContext context, int visibleRows) {
+        if (rowCount <= visibleRows || visibleRows == 0) {
+            return;
+        }
+        int trackTop = y + HEADER_HEIGHT;
+        int trackHeight = height - HEADER_HEIGHT - 1;
+        int thumbHeight = Math.max(8, (int) ((long) trackHeight * visibleRows / rowCount));
+        int thumbTop = trackTop + (int) ((long) (trackHeight - thumbHeight) * firstRow / (rowCount - visibleRows));
+        context.fill(x + width - 4, thumbTop, x + width - 1, thumbTop + thumbHeight, SCROLLBAR_THUMB);
+    }
+
+    private Text header(String label, SortColumn column) {
+        return Text.literal(column == sortColumn ? label + (sortDescending ? " \u25BC" : " \u25B2") : label);
+    }
+
+    private record RowText(Text name, Text price, Text unitPrice, Text ivTotal, Text lastSeen, Text status) {
+        static RowText format(MarketListing listing) {
+            return new RowText(
+                Text.literal(listing.displayName()),
+                Text.literal(String.format("$%,.2f", listing.price())),
+                Text.literal(String.format("$%,.2f", listing.unitPrice())),
+                listing.ivTotal() == null ? EMPTY_CELL : Text.literal(Integer.toString(listing.ivTotal())),
+                Text.literal(TIME_FORMAT.format(listing.lastSeen())),
+                STATUS_TEXT.get(listing.status())
+            );
         }
     }
 }
@@ -0,0 +1,129 @@
+package com.yourname.gtstracker.ui.bloomberg;
+
+import com.yourname.gtstracker.database.ListingQuery;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gui.widget.ButtonWidget;
+import net.minecraft.client.gui.widget.ClickableWidget;
+import net.minecraft.client.gui.widget.TextFieldWidget;
+import net.minecraft.text.Text;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Row of filter inputs above the listing table. Every edit rebuilds the {@link ListingQuery} and hands it to the
+ * listener; numeric fields that do not parse are shown in red and ignored.
+ */
+final class MarketFilterBar {
+    static final int HEIGHT = 18;
+
+    private static final int GAP = 4;
+    private static final int TEXT_COLOR = 0xFFE0E0E0;
+    private static final int INVALID_TEXT_COLOR = 0xFFFF6B6B;
+
+    private final TextFieldWidget species;
+    private final TextFieldWidget itemName;
+    private final TextFieldWidget minIvTotal;
+    private final TextFieldWidget minPrice;
+    private final TextFieldWidget maxPrice;
+    private final ButtonWidget shinyButton;
+    private final Consumer<ListingQuery> listener;
+
+    private ListingQuery query;
+
+    MarketFilterBar(TextRenderer textRenderer, int x, int y, int width, ListingQuery initial, Consumer<ListingQuery> listener) {
+        this.query = initial;
+        this.listener = listener;
+        this.species = field(textRenderer, "Species", initial.getSpecies());
+        this.itemName = field(textRenderer, "Item", initial.getItemName());
+        this.minIvTotal = field(textRenderer, "Min IV", format(initial.getMinIvTotal()));
+        this.minPrice = field(textRenderer, "Min $", format(initial.getMinPrice()));
+        this.maxPrice = field(textRenderer, "Max $", format(initial.getMaxPrice()));
+        this.shinyButton = ButtonWidget.builder(shinyLabel(initial.getShiny()), button -> cycleShiny())
+            .dimensions(x, y, 60, HEIGHT)
+            .build();
+        resize(x, y, width);
+    }
+
+    List<ClickableWidget> widgets() {
+        return List.of(species, itemName, minIvTotal, minPrice, maxPrice, shinyButton);
+    }
+
+    ListingQuery getQuery() {
+        return query;
+    }
+
+    void resize(int x, int y, int width) {
+        List<ClickableWidget> widgets = widgets();
+        int cellWidth = Math.max(30, (width - GAP * (widgets.size() - 1)) / widgets.size());
+        int cellX = x;
+        for (ClickableWidget widget : widgets) {
+            widget.setX(cellX);
+            widget.setY(y);
+            widget.setWidth(cellWidth);
+            cellX += cellWidth + GAP;
+        }
+    }
+
+    void sortBy(ListingQuery.SortColumn column, boolean descending) {
+        update(query.sortedBy(column, descending));
+    }
+
+    private TextFieldWidget field(TextRenderer textRenderer, String placeholder, String value) {
+        TextFieldWidget field = new TextFieldWidget(textRenderer, 0, 0, 60, HEIGHT, Text.literal(placeholder));
+        field.setPlaceholder(Text.literal(placeholder));
+        field.setMaxLength(48);
+        field.setText(value == null ? "" : value);
+        field.setChangedListener(text -> onFieldChanged());
+        return field;
+    }
+
+    private void onFieldChanged() {
+        update(query
+            .withSpecies(species.getText())
+            .withItemName(itemName.getText())
+            .withMinIvTotal(parse(minIvTotal))
+            .withPriceRange(parse(minPrice), parse(maxPrice)));
+    }
+
+    private void cycleShiny() {
+        Boolean next = query.getShiny() == null ? Boolean.TRUE : query.getShiny() ? Boolean.FALSE : null;
+        shinyButton.setMessage(shinyLabel(next));
+        update(query.withShiny(next));
+    }
+
+    private void update(ListingQuery next) {
+        if (next.equals(query)) {
+            return;
+        }
+        query = next;
+        listener.accept(next);
+    }
+
+    private static Integer parse(TextFieldWidget field) {
+        String text = field.getText().replace(",", "").trim();
+        if (text.isEmpty()) {
+            field.setEditableColor(TEXT_COLOR);
+            return null;
+        }
+        try {
+            int value = Integer.parseInt(text);
+            field.setEditableColor(TEXT_COLOR);
+            return value;
+        } catch (NumberFormatException ignored) {
+            field.setEditableColor(INVALID_TEXT_COLOR);
+            return null;
+        }
+    }
+
+    private static String format(Integer value) {
+        return value == null ? "" : Integer.toString(value);
+    }
+
+    private static Text shinyLabel(Boolean shiny) {
+        if (shiny == null) {
+            return Text.literal("Shiny: Any");
+        }
+        return Text.literal(shiny ? "Shiny: Yes" : "Shiny: No");
+    }
+}
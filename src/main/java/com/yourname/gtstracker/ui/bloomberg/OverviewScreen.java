@@ -1,27 +1,145 @@
 package com.yourname.gtstracker.ui.bloomberg;
 
 import com.yourname.gtstracker.data.ListingSnapshot;
+import com.yourname.gtstracker.data.MarketListing;
+import com.yourname.gtstracker.data.PriceSeriesCache;
+import com.yourname.gtstracker.data.PriceSeriesCache.SeriesKey;
+import com.yourname.gtstracker.database.ListingQuery;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.gui.widget.ClickableWidget;
+
+import java.util.List;
+import java.util.function.Consumer;
 
 public final class OverviewScreen {
+    /** Summary text above the price chart when both share the right-hand column. */
+    private static final int SUMMARY_HEIGHT = 56;
+
     private final ListingTableWidget table;
     private final SummaryPanel summary;
+    private final MarketFilterBar filterBar;
+    private final Consumer<ListingQuery> queryListener;
+    private final PriceSeriesCache seriesCache;
+    private final PriceChartPanel chart;
+    private SeriesKey selectedSeries;
 
     public OverviewScreen(int x, int y, int width, int height) {
+        this(x, y, width, height, null, null, null);
+    }
+
+    /**
+     * Overview with a filter bar and sortable headers; {@code queryListener} receives every filter or sort change.
+     */
+    public OverviewScreen(int x, int y, int width, int height, TextRenderer textRenderer, ListingQuery initialQuery,
+                          Consumer<ListingQuery> queryListener) {
+        this(x, y, width, height, textRenderer, initialQuery, queryListener, null);
+    }
+
+    /**
+     * @param seriesCache source for a price chart of the filtered species or item, drawn under the summary; no chart
+     *                    when {@code null}
+     */
+    public OverviewScreen(int x, int y, int width, int height, TextRenderer textRenderer, ListingQuery initialQuery,
+                          Consumer<ListingQuery> queryListener, PriceSeriesCache seriesCache) {
         int summaryWidth = 220;
-        this.table = new ListingTableWidget(x, y, width - summaryWidth - 8, height);
-        this.summary = new SummaryPanel(x + width - summaryWidth, y, summaryWidth, height);
+        int tableWidth = width - summaryWidth - 8;
+        this.queryListener = queryListener;
+        this.seriesCache = seriesCache;
+        this.filterBar = queryListener == null
+            ? null
+            : new MarketFilterBar(textRenderer, x, y, tableWidth, initialQuery, this::onQueryChanged);
+        int tableTop = tableTop(y);
+        this.table = new ListingTableWidget(x, tableTop, tableWidth, height - (tableTop - y));
+        this.summary = new SummaryPanel(x + width - summaryWidth, y, summaryWidth, summaryHeight(height));
+        this.chart = seriesCache == null ? null : new PriceChartPanel(x + width - summaryWidth, 0, summaryWidth, 0);
+        if (filterBar != null) {
+            table.setSort(initialQuery.getSortColumn(), initialQuery.isDescending());
+            selectedSeries = SeriesKey.forQuery(initialQuery);
+        }
+        resizeChart(x + width - summaryWidth, y, summaryWidth, height);
     }
 
     public void resize(int x, int y, int width, int height) {
         int summaryWidth = Math.min(220, Math.max(180, width / 3));
-        table.resize(x, y, width - summaryWidth - 8, height);
-        summary.resize(x + width - summaryWidth, y, summaryWidth, height);
+        int tableWidth = width - summaryWidth - 8;
+        int tableTop = tableTop(y);
+        if (filterBar != null) {
+            filterBar.resize(x, y, tableWidth);
+        }
+        table.resize(x, tableTop, tableWidth, height - (tableTop - y));
+        summary.resize(x + width - summaryWidth, y, summaryWidth, summaryHeight(height));
+        resizeChart(x + width - summaryWidth, y, summaryWidth, height);
+    }
+
+    /**
+     * @return the filter inputs, to be registered as children of the hosting screen
+     */
+    public List<ClickableWidget> getWidgets() {
+        return filterBar == null ? List.of() : filterBar.widgets();
+    }
+
+    public boolean mouseScrolled(double mouseX, double mouseY, double verticalAmount) {
+        return table.mouseScrolled(mouseX, mouseY, verticalAmount);
+    }
+
+    /**
+     * Sorts by a clicked header: a new column starts descending, the current column flips direction.
+     *
+     * @return {@code true} if the click landed on a sortable header
+     */
+    public boolean mouseClicked(double mouseX, double mouseY) {
+        if (filterBar == null) {
+            return false;
+        }
+        ListingQuery.SortColumn column = table.sortColumnAt(mouseX, mouseY);
+        if (column == null) {
+            return false;
+        }
+        ListingQuery current = filterBar.getQuery();
+        boolean descending = column != current.getSortColumn() || !current.isDescending();
+        filterBar.sortBy(column, descending);
+        return true;
+    }
+
+    public int getFirstVisibleRow() {
+        return table.getFirstVisibleRow();
+    }
+
+    public int getLastVisibleRow() {
+        return table.getLastVisibleRow();
     }
 
     public void render(DrawContext context, TextRenderer textRenderer, ListingSnapshot snapshot) {
-        table.render(context, textRenderer, snapshot.listings());
+        render(context, textRenderer, snapshot, snapshot.listings());
+    }
+
+    public void render(DrawContext context, TextRenderer textRenderer, ListingSnapshot snapshot, List<MarketListing> rows) {
+        table.render(context, textRenderer, rows);
         summary.render(context, textRenderer, snapshot);
+        if (chart != null) {
+            chart.render(context, textRenderer, selectedSeries, seriesCache.get(selectedSeries), seriesCache.getActiveAsks(selectedSeries));
+        }
+    }
+
+    private void onQueryChanged(ListingQuery query) {
+        table.setSort(query.getSortColumn(), query.isDescending());
+        table.scrollTo(0);
+        selectedSeries = SeriesKey.forQuery(query);
+        queryListener.accept(query);
+    }
+
+    private int summaryHeight(int height) {
+        return seriesCache == null ? height : SUMMARY_HEIGHT;
+    }
+
+    private void resizeChart(int x, int y, int width, int height) {
+        if (chart != null) {
+            chart.resize(x, y + SUMMARY_HEIGHT + 4, width, height - SUMMARY_HEIGHT - 4);
+        }
+    }
+
+    private int tableTop(int y) {
+        return filterBar == null ? y : y + MarketFilterBar.HEIGHT + 4;
     }
 }
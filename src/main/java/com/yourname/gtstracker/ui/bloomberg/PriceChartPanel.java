@@ -0,0 +1,213 @@
+package com.yourname.gtstracker.ui.bloomberg;
+
+import com.yourname.gtstracker.data.PriceSeries;
+import com.yourname.gtstracker.data.PriceSeriesCache.ActiveAsks;
+import com.yourname.gtstracker.data.PriceSeriesCache.SeriesKey;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.client.render.RenderLayer;
+import net.minecraft.client.render.VertexConsumer;
+import net.minecraft.text.Text;
+import org.joml.Matrix4f;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Candlestick chart of the selected series' price buckets. When buckets are narrower than a few pixels each is drawn
+ * as a single high-low bar, which reads as a sparkline.
+ * <p>
+ * Candle rectangles are laid out once per series and panel size and emitted every frame into one GUI vertex buffer
+ * that is flushed with a single draw, instead of one {@link DrawContext#fill} (and flush) per rectangle.
+ */
+final class PriceChartPanel {
+    private static final int BACKGROUND_COLOR = 0xFF16181D;
+    private static final int BORDER_COLOR = 0xFF2A2E39;
+    private static final int GRID_COLOR = 0xFF222633;
+    private static final int PRIMARY_TEXT = 0xFFE2E7F4;
+    private static final int SECONDARY_TEXT = 0xFF97A4C2;
+    private static final int UP_COLOR = 0xFF3DDC84;
+    private static final int DOWN_COLOR = 0xFFFF6B6B;
+
+    private static final int PADDING = 8;
+    private static final int TITLE_HEIGHT = 24;
+    /** Narrower candles collapse to a single high-low bar. */
+    private static final float MIN_CANDLE_SLOT = 3.0f;
+
+    private static final Text HINT = Text.literal("Filter a species or item to chart it");
+    private static final Text LOADING = Text.literal("Loading price history...");
+    private static final Text NO_DATA = Text.literal("No price history yet");
+
+    private int x;
+    private int y;
+    private int width;
+    private int height;
+
+    private PriceSeries laidOutSeries;
+    private int laidOutWidth;
+    private int laidOutHeight;
+    /** x1, y1, x2, y2 per rectangle, relative to the plot's top-left corner. */
+    private float[] rects = new float[0];
+    private int[] rectColors = new int[0];
+    private int rectCount;
+
+    private SeriesKey titledKey;
+    private PriceSeries titledSeries;
+    private ActiveAsks titledAsks;
+    private Text title;
+    private Text subtitle;
+
+    PriceChartPanel(int x, int y, int width, int height) {
+        resize(x, y, width, height);
+    }
+
+    void resize(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * @param asks current asks for {@code key}, shown in the subtitle when known
+     */
+    void render(DrawContext context, TextRenderer textRenderer, SeriesKey key, PriceSeries series, ActiveAsks asks) {
+        context.fill(x, y, x + width, y + height, BACKGROUND_COLOR);
+        context.drawBorder(x, y, width, height, BORDER_COLOR);
+        if (key == null) {
+            context.drawText(textRenderer, HINT, x + PADDING, y + PADDING, SECONDARY_TEXT, false);
+            return;
+        }
+
+        updateTitle(key, series, asks);
+        context.drawText(textRenderer, title, x + PADDING, y + PADDING, PRIMARY_TEXT, false);
+        if (series == null || series.isEmpty()) {
+            context.drawText(textRenderer, series == null ? LOADING : NO_DATA, x + PADDING, y + PADDING + 12, SECONDARY_TEXT, false);
+            return;
+        }
+        context.drawText(textRenderer, subtitle, x + PADDING, y + PADDING + 12, SECONDARY_TEXT, false);
+
+        int plotX = x + PADDING;
+        int plotY = y + PADDING + TITLE_HEIGHT;
+        int plotWidth = width - PADDING * 2;
+        int plotHeight = height - PADDING * 2 - TITLE_HEIGHT;
+        if (plotWidth <= 0 || plotHeight <= 0) {
+            return;
+        }
+        layout(series, plotWidth, plotHeight);
+        drawRects(context, plotX, plotY, plotWidth, plotHeight);
+    }
+
+    private void updateTitle(SeriesKey key, PriceSeries series, ActiveAsks asks) {
+        if (key.equals(titledKey) && series == titledSeries && Objects.equals(asks, titledAsks)) {
+            return;
+        }
+        titledKey = key;
+        titledSeries = series;
+        titledAsks = asks;
+        String name = key.item() ? key.name() : key.name() + (key.shiny() ? " (shiny)" : "");
+        title = Text.literal(series == null || series.isEmpty()
+            ? name
+            : String.format("%s  $%,.2f", name, series.lastClose()));
+        subtitle = series == null || series.isEmpty()
+            ? Text.empty()
+            : Text.literal(String.format("L $%,.0f  H $%,.0f  %d listings  %s",
+                series.minLow(), series.maxHigh(), series.totalVolume(), resolutionLabel(series)) + asksLabel(asks));
+    }
+
+    private static String asksLabel(ActiveAsks asks) {
+        if (asks == null) {
+            return "";
+        }
+        return asks.count() == 0
+            ? "  | no asks"
+            : String.format("  | %d asks from $%,.0f, median $%,.0f", asks.count(), asks.lowest(), asks.median());
+    }
+
+    private static String resolutionLabel(PriceSeries series) {
+        return switch (series.resolution()) {
+            case MINUTE -> "1m";
+            case HOUR -> "1h";
+            case DAY -> "1d";
+        };
+    }
+
+    /**
+     * Converts the series into plot-relative rectangles; skipped while neither the series nor the plot size changed.
+     */
+    private void layout(PriceSeries series, int plotWidth, int plotHeight) {
+        if (series == laidOutSeries && plotWidth == laidOutWidth && plotHeight == laidOutHeight) {
+            return;
+        }
+        laidOutSeries = series;
+        laidOutWidth = plotWidth;
+        laidOutHeight = plotHeight;
+
+        int buckets = series.size();
+        ensureCapacity(buckets * 2);
+        rectCount = 0;
+        double min = series.minLow();
+        double range = series.maxHigh() - min;
+        float slot = (float) plotWidth / buckets;
+        boolean candles = slot >= MIN_CANDLE_SLOT;
+        float bodyWidth = candles ? Math.max(1.0f, slot * 0.6f) : Math.max(1.0f, slot);
+
+        for (int i = 0; i < buckets; i++) {
+            int color = series.close(i) >= series.open(i) ? UP_COLOR : DOWN_COLOR;
+            float center = (i + 0.5f) * slot;
+            float highY = priceY(series.high(i), min, range, plotHeight);
+            float lowY = priceY(series.low(i), min, range, plotHeight);
+            if (!candles) {
+                addRect(center - bodyWidth / 2, highY, center + bodyWidth / 2, Math.max(lowY, highY + 1), color);
+                continue;
+            }
+            addRect(center - 0.5f, highY, center + 0.5f, Math.max(lowY, highY + 1), color);
+            float openY = priceY(series.open(i), min, range, plotHeight);
+            float closeY = priceY(series.close(i), min, range, plotHeight);
+            float top = Math.min(openY, closeY);
+            addRect(center - bodyWidth / 2, top, center + bodyWidth / 2, Math.max(Math.max(openY, closeY), top + 1), color);
+        }
+    }
+
+    private static float priceY(double price, double min, double range, int plotHeight) {
+        if (range <= 0) {
+            return plotHeight / 2.0f;
+        }
+        return (float) (plotHeight - 1 - (price - min) / range * (plotHeight - 1));
+    }
+
+    private void ensureCapacity(int count) {
+        if (rectColors.length < count) {
+            rects = Arrays.copyOf(rects, count * 4);
+            rectColors = Arrays.copyOf(rectColors, count);
+        }
+    }
+
+    private void addRect(float x1, float y1, float x2, float y2, int color) {
+        int offset = rectCount * 4;
+        rects[offset] = x1;
+        rects[offset + 1] = y1;
+        rects[offset + 2] = x2;
+        rects[offset + 3] = y2;
+        rectColors[rectCount++] = color;
+    }
+
+    private void drawRects(DrawContext context, int plotX, int plotY, int plotWidth, int plotHeight) {
+        Matrix4f matrix = context.getMatrices().peek().getPositionMatrix();
+        VertexConsumer buffer = context.getVertexConsumers().getBuffer(RenderLayer.getGui());
+        quad(buffer, matrix, plotX, plotY + plotHeight / 2.0f, plotX + plotWidth, plotY + plotHeight / 2.0f + 1, GRID_COLOR);
+        for (int i = 0; i < rectCount; i++) {
+            int offset = i * 4;
+            quad(buffer, matrix, plotX + rects[offset], plotY + rects[offset + 1],
+                plotX + rects[offset + 2], plotY + rects[offset + 3], rectColors[i]);
+        }
+        context.draw();
+    }
+
+    private static void quad(VertexConsumer buffer, Matrix4f matrix, float x1, float y1, float x2, float y2, int color) {
+        buffer.vertex(matrix, x1, y1, 0.0f).color(color);
+        buffer.vertex(matrix, x1, y2, 0.0f).color(color);
+        buffer.vertex(matrix, x2, y2, 0.0f).color(color);
+        buffer.vertex(matrix, x2, y1, 0.0f).color(color);
+    }
+}
@@ -4,61 +4,249 @@ import com.yourname.gtstracker.database.models.ItemListing;
 import com.yourname.gtstracker.database.models.ListingData;
 import com.yourname.gtstracker.database.models.PokemonListing;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 
+/**
+ * Derives a listing id from the fields that identify a listing plus the minute it was seen, and a time-free
+ * {@linkplain #identityKey identity key} that lets later sightings of the same listing be matched back to that id.
+ * Price is not part of either: a repriced listing is still the same listing.
+ * <p>
+ * Fields are streamed (trimmed and lowercased on the fly) into a 128-bit MurmurHash3 and encoded as 22 unpadded
+ * base64url characters, instead of building a joined string and hex-encoding a SHA-256 digest. Ids only need to
+ * be stable and collision-resistant, not cryptographic.
+ */
 public final class ListingFingerprint {
+    /** Length of ids produced by {@link #build}. */
+    public static final int ID_LENGTH = 22;
+
+    private static final int LEGACY_ID_LENGTH = 64;
+    private static final char[] BASE64URL =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
     private ListingFingerprint() {
     }
 
+    /**
+     * Mints an id for a listing first seen at {@code seenAt}. Later sightings should reuse the minted id (see
+     * {@code ListingIdentityResolver}) rather than call this again, since the id changes every minute.
+     */
     public static String build(ListingData listing, Instant seenAt) {
-        long minuteBucket = seenAt.getEpochSecond() / 60;
-        String base = switch (listing) {
-            case PokemonListing pokemon -> String.join("|",
-                "POKEMON",
-                clean(listing.getSeller()),
-                clean(pokemon.getSpecies()),
-                String.valueOf(pokemon.isShiny()),
-                String.valueOf(pokemon.getLevel()),
-                String.valueOf(listing.getPrice()),
-                String.valueOf(minuteBucket)
-            );
-            case ItemListing item -> String.join("|",
-                "ITEM",
-                clean(listing.getSeller()),
-                clean(item.getItemName()),
-                String.valueOf(item.getQuantity()),
-                String.valueOf(listing.getPrice()),
-                String.valueOf(minuteBucket)
-            );
-            default -> String.join("|",
-                clean(listing.getType().name()),
-                clean(listing.getSeller()),
-                String.valueOf(listing.getPrice()),
-                String.valueOf(minuteBucket)
-            );
-        };
-
-        return sha256(base);
+        return build(listing, seenAt, 0);
+    }
+
+    /**
+     * @param ordinal distinguishes identical listings first seen in the same minute; {@code 0} gives the same id as
+     *                {@link #build(ListingData, Instant)}
+     */
+    public static String build(ListingData listing, Instant seenAt, int ordinal) {
+        Murmur3 hash = identity(listing);
+        hash.putLong(seenAt.getEpochSecond() / 60);
+        if (ordinal != 0) {
+            hash.putInt(ordinal);
+        }
+        return hash.finishBase64Url();
+    }
+
+    /**
+     * @return a key equal for every sighting of the same listing (seller, species/item and attributes), independent
+     * of when it was seen and of its price
+     */
+    public static String identityKey(ListingData listing) {
+        return identity(listing).finishBase64Url();
+    }
+
+    private static Murmur3 identity(ListingData listing) {
+        Murmur3 hash = new Murmur3();
+        switch (listing) {
+            case PokemonListing pokemon -> {
+                hash.putString("POKEMON");
+                hash.putCleanString(listing.getSeller());
+                hash.putCleanString(pokemon.getSpecies());
+                hash.putInt(pokemon.isShiny() ? 1 : 0);
+                hash.putInt(pokemon.getLevel());
+            }
+            case ItemListing item -> {
+                hash.putString("ITEM");
+                hash.putCleanString(listing.getSeller());
+                hash.putCleanString(item.getItemName());
+                hash.putInt(item.getQuantity());
+            }
+            default -> {
+                hash.putCleanString(listing.getType().name());
+                hash.putCleanString(listing.getSeller());
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * @return {@code true} for the 64-character hex SHA-256 ids written by earlier versions
+     */
+    public static boolean isLegacyId(String id) {
+        if (id == null || id.length() != LEGACY_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < LEGACY_ID_LENGTH; i++) {
+            if (Character.digit(id.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Shortens a legacy hex id to the compact form by keeping its first 128 bits.
+     */
+    public static String compactLegacyId(String legacyId) {
+        if (!isLegacyId(legacyId)) {
+            throw new IllegalArgumentException("Not a legacy listing id: " + legacyId);
+        }
+        return encode(Long.parseUnsignedLong(legacyId.substring(0, 16), 16), Long.parseUnsignedLong(legacyId.substring(16, 32), 16));
     }
 
-    private static String clean(String value) {
-        return value == null ? "" : value.trim().toLowerCase();
+    private static String encode(long high, long low) {
+        char[] out = new char[ID_LENGTH];
+        int bit = 0;
+        for (int i = 0; i < ID_LENGTH; i++, bit += 6) {
+            out[i] = BASE64URL[sixBits(high, low, bit)];
+        }
+        return new String(out);
     }
 
-    private static String sha256(String text) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(text.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hex = new StringBuilder(hash.length * 2);
-            for (byte b : hash) {
-                hex.append(String.format("%02x", b));
+    /**
+     * Six bits of the 128-bit big-endian value starting at {@code bit}, zero-padded past the end.
+     */
+    private static int sixBits(long high, long low, int bit) {
+        int value = 0;
+        for (int i = bit; i < bit + 6; i++) {
+            int b;
+            if (i < 64) {
+                b = (int) (high >>> (63 - i)) & 1;
+            } else if (i < 128) {
+                b = (int) (low >>> (127 - i)) & 1;
+            } else {
+                b = 0;
+            }
+            value = (value << 1) | b;
+        }
+        return value;
+    }
+
+    /**
+     * Streaming MurmurHash3 x64_128 over UTF-16 code units.
+     */
+    private static final class Murmur3 {
+        private static final long C1 = 0x87c37b91114253d5L;
+        private static final long C2 = 0x4cf5ad432745937fL;
+
+        private long h1;
+        private long h2;
+        private long k1;
+        private long k2;
+        private int bufferedBytes;
+        private long length;
+
+        void putCleanString(String value) {
+            if (value == null) {
+                putInt(0);
+                return;
             }
-            return hex.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("SHA-256 is unavailable", e);
+            int start = 0;
+            int end = value.length();
+            while (start < end && value.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && value.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            putInt(end - start);
+            for (int i = start; i < end; i++) {
+                putChar(Character.toLowerCase(value.charAt(i)));
+            }
+        }
+
+        void putString(String value) {
+            putInt(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                putChar(value.charAt(i));
+            }
+        }
+
+        void putInt(int value) {
+            putChar((char) (value >>> 16));
+            putChar((char) value);
+        }
+
+        void putLong(long value) {
+            putInt((int) (value >>> 32));
+            putInt((int) value);
+        }
+
+        void putChar(char c) {
+            long v = c & 0xFFFFL;
+            if (bufferedBytes < 8) {
+                k1 |= v << (bufferedBytes * 8);
+            } else {
+                k2 |= v << ((bufferedBytes - 8) * 8);
+            }
+            bufferedBytes += 2;
+            length += 2;
+            if (bufferedBytes == 16) {
+                mixBlock();
+            }
+        }
+
+        String finishBase64Url() {
+            if (bufferedBytes > 0) {
+                h2 ^= mixK2(k2);
+                h1 ^= mixK1(k1);
+            }
+            h1 ^= length;
+            h2 ^= length;
+            h1 += h2;
+            h2 += h1;
+            h1 = fmix64(h1);
+            h2 = fmix64(h2);
+            h1 += h2;
+            h2 += h1;
+            return encode(h1, h2);
+        }
+
+        private void mixBlock() {
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+
+            k1 = 0;
+            k2 = 0;
+            bufferedBytes = 0;
+        }
+
+        private static long mixK1(long k) {
+            k *= C1;
+            k = Long.rotateLeft(k, 31);
+            return k * C2;
+        }
+
+        private static long mixK2(long k) {
+            k *= C2;
+            k = Long.rotateLeft(k, 33);
+            return k * C1;
+        }
+
+        private static long fmix64(long k) {
+            k ^= k >>> 33;
+            k *= 0xff51afd7ed558ccdL;
+            k ^= k >>> 33;
+            k *= 0xc4ceb9a62d7b2d3eL;
+            k ^= k >>> 33;
+            return k;
         }
     }
 }
@@ -0,0 +1,164 @@
+package com.yourname.gtstracker;
+
+import com.yourname.gtstracker.database.BatchUpsertResult;
+import com.yourname.gtstracker.database.DatabaseManager;
+import com.yourname.gtstracker.database.models.DataSource;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.ListingStatus;
+import com.yourname.gtstracker.database.models.ListingType;
+import com.yourname.gtstracker.database.models.PokemonListing;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatabaseManagerBatchUpsertTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void upsertListingsWritesMixedBatchInOneCall() throws Exception {
+        DatabaseManager databaseManager = newDatabase("batch.sqlite");
+
+        List<ListingData> batch = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            batch.add(i % 2 == 0 ? pokemon("poke-" + i, "Ash") : item("item-" + i, "Brock"));
+        }
+
+        BatchUpsertResult result = databaseManager.upsertListings(batch);
+
+        assertEquals(200, result.upserted());
+        assertFalse(result.hasFailures());
+        try (Statement stmt = databaseManager.getConnection().createStatement()) {
+            assertEquals(200, query(stmt, "SELECT COUNT(*) FROM listings"));
+            assertEquals(100, query(stmt, "SELECT COUNT(*) FROM pokemon_listings"));
+            assertEquals(100, query(stmt, "SELECT COUNT(*) FROM item_listings"));
+        }
+    }
+
+    @Test
+    void failingRowsAreReportedWithoutRollingBackTheBatch() throws Exception {
+        DatabaseManager databaseManager = newDatabase("batch-failures.sqlite");
+
+        ListingData missingSeller = pokemon("poke-bad", null);
+        ListingData missingId = item(null, "Brock");
+        BatchUpsertResult result = databaseManager.upsertListings(List.of(
+            pokemon("poke-ok", "Ash"),
+            missingSeller,
+            missingId,
+            item("item-ok", "Misty")
+        ));
+
+        assertEquals(2, result.upserted());
+        assertTrue(result.hasFailures());
+        assertEquals(2, result.failures().size());
+        assertTrue(result.failures().stream().anyMatch(failure -> "poke-bad".equals(failure.listingId())));
+
+        try (Statement stmt = databaseManager.getConnection().createStatement()) {
+            assertEquals(2, query(stmt, "SELECT COUNT(*) FROM listings"));
+            assertEquals(0, query(stmt, "SELECT COUNT(*) FROM pokemon_listings WHERE listing_id = 'poke-bad'"));
+            assertEquals(1, query(stmt, "SELECT COUNT(*) FROM item_listings WHERE listing_id = 'item-ok'"));
+        }
+    }
+
+    @Test
+    void listingsWithoutATypeAreRejectedUpFront() throws Exception {
+        DatabaseManager databaseManager = newDatabase("batch-untyped.sqlite");
+
+        ItemListing untyped = new ItemListing() {
+            @Override
+            public ListingType getType() {
+                return null;
+            }
+        };
+        untyped.setId("untyped");
+        stamp(untyped);
+        BatchUpsertResult result = databaseManager.upsertListings(List.of(item("item-ok", "Misty"), untyped));
+
+        assertEquals(1, result.upserted());
+        assertEquals(List.of(new BatchUpsertResult.RowFailure("untyped", "listing type is missing")), result.failures());
+        try (Statement stmt = databaseManager.getConnection().createStatement()) {
+            assertEquals(1, query(stmt, "SELECT COUNT(*) FROM listings"));
+        }
+    }
+
+    @Test
+    void unexpectedExceptionsRollBackTheWholeBatch() throws Exception {
+        DatabaseManager databaseManager = newDatabase("batch-exception.sqlite");
+
+        PokemonListing broken = new PokemonListing() {
+            @Override
+            public String getSpecies() {
+                throw new IllegalStateException("boom");
+            }
+        };
+        broken.setId("poke-broken");
+        broken.setSeller("Ash");
+        stamp(broken);
+        BatchUpsertResult result = databaseManager.upsertListings(List.of(item("item-lost", "Misty"), broken));
+
+        assertEquals(0, result.upserted());
+        assertEquals(2, result.failures().size());
+        try (Statement stmt = databaseManager.getConnection().createStatement()) {
+            assertEquals(0, query(stmt, "SELECT COUNT(*) FROM listings"));
+        }
+
+        assertEquals(1, databaseManager.upsertListings(List.of(item("item-next", "Misty"))).upserted());
+        try (Statement stmt = databaseManager.getConnection().createStatement()) {
+            assertEquals(1, query(stmt, "SELECT COUNT(*) FROM listings"), "the failed batch must not be replayed");
+        }
+    }
+
+    private DatabaseManager newDatabase(String fileName) {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve(fileName).toAbsolutePath());
+        databaseManager.initialize();
+        return databaseManager;
+    }
+
+    private static PokemonListing pokemon(String id, String seller) {
+        PokemonListing listing = new PokemonListing();
+        listing.setId(id);
+        listing.setSeller(seller);
+        listing.setSpecies("Gengar");
+        listing.setLevel(55);
+        listing.setPrice(250000);
+        stamp(listing);
+        return listing;
+    }
+
+    private static ItemListing item(String id, String seller) {
+        ItemListing listing = new ItemListing();
+        listing.setId(id);
+        listing.setSeller(seller);
+        listing.setItemName("Master Ball");
+        listing.setQuantity(3);
+        listing.setPrice(90000);
+        stamp(listing);
+        return listing;
+    }
+
+    private static void stamp(ListingData listing) {
+        listing.setStatus(ListingStatus.ACTIVE);
+        listing.setSourceFirst(DataSource.CHAT);
+        listing.setSourceLast(DataSource.CHAT);
+        listing.setFirstSeen(1000);
+        listing.setLastSeen(1000);
+    }
+
+    private int query(Statement stmt, String sql) throws Exception {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
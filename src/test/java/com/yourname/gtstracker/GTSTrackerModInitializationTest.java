@@ -4,6 +4,7 @@ import com.yourname.gtstracker.chat.GTSChatMonitor;
 import com.yourname.gtstracker.config.ConfigModel;
 import com.yourname.gtstracker.database.DatabaseManager;
 import com.yourname.gtstracker.ingest.ListingIngestionService;
+import com.yourname.gtstracker.scan.GTSScreenScanner;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Proxy;
@@ -26,6 +27,7 @@ class GTSTrackerModInitializationTest {
         ConfigModel config = new ConfigModel();
         FakeDatabaseManager db = new FakeDatabaseManager(events, true);
         FakeChatMonitor chatMonitor = new FakeChatMonitor(events);
+        FakeScreenScanner screenScanner = new FakeScreenScanner(events);
 
         GTSTrackerMod mod = new GTSTrackerMod(
             () -> {
@@ -36,7 +38,7 @@ class GTSTrackerModInitializationTest {
                 events.add("database.new");
                 return db;
             },
-            manager -> {
+            (manager, cfg) -> {
                 events.add("ingestion.new");
                 return new ListingIngestionService(manager);
             },
@@ -46,6 +48,11 @@ class GTSTrackerModInitializationTest {
                 assertNotNull(ingestion);
                 return chatMonitor;
             },
+            (ingestion, cfg) -> {
+                events.add("screenscanner.new");
+                assertSame(config, cfg);
+                return screenScanner;
+            },
             () -> events.add("compatibility.log"),
             () -> events.add("command.register"),
             new RecordingStartupLogger(events)
@@ -67,6 +74,8 @@ class GTSTrackerModInitializationTest {
                 "ingestion.new",
                 "chatmonitor.new",
                 "chatmonitor.register",
+                "screenscanner.new",
+                "screenscanner.register",
                 "compatibility.log",
                 "command.register",
                 "startup.success"
@@ -90,7 +99,7 @@ class GTSTrackerModInitializationTest {
                 events.add("database.new");
                 return new FakeDatabaseManager(events, true);
             },
-            databaseManager -> {
+            (databaseManager, cfg) -> {
                 events.add("ingestion.new");
                 return new ListingIngestionService(databaseManager);
             },
@@ -98,6 +107,10 @@ class GTSTrackerModInitializationTest {
                 events.add("chatmonitor.new");
                 throw expected;
             },
+            (ingestion, config) -> {
+                events.add("screenscanner.new");
+                return new FakeScreenScanner(events);
+            },
             () -> events.add("compatibility.log"),
             () -> events.add("command.register"),
             new GTSTrackerMod.StartupLogger() {
@@ -222,4 +235,18 @@ class GTSTrackerModInitializationTest {
             events.add("chatmonitor.register");
         }
     }
+
+    private static final class FakeScreenScanner extends GTSScreenScanner {
+        private final List<String> events;
+
+        private FakeScreenScanner(List<String> events) {
+            super(new ListingIngestionService(new DatabaseManager()), new ConfigModel());
+            this.events = events;
+        }
+
+        @Override
+        public void register() {
+            events.add("screenscanner.register");
+        }
+    }
 }
@@ -7,7 +7,9 @@ import org.junit.jupiter.api.Test;
 import java.time.Instant;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ListingFingerprintTest {
 
@@ -37,10 +39,71 @@ class ListingFingerprintTest {
         PokemonListing listingB = new PokemonListing();
         listingB.setSeller("Ash");
         listingB.setSpecies("Gengar");
-        listingB.setLevel(55);
-        listingB.setPrice(275000);
+        listingB.setLevel(56);
+        listingB.setPrice(250000);
 
         Instant seenAt = Instant.parse("2024-01-01T00:00:30Z");
         assertNotEquals(ListingFingerprint.build(listingA, seenAt), ListingFingerprint.build(listingB, seenAt));
     }
+
+    @Test
+    void idIsCompactBase64UrlAndIgnoresCaseAndPadding() {
+        PokemonListing listingA = new PokemonListing();
+        listingA.setSeller("Ash");
+        listingA.setSpecies("Gengar");
+        listingA.setLevel(55);
+        listingA.setPrice(250000);
+
+        PokemonListing listingB = new PokemonListing();
+        listingB.setSeller("  ash ");
+        listingB.setSpecies("GENGAR");
+        listingB.setLevel(55);
+        listingB.setPrice(250000);
+
+        Instant seenAt = Instant.parse("2024-01-01T00:00:30Z");
+        String id = ListingFingerprint.build(listingA, seenAt);
+        assertEquals(ListingFingerprint.ID_LENGTH, id.length());
+        assertTrue(id.matches("[A-Za-z0-9_-]{22}"), id);
+        assertEquals(id, ListingFingerprint.build(listingB, seenAt));
+    }
+
+    @Test
+    void legacyHexIdsCompactToTheirLeading128Bits() {
+        String legacy = "00".repeat(15) + "ff" + "ab".repeat(16);
+
+        assertTrue(ListingFingerprint.isLegacyId(legacy));
+        assertFalse(ListingFingerprint.isLegacyId("p1"));
+        assertFalse(ListingFingerprint.isLegacyId("z".repeat(64)));
+        assertEquals("AAAAAAAAAAAAAAAAAAAA_w", ListingFingerprint.compactLegacyId(legacy));
+    }
+
+    @Test
+    void identityKeyIgnoresWhenTheListingWasSeen() {
+        PokemonListing listing = new PokemonListing();
+        listing.setSeller("Ash");
+        listing.setSpecies("Gengar");
+        listing.setLevel(55);
+        listing.setPrice(250000);
+
+        Instant first = Instant.parse("2024-01-01T00:00:30Z");
+        Instant later = Instant.parse("2024-01-01T03:10:00Z");
+        assertNotEquals(ListingFingerprint.build(listing, first), ListingFingerprint.build(listing, later));
+        assertEquals(ListingFingerprint.identityKey(listing), ListingFingerprint.identityKey(listing));
+        assertEquals(ListingFingerprint.build(listing, first), ListingFingerprint.build(listing, first, 0));
+        assertNotEquals(ListingFingerprint.build(listing, first), ListingFingerprint.build(listing, first, 1));
+
+        listing.setPrice(240000);
+        String repriced = ListingFingerprint.identityKey(listing);
+        listing.setPrice(250000);
+        assertEquals(repriced, ListingFingerprint.identityKey(listing), "A reprice is the same listing");
+        assertEquals(ListingFingerprint.build(listing, first), withPrice(listing, 240000, first));
+    }
+
+    private static String withPrice(PokemonListing listing, int price, Instant seenAt) {
+        int original = listing.getPrice();
+        listing.setPrice(price);
+        String id = ListingFingerprint.build(listing, seenAt);
+        listing.setPrice(original);
+        return id;
+    }
 }
@@ -0,0 +1,144 @@
+package com.yourname.gtstracker.analytics;
+
+import com.yourname.gtstracker.config.ConfigModel;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.ingest.ListingChangeBus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DealAlertStageTest {
+    private static final long SEEN_AT = 1_700_000_000_000L;
+
+    @Test
+    void raisesUnderpricedAndSpikeAlertsAgainstRunningAverage() {
+        ConfigModel config = new ConfigModel();
+        config.minSamplesForAverage = 3;
+        config.alertThresholdPercent = 20.0;
+        config.spikeThresholdPercent = 50.0;
+        DealAlertStage stage = new DealAlertStage(new PriceStatsEngine(), config);
+        List<DealAlert> received = new ArrayList<>();
+        ListingChangeBus.Subscription subscription = stage.subscribe(received::add);
+
+        assertNull(stage.process(item("a", 1_000)));
+        assertNull(stage.process(item("b", 1_000)));
+        assertNull(stage.process(item("c", 100)), "too few samples for a baseline yet");
+
+        DealAlert deal = stage.process(item("d", 500));
+        assertNotNull(deal);
+        assertEquals(DealAlert.Kind.UNDERPRICED, deal.kind());
+        assertEquals(700.0, deal.baselineAverage());
+
+        DealAlert spike = stage.process(item("e", 2_000));
+        assertNotNull(spike);
+        assertEquals(DealAlert.Kind.SPIKE, spike.kind());
+
+        assertNull(stage.process(item("f", 900)));
+        assertNull(stage.process(item("d", 500)), "re-observed listing must not alert");
+
+        subscription.close();
+        stage.process(item("g", 10));
+
+        assertEquals(List.of(deal, spike), received);
+        assertEquals(3, stage.getAlertCount());
+        assertEquals(8, stage.getEvaluationCount());
+        assertTrue(stage.getMaxEvaluationNanos() > 0);
+        assertTrue(stage.getAverageEvaluationNanos() <= stage.getMaxEvaluationNanos());
+    }
+
+    @Test
+    void stacksAreComparedByUnitPrice() {
+        ConfigModel config = new ConfigModel();
+        config.minSamplesForAverage = 2;
+        config.alertThresholdPercent = 20.0;
+        config.spikeThresholdPercent = 50.0;
+        DealAlertStage stage = new DealAlertStage(new PriceStatsEngine(), config);
+
+        stage.process(item("a", 1_000));
+        stage.process(item("b", 1_000));
+
+        assertNull(stage.process(item("c", 64_000, 64)), "a fairly priced stack is not a spike");
+        DealAlert deal = stage.process(item("d", 3_200, 4));
+        assertNotNull(deal);
+        assertEquals(DealAlert.Kind.UNDERPRICED, deal.kind());
+        assertEquals(1_000.0, deal.baselineAverage());
+        assertEquals(-20.0, deal.percentDiff());
+    }
+
+    @Test
+    void baselineFollowsRecentPrices() {
+        ConfigModel config = new ConfigModel();
+        config.minSamplesForAverage = 2;
+        config.alertThresholdPercent = 20.0;
+        config.spikeThresholdPercent = 50.0;
+        DealAlertStage stage = new DealAlertStage(new PriceStatsEngine(TimeUnit.HOURS.toMillis(1)), config);
+        long later = SEEN_AT + TimeUnit.HOURS.toMillis(12);
+
+        stage.process(item("old1", 10_000));
+        stage.process(item("old2", 10_000));
+        assertNull(stage.process(at(item("new1", 1_000), later)), "old prices no longer carry enough weight");
+        assertNull(stage.process(at(item("new2", 1_000), later)));
+
+        DealAlert spike = stage.process(at(item("new3", 2_000), later));
+        assertNotNull(spike, "a price the old baseline would call a deal is a spike against recent prices");
+        assertEquals(DealAlert.Kind.SPIKE, spike.kind());
+        assertEquals(1_000.0, spike.baselineAverage(), 5.0);
+    }
+
+    @Test
+    void priceCutOnAnExistingListingAlerts() {
+        ConfigModel config = new ConfigModel();
+        config.minSamplesForAverage = 2;
+        config.alertThresholdPercent = 20.0;
+        DealAlertStage stage = new DealAlertStage(new PriceStatsEngine(), config);
+
+        assertNull(stage.process(item("a", 1_000)));
+        assertNull(stage.process(item("b", 1_000)));
+        assertNull(stage.process(item("c", 1_000)));
+
+        DealAlert cut = stage.process(item("c", 500));
+        assertNotNull(cut, "a listing repriced under the baseline is a deal");
+        assertEquals(DealAlert.Kind.UNDERPRICED, cut.kind());
+        assertNull(stage.process(item("c", 500)));
+    }
+
+    @Test
+    void listenerFailureDoesNotBreakEvaluation() {
+        ConfigModel config = new ConfigModel();
+        config.minSamplesForAverage = 1;
+        DealAlertStage stage = new DealAlertStage(new PriceStatsEngine(), config);
+        stage.subscribe(alert -> {
+            throw new IllegalStateException("boom");
+        });
+
+        stage.process(item("a", 1_000));
+        assertNotNull(stage.process(item("b", 100)));
+    }
+
+    private static ItemListing item(String id, int price) {
+        return item(id, price, 1);
+    }
+
+    private static ItemListing item(String id, int price, int quantity) {
+        ItemListing listing = new ItemListing();
+        listing.setId(id);
+        listing.setSeller("Misty");
+        listing.setItemName("Rare Candy");
+        listing.setQuantity(quantity);
+        listing.setPrice(price);
+        listing.setLastSeen(SEEN_AT);
+        return listing;
+    }
+
+    private static ItemListing at(ItemListing listing, long seenAt) {
+        listing.setLastSeen(seenAt);
+        return listing;
+    }
+}
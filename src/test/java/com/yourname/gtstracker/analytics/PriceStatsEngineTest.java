@@ -0,0 +1,196 @@
+package com.yourname.gtstracker.analytics;
+
+import com.yourname.gtstracker.database.DatabaseManager;
+import com.yourname.gtstracker.database.models.DataSource;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingStatus;
+import com.yourname.gtstracker.database.models.ListingType;
+import com.yourname.gtstracker.database.models.PokemonListing;
+import com.yourname.gtstracker.database.models.PriceStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceStatsEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void aggregatesMatchExactStatisticsForSmallSamples() {
+        PriceStatsEngine engine = new PriceStatsEngine();
+        engine.record(pokemon("a", "Pikachu", false, 100, 1_000));
+        engine.record(pokemon("b", "Pikachu", false, 300, 3_000));
+        engine.record(pokemon("c", "Pikachu", false, 200, 2_000));
+        engine.record(pokemon("d", "Pikachu", false, 400, 4_000));
+        engine.record(pokemon("e", "Pikachu", true, 9_000, 5_000));
+
+        PriceStats stats = engine.getStats(ListingType.POKEMON, "pikachu");
+        assertEquals(4, stats.sampleSize);
+        assertEquals(250.0, stats.average);
+        assertEquals(250.0, stats.median);
+        assertEquals(100, stats.min);
+        assertEquals(400, stats.max);
+        assertEquals(1_000, stats.oldestSample);
+        assertEquals(4_000, stats.newestSample);
+        assertEquals(20.0, stats.getPercentDiff(300));
+
+        assertEquals(1, engine.getStats(ListingType.POKEMON, "pikachu_shiny").sampleSize);
+        assertEquals(0, engine.getStats(ListingType.ITEM, "pikachu").sampleSize);
+    }
+
+    @Test
+    void reobservedListingIsCountedOnce() {
+        PriceStatsEngine engine = new PriceStatsEngine();
+        assertTrue(engine.record(item("x", "Rare Candy", 50, 1_000)));
+        assertFalse(engine.record(item("x", "Rare Candy", 50, 2_000)));
+        assertFalse(engine.record(item("y", "Rare Candy", 0, 2_000)));
+
+        assertEquals(1, engine.getStats(ListingType.ITEM, "rare candy").sampleSize);
+    }
+
+    @Test
+    void repricedListingIsCountedAtItsNewPrice() {
+        PriceStatsEngine engine = new PriceStatsEngine();
+        assertTrue(engine.record(item("x", "Rare Candy", 100, 1_000)));
+        assertTrue(engine.record(item("x", "Rare Candy", 60, 2_000)));
+        assertFalse(engine.record(item("x", "Rare Candy", 60, 3_000)));
+
+        PriceStats stats = engine.getStats(ListingType.ITEM, "rare candy");
+        assertEquals(2, stats.sampleSize);
+        assertEquals(60.0, stats.min);
+    }
+
+    @Test
+    void idsAreForgottenWhenTheListingEndsOrGoesUnseen() {
+        PriceStatsEngine engine = new PriceStatsEngine(1_000, 10_000);
+        assertTrue(engine.record(item("sold", "Rare Candy", 50, 0)));
+        assertTrue(engine.record(item("kept", "Rare Candy", 50, 0)));
+        assertTrue(engine.record(item("idle", "Rare Candy", 50, 0)));
+        engine.forget(List.of("sold"));
+        assertTrue(engine.record(item("sold", "Rare Candy", 50, 1)), "a forgotten listing is counted again");
+
+        for (int i = 0; i < 1_024; i++) {
+            engine.record(item("filler-" + i, "Leftovers", 10, 20_000));
+            if (i % 100 == 0) {
+                assertFalse(engine.record(item("kept", "Rare Candy", 50, 20_000)), "re-observation keeps the id");
+            }
+        }
+        assertFalse(engine.record(item("kept", "Rare Candy", 50, 20_000)));
+        assertTrue(engine.record(item("idle", "Rare Candy", 50, 20_000)), "an id unseen past the TTL is swept");
+    }
+
+    @Test
+    void itemStacksAreAggregatedPerUnit() {
+        PriceStatsEngine engine = new PriceStatsEngine();
+        engine.record(item("a", "Rare Candy", 100, 1_000));
+        engine.record(stack(item("b", "Rare Candy", 6_400, 2_000), 64));
+        engine.record(stack(item("c", "Rare Candy", 1_000, 3_000), 4));
+
+        PriceStats stats = engine.getStats(ListingType.ITEM, "rare candy");
+        assertEquals(3, stats.sampleSize);
+        assertEquals(150.0, stats.average);
+        assertEquals(100.0, stats.min);
+        assertEquals(250.0, stats.max);
+        assertEquals(0.0, engine.getPercentDiff(stack(item("d", "Rare Candy", 4_800, 4_000), 32)));
+    }
+
+    @Test
+    void baselineDecaysOlderPricesByHalfLife() {
+        PriceStatsEngine engine = new PriceStatsEngine(1_000);
+        engine.record(pokemon("a", "Eevee", false, 100, 0));
+        engine.record(pokemon("b", "Eevee", false, 100, 0));
+        engine.record(pokemon("c", "Eevee", false, 400, 2_000));
+        PokemonListing probe = pokemon("probe", "Eevee", false, 1, 2_000);
+
+        assertEquals(300.0, engine.getBaselineAverage(probe, 1, 2_000), 1e-9);
+        assertTrue(Double.isNaN(engine.getBaselineAverage(probe, 2, 2_000)), "only 1.5 samples of recent weight");
+        assertTrue(Double.isNaN(engine.getBaselineAverage(probe, 1, 3_000)), "weight halves again after a half-life");
+        assertEquals(200.0, engine.getStats(probe).average, "all-time aggregates do not decay");
+
+        engine.record(pokemon("late", "Eevee", false, 700, 1_000));
+        assertEquals((25 + 25 + 400 + 350) / 2.0, engine.getBaselineAverage(probe, 1, 2_000), 1e-9);
+    }
+
+    @Test
+    void medianSketchTracksLargeStreams() {
+        PriceStatsEngine engine = new PriceStatsEngine();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            engine.record(item("i" + i, "Master Ball", 1_000 + random.nextInt(9_001), i));
+        }
+
+        PriceStats stats = engine.getStats(ListingType.ITEM, "master ball");
+        assertEquals(20_000, stats.sampleSize);
+        assertEquals(5_500, stats.median, 150);
+        assertEquals(5_500, stats.average, 100);
+        assertTrue(stats.hasEnoughData());
+    }
+
+    @Test
+    void seedReplaysStoredListingsWithinCutoff() throws Exception {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("stats.sqlite").toAbsolutePath());
+        databaseManager.initialize();
+        databaseManager.upsertListings(List.of(
+            pokemon("old", "Gengar", false, 1, 1_000),
+            pokemon("p1", "Gengar", false, 4_000, 10_000),
+            pokemon("p2", "Gengar", false, 6_000, 11_000),
+            stack(item("i1", "Leftovers", 700, 12_000), 7)
+        ));
+
+        PriceStatsEngine engine = new PriceStatsEngine();
+        engine.record(pokemon("p2", "Gengar", false, 6_000, 11_000));
+        assertEquals(2, engine.seed(databaseManager.getReadDataSource(), 5_000));
+
+        PriceStats gengar = engine.getStats(ListingType.POKEMON, "gengar");
+        assertEquals(2, gengar.sampleSize);
+        assertEquals(5_000.0, gengar.average);
+        PriceStats leftovers = engine.getStats(ListingType.ITEM, "leftovers");
+        assertEquals(1, leftovers.sampleSize);
+        assertEquals(100.0, leftovers.average);
+        databaseManager.close();
+    }
+
+    private static PokemonListing pokemon(String id, String species, boolean shiny, int price, long seenAt) {
+        PokemonListing listing = new PokemonListing();
+        listing.setId(id);
+        listing.setSeller("Ash");
+        listing.setSpecies(species);
+        listing.setShiny(shiny);
+        listing.setLevel(50);
+        listing.setPrice(price);
+        listing.setStatus(ListingStatus.ACTIVE);
+        listing.setSourceFirst(DataSource.CHAT);
+        listing.setSourceLast(DataSource.CHAT);
+        listing.setFirstSeen(seenAt);
+        listing.setLastSeen(seenAt);
+        return listing;
+    }
+
+    private static ItemListing item(String id, String itemName, int price, long seenAt) {
+        ItemListing listing = new ItemListing();
+        listing.setId(id);
+        listing.setSeller("Brock");
+        listing.setItemName(itemName);
+        listing.setQuantity(1);
+        listing.setPrice(price);
+        listing.setStatus(ListingStatus.ACTIVE);
+        listing.setSourceFirst(DataSource.CHAT);
+        listing.setSourceLast(DataSource.CHAT);
+        listing.setFirstSeen(seenAt);
+        listing.setLastSeen(seenAt);
+        return listing;
+    }
+
+    private static ItemListing stack(ItemListing listing, int quantity) {
+        listing.setQuantity(quantity);
+        return listing;
+    }
+}
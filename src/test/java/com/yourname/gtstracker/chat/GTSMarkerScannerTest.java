@@ -0,0 +1,83 @@
+package com.yourname.gtstracker.chat;
+
+import com.yourname.gtstracker.config.ConfigModel;
+import net.minecraft.text.StringVisitable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GTSMarkerScannerTest {
+
+    @Test
+    void matchesSameLinesAsTheOriginalContainsCheck() {
+        String[] lines = {
+            "[GTS] Ash listed Pikachu Lv25 for $1,500",
+            "Ash LISTED 3x Rare Candy for $900",
+            "  listed  ",
+            "[[GTS]",
+            "[gts] lowercase tag only",
+            "normal chat",
+            "unlisted item",
+            "listed at the start",
+            "",
+            "   "
+        };
+        for (String line : lines) {
+            boolean expected = !line.isBlank()
+                && (line.contains("[GTS]") || line.toLowerCase().contains(" listed "));
+            assertEquals(expected, GTSMarkerScanner.containsMarker(line), line);
+        }
+        assertFalse(GTSMarkerScanner.containsMarker(null));
+    }
+
+    @Test
+    void findsMarkersSplitAcrossSegments() {
+        GTSMarkerScanner scanner = new GTSMarkerScanner();
+        assertFalse(scanner.feed("Ash Li"));
+        assertTrue(scanner.feed("sted Pikachu"));
+        assertTrue(scanner.feed("more"));
+
+        scanner.reset();
+        assertFalse(scanner.feed("[G"));
+        assertTrue(scanner.feed("TS]"));
+
+        scanner.reset();
+        assertFalse(scanner.feed("Hello "));
+        assertFalse(scanner.feed("world"));
+    }
+
+    @Test
+    void monitorPrefilterWalksTextSegmentsAndStopsEarly() {
+        GTSChatMonitor monitor = new GTSChatMonitor(null, new ConfigModel());
+        List<String> visited = new ArrayList<>();
+
+        assertTrue(monitor.mightBeListing(segments(visited, "[G", "TS] Ash", " listed ", "Pikachu")));
+        assertEquals(List.of("[G", "TS] Ash"), visited);
+
+        visited.clear();
+        assertFalse(monitor.mightBeListing(segments(visited, "<Steve> ", "hello there")));
+        assertEquals(2, visited.size());
+    }
+
+    private static StringVisitable segments(List<String> visited, String... parts) {
+        return new StringVisitable() {
+            @Override
+            public <T> Optional<T> visit(Visitor<T> visitor) {
+                for (String part : parts) {
+                    visited.add(part);
+                    Optional<T> result = visitor.accept(part);
+                    if (result.isPresent()) {
+                        return result;
+                    }
+                }
+                return Optional.empty();
+            }
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package com.yourname.gtstracker.chat;
+
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.PokemonListing;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GTSMessageParserTokenizerTest {
+
+    @Test
+    void parsesMultiWordSpeciesAndGroupedNumbers() {
+        ListingData parsed = GTSMessageParser.parse("<Server> [GTS] Gary listed Mr-Mime Jr Lv1,00 for $1,250,000 (expires in 2h)");
+
+        PokemonListing pokemon = assertInstanceOf(PokemonListing.class, parsed);
+        assertEquals("Gary", pokemon.getSeller());
+        assertEquals("Mr-Mime Jr", pokemon.getSpecies());
+        assertFalse(pokemon.isShiny());
+        assertEquals(100, pokemon.getLevel());
+        assertEquals(1_250_000, pokemon.getPrice());
+    }
+
+    @Test
+    void keywordsAreCaseInsensitive() {
+        PokemonListing pokemon = assertInstanceOf(PokemonListing.class,
+            GTSMessageParser.parse("[gts] Ash LISTED shiny Eevee lv5 FOR $10"));
+        assertTrue(pokemon.isShiny());
+        assertEquals("Eevee", pokemon.getSpecies());
+
+        ItemListing item = assertInstanceOf(ItemListing.class,
+            GTSMessageParser.parse("[GTS] Brock Listed 12X Exp. Share For $3,000"));
+        assertEquals(12, item.getQuantity());
+        assertEquals("Exp. Share", item.getItemName());
+        assertEquals(3_000, item.getPrice());
+    }
+
+    @Test
+    void shinyAloneIsTreatedAsTheSpecies() {
+        PokemonListing pokemon = assertInstanceOf(PokemonListing.class,
+            GTSMessageParser.parse("[GTS] Ash listed Shiny Lv5 for $300"));
+        assertFalse(pokemon.isShiny());
+        assertEquals("Shiny", pokemon.getSpecies());
+    }
+
+    @Test
+    void itemNameStopsAtFirstForFollowedByPrice() {
+        ItemListing item = assertInstanceOf(ItemListing.class,
+            GTSMessageParser.parse("[GTS] Misty listed 1x Ticket for Two for $500 for $900"));
+        assertEquals("Ticket for Two", item.getItemName());
+        assertEquals(500, item.getPrice());
+    }
+
+    @Test
+    void listingsDoNotSpanIntoTheNextTag() {
+        ItemListing item = assertInstanceOf(ItemListing.class,
+            GTSMessageParser.parse("[GTS] Ash listed 2x Rare Candy [GTS] Misty listed 1x Ticket for $500"));
+        assertEquals("Misty", item.getSeller());
+        assertEquals("Ticket", item.getItemName());
+
+        assertNull(GTSMessageParser.parse("[GTS] Ash listed 2x Rare Candy [GTS] for $500"));
+    }
+
+    @Test
+    void rejectsMalformedShapes() {
+        assertNull(GTSMessageParser.parse("[GTS]Ash listed Pikachu Lv5 for $5"));
+        assertNull(GTSMessageParser.parse("[GTS] Ash! listed Pikachu Lv5 for $5"));
+        assertNull(GTSMessageParser.parse("[GTS] Ash listed Pikachu Lv5 for 5"));
+        assertNull(GTSMessageParser.parse("[GTS] Ash listed Pikachu Lv0 for $5"));
+        assertNull(GTSMessageParser.parse("[GTS] Ash listed      Lv5 for $5"));
+        assertNull(GTSMessageParser.parse("[GTS] Ash listed 3x for $5"));
+        assertNull(GTSMessageParser.parse("[GTS] Ash listed 2x Ultra Ball for $-5"));
+    }
+
+    @Test
+    void oversizedAndPathologicalLinesAreRejectedQuickly() {
+        assertNull(GTSMessageParser.parse("[GTS] Ash listed 1x " + "a".repeat(GTSMessageParser.MAX_MESSAGE_LENGTH) + " for $5"));
+
+        String hostile = "[GTS] a listed 1x " + "b ".repeat(1_000) + "Lv";
+        long started = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            assertNull(GTSMessageParser.parse(hostile));
+        }
+        assertTrue(System.nanoTime() - started < 2_000_000_000L, "tokenizer should stay linear on hostile input");
+
+        String manyTags = "[GTS] a listed 1x b ".repeat(200);
+        started = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            assertNull(GTSMessageParser.parse(manyTags));
+        }
+        assertTrue(System.nanoTime() - started < 2_000_000_000L, "each tag is only scanned up to the next one");
+    }
+}
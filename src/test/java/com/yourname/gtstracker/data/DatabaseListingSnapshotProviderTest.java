@@ -82,8 +82,13 @@ class DatabaseListingSnapshotProviderTest {
         }
 
         @Override
-        public List<ListingRow> getActiveListings(int limit, int offset) {
-            return rows;
+        public int scanActiveListings(int limit, ListingColumnVisitor visitor) {
+            for (ListingRow row : rows) {
+                MarketListing listing = DatabaseListingSnapshotProvider.toMarketListing(row);
+                visitor.visit(row.id, listing.displayName(), listing.price(), listing.lastSeen().toEpochMilli(),
+                    ListingColumns.statusCode(listing.status()));
+            }
+            return rows.size();
         }
 
         @Override
@@ -0,0 +1,192 @@
+package com.yourname.gtstracker.data;
+
+import com.yourname.gtstracker.database.ListingDAO;
+import org.junit.jupiter.api.Test;
+import org.sqlite.SQLiteDataSource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IncrementalListingSnapshotProviderTest {
+
+    @Test
+    void mergesDeltasAfterInitialLoad() {
+        StubListingDao dao = new StubListingDao();
+        dao.put(row("a", "Garchomp", "active", 1_000L));
+        dao.put(row("b", "Gengar", "active", 2_000L));
+
+        AtomicLong now = new AtomicLong(10_000L);
+        IncrementalListingSnapshotProvider provider = new IncrementalListingSnapshotProvider(dao, 100, 60_000L, now::get);
+
+        ListingSnapshot first = provider.fetchSnapshot();
+        assertEquals(2, first.totalActiveListings());
+        assertEquals("Gengar", first.listings().get(0).displayName());
+        assertEquals(1, dao.fullLoads);
+
+        dao.put(row("c", "Metagross", "active", 3_000L));
+        dao.put(row("a", "Garchomp", "sold", 2_500L));
+        now.addAndGet(1_500L);
+
+        ListingSnapshot second = provider.fetchSnapshot();
+        assertEquals(1, dao.fullLoads);
+        assertEquals(1, dao.deltaLoads);
+        assertEquals(0L, dao.lastDeltaSince.toEpochMilli(), "Delta window should start behind the watermark by the overlap");
+        assertEquals(2, second.totalActiveListings());
+        assertEquals(List.of("Metagross", "Gengar"), second.listings().stream().map(MarketListing::displayName).toList());
+        assertEquals(Instant.ofEpochMilli(3_000L), second.lastIngestTime());
+    }
+
+    @Test
+    void periodicallyReloadsNewestActiveListings() {
+        StubListingDao dao = new StubListingDao();
+        dao.put(row("a", "Garchomp", "active", 1_000L));
+
+        AtomicLong now = new AtomicLong(0L);
+        IncrementalListingSnapshotProvider provider = new IncrementalListingSnapshotProvider(dao, 100, 60_000L, now::get);
+        provider.fetchSnapshot();
+
+        dao.table.clear();
+        now.addAndGet(60_000L);
+
+        ListingSnapshot snapshot = provider.fetchSnapshot();
+        assertEquals(2, dao.fullLoads);
+        assertEquals(100, dao.lastLoadLimit, "Reloads only read the rows that are listed");
+        assertEquals(0, snapshot.totalActiveListings());
+        assertEquals(Instant.EPOCH, snapshot.lastIngestTime());
+    }
+
+    @Test
+    void limitsListedRowsButCountsEveryActiveListing() {
+        StubListingDao dao = new StubListingDao();
+        for (int i = 0; i < 10; i++) {
+            dao.put(row("id-" + i, "Species" + i, "active", 1_000L + i));
+        }
+
+        AtomicLong now = new AtomicLong(0L);
+        IncrementalListingSnapshotProvider provider = new IncrementalListingSnapshotProvider(dao, 3, 60_000L, now::get);
+        ListingSnapshot snapshot = provider.fetchSnapshot();
+
+        assertEquals(10, snapshot.totalActiveListings());
+        assertEquals(3, dao.lastLoadLimit);
+        assertEquals(List.of("Species9", "Species8", "Species7"), snapshot.listings().stream().map(MarketListing::displayName).toList());
+
+        dao.put(row("id-10", "Species10", "active", 5_000L));
+        dao.put(row("id-0", "Species0", "active", 1_000L));
+        now.addAndGet(1_000L);
+        assertEquals(List.of("Species10", "Species9", "Species8"),
+            provider.fetchSnapshot().listings().stream().map(MarketListing::displayName).toList());
+        assertEquals(1, dao.fullLoads);
+    }
+
+    @Test
+    void appliesAnnouncedStatusChangesAndRefillsFromTheNewest() {
+        StubListingDao dao = new StubListingDao();
+        for (int i = 0; i < 4; i++) {
+            dao.put(row("id-" + i, "Species" + i, "active", 100_000L + i * 10_000L));
+        }
+
+        AtomicLong now = new AtomicLong(0L);
+        IncrementalListingSnapshotProvider provider = new IncrementalListingSnapshotProvider(dao, 2, 60_000L, now::get);
+        provider.fetchSnapshot();
+
+        // The lifecycle changes status without moving last_seen, so the delta query cannot see it.
+        dao.put(row("id-2", "Species2", "sold", 120_000L));
+        dao.put(row("id-0", "Species0", "expired", 100_000L));
+        provider.listingsChanged(List.of("id-2", "id-0", "unknown-id"));
+        now.addAndGet(1_000L);
+
+        ListingSnapshot snapshot = provider.fetchSnapshot();
+        assertEquals(List.of("id-2"), dao.lastLookedUpIds, "Only listed rows are re-read");
+        assertEquals(2, snapshot.totalActiveListings());
+        assertEquals(List.of("Species3", "Species1"), snapshot.listings().stream().map(MarketListing::displayName).toList());
+        assertEquals(2, dao.fullLoads, "A listed row that left is replaced by the next newest");
+    }
+
+    private static ListingDAO.ListingRow row(String id, String species, String status, long lastSeen) {
+        ListingDAO.ListingRow row = new ListingDAO.ListingRow();
+        row.id = id;
+        row.listingType = "POKEMON";
+        row.pokemonSpecies = species;
+        row.price = BigDecimal.valueOf(1000);
+        row.status = status;
+        row.firstSeen = Instant.ofEpochMilli(lastSeen);
+        row.lastSeen = Instant.ofEpochMilli(lastSeen);
+        return row;
+    }
+
+    private static final class StubListingDao extends ListingDAO {
+        private final Map<String, ListingRow> table = new LinkedHashMap<>();
+        private int fullLoads;
+        private int deltaLoads;
+        private int lastLoadLimit;
+        private Instant lastDeltaSince;
+        private List<String> lastLookedUpIds;
+
+        private StubListingDao() {
+            super(new SQLiteDataSource());
+        }
+
+        private void put(ListingRow row) {
+            table.put(row.id, row);
+        }
+
+        @Override
+        public int scanActiveListings(int limit, ListingColumnVisitor visitor) {
+            fullLoads++;
+            lastLoadLimit = limit;
+            return visitAll(newestFirst(row -> row.status.equals("active")).stream().limit(limit).toList(), visitor);
+        }
+
+        @Override
+        public int scanListingsSince(Instant timestamp, ListingColumnVisitor visitor) {
+            deltaLoads++;
+            lastDeltaSince = timestamp;
+            return visitAll(newestFirst(row -> !row.lastSeen.isBefore(timestamp)), visitor);
+        }
+
+        @Override
+        public int scanListingsByIds(Collection<String> ids, ListingColumnVisitor visitor) {
+            lastLookedUpIds = List.copyOf(ids);
+            return visitAll(newestFirst(row -> ids.contains(row.id)), visitor);
+        }
+
+        @Override
+        public int getActiveListingsCount() {
+            return newestFirst(row -> row.status.equals("active")).size();
+        }
+
+        @Override
+        public Optional<Instant> getMaxLastSeenForActiveListings() {
+            return newestFirst(row -> row.status.equals("active")).stream().findFirst().map(row -> row.lastSeen);
+        }
+
+        private List<ListingRow> newestFirst(Predicate<ListingRow> filter) {
+            return table.values().stream()
+                .filter(filter)
+                .sorted(Comparator.comparing((ListingRow row) -> row.lastSeen).reversed())
+                .toList();
+        }
+
+        private static int visitAll(List<ListingRow> rows, ListingColumnVisitor visitor) {
+            for (ListingRow row : rows) {
+                byte status = switch (row.status) {
+                    case "active" -> STATUS_ACTIVE;
+                    case "sold" -> STATUS_SOLD;
+                    default -> STATUS_INACTIVE;
+                };
+                visitor.visit(row.id, row.pokemonSpecies, row.price.doubleValue(), row.lastSeen.toEpochMilli(), status);
+            }
+            return rows.size();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.yourname.gtstracker.data;
+
+import com.yourname.gtstracker.database.ListingDAO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ListingColumnsTest {
+
+    @Test
+    void internsNamesAndMaterializesRowsOnce() {
+        ListingColumns.Builder builder = new ListingColumns.Builder(1);
+        builder.add("Gengar", 1_500d, 3_000L, ListingDAO.STATUS_ACTIVE);
+        builder.add("Master Ball", 900d, 2_000L, ListingDAO.STATUS_SOLD);
+        builder.add("Gengar", 1_200d, 1_000L, ListingDAO.STATUS_INACTIVE);
+        ListingColumns columns = builder.build();
+
+        assertEquals(3, columns.size());
+        assertEquals(2, columns.distinctNameCount());
+        assertEquals(columns.nameId(0), columns.nameId(2));
+        assertEquals(1_200d, columns.price(2));
+        assertEquals(2_000L, columns.lastSeenMs(1));
+        assertEquals(MarketListing.Status.SOLD, columns.status(1));
+        assertEquals(MarketListing.Status.EXPIRED, columns.status(2));
+
+        MarketListing first = columns.asList().get(0);
+        assertEquals(new MarketListing("Gengar", 1_500d, Instant.ofEpochMilli(3_000L), MarketListing.Status.ACTIVE), first);
+        assertSame(first, columns.get(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> columns.price(3));
+        assertThrows(IllegalStateException.class, () -> builder.add("Late", 1d, 1L, ListingDAO.STATUS_ACTIVE));
+    }
+
+    @Test
+    void roundTripsMarketListings() {
+        List<MarketListing> listings = List.of(
+            new MarketListing("Garchomp", 125_000d, Instant.ofEpochMilli(5_000L), MarketListing.Status.ACTIVE),
+            new MarketListing("Rare Candy", 100d, Instant.ofEpochMilli(4_000L), MarketListing.Status.EXPIRED)
+        );
+
+        ListingSnapshot snapshot = new ListingSnapshot(listings, 2, Instant.ofEpochMilli(5_000L));
+
+        assertEquals(listings, snapshot.listings());
+        assertEquals(0, ListingSnapshot.empty().listings().size());
+    }
+}
@@ -0,0 +1,158 @@
+package com.yourname.gtstracker.data;
+
+import com.yourname.gtstracker.database.ListingDAO;
+import com.yourname.gtstracker.database.ListingQuery;
+import org.junit.jupiter.api.Test;
+import org.sqlite.SQLiteDataSource;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListingPageLoaderTest {
+
+    @Test
+    void loadsNextPageOnlyWhenViewportNearsTheEnd() {
+        StubListingDao dao = new StubListingDao(25);
+        ListingPageLoader loader = new ListingPageLoader(dao, 10, Runnable::run, () -> 0L);
+
+        loader.ensureLoaded(0, 3);
+        assertEquals(10, loader.getRows().size());
+        assertEquals("Species24", loader.getRows().get(0).displayName());
+
+        loader.ensureLoaded(0, 3);
+        assertEquals(1, dao.pageLoads, "Viewport is far from the end of the loaded rows");
+
+        loader.ensureLoaded(2, 5);
+        assertEquals(20, loader.getRows().size());
+        loader.ensureLoaded(12, 15);
+        assertEquals(25, loader.getRows().size());
+        assertFalse(loader.hasMore());
+
+        loader.ensureLoaded(20, 24);
+        assertEquals(3, dao.pageLoads, "Nothing left to load once the last page arrived");
+        assertEquals("Species0", loader.getRows().get(24).displayName());
+    }
+
+    @Test
+    void staleRowsReloadOnlyNearTheTop() {
+        StubListingDao dao = new StubListingDao(30);
+        ListingPageLoader loader = new ListingPageLoader(dao, 10, Runnable::run, () -> 0L);
+        loader.ensureLoaded(0, 5);
+        loader.ensureLoaded(6, 11);
+        loader.ensureLoaded(16, 21);
+        assertEquals(30, loader.getRows().size());
+
+        dao.add(30);
+        loader.markStale();
+        loader.ensureLoaded(20, 25);
+        assertEquals(30, loader.getRows().size(), "Rows must not shift under a viewer scrolled deep into the list");
+        assertEquals("Species29", loader.getRows().get(0).displayName());
+
+        loader.ensureLoaded(0, 5);
+        assertEquals(10, loader.getRows().size());
+        assertEquals("Species30", loader.getRows().get(0).displayName());
+        assertTrue(loader.hasMore());
+    }
+
+    @Test
+    void failedLoadBacksOffBeforeRetrying() {
+        StubListingDao dao = new StubListingDao(5);
+        dao.failNext = true;
+        AtomicLong now = new AtomicLong(0L);
+        ListingPageLoader loader = new ListingPageLoader(dao, 10, Runnable::run, now::get);
+
+        loader.ensureLoaded(0, 5);
+        assertTrue(loader.getRows().isEmpty());
+
+        loader.ensureLoaded(0, 5);
+        assertEquals(1, dao.pageLoads, "Retries wait out the back-off instead of hitting the database every frame");
+
+        now.addAndGet(2_000L);
+        loader.ensureLoaded(0, 5);
+        assertEquals(5, loader.getRows().size());
+        assertFalse(loader.isLoading());
+    }
+
+    @Test
+    void queryChangeDropsRowsAndReloadsEvenWhenScrolledDeep() {
+        StubListingDao dao = new StubListingDao(30);
+        ListingPageLoader loader = new ListingPageLoader(dao, 10, Runnable::run, () -> 0L);
+        loader.ensureLoaded(0, 5);
+        loader.ensureLoaded(6, 11);
+        assertEquals(20, loader.getRows().size());
+
+        ListingQuery cheapestFirst = ListingQuery.activeListings().sortedBy(ListingQuery.SortColumn.PRICE, false);
+        loader.setQuery(cheapestFirst);
+        assertTrue(loader.getRows().isEmpty());
+
+        loader.ensureLoaded(15, 20);
+        assertEquals(cheapestFirst, dao.lastQuery);
+        assertEquals(10, loader.getRows().size());
+        assertEquals("Species0", loader.getRows().get(0).displayName());
+
+        loader.setQuery(cheapestFirst);
+        loader.ensureLoaded(0, 3);
+        assertEquals(10, loader.getRows().size(), "Re-applying the same query keeps the loaded rows");
+    }
+
+    private static final class StubListingDao extends ListingDAO {
+        private final List<ListingRow> newestFirst = new ArrayList<>();
+        private int pageLoads;
+        private boolean failNext;
+        private ListingQuery lastQuery;
+
+        private StubListingDao(int count) {
+            super(new SQLiteDataSource());
+            for (int i = 0; i < count; i++) {
+                add(i);
+            }
+        }
+
+        private void add(int i) {
+            ListingRow row = new ListingRow();
+            row.id = "id-" + i;
+            row.listingType = "POKEMON";
+            row.pokemonSpecies = "Species" + i;
+            row.price = BigDecimal.valueOf(1000 + i);
+            row.status = "active";
+            row.lastSeen = Instant.ofEpochMilli(1_000L + i);
+            newestFirst.add(0, row);
+        }
+
+        @Override
+        public ListingPage getListingsPage(ListingQuery query, int limit, String continuationToken) throws SQLException {
+            lastQuery = query;
+            if (query.isDefault()) {
+                return getActiveListingsPage(limit, continuationToken);
+            }
+            // Only price-ascending is needed here: the reverse of the newest-first order.
+            List<ListingRow> ascending = new ArrayList<>(newestFirst);
+            Collections.reverse(ascending);
+            pageLoads++;
+            int from = continuationToken == null ? 0 : Integer.parseInt(continuationToken);
+            int to = Math.min(ascending.size(), from + limit);
+            return new ListingPage(List.copyOf(ascending.subList(from, to)), to < ascending.size() ? Integer.toString(to) : null);
+        }
+
+        @Override
+        public ListingPage getActiveListingsPage(int limit, String continuationToken) throws SQLException {
+            pageLoads++;
+            if (failNext) {
+                failNext = false;
+                throw new SQLException("database is locked");
+            }
+            int from = continuationToken == null ? 0 : Integer.parseInt(continuationToken);
+            int to = Math.min(newestFirst.size(), from + limit);
+            return new ListingPage(List.copyOf(newestFirst.subList(from, to)), to < newestFirst.size() ? Integer.toString(to) : null);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -37,6 +38,42 @@ class ListingSnapshotCacheTest {
         assertEquals(1, providerCalls.get(), "No additional provider refresh should run after shutdown.");
     }
 
+    @Test
+    void refreshIfDirtyCoalescesChangeBurstsAndSkipsWhenClean() {
+        AtomicInteger providerCalls = new AtomicInteger(0);
+        ListingSnapshotCache cache = new ListingSnapshotCache(() -> {
+            providerCalls.incrementAndGet();
+            return ListingSnapshot.empty();
+        }, Runnable::run);
+
+        cache.refreshIfDirty(1_000L, 250L, 60_000L);
+        assertEquals(1, providerCalls.get(), "A new cache starts dirty and loads once.");
+
+        cache.refreshIfDirty(2_000L, 250L, 60_000L);
+        assertEquals(1, providerCalls.get(), "No refresh while nothing changed.");
+
+        cache.markDirty();
+        cache.markDirty();
+        cache.markDirty();
+        cache.refreshIfDirty(2_100L, 250L, 60_000L);
+        assertEquals(2, providerCalls.get(), "A burst of changes collapses into one refresh.");
+        assertFalse(cache.isDirty());
+
+        cache.refreshIfDirty(70_000L, 250L, 60_000L);
+        assertEquals(3, providerCalls.get(), "Max staleness forces a refresh even when clean.");
+    }
+
+    @Test
+    void shutdownClosesRegisteredSubscriptions() {
+        AtomicInteger closed = new AtomicInteger(0);
+        ListingSnapshotCache cache = new ListingSnapshotCache(ListingSnapshot::empty, Runnable::run);
+        cache.closeOnShutdown(closed::incrementAndGet);
+
+        cache.shutdown();
+
+        assertEquals(1, closed.get());
+    }
+
     private static void waitForProviderCalls(AtomicInteger calls, int expectedCalls) throws InterruptedException {
         long timeoutMs = 2_000L;
         long started = System.currentTimeMillis();
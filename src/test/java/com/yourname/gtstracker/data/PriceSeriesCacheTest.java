@@ -0,0 +1,195 @@
+package com.yourname.gtstracker.data;
+
+import com.yourname.gtstracker.data.PriceSeriesCache.ActiveAsks;
+import com.yourname.gtstracker.data.PriceSeriesCache.SeriesKey;
+import com.yourname.gtstracker.database.ActiveListingIndex;
+import com.yourname.gtstracker.database.DatabaseManager;
+import com.yourname.gtstracker.database.ItemListingDAO;
+import com.yourname.gtstracker.database.ListingQuery;
+import com.yourname.gtstracker.database.PokemonListingDAO;
+import com.yourname.gtstracker.database.PriceHistoryDAO;
+import com.yourname.gtstracker.database.PriceHistoryDAO.PriceBucket;
+import com.yourname.gtstracker.database.PriceHistoryDAO.Resolution;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceSeriesCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recentlyViewedSeriesAreServedFromMemory() {
+        StubPriceHistoryDao dao = new StubPriceHistoryDao();
+        PriceSeriesCache cache = new PriceSeriesCache(dao, Duration.ofDays(90), 2, Runnable::run, () -> 100_000_000_000L);
+
+        PriceSeries garchomp = cache.get(SeriesKey.pokemon("Garchomp", false));
+        assertEquals(Resolution.DAY, garchomp.resolution());
+        assertEquals(3, garchomp.size());
+        assertEquals(90.0, garchomp.minLow());
+        assertEquals(130.0, garchomp.maxHigh());
+        assertEquals(125.0, garchomp.lastClose());
+        assertEquals(6, garchomp.totalVolume());
+
+        PriceSeries candy = cache.get(SeriesKey.item("Rare Candy"));
+        assertSame(garchomp, cache.get(SeriesKey.pokemon("Garchomp", false)));
+        assertSame(candy, cache.get(SeriesKey.item("Rare Candy")));
+        assertEquals(List.of("pokemon:Garchomp:false", "item:Rare Candy"), dao.loads);
+
+        cache.get(SeriesKey.pokemon("Garchomp", true));
+        assertEquals(2, cache.size());
+        assertSame(candy, cache.get(SeriesKey.item("Rare Candy")), "Most recently used series survives eviction");
+        assertEquals(3, dao.loads.size());
+        cache.get(SeriesKey.pokemon("Garchomp", false));
+        assertEquals(4, dao.loads.size(), "Least recently used series was evicted");
+    }
+
+    @Test
+    void staleSeriesKeepsServingTheOldDataWhileReloadingAtMostEveryFewSeconds() {
+        StubPriceHistoryDao dao = new StubPriceHistoryDao();
+        Queue<Runnable> pending = new ArrayDeque<>();
+        AtomicLong now = new AtomicLong(100_000_000_000L);
+        PriceSeriesCache cache = new PriceSeriesCache(dao, Duration.ofDays(90), 8, pending::add, now::get);
+        SeriesKey key = SeriesKey.item("Master Ball");
+
+        assertNull(cache.get(key));
+        assertNull(cache.get(key));
+        assertEquals(1, pending.size(), "Only one load in flight per series");
+        pending.poll().run();
+        PriceSeries first = cache.get(key);
+        assertEquals(3, first.size());
+
+        cache.markStale();
+        now.addAndGet(1_000L);
+        assertSame(first, cache.get(key));
+        assertTrue(pending.isEmpty(), "Reloads are throttled");
+
+        now.addAndGet(5_000L);
+        assertSame(first, cache.get(key), "Old series is shown until the reload lands");
+        pending.poll().run();
+        PriceSeries second = cache.get(key);
+        assertEquals(2, dao.loads.size());
+        assertEquals(first.size(), second.size());
+        assertTrue(second != first);
+        cache.close();
+    }
+
+    @Test
+    void failedLoadBacksOffBeforeRetrying() {
+        StubPriceHistoryDao dao = new StubPriceHistoryDao();
+        dao.failNext = true;
+        AtomicLong now = new AtomicLong(100_000_000_000L);
+        PriceSeriesCache cache = new PriceSeriesCache(dao, Duration.ofDays(1), 8, Runnable::run, now::get);
+        SeriesKey key = SeriesKey.pokemon("Gengar", false);
+
+        assertNull(cache.get(key));
+        assertNull(cache.get(key));
+        assertEquals(1, dao.attempts);
+
+        now.addAndGet(2_000L);
+        PriceSeries series = cache.get(key);
+        assertEquals(Resolution.HOUR, series.resolution());
+        assertEquals(2, dao.attempts);
+    }
+
+    @Test
+    void currentAsksAreServedFromTheActiveListingIndex() throws Exception {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("asks.sqlite").toAbsolutePath());
+        databaseManager.initialize();
+        ActiveListingIndex index = new ActiveListingIndex(Duration.ofDays(90).toMillis());
+        index.rebuild(databaseManager.getReadDataSource());
+        long now = System.currentTimeMillis();
+        index.accept(item("a", "Leftovers", 300, now - 1_000));
+        index.accept(item("b", "Leftovers", 100, now - 2_000));
+        index.accept(item("c", "Leftovers", 200, now - 3_000));
+        index.accept(item("d", "Leftovers", 50, now - Duration.ofDays(2).toMillis()));
+        databaseManager.close();
+
+        // The DAOs point at no database: asks can only come from the index.
+        SQLiteDataSource unusable = new SQLiteDataSource();
+        unusable.setUrl("jdbc:sqlite:" + tempDir.resolve("missing").resolve("none.sqlite"));
+        PriceSeriesCache cache = new PriceSeriesCache(new StubPriceHistoryDao(), new PokemonListingDAO(unusable, index),
+            new ItemListingDAO(unusable, index), Duration.ofDays(90), 8, Runnable::run, System::currentTimeMillis);
+
+        SeriesKey key = SeriesKey.item("Leftovers");
+        assertNull(cache.getActiveAsks(key), "Asks are loaded with the series");
+        cache.get(key);
+        assertEquals(new ActiveAsks(3, 100.0, 200.0), cache.getActiveAsks(key), "Listings older than a day are not current asks");
+        cache.get(SeriesKey.pokemon("Gengar", false));
+        assertEquals(0, cache.getActiveAsks(SeriesKey.pokemon("Gengar", false)).count());
+    }
+
+    @Test
+    void filterSelectsSpeciesBeforeItem() {
+        ListingQuery all = ListingQuery.activeListings();
+        assertNull(SeriesKey.forQuery(all));
+        assertEquals(SeriesKey.pokemon("Gengar", true), SeriesKey.forQuery(all.withSpecies(" Gengar ").withShiny(true).withItemName("Leftovers")));
+        assertEquals(SeriesKey.pokemon("Gengar", false), SeriesKey.forQuery(all.withSpecies("Gengar").withShiny(false)));
+        assertEquals(SeriesKey.item("Leftovers"), SeriesKey.forQuery(all.withItemName("Leftovers")));
+    }
+
+    private static ItemListing item(String id, String itemName, int price, long lastSeen) {
+        ItemListing listing = new ItemListing();
+        listing.setId(id);
+        listing.setItemName(itemName);
+        listing.setQuantity(1);
+        listing.setPrice(price);
+        listing.setStatus(ListingStatus.ACTIVE);
+        listing.setLastSeen(lastSeen);
+        return listing;
+    }
+
+    private static final class StubPriceHistoryDao extends PriceHistoryDAO {
+        private final List<String> loads = new ArrayList<>();
+        private int attempts;
+        private boolean failNext;
+
+        private StubPriceHistoryDao() {
+            super(new SQLiteDataSource());
+        }
+
+        @Override
+        public List<PriceBucket> getPokemonHistory(String species, boolean shiny, Resolution resolution, Instant from, Instant to)
+            throws SQLException {
+            return load("pokemon:" + species + ":" + shiny, resolution, from);
+        }
+
+        @Override
+        public List<PriceBucket> getItemHistory(String itemName, Resolution resolution, Instant from, Instant to) throws SQLException {
+            return load("item:" + itemName, resolution, from);
+        }
+
+        private List<PriceBucket> load(String key, Resolution resolution, Instant from) throws SQLException {
+            attempts++;
+            if (failNext) {
+                failNext = false;
+                throw new SQLException("database is locked");
+            }
+            loads.add(key);
+            long start = resolution.bucketStart(from.toEpochMilli());
+            return List.of(
+                new PriceBucket(start, 100, 110, 90, 105, 2, 205),
+                new PriceBucket(start + resolution.millis(), 105, 130, 100, 120, 3, 340),
+                new PriceBucket(start + 2 * resolution.millis(), 120, 125, 118, 125, 1, 125)
+            );
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.yourname.gtstracker.database;
+
+import com.yourname.gtstracker.database.models.DataSource;
+import com.yourname.gtstracker.database.models.IVStats;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.ListingStatus;
+import com.yourname.gtstracker.database.models.PokemonListing;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActiveListingIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void rebuiltIndexAnswersLikeTheSqlQueries() throws Exception {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("index.sqlite").toAbsolutePath());
+        databaseManager.initialize();
+
+        long base = System.currentTimeMillis() - 60_000L;
+        databaseManager.upsertListings(List.of(
+            pokemon("p1", "Metagross", true, 99000, base + 1, new IVStats(31, 31, 31, 31, 31, 30)),
+            pokemon("p2", "Metagross", false, 45000, base + 2, new IVStats(10, 10, 10, 10, 10, 10)),
+            pokemon("p3", "Metagross", true, 120000, base + 3, null),
+            pokemon("p4", "Gengar", false, 5000, base + 4, null),
+            item("i1", "Master Ball", 15000, base + 5),
+            item("i2", "Master Ball", 14000, base + 6)
+        ));
+
+        ActiveListingIndex index = new ActiveListingIndex(TimeUnit.DAYS.toMillis(90));
+        assertFalse(index.isReady());
+        index.rebuild(databaseManager.getReadDataSource());
+        assertTrue(index.isReady());
+        assertEquals(6, index.size());
+
+        Instant cutoff = Instant.ofEpochMilli(base);
+        PokemonListingDAO sqlPokemon = new PokemonListingDAO(databaseManager.getReadDataSource());
+        PokemonListingDAO indexedPokemon = new PokemonListingDAO(databaseManager.getReadDataSource(), index);
+        assertSamePokemonSamples(sqlPokemon, indexedPokemon, "Metagross", false, null, cutoff);
+        assertSamePokemonSamples(sqlPokemon, indexedPokemon, "Metagross", true, null, cutoff);
+        assertSamePokemonSamples(sqlPokemon, indexedPokemon, "Metagross", false, 180, cutoff);
+        assertSamePokemonSamples(sqlPokemon, indexedPokemon, "Pikachu", false, null, cutoff);
+
+        ItemListingDAO sqlItems = new ItemListingDAO(databaseManager.getReadDataSource());
+        ItemListingDAO indexedItems = new ItemListingDAO(databaseManager.getReadDataSource(), index);
+        assertEquals(
+            sqlItems.getItemPriceSamples("Master Ball", cutoff).stream().map(sample -> sample.price).toList(),
+            indexedItems.getItemPriceSamples("Master Ball", cutoff).stream().map(sample -> sample.price).toList()
+        );
+        databaseManager.close();
+    }
+
+    @Test
+    void liveUpdatesReorderAndRemoveSamples() throws Exception {
+        ActiveListingIndex index = new ActiveListingIndex(0);
+        long now = System.currentTimeMillis();
+
+        index.accept(item("a", "Rare Candy", 100, now - 3_000));
+        index.accept(item("b", "Rare Candy", 200, now - 2_000));
+        index.accept(item("c", "Rare Candy", 300, now - 1_000));
+        assertArrayEquals(new int[]{300, 200, 100}, index.recentItemPrices("Rare Candy", 0));
+
+        index.accept(item("a", "Rare Candy", 150, now));
+        assertArrayEquals(new int[]{150, 300, 200}, index.recentItemPrices("Rare Candy", 0));
+        assertArrayEquals(new int[]{150, 300}, index.recentItemPrices("Rare Candy", now - 1_000));
+
+        ItemListing sold = item("c", "Rare Candy", 300, now - 1_000);
+        sold.setStatus(ListingStatus.SOLD);
+        index.accept(sold);
+        assertArrayEquals(new int[]{150, 200}, index.recentItemPrices("Rare Candy", 0));
+        assertEquals(2, index.size());
+    }
+
+    private static void assertSamePokemonSamples(
+        PokemonListingDAO sql,
+        PokemonListingDAO indexed,
+        String species,
+        boolean shinyOnly,
+        Integer minIv,
+        Instant cutoff
+    ) throws Exception {
+        List<PokemonListingDAO.PriceSample> expected = sql.getPokemonPriceSamples(species, shinyOnly, minIv, cutoff);
+        List<PokemonListingDAO.PriceSample> actual = indexed.getPokemonPriceSamples(species, shinyOnly, minIv, cutoff);
+        assertEquals(expected.stream().map(sample -> sample.price).toList(), actual.stream().map(sample -> sample.price).toList());
+        assertEquals(expected.stream().map(sample -> sample.observedAt).toList(), actual.stream().map(sample -> sample.observedAt).toList());
+    }
+
+    private static PokemonListing pokemon(String id, String species, boolean shiny, int price, long seenAt, IVStats ivs) {
+        PokemonListing listing = new PokemonListing();
+        listing.setId(id);
+        listing.setSeller("Ash");
+        listing.setSpecies(species);
+        listing.setShiny(shiny);
+        listing.setLevel(50);
+        listing.setIvs(ivs);
+        listing.setPrice(price);
+        stamp(listing, seenAt);
+        return listing;
+    }
+
+    private static ItemListing item(String id, String itemName, int price, long seenAt) {
+        ItemListing listing = new ItemListing();
+        listing.setId(id);
+        listing.setSeller("Brock");
+        listing.setItemName(itemName);
+        listing.setQuantity(1);
+        listing.setPrice(price);
+        stamp(listing, seenAt);
+        return listing;
+    }
+
+    private static void stamp(ListingData listing, long seenAt) {
+        listing.setStatus(ListingStatus.ACTIVE);
+        listing.setSourceFirst(DataSource.CHAT);
+        listing.setSourceLast(DataSource.CHAT);
+        listing.setFirstSeen(seenAt);
+        listing.setLastSeen(seenAt);
+    }
+}
@@ -0,0 +1,71 @@
+package com.yourname.gtstracker.database;
+
+import com.yourname.gtstracker.util.ListingFingerprint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class DatabaseSchemaMigrationTest {
+    private static final String INSERT_LISTING =
+        "INSERT INTO listings (id, listing_type, seller, price, first_seen, last_seen, status, source_first, source_last) VALUES ";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void legacyHexIdsAreCompactedAcrossAllTables() throws Exception {
+        String url = "jdbc:sqlite:" + tempDir.resolve("legacy.sqlite").toAbsolutePath();
+        DatabaseManager fresh = new DatabaseManager(url);
+        fresh.initialize();
+        fresh.close();
+
+        String pokemonId = "0123456789abcdef".repeat(4);
+        String itemId = "fedcba9876543210".repeat(4);
+        try (Connection conn = DriverManager.getConnection(url);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA user_version = 0");
+            stmt.execute(INSERT_LISTING + "('" + pokemonId + "', 'POKEMON', 'Ash', 100, 1, 2, 'active', 'chat', 'chat')");
+            stmt.execute("INSERT INTO pokemon_listings (listing_id, species, level) VALUES ('" + pokemonId + "', 'Gengar', 50)");
+            stmt.execute(INSERT_LISTING + "('" + itemId + "', 'ITEM', 'Brock', 50, 1, 2, 'active', 'chat', 'chat')");
+            stmt.execute("INSERT INTO item_listings (listing_id, item_name, quantity) VALUES ('" + itemId + "', 'Rare Candy', 3)");
+            stmt.execute(INSERT_LISTING + "('short-id', 'ITEM', 'Misty', 10, 1, 2, 'active', 'chat', 'chat')");
+        }
+
+        DatabaseManager migrated = new DatabaseManager(url);
+        migrated.initialize();
+        migrated.close();
+
+        try (Connection conn = DriverManager.getConnection(url);
+             Statement stmt = conn.createStatement()) {
+            assertEquals(DatabaseManager.SCHEMA_VERSION, queryInt(stmt, "PRAGMA user_version"));
+            assertEquals(0, queryInt(stmt, "SELECT COUNT(*) FROM listings WHERE length(id) = 64"));
+            assertEquals(1, queryInt(stmt, "SELECT COUNT(*) FROM listings WHERE id = 'short-id'"));
+
+            String compactPokemon = ListingFingerprint.compactLegacyId(pokemonId);
+            String compactItem = ListingFingerprint.compactLegacyId(itemId);
+            assertEquals(1, queryInt(stmt, "SELECT COUNT(*) FROM listings l JOIN pokemon_listings p ON p.listing_id = l.id WHERE l.id = '" + compactPokemon + "'"));
+            assertEquals(1, queryInt(stmt, "SELECT COUNT(*) FROM listings l JOIN item_listings i ON i.listing_id = l.id WHERE l.id = '" + compactItem + "'"));
+            assertEquals(0, queryInt(stmt, "SELECT sort_iv_total FROM listings WHERE id = '" + compactPokemon + "'"));
+            assertEquals(-1, queryInt(stmt, "SELECT sort_iv_total FROM listings WHERE id = '" + compactItem + "'"));
+            assertEquals(16, queryInt(stmt, "SELECT CAST(unit_price AS INTEGER) FROM listings WHERE id = '" + compactItem + "'"));
+            try (ResultSet violations = stmt.executeQuery("PRAGMA foreign_key_check")) {
+                assertFalse(violations.next());
+            }
+        }
+    }
+
+    private static int queryInt(Statement stmt, String sql) throws Exception {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
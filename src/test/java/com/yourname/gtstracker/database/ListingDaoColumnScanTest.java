@@ -0,0 +1,83 @@
+package com.yourname.gtstracker.database;
+
+import com.yourname.gtstracker.database.models.DataSource;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.ListingStatus;
+import com.yourname.gtstracker.database.models.PokemonListing;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ListingDaoColumnScanTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void scansResolveDisplayNamesAndStatusCodesInRecencyOrder() throws Exception {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("scan.sqlite").toAbsolutePath());
+        databaseManager.initialize();
+        databaseManager.upsertListings(List.of(
+            pokemon("p1", "Garchomp", 1_000L, ListingStatus.ACTIVE),
+            item("i1", "Master Ball", 2_000L, ListingStatus.ACTIVE),
+            item("i2", " ", 3_000L, ListingStatus.ACTIVE),
+            pokemon("p2", "Gengar", 4_000L, ListingStatus.SOLD),
+            pokemon("p3", "Dragonite", 5_000L, ListingStatus.EXPIRED)
+        ));
+
+        ListingDAO dao = new ListingDAO(databaseManager.getReadDataSource());
+        List<String> active = new ArrayList<>();
+        int visited = dao.scanActiveListings(10, (id, displayName, price, lastSeenMs, status) ->
+            active.add(displayName + "|" + (long) price + "|" + lastSeenMs + "|" + status));
+
+        assertEquals(3, visited);
+        assertEquals(List.of("i2|300|3000|0", "Master Ball|200|2000|0", "Garchomp|100|1000|0"), active);
+
+        List<String> recent = new ArrayList<>();
+        dao.scanListingsSince(Instant.ofEpochMilli(3_000L), (id, displayName, price, lastSeenMs, status) ->
+            recent.add(id + "|" + status));
+        assertEquals(List.of(
+            "p3|" + ListingDAO.STATUS_INACTIVE,
+            "p2|" + ListingDAO.STATUS_SOLD,
+            "i2|" + ListingDAO.STATUS_ACTIVE
+        ), recent);
+
+        List<String> limited = new ArrayList<>();
+        dao.scanActiveListings(1, (id, displayName, price, lastSeenMs, status) -> limited.add(id));
+        assertEquals(List.of("i2"), limited);
+        databaseManager.close();
+    }
+
+    private static PokemonListing pokemon(String id, String species, long lastSeen, ListingStatus status) {
+        PokemonListing listing = new PokemonListing();
+        listing.setSpecies(species);
+        listing.setLevel(50);
+        return fill(listing, id, lastSeen, status);
+    }
+
+    private static ItemListing item(String id, String itemName, long lastSeen, ListingStatus status) {
+        ItemListing listing = new ItemListing();
+        listing.setItemName(itemName);
+        listing.setQuantity(1);
+        return fill(listing, id, lastSeen, status);
+    }
+
+    private static <T extends ListingData> T fill(T listing, String id, long lastSeen, ListingStatus status) {
+        listing.setId(id);
+        listing.setSeller("Brock");
+        listing.setPrice((int) (lastSeen / 10));
+        listing.setStatus(status);
+        listing.setSourceFirst(DataSource.CHAT);
+        listing.setSourceLast(DataSource.CHAT);
+        listing.setFirstSeen(lastSeen);
+        listing.setLastSeen(lastSeen);
+        return listing;
+    }
+}
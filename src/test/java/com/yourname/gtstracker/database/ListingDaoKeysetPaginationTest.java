@@ -0,0 +1,106 @@
+package com.yourname.gtstracker.database;
+
+import com.yourname.gtstracker.database.models.DataSource;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.ListingStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListingDaoKeysetPaginationTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void pagesCoverAllActiveRowsInOrderWithoutDuplicates() throws Exception {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("pages.sqlite").toAbsolutePath());
+        databaseManager.initialize();
+
+        List<ListingData> listings = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            // Many rows share a last_seen value so the id tiebreaker matters.
+            listings.add(item(String.format("id-%03d", i), 1_000L + (i / 7), i % 11 == 0 ? ListingStatus.SOLD : ListingStatus.ACTIVE));
+        }
+        databaseManager.upsertListings(listings);
+
+        ListingDAO dao = new ListingDAO(databaseManager.getReadDataSource());
+        List<String> expected = dao.getActiveListings(Integer.MAX_VALUE, 0).stream()
+            .sorted((a, b) -> {
+                int byTime = b.lastSeen.compareTo(a.lastSeen);
+                return byTime != 0 ? byTime : b.id.compareTo(a.id);
+            })
+            .map(row -> row.id)
+            .toList();
+
+        List<String> paged = new ArrayList<>();
+        String token = null;
+        int pages = 0;
+        do {
+            ListingDAO.ListingPage page = dao.getActiveListingsPage(40, token);
+            page.rows.forEach(row -> paged.add(row.id));
+            token = page.nextToken;
+            pages++;
+        } while (token != null);
+
+        assertEquals(expected, paged);
+        assertEquals(paged.size(), new HashSet<>(paged).size());
+        assertEquals((expected.size() + 39) / 40, pages);
+        databaseManager.close();
+    }
+
+    @Test
+    void lastPageHasNoTokenAndBadTokensAreRejected() throws Exception {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("tokens.sqlite").toAbsolutePath());
+        databaseManager.initialize();
+        databaseManager.upsertListings(List.of(item("a", 1, ListingStatus.ACTIVE), item("b", 2, ListingStatus.ACTIVE)));
+
+        ListingDAO dao = new ListingDAO(databaseManager.getReadDataSource());
+        ListingDAO.ListingPage page = dao.getActiveListingsPage(2, null);
+        assertEquals(2, page.rows.size());
+        assertFalse(page.hasMore());
+        assertNull(page.nextToken);
+
+        assertThrows(IllegalArgumentException.class, () -> dao.getActiveListingsPage(2, "not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> dao.getActiveListingsPage(2, "AA"));
+        databaseManager.close();
+    }
+
+    @Test
+    void continuationQuerySeeksThroughStatusLastSeenIndex() throws Exception {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("plan.sqlite").toAbsolutePath());
+        databaseManager.initialize();
+
+        ListingDAO dao = new ListingDAO(databaseManager.getReadDataSource());
+        String plan = String.join("\n", dao.explainQueryPlan(ListingDAO.ACTIVE_NEXT_PAGE_SQL));
+        assertTrue(plan.contains("idx_listings_status_last_seen"), plan);
+        assertTrue(plan.contains("last_seen<?"), plan);
+        databaseManager.close();
+    }
+
+    private static ItemListing item(String id, long lastSeen, ListingStatus status) {
+        ItemListing listing = new ItemListing();
+        listing.setId(id);
+        listing.setSeller("Brock");
+        listing.setItemName("Rare Candy");
+        listing.setQuantity(1);
+        listing.setPrice(100);
+        listing.setStatus(status);
+        listing.setSourceFirst(DataSource.CHAT);
+        listing.setSourceLast(DataSource.CHAT);
+        listing.setFirstSeen(lastSeen);
+        listing.setLastSeen(lastSeen);
+        return listing;
+    }
+}
@@ -0,0 +1,165 @@
+package com.yourname.gtstracker.database;
+
+import com.yourname.gtstracker.database.ListingEventDAO.EventType;
+import com.yourname.gtstracker.database.ListingEventDAO.ListingEvent;
+import com.yourname.gtstracker.database.models.DataSource;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.ListingStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListingEventDaoTest {
+    private static final long MINUTE = 60_000L;
+    private static final long T0 = 20_000L * 86_400_000L;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void repricesAndStatusChangesAppendEventsWhileRepeatsDoNot() throws Exception {
+        DatabaseManager databaseManager = open("events.sqlite");
+        ListingEventDAO dao = new ListingEventDAO(databaseManager.getReadDataSource());
+
+        databaseManager.upsertListings(List.of(item("a", 100, ListingStatus.ACTIVE, T0, T0)));
+        databaseManager.upsertListings(List.of(item("a", 100, ListingStatus.ACTIVE, T0, T0)));
+        databaseManager.upsertListings(List.of(item("a", 100, ListingStatus.ACTIVE, T0, T0 + MINUTE)));
+        databaseManager.upsertListings(List.of(item("a", 80, ListingStatus.ACTIVE, T0, T0 + 2 * MINUTE)));
+        databaseManager.upsertListings(List.of(item("a", 80, ListingStatus.SOLD, T0, T0 + 3 * MINUTE)));
+
+        List<ListingEvent> history = dao.getHistory("a");
+        assertEquals(List.of(EventType.LISTED, EventType.REPRICED, EventType.STATUS),
+            history.stream().map(ListingEvent::type).toList());
+        assertEquals(100, history.get(0).price());
+        assertEquals(T0, history.get(0).observedAtMs());
+        assertEquals(80, history.get(1).price());
+        assertEquals(T0 + 2 * MINUTE, history.get(1).observedAtMs());
+        assertEquals("sold", history.get(2).status());
+        assertTrue(history.get(0).seq() < history.get(1).seq() && history.get(1).seq() < history.get(2).seq());
+
+        try (Connection conn = databaseManager.getReadDataSource().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT price, status FROM listings WHERE id = 'a'")) {
+            assertTrue(rs.next());
+            assertEquals(80, rs.getInt("price"), "listings keeps only the current state");
+            assertEquals("sold", rs.getString("status"));
+        }
+        databaseManager.close();
+    }
+
+    @Test
+    void lifecycleSweepsAreRecordedAndFeedPagesBySequence() throws Exception {
+        DatabaseManager databaseManager = open("feed.sqlite");
+        ListingEventDAO dao = new ListingEventDAO(databaseManager.getReadDataSource());
+        databaseManager.upsertListings(List.of(
+            item("a", 100, ListingStatus.ACTIVE, T0, T0),
+            item("b", 200, ListingStatus.ACTIVE, T0, T0 + MINUTE),
+            item("c", 300, ListingStatus.ACTIVE, T0, T0 + 10 * MINUTE)
+        ));
+        new ListingDAO(databaseManager.getWriteDataSource())
+            .markMissingOrExpired(Instant.ofEpochMilli(T0 + 5 * MINUTE), Instant.ofEpochMilli(T0 + 5 * MINUTE));
+
+        List<ListingEvent> first = dao.getEventsAfter(0, 3);
+        assertEquals(3, first.size());
+        assertTrue(first.stream().allMatch(event -> event.type() == EventType.LISTED));
+        List<ListingEvent> rest = dao.getEventsAfter(first.get(2).seq(), 10);
+        assertEquals(List.of("a", "b"), rest.stream().map(ListingEvent::listingId).toList());
+        assertTrue(rest.stream().allMatch(event -> event.type() == EventType.STATUS && "expired".equals(event.status())));
+        assertTrue(rest.get(0).observedAtMs() > T0 + 10 * MINUTE, "A sweep records when the status changed");
+
+        try (Connection conn = databaseManager.getWriteDataSource().getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM listings WHERE id = 'a'");
+        }
+        assertEquals(2, dao.getHistory("a").size(), "Deleting a listing leaves its history in place");
+        assertEquals(2, dao.getHistory("b").size());
+        databaseManager.close();
+    }
+
+    @Test
+    void historyReadsAreRangeScans() throws Exception {
+        DatabaseManager databaseManager = open("plan.sqlite");
+        try (Connection conn = databaseManager.getReadDataSource().getConnection()) {
+            String history = plan(conn, ListingEventDAO.HISTORY_SQL);
+            assertTrue(history.contains("USING COVERING INDEX idx_listing_events_listing") || history.contains("USING INDEX idx_listing_events_listing"), history);
+            assertFalse(history.contains("TEMP B-TREE"), history);
+            String feed = plan(conn, ListingEventDAO.EVENTS_AFTER_SQL);
+            assertTrue(feed.contains("USING INTEGER PRIMARY KEY"), feed);
+            assertFalse(feed.contains("TEMP B-TREE"), feed);
+        }
+        databaseManager.close();
+    }
+
+    @Test
+    void migrationSeedsAListedEventPerExistingListing() throws Exception {
+        String url = "jdbc:sqlite:" + tempDir.resolve("migrate.sqlite").toAbsolutePath();
+        DatabaseManager before = new DatabaseManager(url);
+        before.initialize();
+        before.upsertListings(List.of(
+            item("late", 100, ListingStatus.ACTIVE, T0 + MINUTE, T0 + MINUTE),
+            item("early", 50, ListingStatus.SOLD, T0, T0)
+        ));
+        before.close();
+        try (Connection conn = DriverManager.getConnection(url);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM listing_events");
+            stmt.execute("PRAGMA user_version = 4");
+        }
+
+        DatabaseManager migrated = new DatabaseManager(url);
+        migrated.initialize();
+        List<ListingEvent> events = new ListingEventDAO(migrated.getReadDataSource()).getEventsAfter(0, 10);
+        assertEquals(List.of("early", "late"), events.stream().map(ListingEvent::listingId).toList());
+        assertEquals("sold", events.get(0).status());
+        migrated.close();
+    }
+
+    private DatabaseManager open(String file) {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve(file).toAbsolutePath());
+        databaseManager.initialize();
+        return databaseManager;
+    }
+
+    private static String plan(Connection conn, String sql) throws Exception {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement ps = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                plan.append(rs.getString("detail")).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static ItemListing item(String id, int price, ListingStatus status, long firstSeen, long lastSeen) {
+        ItemListing listing = new ItemListing();
+        listing.setItemName("Rare Candy");
+        listing.setQuantity(1);
+        return fill(listing, id, price, status, firstSeen, lastSeen);
+    }
+
+    private static <T extends ListingData> T fill(T listing, String id, int price, ListingStatus status, long firstSeen, long lastSeen) {
+        listing.setId(id);
+        listing.setSeller("Brock");
+        listing.setPrice(price);
+        listing.setStatus(status);
+        listing.setSourceFirst(DataSource.CHAT);
+        listing.setSourceLast(DataSource.CHAT);
+        listing.setFirstSeen(firstSeen);
+        listing.setLastSeen(lastSeen);
+        return listing;
+    }
+}
@@ -0,0 +1,203 @@
+package com.yourname.gtstracker.database;
+
+import com.yourname.gtstracker.database.ListingQuery.SortColumn;
+import com.yourname.gtstracker.database.models.DataSource;
+import com.yourname.gtstracker.database.models.IVStats;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.ListingStatus;
+import com.yourname.gtstracker.database.models.PokemonListing;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListingQueryPlanTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void marketQueriesSeekIndexesInsteadOfScanningTables() throws Exception {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("plan.sqlite").toAbsolutePath());
+        databaseManager.initialize();
+        ListingDAO dao = new ListingDAO(databaseManager.getReadDataSource());
+        ListingQuery active = ListingQuery.activeListings();
+
+        Map<ListingQuery, String> expectedIndex = Map.of(
+            active.withSpecies("Gengar").withShiny(true).withMinIvTotal(150), "idx_pokemon_species_shiny_iv",
+            active.withSpecies("Gengar").sortedBy(SortColumn.IV_TOTAL, true), "idx_pokemon_species",
+            active.withMinIvTotal(150), "idx_pokemon_iv_total",
+            active.withItemName("Rare Candy").sortedBy(SortColumn.UNIT_PRICE, false), "idx_item_name",
+            active.withPriceRange(100, 5_000).sortedBy(SortColumn.PRICE, false), "idx_listings_status_price",
+            active.withShiny(true), "idx_listings_status",
+            active.sortedBy(SortColumn.UNIT_PRICE, true), "idx_listings_status_unit_price",
+            active.sortedBy(SortColumn.IV_TOTAL, false), "idx_listings_status_iv_total"
+        );
+
+        for (Map.Entry<ListingQuery, String> entry : expectedIndex.entrySet()) {
+            for (boolean continuation : new boolean[] {false, true}) {
+                String sql = entry.getKey().toSql(continuation, new ArrayList<>());
+                String plan = String.join("\n", dao.explainQueryPlan(sql));
+                assertTrue(plan.contains(entry.getValue()), plan);
+                for (String step : dao.explainQueryPlan(sql)) {
+                    assertFalse(step.startsWith("SCAN"), "Full scan in plan:\n" + plan);
+                }
+            }
+        }
+        databaseManager.close();
+    }
+
+    @Test
+    void sortsWithoutANameOrIvFilterWalkTheirIndexInOrder() throws Exception {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("order.sqlite").toAbsolutePath());
+        databaseManager.initialize();
+        ListingDAO dao = new ListingDAO(databaseManager.getReadDataSource());
+
+        List<ListingQuery> queries = new ArrayList<>();
+        for (SortColumn column : SortColumn.values()) {
+            for (boolean descending : new boolean[] {false, true}) {
+                queries.add(ListingQuery.activeListings().sortedBy(column, descending));
+                queries.add(ListingQuery.activeListings().withShiny(true).sortedBy(column, descending));
+            }
+        }
+        queries.add(ListingQuery.activeListings().withPriceRange(100, 5_000).sortedBy(SortColumn.PRICE, true));
+
+        for (ListingQuery query : queries) {
+            for (boolean continuation : new boolean[] {false, true}) {
+                List<String> plan = dao.explainQueryPlan(query.toSql(continuation, new ArrayList<>()));
+                assertTrue(plan.stream().noneMatch(step -> step.startsWith("USE TEMP B-TREE")),
+                    query.getSortColumn() + " sorts in a temp B-tree:\n" + String.join("\n", plan));
+            }
+        }
+        for (String sql : List.of(ListingDAO.ACTIVE_FIRST_PAGE_SQL, ListingDAO.ACTIVE_NEXT_PAGE_SQL)) {
+            List<String> plan = dao.explainQueryPlan(sql);
+            assertTrue(plan.stream().noneMatch(step -> step.startsWith("USE TEMP B-TREE")),
+                "Default view sorts in a temp B-tree:\n" + String.join("\n", plan));
+        }
+        databaseManager.close();
+    }
+
+    @Test
+    void storedSortKeysPageInOrderInBothDirections() throws Exception {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("sort-keys.sqlite").toAbsolutePath());
+        databaseManager.initialize();
+
+        List<ListingData> listings = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            listings.add(pokemon("p" + i, "Eevee", false, (i % 5) * 10, 1_000 + i, 10_000L + i));
+            listings.add(item("i" + i, "Rare Candy", 1 + i % 3, 300 * (1 + i % 4), 20_000L + i));
+        }
+        databaseManager.upsertListings(listings);
+        ListingDAO dao = new ListingDAO(databaseManager.getReadDataSource());
+
+        Map<SortColumn, ToDoubleFunction<ListingData>> keys = Map.of(
+            SortColumn.IV_TOTAL, l -> l instanceof PokemonListing p ? p.getIvs().getTotal() : -1,
+            SortColumn.UNIT_PRICE, l -> l instanceof ItemListing i ? (double) i.getPrice() / i.getQuantity() : l.getPrice()
+        );
+        for (Map.Entry<SortColumn, ToDoubleFunction<ListingData>> key : keys.entrySet()) {
+            for (boolean descending : new boolean[] {false, true}) {
+                Comparator<ListingData> order = Comparator
+                    .comparingDouble(key.getValue())
+                    .thenComparing(ListingData::getId);
+                List<String> expected = listings.stream()
+                    .sorted(descending ? order.reversed() : order)
+                    .map(ListingData::getId)
+                    .toList();
+                List<ListingDAO.ListingRow> rows = readAll(dao, ListingQuery.activeListings().sortedBy(key.getKey(), descending), 7);
+                assertEquals(expected, rows.stream().map(row -> row.id).toList(), key.getKey() + " descending=" + descending);
+            }
+        }
+        databaseManager.close();
+    }
+
+    @Test
+    void pagesFilterAndSortAcrossContinuations() throws Exception {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("query.sqlite").toAbsolutePath());
+        databaseManager.initialize();
+
+        List<ListingData> listings = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            listings.add(pokemon("p" + i, i % 3 == 0 ? "Gengar" : "Eevee", i % 2 == 0, i * 3, 1_000 + (i % 7) * 100, 10_000L + i));
+        }
+        for (int i = 0; i < 20; i++) {
+            listings.add(item("i" + i, "Rare Candy", 1 + i % 4, 400 + i * 10, 20_000L + i));
+        }
+        listings.add(pokemon("sold", "Gengar", true, 180, 1, 30_000L));
+        ((PokemonListing) listings.get(listings.size() - 1)).setStatus(ListingStatus.SOLD);
+        databaseManager.upsertListings(listings);
+
+        ListingDAO dao = new ListingDAO(databaseManager.getReadDataSource());
+
+        ListingQuery shinyGengar = ListingQuery.activeListings()
+            .withSpecies("Gengar").withShiny(true).withMinIvTotal(30)
+            .sortedBy(SortColumn.PRICE, false);
+        List<ListingDAO.ListingRow> rows = readAll(dao, shinyGengar, 3);
+        List<String> expected = listings.stream()
+            .filter(l -> l instanceof PokemonListing p && p.getStatus() == ListingStatus.ACTIVE
+                && p.getSpecies().equals("Gengar") && p.isShiny() && p.getIvs().getTotal() >= 30)
+            .sorted((a, b) -> a.getPrice() != b.getPrice() ? Integer.compare(a.getPrice(), b.getPrice()) : a.getId().compareTo(b.getId()))
+            .map(ListingData::getId)
+            .toList();
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, rows.stream().map(row -> row.id).toList());
+
+        List<ListingDAO.ListingRow> candy = readAll(dao, ListingQuery.activeListings()
+            .withItemName("Rare Candy").withPriceRange(450, 550).sortedBy(SortColumn.UNIT_PRICE, true), 4);
+        assertEquals(11, candy.size());
+        for (int i = 1; i < candy.size(); i++) {
+            double previous = candy.get(i - 1).price.doubleValue() / candy.get(i - 1).quantity;
+            double current = candy.get(i).price.doubleValue() / candy.get(i).quantity;
+            assertTrue(previous >= current, "Unit prices must be non-increasing");
+        }
+        databaseManager.close();
+    }
+
+    private static List<ListingDAO.ListingRow> readAll(ListingDAO dao, ListingQuery query, int pageSize) throws Exception {
+        List<ListingDAO.ListingRow> rows = new ArrayList<>();
+        String token = null;
+        do {
+            ListingDAO.ListingPage page = dao.getListingsPage(query, pageSize, token);
+            rows.addAll(page.rows);
+            token = page.nextToken;
+        } while (token != null);
+        return rows;
+    }
+
+    private static PokemonListing pokemon(String id, String species, boolean shiny, int ivTotal, int price, long lastSeen) {
+        PokemonListing listing = new PokemonListing();
+        listing.setSpecies(species);
+        listing.setShiny(shiny);
+        listing.setLevel(50);
+        listing.setIvs(new IVStats(ivTotal, 0, 0, 0, 0, 0));
+        return fill(listing, id, price, lastSeen);
+    }
+
+    private static ItemListing item(String id, String itemName, int quantity, int price, long lastSeen) {
+        ItemListing listing = new ItemListing();
+        listing.setItemName(itemName);
+        listing.setQuantity(quantity);
+        return fill(listing, id, price, lastSeen);
+    }
+
+    private static <T extends ListingData> T fill(T listing, String id, int price, long lastSeen) {
+        listing.setId(id);
+        listing.setSeller("Misty");
+        listing.setPrice(price);
+        listing.setStatus(ListingStatus.ACTIVE);
+        listing.setSourceFirst(DataSource.CHAT);
+        listing.setSourceLast(DataSource.CHAT);
+        listing.setFirstSeen(lastSeen);
+        listing.setLastSeen(lastSeen);
+        return listing;
+    }
+}
@@ -0,0 +1,202 @@
+package com.yourname.gtstracker.database;
+
+import com.yourname.gtstracker.database.PriceHistoryDAO.PriceBucket;
+import com.yourname.gtstracker.database.PriceHistoryDAO.Resolution;
+import com.yourname.gtstracker.database.models.DataSource;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.ListingStatus;
+import com.yourname.gtstracker.database.models.PokemonListing;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceHistoryDaoTest {
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 3_600_000L;
+    private static final long DAY = 86_400_000L;
+    private static final long T0 = 20_000L * DAY;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void ingestedListingsRollUpIntoOhlcBucketsAtEveryResolution() throws Exception {
+        DatabaseManager databaseManager = open("rollup.sqlite");
+        databaseManager.upsertListings(List.of(
+            pokemon("g1", "Garchomp", false, 500, T0 + 30_000L),
+            pokemon("g2", "Garchomp", false, 300, T0 + 10_000L),
+            pokemon("g3", "Garchomp", false, 900, T0 + 50_000L),
+            pokemon("g4", "Garchomp", false, 700, T0 + 40_000L),
+            pokemon("g5", "Garchomp", false, 400, T0 + 2 * MINUTE),
+            pokemon("s1", "Garchomp", true, 5_000, T0 + 20_000L)
+        ));
+        // Re-observing a listing updates it in place and must not count it again.
+        databaseManager.upsertListings(List.of(pokemon("g1", "Garchomp", false, 500, T0 + 30_000L)));
+
+        PriceHistoryDAO dao = new PriceHistoryDAO(databaseManager.getReadDataSource());
+        Instant from = Instant.ofEpochMilli(T0);
+        Instant to = Instant.ofEpochMilli(T0 + HOUR);
+
+        List<PriceBucket> minutes = dao.getPokemonHistory("garchomp", false, Resolution.MINUTE, from, to);
+        assertEquals(2, minutes.size());
+        assertEquals(new PriceBucket(T0, 300, 900, 300, 900, 4, 2_400), minutes.get(0));
+        assertEquals(new PriceBucket(T0 + 2 * MINUTE, 400, 400, 400, 400, 1, 400), minutes.get(1));
+
+        List<PriceBucket> hours = dao.getPokemonHistory("GARCHOMP", false, Resolution.HOUR, from, to);
+        assertEquals(List.of(new PriceBucket(T0, 300, 900, 300, 400, 5, 2_800)), hours);
+        assertEquals(560.0, hours.get(0).average(), 1e-9);
+        assertEquals(hours, dao.getPokemonHistory("Garchomp", false, Resolution.DAY, from, to));
+
+        List<PriceBucket> shiny = dao.getPokemonHistory("Garchomp", true, from, to);
+        assertEquals(1, shiny.size());
+        assertEquals(1, shiny.get(0).volume());
+        assertEquals(5_000, shiny.get(0).close(), 1e-9);
+        databaseManager.close();
+    }
+
+    @Test
+    void itemBucketsUseUnitPrices() throws Exception {
+        DatabaseManager databaseManager = open("items.sqlite");
+        databaseManager.upsertListings(List.of(
+            item("i1", "Rare Candy", 16, 800, T0 + 1_000L),
+            item("i2", "Rare Candy", 1, 60, T0 + 2_000L),
+            item("i3", "rare candy", 4, 160, T0 + 3_000L)
+        ));
+
+        List<PriceBucket> buckets = new PriceHistoryDAO(databaseManager.getReadDataSource())
+            .getItemHistory("Rare Candy", Resolution.MINUTE, Instant.ofEpochMilli(T0), Instant.ofEpochMilli(T0 + MINUTE));
+        assertEquals(List.of(new PriceBucket(T0, 50, 60, 40, 40, 3, 150)), buckets);
+        databaseManager.close();
+    }
+
+    @Test
+    void migrationBackfillMatchesIncrementalRollups() throws Exception {
+        String url = "jdbc:sqlite:" + tempDir.resolve("backfill.sqlite").toAbsolutePath();
+        DatabaseManager incremental = new DatabaseManager(url);
+        incremental.initialize();
+        List<ListingData> listings = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            listings.add(pokemon("p" + i, i % 3 == 0 ? "Gengar" : "Dragonite", i % 7 == 0, 100 + (i * 37) % 500, T0 + i * 17 * MINUTE));
+            listings.add(item("i" + i, "Master Ball", 1 + i % 4, 1_000 + (i * 53) % 900, T0 + i * 23 * MINUTE));
+        }
+        incremental.upsertListings(listings);
+        incremental.close();
+        List<String> expected = dumpBuckets(url);
+        assertFalse(expected.isEmpty());
+
+        try (Connection conn = DriverManager.getConnection(url);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM price_buckets");
+            stmt.execute("PRAGMA user_version = 1");
+        }
+        DatabaseManager migrated = new DatabaseManager(url);
+        migrated.initialize();
+        migrated.close();
+
+        assertEquals(expected, dumpBuckets(url));
+    }
+
+    @Test
+    void retentionWindowChartReadsDailyBucketsThroughThePrimaryKey() throws Exception {
+        DatabaseManager databaseManager = open("chart.sqlite");
+        List<ListingData> listings = new ArrayList<>();
+        for (int i = 0; i < 90 * 24; i++) {
+            listings.add(pokemon("p" + i, "Gengar", false, 1_000 + i % 50, T0 + i * HOUR));
+        }
+        databaseManager.upsertListings(listings);
+
+        Instant from = Instant.ofEpochMilli(T0);
+        Instant to = from.plus(Duration.ofDays(90));
+        assertEquals(Resolution.DAY, Resolution.forRange(from, to, PriceHistoryDAO.DEFAULT_MAX_BUCKETS));
+        assertEquals(Resolution.HOUR, Resolution.forRange(from, from.plus(Duration.ofDays(7)), PriceHistoryDAO.DEFAULT_MAX_BUCKETS));
+        assertEquals(Resolution.MINUTE, Resolution.forRange(from, from.plus(Duration.ofHours(6)), PriceHistoryDAO.DEFAULT_MAX_BUCKETS));
+
+        List<PriceBucket> days = new PriceHistoryDAO(databaseManager.getReadDataSource()).getPokemonHistory("Gengar", false, from, to);
+        assertEquals(90, days.size());
+        assertEquals(24, days.get(0).volume());
+        assertEquals(90 * 24, days.stream().mapToInt(PriceBucket::volume).sum());
+
+        try (Connection conn = databaseManager.getReadDataSource().getConnection();
+             PreparedStatement ps = conn.prepareStatement("EXPLAIN QUERY PLAN " + PriceHistoryDAO.POKEMON_SERIES_SQL)) {
+            ps.setString(1, "Gengar");
+            ps.setInt(2, 0);
+            ps.setLong(3, DAY);
+            ps.setLong(4, T0);
+            ps.setLong(5, to.toEpochMilli());
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString("detail")).append('\n');
+                }
+            }
+            assertTrue(plan.toString().contains("SEARCH price_buckets USING PRIMARY KEY"), plan.toString());
+            assertFalse(plan.toString().contains("TEMP B-TREE"), plan.toString());
+        }
+        databaseManager.close();
+    }
+
+    private DatabaseManager open(String file) {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve(file).toAbsolutePath());
+        databaseManager.initialize();
+        return databaseManager;
+    }
+
+    private static List<String> dumpBuckets(String url) throws Exception {
+        List<String> rows = new ArrayList<>();
+        try (Connection conn = DriverManager.getConnection(url);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM price_buckets ORDER BY series_key, resolution_ms, bucket_start")) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                StringBuilder row = new StringBuilder();
+                for (int i = 1; i <= columns; i++) {
+                    row.append(rs.getString(i)).append('|');
+                }
+                rows.add(row.toString());
+            }
+        }
+        return rows;
+    }
+
+    private static PokemonListing pokemon(String id, String species, boolean shiny, int price, long firstSeen) {
+        PokemonListing listing = new PokemonListing();
+        listing.setSpecies(species);
+        listing.setShiny(shiny);
+        listing.setLevel(50);
+        return fill(listing, id, price, firstSeen);
+    }
+
+    private static ItemListing item(String id, String itemName, int quantity, int price, long firstSeen) {
+        ItemListing listing = new ItemListing();
+        listing.setItemName(itemName);
+        listing.setQuantity(quantity);
+        return fill(listing, id, price, firstSeen);
+    }
+
+    private static <T extends ListingData> T fill(T listing, String id, int price, long firstSeen) {
+        listing.setId(id);
+        listing.setSeller("Brock");
+        listing.setPrice(price);
+        listing.setStatus(ListingStatus.ACTIVE);
+        listing.setSourceFirst(DataSource.CHAT);
+        listing.setSourceLast(DataSource.CHAT);
+        listing.setFirstSeen(firstSeen);
+        listing.setLastSeen(firstSeen);
+        return listing;
+    }
+}
@@ -0,0 +1,131 @@
+package com.yourname.gtstracker.database;
+
+import com.yourname.gtstracker.database.models.DataSource;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.ListingStatus;
+import com.yourname.gtstracker.database.models.PokemonListing;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetentionCompactorTest {
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+    private static final long NOW = 20_000L * DAY;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void deletesExpiredRowsInBatchesKeepsDailyHistoryAndReclaimsSpace() throws Exception {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("retention.sqlite").toAbsolutePath());
+        databaseManager.initialize();
+        List<ListingData> listings = new ArrayList<>();
+        for (int i = 0; i < 1_500; i++) {
+            long seen = NOW - 120 * DAY + i * 60_000L;
+            listings.add(i % 2 == 0 ? pokemon("old-p" + i, "Gengar", seen) : item("old-i" + i, "Rare Candy", seen));
+        }
+        for (int i = 0; i < 20; i++) {
+            long seen = NOW - 3 * DAY + i * 60_000L;
+            listings.add(i % 2 == 0 ? pokemon("new-p" + i, "Gengar", seen) : item("new-i" + i, "Rare Candy", seen));
+        }
+        databaseManager.upsertListings(listings);
+
+        RetentionCompactor compactor = new RetentionCompactor(databaseManager.getWriteDataSource(), 90 * DAY, 64, () -> NOW);
+        RetentionCompactor.Report report = compactor.compact();
+
+        assertEquals(1_500, report.deletedListings());
+        assertEquals(1_500, report.deletedEvents());
+        assertTrue(report.reclaimedBytes() > 0, "Freed pages are returned to the file system");
+        assertEquals(report, compactor.getLastReport());
+        try (Connection conn = databaseManager.getReadDataSource().getConnection();
+             Statement stmt = conn.createStatement()) {
+            assertEquals(20, queryLong(stmt, "SELECT COUNT(*) FROM listings"));
+            assertEquals(10, queryLong(stmt, "SELECT COUNT(*) FROM pokemon_listings"), "Detail rows cascade");
+            assertEquals(10, queryLong(stmt, "SELECT COUNT(*) FROM item_listings"));
+            assertEquals(20, queryLong(stmt, "SELECT COUNT(*) FROM listing_events"), "Only events inside the window are kept");
+            assertEquals(0, queryLong(stmt, "SELECT COUNT(*) FROM price_buckets WHERE resolution_ms = 60000 AND bucket_start < " + (NOW - 7 * DAY)));
+            assertEquals(0, queryLong(stmt, "SELECT COUNT(*) FROM price_buckets WHERE resolution_ms = 3600000 AND bucket_start < " + (NOW - 90 * DAY)));
+            assertEquals(1_500, queryLong(stmt, "SELECT SUM(volume) FROM price_buckets WHERE resolution_ms = 86400000 AND bucket_start < " + (NOW - 90 * DAY)),
+                "Daily history of deleted listings is kept");
+            assertEquals(20, queryLong(stmt, "SELECT SUM(volume) FROM price_buckets WHERE resolution_ms = 60000"));
+            assertEquals(0, queryLong(stmt, "PRAGMA freelist_count"));
+        }
+        assertEquals(report.deletedBuckets(), 1_500 + countHourBucketsOfOldListings());
+
+        RetentionCompactor.Report second = compactor.compact();
+        assertEquals(0, second.deletedListings());
+        assertEquals(0, second.deletedEvents());
+        assertEquals(0, second.deletedBuckets());
+        databaseManager.close();
+    }
+
+    @Test
+    void existingDatabasesAreSwitchedToIncrementalVacuum() throws Exception {
+        String url = "jdbc:sqlite:" + tempDir.resolve("legacy.sqlite").toAbsolutePath();
+        try (Connection conn = DriverManager.getConnection(url);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS placeholder (id INTEGER)");
+            assertEquals(0, queryLong(stmt, "PRAGMA auto_vacuum"));
+        }
+
+        DatabaseManager databaseManager = new DatabaseManager(url);
+        databaseManager.initialize();
+        databaseManager.close();
+
+        try (Connection conn = DriverManager.getConnection(url);
+             Statement stmt = conn.createStatement()) {
+            assertEquals(2, queryLong(stmt, "PRAGMA auto_vacuum"));
+            assertEquals(DatabaseManager.SCHEMA_VERSION, queryLong(stmt, "PRAGMA user_version"));
+        }
+    }
+
+    /** Old listings are one minute apart, so 1,500 minutes span 25 hour buckets per series. */
+    private static int countHourBucketsOfOldListings() {
+        return 2 * 25;
+    }
+
+    private static long queryLong(Statement stmt, String sql) throws Exception {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static PokemonListing pokemon(String id, String species, long seen) {
+        PokemonListing listing = new PokemonListing();
+        listing.setSpecies(species);
+        listing.setLevel(50);
+        return fill(listing, id, seen);
+    }
+
+    private static ItemListing item(String id, String itemName, long seen) {
+        ItemListing listing = new ItemListing();
+        listing.setItemName(itemName);
+        listing.setQuantity(1);
+        return fill(listing, id, seen);
+    }
+
+    private static <T extends ListingData> T fill(T listing, String id, long seen) {
+        listing.setId(id);
+        listing.setSeller("Seller-" + "x".repeat(64) + id);
+        listing.setPrice(1_000);
+        listing.setStatus(ListingStatus.ACTIVE);
+        listing.setSourceFirst(DataSource.CHAT);
+        listing.setSourceLast(DataSource.CHAT);
+        listing.setFirstSeen(seen);
+        listing.setLastSeen(seen);
+        return listing;
+    }
+}
@@ -0,0 +1,134 @@
+package com.yourname.gtstracker.database;
+
+import com.yourname.gtstracker.database.models.DataSource;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqliteConnectionPoolTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void closingDaoConnectionsReturnsReadersWithoutClosingWriter() throws Exception {
+        DatabaseManager databaseManager = newDatabase("pool-reuse.sqlite");
+        databaseManager.upsertListing(item("item-1"));
+
+        ListingDAO listingDAO = new ListingDAO(databaseManager.getReadDataSource());
+        assertEquals(1, listingDAO.getActiveListingsCount());
+        assertEquals(1, listingDAO.getActiveListings(10, 0).size());
+
+        assertEquals(1, databaseManager.getReadDataSource().getOpenReaderCount());
+        assertEquals(1, databaseManager.getReadDataSource().getIdleReaderCount());
+        assertFalse(databaseManager.getConnection().isClosed());
+
+        databaseManager.upsertListing(item("item-2"));
+        assertEquals(2, listingDAO.getActiveListingsCount());
+        databaseManager.close();
+    }
+
+    @Test
+    void readersAreQueryOnly() throws Exception {
+        DatabaseManager databaseManager = newDatabase("pool-readonly.sqlite");
+
+        try (Connection reader = databaseManager.getReadDataSource().getConnection();
+             Statement stmt = reader.createStatement()) {
+            assertThrows(SQLException.class, () -> stmt.execute("DELETE FROM listings"));
+        }
+        databaseManager.close();
+    }
+
+    @Test
+    void readersSeeCommittedDataWhileWriterTransactionIsOpen() throws Exception {
+        DatabaseManager databaseManager = newDatabase("pool-concurrent.sqlite");
+        databaseManager.upsertListing(item("committed"));
+
+        try (Connection writer = databaseManager.getWriteDataSource().getConnection()) {
+            writer.setAutoCommit(false);
+            try (Statement stmt = writer.createStatement()) {
+                stmt.executeUpdate("UPDATE listings SET price = 1 WHERE id = 'committed'");
+            }
+
+            AtomicInteger observedPrice = new AtomicInteger(-1);
+            Thread reader = new Thread(() -> {
+                try (Connection connection = databaseManager.getReadDataSource().getConnection();
+                     Statement stmt = connection.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT price FROM listings WHERE id = 'committed'")) {
+                    rs.next();
+                    observedPrice.set(rs.getInt(1));
+                } catch (SQLException e) {
+                    observedPrice.set(-2);
+                }
+            });
+            reader.start();
+            reader.join(5_000L);
+            assertFalse(reader.isAlive());
+            assertEquals(1000, observedPrice.get());
+
+            writer.rollback();
+            writer.setAutoCommit(true);
+        }
+
+        assertTrue(databaseManager.getConnection() != null && !databaseManager.getConnection().isClosed());
+        databaseManager.close();
+    }
+
+    @Test
+    void totalCountReadsCommittedTotalsFromAReader() throws Exception {
+        DatabaseManager databaseManager = newDatabase("pool-count.sqlite");
+        databaseManager.upsertListing(item("committed"));
+
+        try (Connection writer = databaseManager.getWriteDataSource().getConnection()) {
+            writer.setAutoCommit(false);
+            try (Statement stmt = writer.createStatement()) {
+                stmt.executeUpdate("DELETE FROM listings");
+            }
+
+            AtomicInteger observedCount = new AtomicInteger(-1);
+            Thread reader = new Thread(() -> observedCount.set(databaseManager.getTotalListingsCount()));
+            reader.start();
+            reader.join(5_000L);
+            assertFalse(reader.isAlive(), "the count must not wait for the write lock");
+            assertEquals(1, observedCount.get());
+
+            writer.rollback();
+            writer.setAutoCommit(true);
+        }
+        databaseManager.close();
+    }
+
+    private DatabaseManager newDatabase(String fileName) {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve(fileName).toAbsolutePath());
+        databaseManager.initialize();
+        return databaseManager;
+    }
+
+    private static ItemListing item(String id) {
+        ItemListing listing = new ItemListing();
+        listing.setId(id);
+        listing.setSeller("Brock");
+        listing.setItemName("Master Ball");
+        listing.setQuantity(1);
+        listing.setPrice(1000);
+        listing.setStatus(ListingStatus.ACTIVE);
+        listing.setSourceFirst(DataSource.CHAT);
+        listing.setSourceLast(DataSource.CHAT);
+        listing.setFirstSeen(1000);
+        listing.setLastSeen(1000);
+        return listing;
+    }
+}
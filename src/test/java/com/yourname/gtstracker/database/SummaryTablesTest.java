@@ -0,0 +1,213 @@
+package com.yourname.gtstracker.database;
+
+import com.yourname.gtstracker.database.PriceHistoryDAO.LatestPrice;
+import com.yourname.gtstracker.database.models.DataSource;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.ListingStatus;
+import com.yourname.gtstracker.database.models.PokemonListing;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SummaryTablesTest {
+    private static final long MINUTE = 60_000L;
+    private static final long DAY = 86_400_000L;
+    private static final long T0 = 20_000L * DAY;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void countsFollowInsertsStatusChangesAndDeletes() throws Exception {
+        DatabaseManager databaseManager = open("counts.sqlite");
+        ListingDAO listingDAO = new ListingDAO(databaseManager.getReadDataSource());
+        databaseManager.upsertListings(List.of(
+            pokemon("p1", "Gengar", 100, T0),
+            pokemon("p2", "Gengar", 200, T0 + MINUTE),
+            pokemon("p3", "Gengar", 300, T0 + 10 * MINUTE),
+            item("i1", "Rare Candy", 1, 50, T0 + 5 * MINUTE)
+        ));
+
+        assertEquals(4, databaseManager.getTotalListingsCount());
+        assertEquals(4, listingDAO.getActiveListingsCount());
+        assertEquals(Optional.of(Instant.ofEpochMilli(T0 + 10 * MINUTE)), listingDAO.getMaxLastSeenForActiveListings());
+
+        new ListingDAO(databaseManager.getWriteDataSource())
+            .markMissingOrExpired(Instant.ofEpochMilli(T0 + 2 * MINUTE), Instant.ofEpochMilli(T0 + 2 * MINUTE));
+        assertEquals(2, listingDAO.getActiveListingsCount());
+        assertEquals(4, databaseManager.getTotalListingsCount());
+
+        try (Connection conn = databaseManager.getWriteDataSource().getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM listings WHERE id = 'p3'");
+        }
+        assertEquals(1, listingDAO.getActiveListingsCount());
+        assertEquals(Optional.of(Instant.ofEpochMilli(T0 + 5 * MINUTE)), listingDAO.getMaxLastSeenForActiveListings(),
+            "Deleting the newest listing recomputes the newest last_seen");
+
+        PokemonListing seenAgain = pokemon("p2", "Gengar", 200, T0 + MINUTE);
+        seenAgain.setLastSeen(T0 + 20 * MINUTE);
+        databaseManager.upsertListings(List.of(seenAgain));
+        assertEquals(3, databaseManager.getTotalListingsCount(), "Re-observations are not counted again");
+        assertEquals(expectedCounts(databaseManager), dumpCounts(databaseManager));
+        databaseManager.close();
+    }
+
+    @Test
+    void latestPriceFollowsTheNewestSighting() throws Exception {
+        DatabaseManager databaseManager = open("latest.sqlite");
+        PriceHistoryDAO dao = new PriceHistoryDAO(databaseManager.getReadDataSource());
+        databaseManager.upsertListings(List.of(
+            pokemon("p1", "Garchomp", 900, T0 + 2 * MINUTE),
+            pokemon("p2", "Garchomp", 500, T0),
+            item("i1", "Rare Candy", 4, 200, T0)
+        ));
+
+        assertEquals(Optional.of(new LatestPrice(900, T0 + 2 * MINUTE, "p1")), dao.getLatestPokemonPrice("garchomp", false));
+        assertEquals(Optional.of(new LatestPrice(50, T0, "i1")), dao.getLatestItemPrice("Rare Candy"), "Item prices are per unit");
+        assertEquals(Optional.empty(), dao.getLatestPokemonPrice("Garchomp", true));
+
+        PokemonListing seenAgain = pokemon("p2", "Garchomp", 450, T0);
+        seenAgain.setLastSeen(T0 + 5 * MINUTE);
+        databaseManager.upsertListings(List.of(seenAgain));
+        assertEquals(Optional.of(new LatestPrice(450, T0 + 5 * MINUTE, "p2")), dao.getLatestPokemonPrice("Garchomp", false));
+        databaseManager.close();
+    }
+
+    @Test
+    void rebuildRepairsDriftedSummaries() throws Exception {
+        DatabaseManager databaseManager = open("rebuild.sqlite");
+        databaseManager.upsertListings(sampleListings());
+        List<String> counts = dumpCounts(databaseManager);
+        List<String> prices = dumpLatestPrices(databaseManager);
+
+        try (Connection conn = databaseManager.getWriteDataSource().getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("UPDATE listing_counts SET listing_count = listing_count + 7, max_last_seen = 0");
+            stmt.execute("DELETE FROM latest_prices WHERE series_key LIKE 'I:%'");
+        }
+
+        assertEquals(300, databaseManager.rebuildSummaryTables());
+        assertEquals(counts, dumpCounts(databaseManager));
+        assertEquals(expectedCounts(databaseManager), counts);
+        assertEquals(prices, dumpLatestPrices(databaseManager));
+        databaseManager.close();
+    }
+
+    @Test
+    void migrationBuildsSummariesForExistingListings() throws Exception {
+        String url = "jdbc:sqlite:" + tempDir.resolve("migrate.sqlite").toAbsolutePath();
+        DatabaseManager incremental = new DatabaseManager(url);
+        incremental.initialize();
+        incremental.upsertListings(sampleListings());
+        List<String> counts = dumpCounts(incremental);
+        List<String> prices = dumpLatestPrices(incremental);
+        incremental.close();
+
+        try (Connection conn = DriverManager.getConnection(url);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM listing_counts");
+            stmt.execute("DELETE FROM latest_prices");
+            stmt.execute("PRAGMA user_version = 3");
+        }
+        DatabaseManager migrated = new DatabaseManager(url);
+        migrated.initialize();
+
+        assertEquals(counts, dumpCounts(migrated));
+        assertEquals(prices, dumpLatestPrices(migrated));
+        assertTrue(migrated.getTotalListingsCount() > 0);
+        migrated.close();
+    }
+
+    private DatabaseManager open(String file) {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve(file).toAbsolutePath());
+        databaseManager.initialize();
+        return databaseManager;
+    }
+
+    private static List<ListingData> sampleListings() {
+        List<ListingData> listings = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            PokemonListing pokemon = pokemon("p" + i, i % 3 == 0 ? "Gengar" : "Dragonite", 100 + (i * 37) % 500, T0 + i * 7 * MINUTE);
+            pokemon.setShiny(i % 5 == 0);
+            pokemon.setStatus(i % 4 == 0 ? ListingStatus.SOLD : ListingStatus.ACTIVE);
+            listings.add(pokemon);
+            listings.add(item("i" + i, i % 2 == 0 ? "Master Ball" : "Leftovers", 1 + i % 4, 1_000 + (i * 53) % 900, T0 + i * 11 * MINUTE));
+        }
+        return listings;
+    }
+
+    private static List<String> expectedCounts(DatabaseManager databaseManager) throws Exception {
+        return dump(databaseManager, """
+            SELECT status, listing_type, COUNT(*), MAX(last_seen)
+            FROM listings GROUP BY status, listing_type ORDER BY status, listing_type
+            """);
+    }
+
+    private static List<String> dumpCounts(DatabaseManager databaseManager) throws Exception {
+        return dump(databaseManager, """
+            SELECT status, listing_type, listing_count, max_last_seen
+            FROM listing_counts WHERE listing_count > 0 ORDER BY status, listing_type
+            """);
+    }
+
+    private static List<String> dumpLatestPrices(DatabaseManager databaseManager) throws Exception {
+        return dump(databaseManager, "SELECT * FROM latest_prices ORDER BY series_key");
+    }
+
+    private static List<String> dump(DatabaseManager databaseManager, String sql) throws Exception {
+        List<String> rows = new ArrayList<>();
+        try (Connection conn = databaseManager.getReadDataSource().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                StringBuilder row = new StringBuilder();
+                for (int i = 1; i <= columns; i++) {
+                    row.append(rs.getString(i)).append('|');
+                }
+                rows.add(row.toString());
+            }
+        }
+        return rows;
+    }
+
+    private static PokemonListing pokemon(String id, String species, int price, long seen) {
+        PokemonListing listing = new PokemonListing();
+        listing.setSpecies(species);
+        listing.setLevel(50);
+        return fill(listing, id, price, seen);
+    }
+
+    private static ItemListing item(String id, String itemName, int quantity, int price, long seen) {
+        ItemListing listing = new ItemListing();
+        listing.setItemName(itemName);
+        listing.setQuantity(quantity);
+        return fill(listing, id, price, seen);
+    }
+
+    private static <T extends ListingData> T fill(T listing, String id, int price, long seen) {
+        listing.setId(id);
+        listing.setSeller("Brock");
+        listing.setPrice(price);
+        listing.setStatus(ListingStatus.ACTIVE);
+        listing.setSourceFirst(DataSource.CHAT);
+        listing.setSourceLast(DataSource.CHAT);
+        listing.setFirstSeen(seen);
+        listing.setLastSeen(seen);
+        return listing;
+    }
+}
@@ -0,0 +1,54 @@
+package com.yourname.gtstracker.ingest;
+
+import com.yourname.gtstracker.database.DatabaseManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListingChangeBusTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void ingestionPublishesCommittedListingIds() {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("bus.sqlite").toAbsolutePath());
+        databaseManager.initialize();
+        ListingIngestionService ingestionService = new ListingIngestionService(databaseManager);
+
+        List<ListingChangeEvent> events = new ArrayList<>();
+        ListingChangeBus.Subscription subscription = ingestionService.getChangeBus().subscribe(events::add);
+
+        var listing = ingestionService.ingestChatMessage("[GTS] Ash listed Shiny Gengar Lv55 for $250000");
+        ingestionService.ingestChatMessage("normal chat");
+
+        assertTrue(listing.isPresent());
+        assertEquals(1, events.size());
+        assertEquals(List.of(listing.get().getId()), events.get(0).listingIds());
+
+        subscription.close();
+        ingestionService.ingestChatMessage("[GTS] Brock listed 3x Master Ball for $90000");
+        assertEquals(1, events.size());
+        assertEquals(0, ingestionService.getChangeBus().getSubscriberCount());
+    }
+
+    @Test
+    void failingListenerDoesNotBlockOthers() {
+        ListingChangeBus bus = new ListingChangeBus();
+        List<String> received = new ArrayList<>();
+        bus.subscribe(event -> {
+            throw new IllegalStateException("boom");
+        });
+        bus.subscribe(event -> received.addAll(event.listingIds()));
+
+        bus.publish(List.of("a", "b"));
+
+        assertEquals(List.of("a", "b"), received);
+    }
+}
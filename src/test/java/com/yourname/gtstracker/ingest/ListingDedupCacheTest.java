@@ -0,0 +1,76 @@
+package com.yourname.gtstracker.ingest;
+
+import com.yourname.gtstracker.database.DatabaseManager;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ListingDedupCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void repeatsWithinWindowAreHitsUntilSomethingChanges() {
+        ListingDedupCache cache = new ListingDedupCache(16, 60_000);
+
+        assertTrue(cache.shouldPersist(listing("a", 100, ListingStatus.ACTIVE, 1_000)));
+        assertFalse(cache.shouldPersist(listing("a", 100, ListingStatus.ACTIVE, 30_000)));
+        assertTrue(cache.shouldPersist(listing("a", 120, ListingStatus.ACTIVE, 31_000)), "price changed");
+        assertTrue(cache.shouldPersist(listing("a", 120, ListingStatus.SOLD, 32_000)), "status changed");
+        assertTrue(cache.shouldPersist(listing("a", 120, ListingStatus.SOLD, 92_000)), "last_seen moved past the window");
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    void isBoundedAndForgetsFailedWrites() {
+        ListingDedupCache cache = new ListingDedupCache(2, 60_000);
+        cache.shouldPersist(listing("a", 1, ListingStatus.ACTIVE, 0));
+        cache.shouldPersist(listing("b", 1, ListingStatus.ACTIVE, 0));
+        cache.shouldPersist(listing("c", 1, ListingStatus.ACTIVE, 0));
+        assertEquals(2, cache.size());
+        assertTrue(cache.shouldPersist(listing("a", 1, ListingStatus.ACTIVE, 1)), "eldest entry was evicted");
+
+        cache.forget(List.of("c"));
+        assertTrue(cache.shouldPersist(listing("c", 1, ListingStatus.ACTIVE, 2)));
+    }
+
+    @Test
+    void duplicateChatLinesOnlyUpsertOnce() {
+        DatabaseManager databaseManager = spy(new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("dedup.sqlite").toAbsolutePath()));
+        databaseManager.initialize();
+        ListingIngestionService service = new ListingIngestionService(databaseManager);
+
+        String line = "[GTS] Ash listed 3x Rare Candy for $900";
+        assertTrue(service.ingestChatMessage(line).isPresent());
+        assertTrue(service.ingestChatMessage(line).isPresent());
+
+        verify(databaseManager, times(1)).upsertListings(anyCollection());
+        assertEquals(1, service.getDedupCache().getHitCount());
+        databaseManager.close();
+    }
+
+    private static ItemListing listing(String id, int price, ListingStatus status, long lastSeen) {
+        ItemListing listing = new ItemListing();
+        listing.setId(id);
+        listing.setItemName("Rare Candy");
+        listing.setPrice(price);
+        listing.setStatus(status);
+        listing.setLastSeen(lastSeen);
+        return listing;
+    }
+}
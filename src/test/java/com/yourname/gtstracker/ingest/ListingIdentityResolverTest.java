@@ -0,0 +1,179 @@
+package com.yourname.gtstracker.ingest;
+
+import com.yourname.gtstracker.database.DatabaseManager;
+import com.yourname.gtstracker.database.ListingEventDAO;
+import com.yourname.gtstracker.database.ListingEventDAO.EventType;
+import com.yourname.gtstracker.database.ListingEventDAO.ListingEvent;
+import com.yourname.gtstracker.database.models.DataSource;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.ListingStatus;
+import com.yourname.gtstracker.database.models.PokemonListing;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListingIdentityResolverTest {
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:30Z");
+    private static final long WINDOW_MS = Duration.ofHours(72).toMillis();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void laterSightingsKeepTheIdAndFirstSeenOfTheListing() {
+        ListingIdentityResolver resolver = new ListingIdentityResolver(WINDOW_MS);
+        PokemonListing first = pokemon("Ash", "Gengar", 250_000);
+        resolver.resolve(first, T0);
+
+        PokemonListing again = pokemon(" ash ", "GENGAR", 250_000);
+        again.setLastSeen(T0.plus(Duration.ofMinutes(30)).toEpochMilli());
+        resolver.resolve(again, T0.plus(Duration.ofMinutes(30)));
+
+        assertEquals(first.getId(), again.getId());
+        assertEquals(T0.toEpochMilli(), again.getFirstSeen());
+        assertEquals(T0.plus(Duration.ofMinutes(30)).toEpochMilli(), again.getLastSeen());
+        assertEquals(1, resolver.getMatchedCount());
+        assertEquals(1, resolver.getMintedCount());
+
+        PokemonListing repriced = pokemon("Ash", "Gengar", 240_000);
+        resolver.resolve(repriced, T0.plus(Duration.ofMinutes(31)));
+        assertEquals(first.getId(), repriced.getId(), "A reprice is the same listing");
+        assertEquals(2, resolver.getMatchedCount());
+    }
+
+    @Test
+    void alikeListingsAtDifferentPricesMatchByPrice() {
+        ListingIdentityResolver resolver = new ListingIdentityResolver(WINDOW_MS);
+        PokemonListing cheap = pokemon("Ash", "Gengar", 200_000);
+        PokemonListing dear = pokemon("Ash", "Gengar", 300_000);
+        resolver.resolveAll(List.of(cheap, dear), T0);
+
+        PokemonListing cheapAgain = pokemon("Ash", "Gengar", 200_000);
+        resolver.resolve(cheapAgain, T0.plus(Duration.ofMinutes(5)));
+        assertEquals(cheap.getId(), cheapAgain.getId(), "The same price wins over the most recent sighting");
+    }
+
+    @Test
+    void chatRepricesUpdateTheRowAndRecordARepricedEvent() throws Exception {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("reprice.sqlite").toAbsolutePath());
+        databaseManager.initialize();
+        ListingIngestionService service = new ListingIngestionService(databaseManager);
+
+        String id = service.ingestChatMessage("[GTS] Ash listed Shiny Gengar Lv55 for $250000").orElseThrow().getId();
+        assertEquals(id, service.ingestChatMessage("[GTS] Ash listed Shiny Gengar Lv55 for $240000").orElseThrow().getId());
+
+        List<ListingEvent> history = new ListingEventDAO(databaseManager.getReadDataSource()).getHistory(id);
+        assertEquals(List.of(EventType.LISTED, EventType.REPRICED), history.stream().map(ListingEvent::type).toList());
+        assertEquals(240_000, history.get(1).price());
+        assertEquals(1, databaseManager.getTotalListingsCount());
+        try (Connection conn = databaseManager.getReadDataSource().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT SUM(volume), MIN(low) FROM price_buckets WHERE resolution_ms = 60000")) {
+            assertTrue(rs.next());
+            assertEquals(2, rs.getInt(1), "The reprice is rolled up as a second observation");
+            assertEquals(240_000, rs.getInt(2));
+        }
+        service.close();
+        databaseManager.close();
+    }
+
+    @Test
+    void retiredAndLongUnseenListingsAreNotMatched() {
+        ListingIdentityResolver resolver = new ListingIdentityResolver(WINDOW_MS);
+        ItemListing sold = item("Misty", "Rare Candy", 4, 800);
+        resolver.resolve(sold, T0);
+        resolver.retire(List.of(sold.getId()));
+        ItemListing relisted = item("Misty", "Rare Candy", 4, 800);
+        resolver.resolve(relisted, T0.plus(Duration.ofHours(1)));
+        assertNotEquals(sold.getId(), relisted.getId());
+
+        ItemListing muchLater = item("Misty", "Rare Candy", 4, 800);
+        resolver.resolve(muchLater, T0.plus(Duration.ofHours(1)).plusMillis(WINDOW_MS + 1));
+        assertNotEquals(relisted.getId(), muchLater.getId());
+        assertEquals(1, resolver.size());
+    }
+
+    @Test
+    void identicalListingsSeenTogetherKeepDistinctIds() {
+        ListingIdentityResolver resolver = new ListingIdentityResolver(WINDOW_MS);
+        List<ItemListing> firstScan = List.of(item("Brock", "Leftovers", 1, 500), item("Brock", "Leftovers", 1, 500));
+        resolver.resolveAll(firstScan, T0);
+        assertNotEquals(firstScan.get(0).getId(), firstScan.get(1).getId());
+
+        List<ItemListing> secondScan = List.of(
+            item("Brock", "Leftovers", 1, 500),
+            item("Brock", "Leftovers", 1, 500),
+            item("Brock", "Leftovers", 1, 500)
+        );
+        resolver.resolveAll(secondScan, T0.plus(Duration.ofMinutes(1)));
+        assertEquals(
+            List.of(firstScan.get(0).getId(), firstScan.get(1).getId()).stream().sorted().toList(),
+            secondScan.subList(0, 2).stream().map(ItemListing::getId).sorted().toList());
+        assertEquals(3, resolver.size(), "The third copy is a new listing");
+    }
+
+    @Test
+    void rebuildMatchesListingsStoredBeforeStartup() throws Exception {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("identity.sqlite").toAbsolutePath());
+        databaseManager.initialize();
+        Instant seen = Instant.now().minus(Duration.ofHours(2));
+        ListingIdentityResolver before = new ListingIdentityResolver(WINDOW_MS);
+        PokemonListing stored = stored(pokemon("Ash", "Gengar", 250_000), seen);
+        ItemListing storedItem = stored(item("Misty", "Rare Candy", 4, 800), seen);
+        before.resolve(stored, seen);
+        before.resolve(storedItem, seen);
+        databaseManager.upsertListings(List.of(stored, storedItem));
+
+        ListingIdentityResolver after = new ListingIdentityResolver(WINDOW_MS);
+        after.rebuild(databaseManager.getReadDataSource());
+        PokemonListing sighting = pokemon("Ash", "Gengar", 250_000);
+        ItemListing itemSighting = item("Misty", "Rare Candy", 4, 800);
+        after.resolve(sighting, Instant.now());
+        after.resolve(itemSighting, Instant.now());
+
+        assertEquals(stored.getId(), sighting.getId());
+        assertEquals(seen.toEpochMilli(), sighting.getFirstSeen());
+        assertEquals(storedItem.getId(), itemSighting.getId());
+        assertEquals(0, after.getMintedCount());
+        databaseManager.close();
+    }
+
+    private static PokemonListing pokemon(String seller, String species, int price) {
+        PokemonListing listing = new PokemonListing();
+        listing.setSeller(seller);
+        listing.setSpecies(species);
+        listing.setShiny(true);
+        listing.setLevel(55);
+        listing.setPrice(price);
+        return listing;
+    }
+
+    private static ItemListing item(String seller, String itemName, int quantity, int price) {
+        ItemListing listing = new ItemListing();
+        listing.setSeller(seller);
+        listing.setItemName(itemName);
+        listing.setQuantity(quantity);
+        listing.setPrice(price);
+        return listing;
+    }
+
+    private static <T extends ListingData> T stored(T listing, Instant seen) {
+        listing.setStatus(ListingStatus.ACTIVE);
+        listing.setSourceFirst(DataSource.CHAT);
+        listing.setSourceLast(DataSource.CHAT);
+        listing.setLastSeen(seen.toEpochMilli());
+        return listing;
+    }
+}
@@ -0,0 +1,94 @@
+package com.yourname.gtstracker.ingest;
+
+import com.yourname.gtstracker.config.ConfigModel;
+import com.yourname.gtstracker.ingest.ListingLifecycleEngine.Stage;
+import com.yourname.gtstracker.ingest.ListingLifecycleEngine.Transition;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListingLifecycleEngineTest {
+    private static final long MINUTE = 60_000L;
+    private static final long T0 = 1_767_225_600_000L;
+    private static final long STALE_MS = 72 * 60 * MINUTE;
+
+    @Test
+    void absenceMovesThroughUnknownAndMissingToSold() {
+        ListingLifecycleEngine engine = new ListingLifecycleEngine(
+            thresholds(1, 0, 2, 0, 3, 0, 100, 999), STALE_MS);
+        assertEquals(List.of(), engine.observeScan("GTS", Set.of("A"), T0));
+
+        assertEquals(List.of(new Transition("A", Stage.ACTIVE, Stage.UNKNOWN)), engine.observeScan("GTS", Set.of(), T0 + MINUTE));
+        List<Transition> missing = engine.observeScan("GTS", Set.of(), T0 + 2 * MINUTE);
+        assertEquals(List.of(new Transition("A", Stage.UNKNOWN, Stage.MISSING)), missing);
+        assertFalse(missing.get(0).changesStatus(), "Missing is stored as unknown");
+
+        List<Transition> sold = engine.observeScan("GTS", Set.of(), T0 + 3 * MINUTE);
+        assertEquals(List.of(new Transition("A", Stage.MISSING, Stage.SOLD)), sold);
+        assertTrue(sold.get(0).changesStatus());
+        assertNull(engine.getStage("A"), "Terminal listings are no longer tracked");
+        assertEquals(0, engine.size());
+    }
+
+    @Test
+    void expiredThresholdsWinOverSold() {
+        ListingLifecycleEngine engine = new ListingLifecycleEngine(
+            thresholds(1, 0, 1, 0, 10, 999, 2, 0), STALE_MS);
+        engine.observeScan("GTS", Set.of("B"), T0);
+
+        assertEquals(List.of(new Transition("B", Stage.ACTIVE, Stage.MISSING)), engine.observeScan("GTS", Set.of(), T0 + MINUTE));
+        assertEquals(List.of(new Transition("B", Stage.MISSING, Stage.EXPIRED)), engine.observeScan("GTS", Set.of(), T0 + 2 * MINUTE));
+    }
+
+    @Test
+    void minuteThresholdsHoldBackFastRescans() {
+        ListingLifecycleEngine engine = new ListingLifecycleEngine(new ConfigModel(), STALE_MS);
+        engine.observeScan("GTS", Set.of("C"), T0);
+        engine.observeScan("GTS", Set.of(), T0 + 1_000);
+        for (int scan = 2; scan <= 10; scan++) {
+            engine.observeScan("GTS", Set.of(), T0 + scan * 1_000);
+        }
+        assertEquals(Stage.UNKNOWN, engine.getStage("C"), "Ten scans in ten seconds are not five minutes");
+
+        List<Transition> later = engine.observeScan("GTS", Set.of(), T0 + 31 * MINUTE);
+        assertEquals(List.of(new Transition("C", Stage.UNKNOWN, Stage.SOLD)), later);
+    }
+
+    @Test
+    void sightingsElsewhereResetTheCount() {
+        ListingLifecycleEngine engine = new ListingLifecycleEngine(
+            thresholds(1, 0, 2, 0, 3, 0, 100, 999), STALE_MS);
+        engine.observeScan("GTS 1", Set.of("A", "B"), T0);
+        engine.observeScan("GTS 1", Set.of(), T0 + MINUTE);
+        engine.observeScan("GTS 1", Set.of(), T0 + 2 * MINUTE);
+
+        assertEquals(List.of(), engine.observeScan("GTS 2", Set.of("A", "X"), T0 + 3 * MINUTE), "A moved to page 2");
+        assertTrue(engine.seen("B", T0 + 3 * MINUTE));
+        assertEquals(Stage.ACTIVE, engine.getStage("A"));
+        assertEquals(Stage.ACTIVE, engine.getStage("B"));
+
+        List<Transition> page1 = engine.observeScan("GTS 1", Set.of(), T0 + 4 * MINUTE);
+        assertEquals(List.of(new Transition("B", Stage.ACTIVE, Stage.UNKNOWN)), page1, "Only listings of the scanned page miss it");
+        assertFalse(engine.seen("never-scanned", T0));
+    }
+
+    private static ConfigModel thresholds(int unknownScans, int unknownMinutes, int missingScans, int missingMinutes,
+                                          int soldScans, int soldMinutes, int expiredScans, int expiredMinutes) {
+        ConfigModel config = new ConfigModel();
+        config.unknownAfterScans = unknownScans;
+        config.unknownAfterMinutes = unknownMinutes;
+        config.missingAfterScans = missingScans;
+        config.missingAfterMinutes = missingMinutes;
+        config.soldAfterScans = soldScans;
+        config.soldAfterMinutes = soldMinutes;
+        config.expiredAfterScans = expiredScans;
+        config.expiredAfterMinutes = expiredMinutes;
+        return config;
+    }
+}
@@ -0,0 +1,178 @@
+package com.yourname.gtstracker.ingest;
+
+import com.yourname.gtstracker.database.DatabaseManager;
+import com.yourname.gtstracker.database.models.DataSource;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.ListingStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListingWriteQueueTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void closeFlushesQueuedListingsInBatches() throws Exception {
+        String jdbcUrl = "jdbc:sqlite:" + tempDir.resolve("write-queue.sqlite").toAbsolutePath();
+        DatabaseManager databaseManager = new DatabaseManager(jdbcUrl);
+        databaseManager.initialize();
+
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        ListingWriteQueue queue = new ListingWriteQueue(batch -> {
+            batchSizes.add(batch.size());
+            databaseManager.upsertListings(batch);
+        }, 1_000, 10, 5_000L, ListingWriteQueue.OverflowPolicy.DROP_NEWEST);
+
+        for (int i = 0; i < 25; i++) {
+            assertTrue(queue.enqueue(item("item-" + i)));
+        }
+        queue.close();
+
+        assertEquals(25, queue.getWrittenCount());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 10), "Batches must respect the configured size: " + batchSizes);
+        try (Statement stmt = databaseManager.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM item_listings")) {
+            rs.next();
+            assertEquals(25, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void statusChangesAreWrittenInQueueOrderWithListings() {
+        List<String> writes = Collections.synchronizedList(new ArrayList<>());
+        ListingWriteQueue queue = new ListingWriteQueue(
+            batch -> batch.forEach(listing -> writes.add("upsert " + listing.getId())),
+            statuses -> statuses.forEach((id, status) -> writes.add(status + " " + id)),
+            1_000, 10, 5_000L, ListingWriteQueue.OverflowPolicy.DROP_NEWEST);
+
+        assertTrue(queue.enqueue(item("a")));
+        assertTrue(queue.enqueueStatusChange("a", ListingStatus.UNKNOWN));
+        assertTrue(queue.enqueueStatusChange("b", ListingStatus.SOLD));
+        assertTrue(queue.enqueue(item("a")));
+        queue.close();
+
+        assertEquals(List.of("upsert a", "UNKNOWN a", "SOLD b", "upsert a"), writes);
+        assertEquals(4, queue.getWrittenCount());
+
+        ListingWriteQueue listingsOnly = new ListingWriteQueue(batch -> { }, 1, 1, 0L, null);
+        assertFalse(listingsOnly.enqueueStatusChange("a", ListingStatus.SOLD), "Without a status writer, status changes are rejected");
+        listingsOnly.close();
+    }
+
+    @Test
+    void dropNewestRejectsWhenWriterIsBehind() throws Exception {
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ListingWriteQueue queue = new ListingWriteQueue(batch -> {
+            writerBlocked.countDown();
+            awaitQuietly(release);
+        }, 2, 1, 0L, ListingWriteQueue.OverflowPolicy.DROP_NEWEST);
+
+        queue.enqueue(item("in-flight"));
+        assertTrue(writerBlocked.await(2, TimeUnit.SECONDS));
+
+        assertTrue(queue.enqueue(item("a")));
+        assertTrue(queue.enqueue(item("b")));
+        assertFalse(queue.enqueue(item("c")));
+        assertEquals(1, queue.getDroppedCount());
+
+        release.countDown();
+        queue.close();
+        assertEquals(3, queue.getWrittenCount());
+    }
+
+    @Test
+    void dropOldestKeepsNewestListings() throws Exception {
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> writtenIds = Collections.synchronizedList(new ArrayList<>());
+        ListingWriteQueue queue = new ListingWriteQueue(batch -> {
+            writerBlocked.countDown();
+            awaitQuietly(release);
+            batch.forEach(listing -> writtenIds.add(listing.getId()));
+        }, 2, 1, 0L, ListingWriteQueue.OverflowPolicy.DROP_OLDEST);
+
+        queue.enqueue(item("in-flight"));
+        assertTrue(writerBlocked.await(2, TimeUnit.SECONDS));
+
+        queue.enqueue(item("a"));
+        queue.enqueue(item("b"));
+        assertTrue(queue.enqueue(item("c")));
+
+        release.countDown();
+        queue.close();
+        assertEquals(List.of("in-flight", "b", "c"), writtenIds);
+        assertEquals(1, queue.getDroppedCount());
+    }
+
+    @Test
+    void everyAcceptedListingIsWrittenWhenCloseRacesProducers() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            AtomicLong writtenListings = new AtomicLong();
+            ListingWriteQueue queue = new ListingWriteQueue(batch -> writtenListings.addAndGet(batch.size()),
+                100_000, 16, 0L, ListingWriteQueue.OverflowPolicy.DROP_NEWEST);
+            CountDownLatch started = new CountDownLatch(4);
+            List<Thread> producers = new ArrayList<>();
+            for (int p = 0; p < 4; p++) {
+                int producer = p;
+                Thread thread = new Thread(() -> {
+                    started.countDown();
+                    for (int i = 0; i < 2_000 && !queue.isClosed(); i++) {
+                        queue.enqueue(item("p" + producer + "-" + i));
+                    }
+                });
+                thread.start();
+                producers.add(thread);
+            }
+
+            assertTrue(started.await(2, TimeUnit.SECONDS));
+            queue.close();
+            for (Thread producer : producers) {
+                producer.join(5_000L);
+            }
+
+            assertFalse(queue.isWriterRunning());
+            assertEquals(queue.getEnqueuedCount(), writtenListings.get(), "round " + round);
+            assertEquals(0, queue.getPendingCount());
+        }
+    }
+
+    private static ListingData item(String id) {
+        ItemListing listing = new ItemListing();
+        listing.setId(id);
+        listing.setSeller("Brock");
+        listing.setItemName("Master Ball");
+        listing.setQuantity(1);
+        listing.setPrice(1000);
+        listing.setStatus(ListingStatus.ACTIVE);
+        listing.setSourceFirst(DataSource.CHAT);
+        listing.setSourceLast(DataSource.CHAT);
+        listing.setFirstSeen(1000);
+        listing.setLastSeen(1000);
+        return listing;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.yourname.gtstracker.ingest;
+
+import com.yourname.gtstracker.database.DatabaseManager;
+import com.yourname.gtstracker.database.ListingEventDAO;
+import com.yourname.gtstracker.database.ListingEventDAO.EventType;
+import com.yourname.gtstracker.database.ListingEventDAO.ListingEvent;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.scan.ScreenScanDiffer;
+import com.yourname.gtstracker.scan.ScreenScanDiffer.ScanDiff;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScreenScanIngestionTest {
+    private static final long REFRESH_MS = Duration.ofMinutes(5).toMillis();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void listingsThatLeaveTheScreenAreUnknownUntilTheyReturn() throws Exception {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("scan.sqlite").toAbsolutePath());
+        databaseManager.initialize();
+        ListingIngestionService service = new ListingIngestionService(databaseManager);
+        ScreenScanDiffer differ = new ScreenScanDiffer(REFRESH_MS);
+        Instant t0 = Instant.now().minus(Duration.ofMinutes(10));
+
+        ScanDiff first = differ.diff("GTS", List.of(item("Brock", 500), item("Brock", 500), item("Misty", 800)), t0.toEpochMilli());
+        service.ingestScreenScan("GTS", first, t0);
+        List<String> ids = first.added().stream().map(ListingData::getId).toList();
+        assertEquals(3, ids.stream().distinct().count(), "Identical slots get their own rows");
+        assertEquals("active|screen|" + t0.toEpochMilli(), row(databaseManager, ids.get(2)));
+
+        Instant t1 = t0.plusSeconds(60);
+        ScanDiff second = differ.diff("GTS", List.of(item("Brock", 500), item("Brock", 500)), t1.toEpochMilli());
+        assertTrue(second.isEmpty(), "Nothing still on screen is written again");
+        assertEquals(ids.subList(0, 2), second.retainedIds());
+        service.ingestScreenScan("GTS", second, t1);
+        assertEquals("unknown|screen|" + t0.toEpochMilli(), row(databaseManager, ids.get(2)));
+
+        Instant t2 = t1.plusSeconds(60);
+        ScanDiff third = differ.diff("GTS", List.of(item("Brock", 500), item("Brock", 500), item("Misty", 800), item("Brock", 500)), t2.toEpochMilli());
+        service.ingestScreenScan("GTS", third, t2);
+        assertEquals(ids.get(2), third.added().get(0).getId(), "A returning listing keeps its row");
+        assertEquals("active|screen|" + t2.toEpochMilli(), row(databaseManager, ids.get(2)));
+        String newBrock = third.added().get(1).getId();
+        assertNotNull(newBrock);
+        assertTrue(ids.stream().noneMatch(newBrock::equals), "Listings still on screen are not matched twice");
+
+        service.close();
+        databaseManager.close();
+    }
+
+    @Test
+    void listingsMissingFromEnoughScansAreSoldAndNotMatchedAgain() throws Exception {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("sold.sqlite").toAbsolutePath());
+        databaseManager.initialize();
+        ListingIngestionService service = new ListingIngestionService(databaseManager);
+        ScreenScanDiffer differ = new ScreenScanDiffer(REFRESH_MS);
+        Instant t0 = Instant.now().minus(Duration.ofHours(1));
+
+        ScanDiff first = differ.diff("GTS", List.of(item("Brock", 500), item("Misty", 800)), t0.toEpochMilli());
+        service.ingestScreenScan("GTS", first, t0);
+        String sold = first.added().get(1).getId();
+        for (int minutes : new int[]{1, 31}) {
+            Instant at = t0.plus(Duration.ofMinutes(minutes));
+            service.ingestScreenScan("GTS", differ.diff("GTS", List.of(item("Brock", 500)), at.toEpochMilli()), at);
+            assertEquals("unknown|screen|" + t0.toEpochMilli(), row(databaseManager, sold));
+        }
+        Instant t3 = t0.plus(Duration.ofMinutes(32));
+        service.ingestScreenScan("GTS", differ.diff("GTS", List.of(item("Brock", 500)), t3.toEpochMilli()), t3);
+        assertEquals("sold|screen|" + t0.toEpochMilli(), row(databaseManager, sold));
+        assertEquals(List.of(EventType.LISTED, EventType.STATUS, EventType.STATUS),
+            new ListingEventDAO(databaseManager.getReadDataSource()).getHistory(sold).stream().map(ListingEvent::type).toList());
+
+        Instant t4 = t3.plus(Duration.ofMinutes(1));
+        ScanDiff relisted = differ.diff("GTS", List.of(item("Brock", 500), item("Misty", 800)), t4.toEpochMilli());
+        service.ingestScreenScan("GTS", relisted, t4);
+        assertNotEquals(sold, relisted.added().get(0).getId(), "A sold listing is not reopened by a relist");
+        assertEquals("sold|screen|" + t0.toEpochMilli(), row(databaseManager, sold));
+
+        service.close();
+        databaseManager.close();
+    }
+
+    private static String row(DatabaseManager databaseManager, String id) throws Exception {
+        try (Connection conn = databaseManager.getReadDataSource().getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT status, source_last, last_seen FROM listings WHERE id = ?")) {
+            ps.setString(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                assertTrue(rs.next());
+                return rs.getString(1) + '|' + rs.getString(2) + '|' + rs.getLong(3);
+            }
+        }
+    }
+
+    private static ItemListing item(String seller, int price) {
+        ItemListing listing = new ItemListing();
+        listing.setSeller(seller);
+        listing.setItemName("Leftovers");
+        listing.setQuantity(1);
+        listing.setPrice(price);
+        return listing;
+    }
+}
@@ -0,0 +1,90 @@
+package com.yourname.gtstracker.scan;
+
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.PokemonListing;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GTSSlotParserTest {
+
+    @Test
+    void parsesPokemonSlots() {
+        ListingData listing = GTSSlotParser.parse("Shiny Gengar", List.of(
+            "Seller: Ash",
+            "Price: $1,250,000",
+            "Lv. 55",
+            "IVs: 31/30/31/31/31/31",
+            "Nature: Timid",
+            "Ability: Cursed Body"
+        ));
+
+        PokemonListing pokemon = assertInstanceOf(PokemonListing.class, listing);
+        assertEquals("Gengar", pokemon.getSpecies());
+        assertTrue(pokemon.isShiny());
+        assertEquals(55, pokemon.getLevel());
+        assertEquals("Ash", pokemon.getSeller());
+        assertEquals(1_250_000, pokemon.getPrice());
+        assertEquals(185, pokemon.getTotalIVs());
+        assertEquals("Timid", pokemon.getNature());
+        assertEquals("Cursed Body", pokemon.getAbility());
+    }
+
+    @Test
+    void parsesItemSlotsWithQuantityPrefix() {
+        ListingData listing = GTSSlotParser.parse("16x Rare Candy", List.of("seller: Misty", "PRICE: 800 each"));
+
+        ItemListing item = assertInstanceOf(ItemListing.class, listing);
+        assertEquals("Rare Candy", item.getItemName());
+        assertEquals(16, item.getQuantity());
+        assertEquals(800, item.getPrice());
+
+        ItemListing single = assertInstanceOf(ItemListing.class,
+            GTSSlotParser.parse("Leftovers", List.of("Owner: Brock", "Cost: 500")));
+        assertEquals(1, single.getQuantity());
+    }
+
+    @Test
+    void ignoresSlotsThatAreNotListings() {
+        assertNull(GTSSlotParser.parse("Next Page", List.of("Click to continue")));
+        assertNull(GTSSlotParser.parse("Gengar", List.of("Seller: Ash", "Price: free")));
+        assertNull(GTSSlotParser.parse("Gengar", List.of("Price: 100", "Level: 5")));
+        assertNull(GTSSlotParser.parse("Gengar", List.of("Seller: Ash", "Price: 100", "Level: 120")));
+        assertEquals(-1, GTSSlotParser.parseNumber("99999999999"));
+        assertEquals(1_000, GTSSlotParser.parseNumber(" $1,000"));
+    }
+
+    @Test
+    void recognisesGtsScreenTitles() {
+        assertTrue(GTSSlotParser.isGtsTitle("GTS - Page 2"));
+        assertTrue(GTSSlotParser.isGtsTitle("Global Trade (gts)"));
+        assertFalse(GTSSlotParser.isGtsTitle("Chest"));
+        assertFalse(GTSSlotParser.isGtsTitle(null));
+    }
+
+    @Test
+    void pageKeysTellPagesWithTheSameTitleApart() {
+        GTSSlotParser.Control previous = new GTSSlotParser.Control(45, "Previous Page", List.of("Go to page 1"));
+        GTSSlotParser.Control next = new GTSSlotParser.Control(53, "Next Page", List.of("Go to page 3"));
+        GTSSlotParser.Control filler = new GTSSlotParser.Control(46, " ", List.of());
+
+        assertEquals("GTS - Page 2", GTSSlotParser.pageKey("GTS - Page 2", List.of(previous, next)));
+        assertEquals("GTS #page 2", GTSSlotParser.pageKey("GTS",
+            List.of(previous, new GTSSlotParser.Control(49, "Page 2", List.of()), next)));
+        assertEquals("GTS #page 4", GTSSlotParser.pageKey("GTS",
+            List.of(previous, new GTSSlotParser.Control(49, "Info", List.of("Page: 4 of 9")), next)));
+
+        String first = GTSSlotParser.pageKey("GTS", List.of(filler, next));
+        String middle = GTSSlotParser.pageKey("GTS", List.of(previous, filler, next));
+        assertEquals("GTS # 53=Next Page", first);
+        assertFalse(first.equals(middle));
+        assertEquals(middle, GTSSlotParser.pageKey("GTS", List.of(previous, filler, next)));
+    }
+}
@@ -0,0 +1,119 @@
+package com.yourname.gtstracker.scan;
+
+import com.yourname.gtstracker.database.models.IVStats;
+import com.yourname.gtstracker.database.models.ItemListing;
+import com.yourname.gtstracker.database.models.ListingData;
+import com.yourname.gtstracker.database.models.PokemonListing;
+import com.yourname.gtstracker.scan.ScreenScanDiffer.ScanDiff;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScreenScanDifferTest {
+    private static final long REFRESH_MS = 300_000L;
+    private static final long T0 = 1_700_000_000_000L;
+
+    @Test
+    void repeatedScansOnlyReportWhatChanged() {
+        ScreenScanDiffer differ = new ScreenScanDiffer(REFRESH_MS);
+        ScanDiff first = differ.diff("GTS", List.of(item("Brock", "Leftovers", 500), pokemon("Ash", "Gengar", 1_000, 31)), T0);
+        assertEquals(2, first.added().size());
+        assertTrue(first.changed().isEmpty() && first.retainedIds().isEmpty());
+        assignIds(first.added());
+
+        ScanDiff unchanged = differ.diff("GTS", List.of(item("Brock", "Leftovers", 500), pokemon("Ash", "Gengar", 1_000, 31)), T0 + 1_000);
+        assertTrue(unchanged.isEmpty());
+        assertEquals(List.of("id-0", "id-1"), unchanged.retainedIds());
+
+        PokemonListing retrained = pokemon("Ash", "Gengar", 1_000, 30);
+        ItemListing relisted = item("Misty", "Rare Candy", 800);
+        ScanDiff next = differ.diff("GTS", List.of(retrained, relisted), T0 + 2_000);
+        assertEquals(List.of(relisted), next.added());
+        assertEquals(List.of(retrained), next.changed());
+        assertEquals("id-1", retrained.getId(), "A changed listing keeps its id");
+        assertEquals(T0, retrained.getFirstSeen());
+        assertEquals(List.of("id-1"), next.retainedIds(), "The Leftovers listing is gone");
+    }
+
+    @Test
+    void repricedListingsAreChangesThatKeepTheirId() {
+        ScreenScanDiffer differ = new ScreenScanDiffer(REFRESH_MS);
+        assignIds(differ.diff("GTS", List.of(item("Brock", "Leftovers", 500)), T0).added());
+
+        ItemListing repriced = item("Brock", "Leftovers", 450);
+        ScanDiff next = differ.diff("GTS", List.of(repriced), T0 + 1_000);
+        assertEquals(List.of(repriced), next.changed());
+        assertTrue(next.added().isEmpty());
+        assertEquals(List.of("id-0"), next.retainedIds());
+        assertEquals("id-0", repriced.getId());
+    }
+
+    @Test
+    void identicalSlotsAreTrackedSeparately() {
+        ScreenScanDiffer differ = new ScreenScanDiffer(REFRESH_MS);
+        ScanDiff first = differ.diff("GTS", List.of(item("Brock", "Leftovers", 500), item("Brock", "Leftovers", 500)), T0);
+        assertEquals(2, first.added().size());
+        assignIds(first.added());
+
+        ScanDiff fewer = differ.diff("GTS", List.of(item("Brock", "Leftovers", 500)), T0 + 1_000);
+        assertTrue(fewer.added().isEmpty());
+        assertEquals(List.of("id-0"), fewer.retainedIds());
+    }
+
+    @Test
+    void unchangedListingsAreResentOncePerRefreshInterval() {
+        ScreenScanDiffer differ = new ScreenScanDiffer(REFRESH_MS);
+        assignIds(differ.diff("GTS", List.of(item("Brock", "Leftovers", 500)), T0).added());
+
+        assertTrue(differ.diff("GTS", List.of(item("Brock", "Leftovers", 500)), T0 + REFRESH_MS - 1).isEmpty());
+        ItemListing heartbeat = item("Brock", "Leftovers", 500);
+        assertEquals(List.of(heartbeat), differ.diff("GTS", List.of(heartbeat), T0 + REFRESH_MS).changed());
+        assertTrue(differ.diff("GTS", List.of(item("Brock", "Leftovers", 500)), T0 + REFRESH_MS + 1).isEmpty());
+    }
+
+    @Test
+    void pagesAreDiffedIndependentlyAndUnresolvedSlotsStayNew() {
+        ScreenScanDiffer differ = new ScreenScanDiffer(REFRESH_MS);
+        ItemListing unresolved = item("Brock", "Leftovers", 500);
+        differ.diff("GTS 1", List.of(unresolved), T0);
+
+        ScanDiff otherPage = differ.diff("GTS 2", List.of(item("Misty", "Rare Candy", 800)), T0 + 1_000);
+        assertEquals(1, otherPage.added().size());
+        assertTrue(otherPage.retainedIds().isEmpty());
+
+        ScanDiff again = differ.diff("GTS 1", List.of(), T0 + 2_000);
+        assertTrue(again.isEmpty() && again.retainedIds().isEmpty());
+        ItemListing back = item("Brock", "Leftovers", 500);
+        assertSame(back, differ.diff("GTS 1", List.of(back), T0 + 3_000).added().get(0));
+    }
+
+    private static void assignIds(List<ListingData> listings) {
+        for (int i = 0; i < listings.size(); i++) {
+            listings.get(i).setId("id-" + i);
+            listings.get(i).setFirstSeen(T0);
+        }
+    }
+
+    private static ItemListing item(String seller, String itemName, int price) {
+        ItemListing listing = new ItemListing();
+        listing.setSeller(seller);
+        listing.setItemName(itemName);
+        listing.setQuantity(1);
+        listing.setPrice(price);
+        return listing;
+    }
+
+    private static PokemonListing pokemon(String seller, String species, int price, int hpIv) {
+        PokemonListing listing = new PokemonListing();
+        listing.setSeller(seller);
+        listing.setSpecies(species);
+        listing.setLevel(50);
+        listing.setPrice(price);
+        listing.setIvs(new IVStats(hpIv, 31, 31, 31, 31, 31));
+        return listing;
+    }
+}